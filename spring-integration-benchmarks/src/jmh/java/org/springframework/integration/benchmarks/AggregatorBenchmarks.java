@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.aggregator.AggregatingMessageHandler;
+import org.springframework.integration.aggregator.DefaultAggregatingMessageGroupProcessor;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * Aggregation of complete sequences through an {@link AggregatingMessageHandler} backed by
+ * a {@link SimpleMessageStore}; the score is per aggregated message.
+ * Groups are removed on completion, so the same correlation keys are reused by each invocation.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(AggregatorBenchmarks.MESSAGES_PER_INVOCATION)
+public class AggregatorBenchmarks {
+
+	static final int MESSAGES_PER_INVOCATION = 1000;
+
+	@Param({ "10", "100", "1000" })
+	public int sequenceSize;
+
+	private AggregatingMessageHandler handler;
+
+	private Message<?>[] messages;
+
+	@Setup
+	public void setup() {
+		this.handler = new AggregatingMessageHandler(new DefaultAggregatingMessageGroupProcessor(),
+				new SimpleMessageStore());
+		this.handler.setOutputChannel(new NullChannel());
+		this.handler.setExpireGroupsUponCompletion(true);
+		this.handler.afterPropertiesSet();
+		this.messages = new Message<?>[MESSAGES_PER_INVOCATION];
+		for (int i = 0; i < MESSAGES_PER_INVOCATION; i++) {
+			this.messages[i] = MessageBuilder.withPayload(i)
+					.setCorrelationId(i / this.sequenceSize)
+					.setSequenceNumber(i % this.sequenceSize + 1)
+					.setSequenceSize(this.sequenceSize)
+					.build();
+		}
+	}
+
+	@Benchmark
+	public void aggregate() {
+		for (Message<?> message : this.messages) {
+			this.handler.handleMessage(message);
+		}
+	}
+
+}
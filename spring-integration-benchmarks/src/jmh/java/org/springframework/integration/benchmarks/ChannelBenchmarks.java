@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.channel.RingBufferChannel;
+import org.springframework.integration.channel.interceptor.WireTap;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * Send/receive throughput for the core {@link org.springframework.messaging.MessageChannel}
+ * implementations.
+ * <p>
+ * The {@code interceptors} parameter adds a {@link WireTap} to a {@link NullChannel}
+ * in front of each channel, so the cost of the interceptor stack is visible in the
+ * {@code gc.alloc.rate.norm} figures; {@code countsEnabled} enables the channel send
+ * counters. With neither, a {@link DirectChannel} send is expected to allocate nothing.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChannelBenchmarks {
+
+	private static final Message<String> MESSAGE = new GenericMessage<>("benchmark");
+
+	@Param({ "false", "true" })
+	public boolean interceptors;
+
+	@Param({ "false", "true" })
+	public boolean countsEnabled;
+
+	private DirectChannel directChannel;
+
+	private ExecutorChannel executorChannel;
+
+	private PublishSubscribeChannel publishSubscribeChannel;
+
+	private QueueChannel queueChannel;
+
+	private RingBufferChannel ringBufferChannel;
+
+	private ThreadPoolExecutor executor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.directChannel = new DirectChannel();
+		this.directChannel.subscribe(message -> { });
+		this.directChannel.afterPropertiesSet();
+
+		this.executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1024),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		this.executorChannel = new ExecutorChannel(this.executor);
+		this.executorChannel.subscribe(message -> { });
+		this.executorChannel.afterPropertiesSet();
+
+		this.publishSubscribeChannel = new PublishSubscribeChannel();
+		this.publishSubscribeChannel.subscribe(message -> { });
+		this.publishSubscribeChannel.subscribe(message -> { });
+		this.publishSubscribeChannel.afterPropertiesSet();
+
+		this.queueChannel = new QueueChannel(1024);
+		this.queueChannel.afterPropertiesSet();
+
+		this.ringBufferChannel = new RingBufferChannel(1024);
+		this.ringBufferChannel.afterPropertiesSet();
+
+		if (this.interceptors) {
+			WireTap wireTap = new WireTap(new NullChannel());
+			this.directChannel.addInterceptor(wireTap);
+			this.executorChannel.addInterceptor(wireTap);
+			this.publishSubscribeChannel.addInterceptor(wireTap);
+			this.queueChannel.addInterceptor(wireTap);
+			this.ringBufferChannel.addInterceptor(wireTap);
+		}
+		this.directChannel.setCountsEnabled(this.countsEnabled);
+		this.executorChannel.setCountsEnabled(this.countsEnabled);
+		this.publishSubscribeChannel.setCountsEnabled(this.countsEnabled);
+		this.queueChannel.setCountsEnabled(this.countsEnabled);
+		this.ringBufferChannel.setCountsEnabled(this.countsEnabled);
+	}
+
+	@TearDown(Level.Iteration)
+	public void drainQueue() {
+		this.queueChannel.clear();
+		this.ringBufferChannel.clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Benchmark
+	public boolean directChannelSend() {
+		return this.directChannel.send(MESSAGE);
+	}
+
+	@Benchmark
+	public boolean executorChannelSend() {
+		return this.executorChannel.send(MESSAGE);
+	}
+
+	@Benchmark
+	public boolean publishSubscribeChannelSend() {
+		return this.publishSubscribeChannel.send(MESSAGE);
+	}
+
+	@Benchmark
+	public Message<?> queueChannelSendReceive() {
+		this.queueChannel.send(MESSAGE);
+		return this.queueChannel.receive(0);
+	}
+
+	@Benchmark
+	public Message<?> ringBufferChannelSendReceive() {
+		this.ringBufferChannel.send(MESSAGE);
+		return this.ringBufferChannel.receive(0);
+	}
+
+	@Benchmark
+	@Group("queueChannelContended")
+	@GroupThreads(2)
+	public boolean queueChannelProducer() {
+		return this.queueChannel.send(MESSAGE, 10);
+	}
+
+	@Benchmark
+	@Group("queueChannelContended")
+	@GroupThreads(2)
+	public void queueChannelConsumer(Blackhole blackhole) {
+		blackhole.consume(this.queueChannel.receive(10));
+	}
+
+	@Benchmark
+	@Group("ringBufferChannelContended")
+	@GroupThreads(2)
+	public boolean ringBufferChannelProducer() {
+		return this.ringBufferChannel.send(MESSAGE, 10);
+	}
+
+	@Benchmark
+	@Group("ringBufferChannelContended")
+	@GroupThreads(2)
+	public void ringBufferChannelConsumer(Blackhole blackhole) {
+		blackhole.consume(this.ringBufferChannel.receive(10));
+	}
+
+}
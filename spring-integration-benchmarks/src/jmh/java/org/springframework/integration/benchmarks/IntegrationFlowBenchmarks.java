@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.config.EnableIntegration;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.IntegrationFlows;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * End-to-end cost of a multi-step {@link IntegrationFlow} built with the Java DSL, where
+ * every step is wired through an implicit {@code DirectChannel}.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IntegrationFlowBenchmarks {
+
+	private static final Message<String> MESSAGE = new GenericMessage<>("benchmark");
+
+	private AnnotationConfigApplicationContext context;
+
+	private MessageChannel input;
+
+	@Setup
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(FlowConfiguration.class);
+		this.input = this.context.getBean("benchmarkFlow.input", MessageChannel.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public boolean flow() {
+		return this.input.send(MESSAGE);
+	}
+
+	@Configuration
+	@EnableIntegration
+	public static class FlowConfiguration {
+
+		@Bean
+		public IntegrationFlow benchmarkFlow() {
+			return f -> f
+					.<String, String>transform(String::toUpperCase)
+					.<String>filter(p -> !p.isEmpty())
+					.enrichHeaders(h -> h.header("step", "enriched"))
+					.<String, Integer>transform(String::length)
+					.<Integer>handle((p, h) -> p + 1)
+					.bridge()
+					.handle(m -> { });
+		}
+
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.support.DefaultMessageBuilderFactory;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.MessageBuilderFactory;
+import org.springframework.integration.support.MutableMessageBuilderFactory;
+import org.springframework.messaging.Message;
+
+/**
+ * Cost of building messages and copying headers with the {@link MessageBuilderFactory}
+ * implementations; {@code headerCount} controls the size of the copied header map.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageBuilderBenchmarks {
+
+	@Param({ "2", "10", "30" })
+	public int headerCount;
+
+	private final MessageBuilderFactory defaultFactory = new DefaultMessageBuilderFactory();
+
+	private final MessageBuilderFactory mutableFactory = new MutableMessageBuilderFactory();
+
+	private Message<String> message;
+
+	private Map<String, Object> headers;
+
+	@Setup
+	public void setup() {
+		this.headers = new HashMap<>();
+		for (int i = 0; i < this.headerCount; i++) {
+			this.headers.put("header" + i, "value" + i);
+		}
+		this.message = MessageBuilder.withPayload("benchmark").copyHeaders(this.headers).build();
+	}
+
+	@Benchmark
+	public Message<String> withPayload() {
+		return this.defaultFactory.withPayload("benchmark").build();
+	}
+
+	@Benchmark
+	public Message<String> copyHeaders() {
+		return this.defaultFactory.withPayload("benchmark").copyHeaders(this.headers).build();
+	}
+
+	@Benchmark
+	public Message<String> fromMessageAddHeader() {
+		return this.defaultFactory.fromMessage(this.message).setHeader("extra", "value").build();
+	}
+
+	@Benchmark
+	public Message<String> fromMessageUnchanged() {
+		return this.defaultFactory.fromMessage(this.message).build();
+	}
+
+	@Benchmark
+	public Message<String> mutableFromMessageAddHeader() {
+		return this.mutableFactory.fromMessage(this.message).setHeader("extra", "value").build();
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.history.MessageHistory;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.messaging.Message;
+
+/**
+ * Cost of tracking {@link MessageHistory} along a flow of {@code hops} components.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageHistoryBenchmarks {
+
+	@Param({ "5", "20", "50" })
+	public int hops;
+
+	private NamedComponent[] components;
+
+	private Message<String> message;
+
+	@Setup
+	public void setup() {
+		this.components = new NamedComponent[this.hops];
+		for (int i = 0; i < this.hops; i++) {
+			String name = "component" + i;
+			this.components[i] = new NamedComponent() {
+
+				@Override
+				public String getComponentName() {
+					return name;
+				}
+
+				@Override
+				public String getComponentType() {
+					return "service-activator";
+				}
+
+			};
+		}
+		this.message = MessageBuilder.withPayload("benchmark").build();
+	}
+
+	@Benchmark
+	public Message<String> writeHistory() {
+		Message<String> message = this.message;
+		for (NamedComponent component : this.components) {
+			message = MessageHistory.write(message, component);
+		}
+		return message;
+	}
+
+	@Benchmark
+	public int writeAndReadHistory() {
+		return MessageHistory.read(writeHistory()).get(0).size();
+	}
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.integration.codec.kryo.MessageStoreCodec;
+import org.springframework.integration.store.MessageHolder;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.json.JacksonJsonUtils;
+import org.springframework.messaging.Message;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes and reads of the {@link MessageHolder} values persisted by the key-value
+ * message stores, comparing Java serialization (the default of the JDBC, Redis and
+ * Mongo stores), the Kryo {@link MessageStoreCodec} and Jackson JSON (as used with a
+ * {@code GenericJackson2JsonRedisSerializer}). The values are kept in a map, so the
+ * score is the cost of the format rather than of a database round trip; the
+ * {@code storedBytes} counter reports the size of one stored value.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageStoreSerializationBenchmarks {
+
+	@Param({ "JAVA", "KRYO", "JSON" })
+	public Format format;
+
+	@Param({ "STRING", "POJO" })
+	public PayloadType payload;
+
+	private final Map<UUID, byte[]> store = new ConcurrentHashMap<>();
+
+	private Function<Object, byte[]> encoder;
+
+	private Function<byte[], Object> decoder;
+
+	private MessageHolder holder;
+
+	private byte[] stored;
+
+	@Setup
+	public void setup() {
+		switch (this.format) {
+			case JAVA:
+				SerializingConverter serializingConverter = new SerializingConverter();
+				DeserializingConverter deserializingConverter = new DeserializingConverter();
+				this.encoder = serializingConverter::convert;
+				this.decoder = deserializingConverter::convert;
+				break;
+			case KRYO:
+				MessageStoreCodec codec = new MessageStoreCodec();
+				this.encoder = object -> {
+					try {
+						return codec.encode(object);
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				};
+				this.decoder = bytes -> {
+					try {
+						return codec.decode(bytes, Object.class);
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				};
+				break;
+			case JSON:
+				ObjectMapper mapper = JacksonJsonUtils.messagingAwareMapper("org.springframework.integration.benchmarks");
+				this.encoder = object -> {
+					try {
+						return mapper.writeValueAsBytes(object);
+					}
+					catch (JsonProcessingException e) {
+						throw new IllegalStateException(e);
+					}
+				};
+				this.decoder = bytes -> {
+					try {
+						return mapper.readValue(bytes, Object.class);
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				};
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown format: " + this.format);
+		}
+
+		Object messagePayload = this.payload == PayloadType.STRING
+				? "The quick brown fox jumps over the lazy dog"
+				: new Order(42L, "ACME Corporation", 1234.56d);
+		Message<?> message = MessageBuilder.withPayload(messagePayload)
+				.setCorrelationId("orders")
+				.setSequenceNumber(1)
+				.setSequenceSize(10)
+				.setHeader("customer", "ACME Corporation")
+				.build();
+		this.holder = new MessageHolder(message);
+		this.stored = this.encoder.apply(this.holder);
+	}
+
+	@Benchmark
+	public void write(StoredBytes storedBytes) {
+		byte[] bytes = this.encoder.apply(this.holder);
+		this.store.put(this.holder.getMessageMetadata().getMessageId(), bytes);
+		storedBytes.storedBytes = bytes.length;
+	}
+
+	@Benchmark
+	public Object read() {
+		return this.decoder.apply(this.stored);
+	}
+
+	public enum Format {
+
+		JAVA, KRYO, JSON
+
+	}
+
+	public enum PayloadType {
+
+		STRING, POJO
+
+	}
+
+	/**
+	 * Reports the size of the last stored value.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class StoredBytes {
+
+		public long storedBytes;
+
+	}
+
+	/**
+	 * A typical domain payload.
+	 */
+	public static class Order implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private long id;
+
+		private String customer;
+
+		private double amount;
+
+		private List<String> lines = new ArrayList<>();
+
+		public Order() {
+		}
+
+		Order(long id, String customer, double amount) {
+			this.id = id;
+			this.customer = customer;
+			this.amount = amount;
+			for (int i = 0; i < 5; i++) {
+				this.lines.add("SKU-" + (1000 + i));
+			}
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getCustomer() {
+			return this.customer;
+		}
+
+		public void setCustomer(String customer) {
+			this.customer = customer;
+		}
+
+		public double getAmount() {
+			return this.amount;
+		}
+
+		public void setAmount(double amount) {
+			this.amount = amount;
+		}
+
+		public List<String> getLines() {
+			return this.lines;
+		}
+
+		public void setLines(List<String> lines) {
+			this.lines = lines;
+		}
+
+	}
+
+}
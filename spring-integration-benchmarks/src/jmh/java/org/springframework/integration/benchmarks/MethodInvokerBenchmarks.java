@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.annotation.UseSpelInvoker;
+import org.springframework.integration.handler.support.MessagingMethodInvokerHelper;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
+
+/**
+ * Per-call dispatch cost of {@link MessagingMethodInvokerHelper} for the common
+ * service method shapes, through the {@code InvocableHandlerMethod}, the SpEL invoker
+ * and, with {@code direct}, the {@code MethodHandle} invoker.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MethodInvokerBenchmarks {
+
+	@Param({ "false", "true" })
+	public boolean direct;
+
+	private final Message<String> message =
+			MessageBuilder.withPayload("benchmark")
+					.setHeader("count", 42)
+					.build();
+
+	private MessagingMethodInvokerHelper<Object> payloadInvoker;
+
+	private MessagingMethodInvokerHelper<Object> headerInvoker;
+
+	private MessagingMethodInvokerHelper<Object> messageInvoker;
+
+	private MessagingMethodInvokerHelper<Object> spelInvoker;
+
+	private MessagingMethodInvokerHelper<Object> multiMethodInvoker;
+
+	@Setup
+	public void setup() {
+		Service service = new Service();
+		this.payloadInvoker = new MessagingMethodInvokerHelper<>(service, "payload", false);
+		this.headerInvoker = new MessagingMethodInvokerHelper<>(service, "payloadAndHeader", false);
+		this.messageInvoker = new MessagingMethodInvokerHelper<>(service, "message", false);
+		this.spelInvoker = new MessagingMethodInvokerHelper<>(service, "spel", false);
+		this.multiMethodInvoker = new MessagingMethodInvokerHelper<>(new MultiMethodService(),
+				ServiceActivator.class, false);
+		this.payloadInvoker.setUseDirectInvoker(this.direct);
+		this.headerInvoker.setUseDirectInvoker(this.direct);
+		this.messageInvoker.setUseDirectInvoker(this.direct);
+		this.multiMethodInvoker.setUseDirectInvoker(this.direct);
+	}
+
+	@Benchmark
+	public Object payload() throws Exception {
+		return this.payloadInvoker.process(this.message);
+	}
+
+	@Benchmark
+	public Object payloadAndHeader() throws Exception {
+		return this.headerInvoker.process(this.message);
+	}
+
+	@Benchmark
+	public Object message() throws Exception {
+		return this.messageInvoker.process(this.message);
+	}
+
+	@Benchmark
+	public Object spel() throws Exception {
+		return this.spelInvoker.process(this.message);
+	}
+
+	@Benchmark
+	public Object multiMethod() throws Exception {
+		return this.multiMethodInvoker.process(this.message);
+	}
+
+	public static class Service {
+
+		public String payload(String payload) {
+			return payload;
+		}
+
+		public String payloadAndHeader(String payload, @Header("count") int count) {
+			return payload;
+		}
+
+		public Object message(Message<?> message) {
+			return message.getPayload();
+		}
+
+		@UseSpelInvoker
+		public String spel(String payload) {
+			return payload;
+		}
+
+	}
+
+	public static class MultiMethodService {
+
+		@ServiceActivator
+		public String string(String payload) {
+			return payload;
+		}
+
+		@ServiceActivator
+		public Integer integer(Integer payload) {
+			return payload;
+		}
+
+	}
+
+}
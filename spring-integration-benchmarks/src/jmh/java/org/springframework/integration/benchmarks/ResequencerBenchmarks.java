@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.integration.aggregator.ResequencingMessageGroupProcessor;
+import org.springframework.integration.aggregator.ResequencingMessageHandler;
+import org.springframework.integration.aggregator.SequenceSizeReleaseStrategy;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.store.SimpleMessageGroupFactory;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * Resequencing of a shuffled 10k-message window with partial releases through a
+ * {@link ResequencingMessageHandler}, comparing the sort-based release on a
+ * {@code HASH_SET} group with the incremental release on a {@code SEQUENCE_INDEXED}
+ * group; the score is per resequenced message.
+ * The drained group is removed after each invocation, so the next one starts a new window.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(ResequencerBenchmarks.WINDOW)
+public class ResequencerBenchmarks {
+
+	static final int WINDOW = 10_000;
+
+	@Param({ "HASH_SET", "SEQUENCE_INDEXED" })
+	public SimpleMessageGroupFactory.GroupType groupType;
+
+	/**
+	 * How far (in sequence numbers) a message may arrive from its position.
+	 */
+	@Param({ "100", "10000" })
+	public int disorder;
+
+	private SimpleMessageStore messageStore;
+
+	private ResequencingMessageHandler handler;
+
+	private Message<?>[] messages;
+
+	@Setup
+	public void setup() {
+		this.messageStore = new SimpleMessageStore();
+		this.messageStore.setMessageGroupFactory(new SimpleMessageGroupFactory(this.groupType));
+		this.handler = new ResequencingMessageHandler(new ResequencingMessageGroupProcessor(), this.messageStore,
+				null, new SequenceSizeReleaseStrategy(true));
+		this.handler.setOutputChannel(new NullChannel());
+		this.handler.afterPropertiesSet();
+
+		List<Message<?>> window = new ArrayList<>(WINDOW);
+		for (int i = 0; i < WINDOW; i++) {
+			window.add(MessageBuilder.withPayload(i)
+					.setCorrelationId("window")
+					.setSequenceNumber(i + 1)
+					.setSequenceSize(WINDOW)
+					.build());
+		}
+		Random random = new Random(42);
+		for (int from = 0; from < WINDOW; from += this.disorder) {
+			Collections.shuffle(window.subList(from, Math.min(from + this.disorder, WINDOW)), random);
+		}
+		this.messages = window.toArray(new Message<?>[0]);
+	}
+
+	@Benchmark
+	public void resequence() {
+		for (Message<?> message : this.messages) {
+			this.handler.handleMessage(message);
+		}
+		// the drained group keeps its last released sequence number
+		this.messageStore.removeMessageGroup("window");
+	}
+
+}
@@ -24,8 +24,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 
 import org.aopalliance.aop.Advice;
@@ -53,6 +58,7 @@ import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.locks.DefaultLockRegistry;
 import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.integration.util.HashedTimingWheel;
 import org.springframework.integration.util.UUIDConverter;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -140,6 +146,16 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	private boolean expireGroupsUponTimeout = true;
 
+	private boolean timingWheel;
+
+	private long tickDuration = 100;
+
+	private int ticksPerWheel = 512;
+
+	private volatile HashedTimingWheel<Runnable> wheel;
+
+	private volatile ScheduledFuture<?> tickFuture;
+
 	private volatile boolean running;
 
 	public AbstractCorrelatingMessageHandler(MessageGroupProcessor processor, MessageGroupStore store,
@@ -222,6 +238,41 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		super.setTaskScheduler(taskScheduler);
 	}
 
+	/**
+	 * Set to true to bucket the group timeouts into the slots of a
+	 * {@link HashedTimingWheel} advanced by a single fixed-rate task, instead of
+	 * scheduling a {@link TaskScheduler} task per group. All the groups timing out in the
+	 * same tick are then processed in bulk, at most one
+	 * {@link #setTickDuration(long) tickDuration} after their timeout. Default false.
+	 * @param timingWheel true to use a timing wheel.
+	 * @since 5.1
+	 */
+	public void setTimingWheel(boolean timingWheel) {
+		this.timingWheel = timingWheel;
+	}
+
+	/**
+	 * Set the timing wheel tick duration in milliseconds. Default 100.
+	 * @param tickDuration the tick duration.
+	 * @since 5.1
+	 * @see #setTimingWheel(boolean)
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of timing wheel slots (rounded up to a power of two). Default 512.
+	 * @param ticksPerWheel the number of slots.
+	 * @since 5.1
+	 * @see #setTimingWheel(boolean)
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0, "'ticksPerWheel' must be greater than 0");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
 	@Override
 	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
 		this.applicationEventPublisher = applicationEventPublisher;
@@ -272,6 +323,10 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		 */
 		this.lockRegistrySet = true;
 		this.forceReleaseProcessor = createGroupTimeoutProcessor();
+
+		if (this.timingWheel) {
+			this.wheel = new HashedTimingWheel<>(this.tickDuration, this.ticksPerWheel);
+		}
 	}
 
 	private MessageGroupProcessor createGroupTimeoutProcessor() {
@@ -477,8 +532,8 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 	private void removeEmptyGroupAfterTimeout(MessageGroup messageGroup, long timeout) {
 		Object groupId = messageGroup.getGroupId();
 		UUID groupUuid = UUIDConverter.getUUID(groupId);
-		ScheduledFuture<?> scheduledFuture = getTaskScheduler()
-				.schedule(() -> {
+		ScheduledFuture<?> scheduledFuture =
+				schedule(() -> {
 					Lock lock = this.lockRegistry.obtain(groupUuid.toString());
 
 					try {
@@ -513,7 +568,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 						removeEmptyGroupAfterTimeout(messageGroup, timeout);
 					}
 
-				}, new Date(System.currentTimeMillis() + timeout));
+				}, System.currentTimeMillis() + timeout);
 
 		if (this.logger.isDebugEnabled()) {
 			this.logger.debug("Schedule empty MessageGroup [ " + groupId + "] for removal.");
@@ -532,8 +587,8 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 				final Object groupId = messageGroup.getGroupId();
 				final long timestamp = messageGroup.getTimestamp();
 				final long lastModified = messageGroup.getLastModified();
-				ScheduledFuture<?> scheduledFuture = getTaskScheduler()
-						.schedule(() -> {
+				ScheduledFuture<?> scheduledFuture =
+						schedule(() -> {
 							try {
 								processForceRelease(groupId, timestamp, lastModified);
 							}
@@ -544,7 +599,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 								}
 								scheduleGroupToForceComplete(groupId);
 							}
-						}, new Date(System.currentTimeMillis() + groupTimeout));
+						}, System.currentTimeMillis() + groupTimeout);
 
 				if (this.logger.isDebugEnabled()) {
 					this.logger.debug("Schedule MessageGroup [ " + messageGroup + "] to 'forceComplete'.");
@@ -557,13 +612,44 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		}
 	}
 
+	private ScheduledFuture<?> schedule(Runnable task, long time) {
+		HashedTimingWheel<Runnable> wheel = this.wheel;
+		if (wheel != null) {
+			TimingWheelFuture future = new TimingWheelFuture();
+			future.timeout = wheel.schedule(future.completing(task), time);
+			if (this.tickFuture == null) {
+				synchronized (wheel) {
+					if (this.tickFuture == null) {
+						this.tickFuture = getTaskScheduler().scheduleAtFixedRate(this::tick, this.tickDuration);
+					}
+				}
+			}
+			return future;
+		}
+		else {
+			return getTaskScheduler().schedule(task, new Date(time));
+		}
+	}
+
+	private void tick() {
+		for (Runnable task : this.wheel.expire(System.currentTimeMillis())) {
+			try {
+				task.run();
+			}
+			catch (Exception e) {
+				// don't let one failed group cancel the periodic tick
+				this.logger.error("Failed to process a group timeout", e);
+			}
+		}
+	}
+
 	private void scheduleGroupToForceComplete(Object groupId) {
-		MessageGroup messageGroup = this.messageStore.getMessageGroup(groupId);
+		MessageGroup messageGroup = obtainMessageGroup(groupId);
 		scheduleGroupToForceComplete(messageGroup);
 	}
 
 	private void processForceRelease(Object groupId, long timestamp, long lastModified) {
-		MessageGroup messageGroup = this.messageStore.getMessageGroup(groupId);
+		MessageGroup messageGroup = obtainMessageGroup(groupId);
 		if (messageGroup.getTimestamp() == timestamp && messageGroup.getLastModified() == lastModified) {
 			this.forceReleaseProcessor.processMessageGroup(messageGroup);
 		}
@@ -626,7 +712,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 				 * for reaping if it's empty (and both timestamps are unaltered).
 				 */
 				if (!group.isComplete()) {
-					groupNow = this.messageStore.getMessageGroup(correlationKey);
+					groupNow = obtainMessageGroup(correlationKey);
 				}
 				long lastModifiedNow = groupNow.getLastModified();
 				int groupSize = groupNow.size();
@@ -704,6 +790,20 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		return new IntegrationMessageHeaderAccessor(lastReleasedMessage).getSequenceNumber();
 	}
 
+	/**
+	 * Obtain the {@link MessageGroup} for the provided correlation key from the
+	 * {@link MessageGroupStore} to be examined when the group timeout fires or the group
+	 * is forced to complete. Subclasses may override to expose a different view of the
+	 * stored group, which must be consistent with the one returned from
+	 * {@link #store(Object, Message)}.
+	 * @param correlationKey the correlation key.
+	 * @return the group.
+	 * @since 5.1
+	 */
+	protected MessageGroup obtainMessageGroup(Object correlationKey) {
+		return this.messageStore.getMessageGroup(correlationKey);
+	}
+
 	protected MessageGroup store(Object correlationKey, Message<?> message) {
 		this.groupIds.add(correlationKey);
 		return this.messageStore.addMessageToGroup(correlationKey, message);
@@ -776,6 +876,11 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		for (ScheduledFuture<?> future : this.expireGroupScheduledFutures.values()) {
 			future.cancel(true);
 		}
+		ScheduledFuture<?> tickFuture = this.tickFuture;
+		if (tickFuture != null) {
+			tickFuture.cancel(false);
+			this.tickFuture = null;
+		}
 	}
 
 	@Override
@@ -848,7 +953,9 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 				if (messageSequenceSize == null) {
 					messageSequenceSize = 0;
 				}
-				return messageSequenceSize.equals(getSequenceSize())
+				int sequenceSize =
+						this.sourceGroup != null ? this.sourceGroup.getSequenceSize() : getSequenceSize();
+				return messageSequenceSize.equals(sequenceSize)
 						&& !(this.sourceGroup != null ? this.sourceGroup.containsSequence(messageSequenceNumber)
 						: containsSequenceNumber(this.getMessages(), messageSequenceNumber));
 			}
@@ -883,4 +990,75 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	}
 
+	/**
+	 * A {@link ScheduledFuture} view of a group timeout pending in the timing wheel, so
+	 * that the {@link #getExpireGroupScheduledFutures()} contract is kept.
+	 */
+	private static final class TimingWheelFuture implements ScheduledFuture<Object> {
+
+		private final CompletableFuture<Object> completion = new CompletableFuture<>();
+
+		private volatile HashedTimingWheel.Timeout<Runnable> timeout;
+
+		/**
+		 * Wrap the task so that this future completes when the wheel entry fires.
+		 * @param task the task.
+		 * @return the task to schedule.
+		 */
+		Runnable completing(Runnable task) {
+			return () -> {
+				try {
+					task.run();
+					this.completion.complete(null);
+				}
+				catch (RuntimeException | Error e) {
+					this.completion.completeExceptionally(e);
+					throw e;
+				}
+			};
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.timeout.getDeadline() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (this.timeout.cancel()) {
+				this.completion.cancel(false);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.completion.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.completion.isDone() || !this.timeout.isPending();
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			return this.completion.get();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+
+			return this.completion.get(timeout, unit);
+		}
+
+	}
+
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link AggregatingMessageHandler} which folds the messages of a group into a running
+ * accumulator as they arrive, instead of retaining them in the {@link MessageGroupStore}
+ * until the group is released.
+ * <p>
+ * The store holds a single message per group: its payload is the current accumulator
+ * (created by the {@code seed} and updated by the {@code accumulator} function) and its
+ * headers are those of the last folded message. On release the {@code finisher} is applied
+ * to the accumulator to produce the output. When a persistent {@link MessageGroupStore} is
+ * used, the accumulator must be {@link java.io.Serializable} (or supported by the store's
+ * serializer).
+ * <p>
+ * The {@link ReleaseStrategy}, group timeout expression and the
+ * {@link org.springframework.integration.store.MessageGroupStoreReaper} see a group whose
+ * {@link MessageGroup#size()} is the number of folded messages and whose
+ * {@link MessageGroup#getOne()} is the accumulator message. Strategies which need the
+ * individual messages (e.g. a {@link SequenceSizeReleaseStrategy} releasing partial
+ * sequences) are not supported. When a group expires without
+ * {@code sendPartialResultOnExpiry}, the accumulator message is sent to the discard
+ * channel.
+ *
+ * @param <S> the accumulator type.
+ *
+ * @since 5.1
+ */
+public class FoldingAggregatingMessageHandler<S> extends AggregatingMessageHandler {
+
+	/**
+	 * The header of the accumulator message carrying the number of folded messages.
+	 */
+	public static final String FOLDED_MESSAGE_COUNT = "foldedMessageCount";
+
+	private final Supplier<S> seed;
+
+	private final BiFunction<S, Message<?>, S> accumulator;
+
+	public FoldingAggregatingMessageHandler(Supplier<S> seed, BiFunction<S, Message<?>, S> accumulator) {
+		this(seed, accumulator, Function.identity());
+	}
+
+	public FoldingAggregatingMessageHandler(Supplier<S> seed, BiFunction<S, Message<?>, S> accumulator,
+			Function<S, ?> finisher) {
+
+		this(seed, accumulator, finisher, new SimpleMessageStore(0));
+	}
+
+	public FoldingAggregatingMessageHandler(Supplier<S> seed, BiFunction<S, Message<?>, S> accumulator,
+			Function<S, ?> finisher, MessageGroupStore store) {
+
+		this(seed, accumulator, finisher, store, null, null);
+	}
+
+	public FoldingAggregatingMessageHandler(Supplier<S> seed, BiFunction<S, Message<?>, S> accumulator,
+			Function<S, ?> finisher, MessageGroupStore store, CorrelationStrategy correlationStrategy,
+			ReleaseStrategy releaseStrategy) {
+
+		super(new FoldingMessageGroupProcessor<>(finisher), store, correlationStrategy, releaseStrategy);
+		Assert.notNull(seed, "'seed' must not be null");
+		Assert.notNull(accumulator, "'accumulator' must not be null");
+		this.seed = seed;
+		this.accumulator = accumulator;
+		updateNotPropagatedHeaders(new String[] { FOLDED_MESSAGE_COUNT }, true);
+	}
+
+	@Override
+	public void setNotPropagatedHeaders(String... headers) {
+		super.setNotPropagatedHeaders(headers);
+		updateNotPropagatedHeaders(new String[] { FOLDED_MESSAGE_COUNT }, true);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected MessageGroup store(Object correlationKey, Message<?> message) {
+		MessageGroupStore messageStore = getMessageStore();
+		Message<?> stateMessage = messageStore.getMessageGroup(correlationKey).getOne();
+		S state;
+		int count;
+		if (stateMessage == null) {
+			state = this.seed.get();
+			Assert.state(state != null, "The 'seed' must not supply null");
+			count = 0;
+		}
+		else {
+			state = (S) stateMessage.getPayload();
+			count = foldedMessageCount(stateMessage);
+			messageStore.removeMessagesFromGroup(correlationKey, stateMessage);
+		}
+		S newState = this.accumulator.apply(state, message);
+		Assert.state(newState != null, "The 'accumulator' must not return null");
+		Message<S> newStateMessage =
+				getMessageBuilderFactory()
+						.withPayload(newState)
+						.copyHeaders(message.getHeaders())
+						.setHeader(FOLDED_MESSAGE_COUNT, count + 1)
+						.build();
+		return new FoldedMessageGroup(super.store(correlationKey, newStateMessage));
+	}
+
+	@Override
+	protected MessageGroup obtainMessageGroup(Object correlationKey) {
+		return new FoldedMessageGroup(super.obtainMessageGroup(correlationKey));
+	}
+
+	private static int foldedMessageCount(Message<?> stateMessage) {
+		Integer count = stateMessage.getHeaders().get(FOLDED_MESSAGE_COUNT, Integer.class);
+		return count != null ? count : 1;
+	}
+
+	/**
+	 * A {@link MessageGroup} view over the stored accumulator message, which reports
+	 * the number of folded messages as its size.
+	 */
+	private static final class FoldedMessageGroup implements MessageGroup {
+
+		private final MessageGroup delegate;
+
+		FoldedMessageGroup(MessageGroup delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean canAdd(Message<?> message) {
+			return this.delegate.canAdd(message);
+		}
+
+		@Override
+		public void add(Message<?> messageToAdd) {
+			this.delegate.add(messageToAdd);
+		}
+
+		@Override
+		public boolean remove(Message<?> messageToRemove) {
+			return this.delegate.remove(messageToRemove);
+		}
+
+		@Override
+		public Collection<Message<?>> getMessages() {
+			return this.delegate.getMessages();
+		}
+
+		@Override
+		public Object getGroupId() {
+			return this.delegate.getGroupId();
+		}
+
+		@Override
+		public int getLastReleasedMessageSequenceNumber() {
+			return this.delegate.getLastReleasedMessageSequenceNumber();
+		}
+
+		@Override
+		public void setLastReleasedMessageSequenceNumber(int sequenceNumber) {
+			this.delegate.setLastReleasedMessageSequenceNumber(sequenceNumber);
+		}
+
+		@Override
+		public boolean isComplete() {
+			return this.delegate.isComplete();
+		}
+
+		@Override
+		public void complete() {
+			this.delegate.complete();
+		}
+
+		@Override
+		public int getSequenceSize() {
+			return this.delegate.getSequenceSize();
+		}
+
+		@Override
+		public int size() {
+			Message<?> stateMessage = this.delegate.getOne();
+			return stateMessage != null ? foldedMessageCount(stateMessage) : 0;
+		}
+
+		@Override
+		public Message<?> getOne() {
+			return this.delegate.getOne();
+		}
+
+		@Override
+		public long getTimestamp() {
+			return this.delegate.getTimestamp();
+		}
+
+		@Override
+		public long getLastModified() {
+			return this.delegate.getLastModified();
+		}
+
+		@Override
+		public void setLastModified(long lastModified) {
+			this.delegate.setLastModified(lastModified);
+		}
+
+		@Override
+		public void clear() {
+			this.delegate.clear();
+		}
+
+		@Override
+		public String toString() {
+			return "FoldedMessageGroup{groupId=" + getGroupId() + ", size=" + size() + "}";
+		}
+
+	}
+
+	/**
+	 * Applies the finisher to the accumulator of a {@link FoldedMessageGroup}; the output
+	 * headers are those of the last folded message.
+	 *
+	 * @param <S> the accumulator type.
+	 */
+	private static final class FoldingMessageGroupProcessor<S> extends AbstractAggregatingMessageGroupProcessor {
+
+		private final Function<S, ?> finisher;
+
+		FoldingMessageGroupProcessor(Function<S, ?> finisher) {
+			Assert.notNull(finisher, "'finisher' must not be null");
+			this.finisher = finisher;
+		}
+
+		@Override
+		protected Map<String, Object> aggregateHeaders(MessageGroup group) {
+			Map<String, Object> headers = super.aggregateHeaders(group);
+			headers.remove(FOLDED_MESSAGE_COUNT);
+			return headers;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Object aggregatePayloads(MessageGroup group, Map<String, Object> defaultHeaders) {
+			Message<?> stateMessage = group.getOne();
+			Assert.state(stateMessage != null, () -> "No accumulator in the group " + group.getGroupId());
+			return this.finisher.apply((S) stateMessage.getPayload());
+		}
+
+	}
+
+}
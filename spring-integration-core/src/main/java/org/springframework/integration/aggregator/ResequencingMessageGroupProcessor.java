@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,10 +24,13 @@ import java.util.List;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.SequenceIndexedMessageGroup;
 import org.springframework.messaging.Message;
 
 /**
  * This class implements all the strategy interfaces needed for a default resequencer.
+ * When the group is a {@link SequenceIndexedMessageGroup}, the contiguous run is taken
+ * from its sequence number index instead of sorting the group on each release.
  *
  * @author Iwein Fuld
  * @author Dave Syer
@@ -39,6 +42,10 @@ public class ResequencingMessageGroupProcessor implements MessageGroupProcessor
 	private final Comparator<Message<?>> comparator = new MessageSequenceComparator();
 
 	public Object processMessageGroup(MessageGroup group) {
+		if (group instanceof SequenceIndexedMessageGroup
+				&& ((SequenceIndexedMessageGroup) group).isFullyIndexed()) {
+			return contiguousSequence((SequenceIndexedMessageGroup) group);
+		}
 		Collection<Message<?>> messages = group.getMessages();
 
 		if (messages.size() > 0) {
@@ -62,6 +69,19 @@ public class ResequencingMessageGroupProcessor implements MessageGroupProcessor
 		return null;
 	}
 
+	/**
+	 * Release the run of consecutive sequence numbers which starts with the first
+	 * buffered one, directly from the group index: neither the whole group is copied
+	 * and sorted, nor the buffered successors of the run are visited.
+	 */
+	private Object contiguousSequence(SequenceIndexedMessageGroup group) {
+		int first = group.getFirstSequenceNumber();
+		if (first > 0) {
+			return group.getMessages(first, group.getContiguousSequenceCount(first));
+		}
+		return null;
+	}
+
 	private Integer extractSequenceNumber(Message<?> message) {
 		return new IntegrationMessageHeaderAccessor(message).getSequenceNumber();
 	}
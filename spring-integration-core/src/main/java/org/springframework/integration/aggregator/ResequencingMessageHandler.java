@@ -20,6 +20,7 @@ import java.util.Collection;
 
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.SimpleMessageGroupFactory;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.messaging.Message;
 
@@ -50,8 +51,14 @@ public class ResequencingMessageHandler extends AbstractCorrelatingMessageHandle
 	}
 
 
+	/**
+	 * Create a handler with an in-memory store of
+	 * {@link org.springframework.integration.store.SequenceIndexedMessageGroup}s,
+	 * so that releasing a contiguous run of messages does not require sorting the group.
+	 * @param processor the processor.
+	 */
 	public ResequencingMessageHandler(MessageGroupProcessor processor) {
-		super(processor);
+		super(processor, createDefaultMessageStore());
 		this.setExpireGroupsUponTimeout(false);
 	}
 
@@ -66,6 +73,13 @@ public class ResequencingMessageHandler extends AbstractCorrelatingMessageHandle
 		super.setExpireGroupsUponTimeout(expireGroupsUponTimeout);
 	}
 
+	private static MessageGroupStore createDefaultMessageStore() {
+		SimpleMessageStore messageStore = new SimpleMessageStore(0);
+		messageStore.setMessageGroupFactory(
+				new SimpleMessageGroupFactory(SimpleMessageGroupFactory.GroupType.SEQUENCE_INDEXED));
+		return messageStore;
+	}
+
 	@Override
 	public String getComponentType() {
 		return "resequencer";
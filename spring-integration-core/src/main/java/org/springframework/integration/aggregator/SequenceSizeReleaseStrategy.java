@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.SequenceIndexedMessageGroup;
 import org.springframework.messaging.Message;
 
 /**
@@ -86,10 +87,15 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 			if (logger.isTraceEnabled()) {
 				logger.trace("Considering partial release of group [" + messageGroup + "]");
 			}
-			Collection<Message<?>> messages = messageGroup.getMessages();
-			Message<?> minMessage = Collections.min(messages, this.comparator);
-
-			int nextSequenceNumber = new IntegrationMessageHeaderAccessor(minMessage).getSequenceNumber();
+			int nextSequenceNumber;
+			if (messageGroup instanceof SequenceIndexedMessageGroup) {
+				nextSequenceNumber = ((SequenceIndexedMessageGroup) messageGroup).getFirstSequenceNumber();
+			}
+			else {
+				Collection<Message<?>> messages = messageGroup.getMessages();
+				Message<?> minMessage = Collections.min(messages, this.comparator);
+				nextSequenceNumber = new IntegrationMessageHeaderAccessor(minMessage).getSequenceNumber();
+			}
 			int lastReleasedMessageSequence = messageGroup.getLastReleasedMessageSequenceNumber();
 
 			if (nextSequenceNumber - lastReleasedMessageSequence == 1) {
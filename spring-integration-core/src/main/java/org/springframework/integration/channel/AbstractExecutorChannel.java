@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2017 the original author or authors.
+ * Copyright 2015-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,6 +47,7 @@ import org.springframework.util.CollectionUtils;
  * @author Gary Russell
  * @see ExecutorChannel
  * @see PublishSubscribeChannel
+ * @see PartitionedChannel
  * @since 4.2
  */
 public abstract class AbstractExecutorChannel extends AbstractSubscribableChannel
@@ -16,13 +16,13 @@
 
 package org.springframework.integration.channel;
 
-import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 
@@ -40,7 +40,6 @@ import org.springframework.integration.support.management.MetricsContext;
 import org.springframework.integration.support.management.Statistics;
 import org.springframework.integration.support.management.TrackableComponent;
 import org.springframework.integration.support.management.metrics.MetricsCaptor;
-import org.springframework.integration.support.management.metrics.SampleFacade;
 import org.springframework.integration.support.management.metrics.TimerFacade;
 import org.springframework.integration.support.utils.IntegrationUtils;
 import org.springframework.messaging.Message;
@@ -95,6 +94,10 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 	private TimerFacade failureTimer;
 
+	private final Object sendPlanMonitor = new Object();
+
+	private volatile SendPlan sendPlan;
+
 	public AbstractMessageChannel() {
 		this.interceptors = new ChannelInterceptorList(logger);
 	}
@@ -107,11 +110,13 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	@Override
 	public void setShouldTrack(boolean shouldTrack) {
 		this.shouldTrack = shouldTrack;
+		invalidateSendPlan();
 	}
 
 	@Override
 	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
 		this.metricsCaptor = metricsCaptor;
+		invalidateSendPlan();
 	}
 
 	protected MetricsCaptor getMetricsCaptor() {
@@ -126,6 +131,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			this.statsEnabled = false;
 			this.managementOverrides.statsConfigured = true;
 		}
+		invalidateSendPlan();
 	}
 
 	@Override
@@ -142,6 +148,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		this.statsEnabled = statsEnabled;
 		this.channelMetrics.setFullStatsEnabled(statsEnabled);
 		this.managementOverrides.statsConfigured = true;
+		invalidateSendPlan();
 	}
 
 	@Override
@@ -169,6 +176,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		Assert.notNull(metrics, "'metrics' must not be null");
 		this.channelMetrics = metrics;
 		this.managementOverrides.metricsConfigured = true;
+		invalidateSendPlan();
 	}
 
 	/**
@@ -184,6 +192,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	public void setDatatypes(Class<?>... datatypes) {
 		this.datatypes = (datatypes != null && datatypes.length > 0)
 				? datatypes : new Class<?>[0];
+		invalidateSendPlan();
 	}
 
 	/**
@@ -362,6 +371,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 
 		this.fullChannelName = null;
+		invalidateSendPlan();
 	}
 
 	/**
@@ -410,43 +420,48 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	public boolean send(Message<?> message, long timeout) {
 		Assert.notNull(message, "message must not be null");
 		Assert.notNull(message.getPayload(), "message payload must not be null");
-		if (this.shouldTrack) {
+		SendPlan plan = obtainSendPlan();
+		if (plan.track) {
 			message = MessageHistory.write(message, this, this.getMessageBuilderFactory());
 		}
 
-		Deque<ChannelInterceptor> interceptorStack = null;
+		ChannelInterceptor[] interceptors = plan.interceptors;
+		int interceptorCount = 0;
 		boolean sent = false;
 		boolean metricsProcessed = false;
 		MetricsContext metrics = null;
-		boolean countsEnabled = this.countsEnabled;
-		ChannelInterceptorList interceptors = this.interceptors;
-		AbstractMessageChannelMetrics channelMetrics = this.channelMetrics;
-		SampleFacade sample = null;
+		long start = 0;
 		try {
-			if (this.datatypes.length > 0) {
+			if (plan.convert) {
 				message = this.convertPayloadIfNecessary(message);
 			}
 			boolean debugEnabled = this.loggingEnabled && logger.isDebugEnabled();
 			if (debugEnabled) {
 				logger.debug("preSend on channel '" + this + "', message: " + message);
 			}
-			if (interceptors.getSize() > 0) {
-				interceptorStack = new ArrayDeque<>();
-				message = interceptors.preSend(message, this, interceptorStack);
-				if (message == null) {
+			for (ChannelInterceptor interceptor : interceptors) {
+				Message<?> intercepted = interceptor.preSend(message, this);
+				if (intercepted == null) {
+					if (logger.isDebugEnabled()) {
+						logger.debug(interceptor.getClass().getSimpleName()
+								+ " returned null from preSend, i.e. precluding the send.");
+					}
+					this.interceptors.afterSendCompletion(null, this, false, null, interceptors, interceptorCount);
 					return false;
 				}
+				message = intercepted;
+				interceptorCount++;
 			}
-			if (countsEnabled) {
-				metrics = channelMetrics.beforeSend();
-				if (this.metricsCaptor != null) {
-					sample = this.metricsCaptor.start();
+			if (plan.countsEnabled) {
+				metrics = plan.channelMetrics.beforeSend();
+				if (plan.metricsCaptor != null) {
+					start = System.nanoTime();
 				}
 				sent = doSend(message, timeout);
-				if (sample != null) {
-					sample.stop(sendTimer(sent));
+				if (plan.metricsCaptor != null) {
+					sendTimer(sent).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 				}
-				channelMetrics.afterSend(metrics, sent);
+				plan.channelMetrics.afterSend(metrics, sent);
 				metricsProcessed = true;
 			}
 			else {
@@ -456,27 +471,53 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (debugEnabled) {
 				logger.debug("postSend (sent=" + sent + ") on channel '" + this + "', message: " + message);
 			}
-			if (interceptorStack != null) {
-				interceptors.postSend(message, this, sent);
-				interceptors.afterSendCompletion(message, this, sent, null, interceptorStack);
+			if (interceptorCount > 0) {
+				for (ChannelInterceptor interceptor : interceptors) {
+					interceptor.postSend(message, this, sent);
+				}
+				this.interceptors.afterSendCompletion(message, this, sent, null, interceptors, interceptorCount);
 			}
 			return sent;
 		}
 		catch (Exception e) {
-			if (countsEnabled && !metricsProcessed) {
-				if (sample != null) {
-					sample.stop(buildSendTimer(false, e.getClass().getSimpleName()));
+			if (plan.countsEnabled && !metricsProcessed) {
+				if (plan.metricsCaptor != null && start != 0) {
+					buildSendTimer(false, e.getClass().getSimpleName())
+							.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 				}
-				channelMetrics.afterSend(metrics, false);
+				plan.channelMetrics.afterSend(metrics, false);
 			}
-			if (interceptorStack != null) {
-				interceptors.afterSendCompletion(message, this, sent, e, interceptorStack);
+			if (interceptorCount > 0) {
+				this.interceptors.afterSendCompletion(message, this, sent, e, interceptors, interceptorCount);
 			}
 			throw IntegrationUtils.wrapInDeliveryExceptionIfNecessary(message,
 					() -> "failed to send Message to channel '" + this.getComponentName() + "'", e);
 		}
 	}
 
+	/**
+	 * Return the current {@link SendPlan}, building a new one if the channel configuration
+	 * or the interceptor list has changed since the last send.
+	 * @return the plan.
+	 */
+	private SendPlan obtainSendPlan() {
+		SendPlan plan = this.sendPlan;
+		if (plan == null || plan.interceptors != this.interceptors.getInterceptorArray()) {
+			synchronized (this.sendPlanMonitor) {
+				plan = new SendPlan(this.interceptors.getInterceptorArray(), this.datatypes.length > 0, this.shouldTrack,
+						this.countsEnabled, this.channelMetrics, this.metricsCaptor);
+				this.sendPlan = plan;
+			}
+		}
+		return plan;
+	}
+
+	private void invalidateSendPlan() {
+		synchronized (this.sendPlanMonitor) {
+			this.sendPlan = null;
+		}
+	}
+
 	private TimerFacade sendTimer(boolean sent) {
 		if (sent) {
 			if (this.successTimer == null) {
@@ -545,6 +586,38 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	protected abstract boolean doSend(Message<?> message, long timeout);
 
 
+	/**
+	 * The per-channel state consulted on each send, captured once so that the send path
+	 * neither re-reads the individual volatile settings nor allocates per message.
+	 * Replaced whenever the interceptors, datatypes, tracking or metrics configuration change.
+	 */
+	private static final class SendPlan {
+
+		private final ChannelInterceptor[] interceptors;
+
+		private final boolean convert;
+
+		private final boolean track;
+
+		private final boolean countsEnabled;
+
+		private final AbstractMessageChannelMetrics channelMetrics;
+
+		private final MetricsCaptor metricsCaptor;
+
+		SendPlan(ChannelInterceptor[] interceptors, boolean convert, boolean track, boolean countsEnabled,
+				AbstractMessageChannelMetrics channelMetrics, MetricsCaptor metricsCaptor) {
+
+			this.interceptors = interceptors;
+			this.convert = convert;
+			this.track = track;
+			this.countsEnabled = countsEnabled;
+			this.channelMetrics = channelMetrics;
+			this.metricsCaptor = metricsCaptor;
+		}
+
+	}
+
 	/**
 	 * A convenience wrapper class for the list of ChannelInterceptors.
 	 */
@@ -556,6 +629,8 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 		private volatile int size;
 
+		private volatile ChannelInterceptor[] interceptorArray = new ChannelInterceptor[0];
+
 		public ChannelInterceptorList(Log logger) {
 			this.logger = logger;
 		}
@@ -563,8 +638,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		public boolean set(List<ChannelInterceptor> interceptors) {
 			synchronized (this.interceptors) {
 				this.interceptors.clear();
-				this.size = interceptors.size();
-				return this.interceptors.addAll(interceptors);
+				boolean changed = this.interceptors.addAll(interceptors);
+				updateSnapshot();
+				return changed;
 			}
 		}
 
@@ -573,13 +649,33 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 
 		public boolean add(ChannelInterceptor interceptor) {
-			this.size++;
-			return this.interceptors.add(interceptor);
+			synchronized (this.interceptors) {
+				boolean added = this.interceptors.add(interceptor);
+				updateSnapshot();
+				return added;
+			}
 		}
 
 		public void add(int index, ChannelInterceptor interceptor) {
-			this.size++;
-			this.interceptors.add(index, interceptor);
+			synchronized (this.interceptors) {
+				this.interceptors.add(index, interceptor);
+				updateSnapshot();
+			}
+		}
+
+		/**
+		 * Return an immutable snapshot of the current interceptors; a new array
+		 * instance is created each time the list is modified.
+		 * @return the interceptors.
+		 * @since 5.1
+		 */
+		public ChannelInterceptor[] getInterceptorArray() {
+			return this.interceptorArray;
+		}
+
+		private void updateSnapshot() {
+			this.interceptorArray = this.interceptors.toArray(new ChannelInterceptor[0]);
+			this.size = this.interceptorArray.length;
 		}
 
 		public Message<?> preSend(Message<?> message, MessageChannel channel,
@@ -622,6 +718,30 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			}
 		}
 
+		/**
+		 * Invoke {@code afterSendCompletion} on the first {@code count} interceptors of the
+		 * provided snapshot, in reverse order.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param sent whether the message was sent.
+		 * @param ex the exception, if any.
+		 * @param interceptors the interceptor snapshot used for {@code preSend}.
+		 * @param count the number of interceptors whose {@code preSend} completed.
+		 * @since 5.1
+		 */
+		public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex,
+				ChannelInterceptor[] interceptors, int count) {
+			for (int i = count - 1; i >= 0; i--) {
+				ChannelInterceptor interceptor = interceptors[i];
+				try {
+					interceptor.afterSendCompletion(message, channel, sent, ex);
+				}
+				catch (Exception ex2) {
+					this.logger.error("Exception from afterSendCompletion in " + interceptor, ex2);
+				}
+			}
+		}
+
 		public boolean preReceive(MessageChannel channel, Deque<ChannelInterceptor> interceptorStack) {
 			if (this.size > 0) {
 				for (ChannelInterceptor interceptor : this.interceptors) {
@@ -665,21 +785,23 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 
 		public boolean remove(ChannelInterceptor interceptor) {
-			if (this.interceptors.remove(interceptor)) {
-				this.size--;
-				return true;
-			}
-			else {
-				return false;
+			synchronized (this.interceptors) {
+				if (this.interceptors.remove(interceptor)) {
+					updateSnapshot();
+					return true;
+				}
+				else {
+					return false;
+				}
 			}
 		}
 
 		public ChannelInterceptor remove(int index) {
-			ChannelInterceptor removed = this.interceptors.remove(index);
-			if (removed != null) {
-				this.size--;
+			synchronized (this.interceptors) {
+				ChannelInterceptor removed = this.interceptors.remove(index);
+				updateSnapshot();
+				return removed;
 			}
-			return removed;
 		}
 
 	}
@@ -17,6 +17,8 @@
 package org.springframework.integration.channel;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 
@@ -27,6 +29,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.util.Assert;
 
 /**
  * Base class for all pollable channels.
@@ -138,17 +141,7 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 		}
 		catch (RuntimeException e) {
 			if (countsEnabled && !counted) {
-				if (getMetricsCaptor() != null) {
-					getMetricsCaptor().counterBuilder(RECEIVE_COUNTER_NAME)
-							.tag("name", getComponentName() == null ? "unknown" : getComponentName())
-							.tag("type", "channel")
-							.tag("result", "failure")
-							.tag("exception", e.getClass().getSimpleName())
-							.description("Messages received")
-							.build()
-							.increment();
-				}
-				getMetrics().afterError();
+				receiveFailed(e);
 			}
 			if (interceptorStack != null) {
 				interceptorList.afterReceiveCompletion(null, this, e, interceptorStack);
@@ -157,6 +150,74 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 		}
 	}
 
+	/**
+	 * Receive up to {@code maxMessages} messages from this channel. The timeout
+	 * applies to the first message; once it is received, other messages that are
+	 * immediately available are returned with it.
+	 * <p>When the channel has interceptors, this is equivalent to a {@link #receive(long)}
+	 * followed by {@code receive(0)} calls, so interceptors observe each message as
+	 * usual. Otherwise, the messages are obtained with a single
+	 * {@link #doReceive(int, long)} operation.
+	 * @param maxMessages the maximum number of messages to receive.
+	 * @param timeout the timeout in milliseconds for the first message.
+	 * @return the received messages; empty if none.
+	 * @since 5.1
+	 */
+	public List<Message<?>> receive(int maxMessages, long timeout) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		if (getInterceptors().getSize() > 0) {
+			List<Message<?>> messages = new ArrayList<>();
+			Message<?> message = receive(timeout);
+			while (message != null) {
+				messages.add(message);
+				message = messages.size() < maxMessages ? receive(0) : null;
+			}
+			return messages;
+		}
+		boolean countsEnabled = isCountsEnabled();
+		try {
+			List<Message<?>> messages = doReceive(maxMessages, timeout);
+			if (messages.isEmpty()) {
+				if (isLoggingEnabled() && logger.isTraceEnabled()) {
+					logger.trace("postReceive on channel '" + this + "', no messages");
+				}
+				return messages;
+			}
+			if (countsEnabled) {
+				for (int i = 0; i < messages.size(); i++) {
+					if (getMetricsCaptor() != null) {
+						incrementReceiveCounter();
+					}
+					getMetrics().afterReceive();
+				}
+			}
+			if (isLoggingEnabled() && logger.isDebugEnabled()) {
+				logger.debug("postReceive on channel '" + this + "', messages: " + messages);
+			}
+			return messages;
+		}
+		catch (RuntimeException e) {
+			if (countsEnabled) {
+				receiveFailed(e);
+			}
+			throw e;
+		}
+	}
+
+	private void receiveFailed(RuntimeException e) {
+		if (getMetricsCaptor() != null) {
+			getMetricsCaptor().counterBuilder(RECEIVE_COUNTER_NAME)
+					.tag("name", getComponentName() == null ? "unknown" : getComponentName())
+					.tag("type", "channel")
+					.tag("result", "failure")
+					.tag("exception", e.getClass().getSimpleName())
+					.description("Messages received")
+					.build()
+					.increment();
+		}
+		getMetrics().afterError();
+	}
+
 	private void incrementReceiveCounter() {
 		if (this.receiveCounter == null) {
 			this.receiveCounter = getMetricsCaptor().counterBuilder(RECEIVE_COUNTER_NAME)
@@ -231,4 +292,28 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 	@Nullable
 	protected abstract Message<?> doReceive(long timeout);
 
+	/**
+	 * Receive up to {@code maxMessages} messages; the timeout semantics are the
+	 * same as {@link #doReceive(long)} and apply to the first message only.
+	 * This implementation invokes {@link #doReceive(long)} for the first message
+	 * and {@code doReceive(0)} for the others; subclasses backed by a queue should
+	 * override it to drain the queue in one operation.
+	 * @param maxMessages the maximum number of messages.
+	 * @param timeout The timeout.
+	 * @return the messages; empty if none.
+	 * @since 5.1
+	 */
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		Message<?> message = doReceive(timeout);
+		if (message == null) {
+			return Collections.emptyList();
+		}
+		List<Message<?>> messages = new ArrayList<>();
+		while (message != null) {
+			messages.add(message);
+			message = messages.size() < maxMessages ? doReceive(0) : null;
+		}
+		return messages;
+	}
+
 }
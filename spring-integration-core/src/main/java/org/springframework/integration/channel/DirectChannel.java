@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,14 @@
 
 package org.springframework.integration.channel;
 
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import org.springframework.integration.context.IntegrationProperties;
 import org.springframework.integration.dispatcher.LoadBalancingStrategy;
 import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.UnicastingDispatcher;
+import org.springframework.integration.support.management.LoadBalancingChannelManagement;
 
 /**
  * A channel that invokes a single subscriber for each sent Message.
@@ -31,7 +35,7 @@ import org.springframework.integration.dispatcher.UnicastingDispatcher;
  * @author Oleg Zhurakousky
  * @author Gary Russell
  */
-public class DirectChannel extends AbstractSubscribableChannel {
+public class DirectChannel extends AbstractSubscribableChannel implements LoadBalancingChannelManagement {
 
 	private final UnicastingDispatcher dispatcher = new UnicastingDispatcher();
 
@@ -76,6 +80,18 @@ public class DirectChannel extends AbstractSubscribableChannel {
 		this.dispatcher.setMaxSubscribers(maxSubscribers);
 	}
 
+	@Override
+	public Map<String, Integer> getHandlerInFlightCounts() {
+		return this.dispatcher.getHandlerLoads().entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getInFlight()));
+	}
+
+	@Override
+	public Map<String, Double> getHandlerMeanDurations() {
+		return this.dispatcher.getHandlerLoads().entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getMeanDuration()));
+	}
+
 	@Override
 	protected UnicastingDispatcher getDispatcher() {
 		return this.dispatcher;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,16 @@
 
 package org.springframework.integration.channel;
 
+import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 import org.springframework.integration.context.IntegrationProperties;
 import org.springframework.integration.dispatcher.LoadBalancingStrategy;
 import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.UnicastingDispatcher;
 import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
+import org.springframework.integration.support.management.LoadBalancingChannelManagement;
 import org.springframework.integration.util.ErrorHandlingTaskExecutor;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.util.Assert;
@@ -45,7 +48,7 @@ import org.springframework.util.ErrorHandler;
  * @author Artem Bilan
  * @since 1.0.3
  */
-public class ExecutorChannel extends AbstractExecutorChannel {
+public class ExecutorChannel extends AbstractExecutorChannel implements LoadBalancingChannelManagement {
 
 	private volatile boolean failover = true;
 
@@ -92,6 +95,18 @@ public class ExecutorChannel extends AbstractExecutorChannel {
 		getDispatcher().setFailover(failover);
 	}
 
+	@Override
+	public Map<String, Integer> getHandlerInFlightCounts() {
+		return getDispatcher().getHandlerLoads().entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getInFlight()));
+	}
+
+	@Override
+	public Map<String, Double> getHandlerMeanDurations() {
+		return getDispatcher().getHandlerLoads().entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getMeanDuration()));
+	}
+
 	@Override
 	protected UnicastingDispatcher getDispatcher() {
 		return (UnicastingDispatcher) this.dispatcher;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -112,4 +112,9 @@ public final class FixedSubscriberChannel implements SubscribableChannel, BeanNa
 		}
 	}
 
+	@Override
+	public String toString() {
+		return (this.beanName != null) ? this.beanName : super.toString();
+	}
+
 }
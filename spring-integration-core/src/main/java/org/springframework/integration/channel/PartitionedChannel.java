@@ -0,0 +1,395 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.context.IntegrationProperties;
+import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
+import org.springframework.integration.dispatcher.UnicastingDispatcher;
+import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
+import org.springframework.integration.support.management.PartitionedChannelManagement;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * An {@link AbstractExecutorChannel} that preserves the order of messages with the same
+ * partition key while handling messages with different keys in parallel.
+ * <p>
+ * The channel has a fixed number of partitions, each with a bounded queue drained by a
+ * single dedicated thread. The partition key of each message (by default, its
+ * {@code correlationId} header) is hashed onto a partition, so all the messages for a
+ * key are handled one at a time, in the order they were sent. Messages without a key
+ * go to the first partition.
+ * <p>
+ * When the queue of a partition is full, the sender blocks, as with a bounded
+ * {@link QueueChannel}: {@link #send(Message)} waits for space and
+ * {@link #send(Message, long)} returns {@code false} if none becomes available within
+ * the timeout.
+ * <p>
+ * The partition threads run until the channel is destroyed; messages still queued at
+ * that time are discarded.
+ *
+ * @since 5.1
+ */
+public class PartitionedChannel extends AbstractExecutorChannel
+		implements PartitionedChannelManagement, DisposableBean {
+
+	/**
+	 * The default capacity of each partition queue.
+	 */
+	public static final int DEFAULT_PARTITION_CAPACITY = 1000;
+
+	private final MessageHandler dispatchHandler = message -> getDispatcher().dispatch(message);
+
+	private final Partition[] partitions;
+
+	private final Object startMonitor = new Object();
+
+	private final CustomizableThreadFactory defaultThreadFactory;
+
+	private Function<Message<?>, Object> partitionKeyFunction =
+			message -> message.getHeaders().get(IntegrationMessageHeaderAccessor.CORRELATION_ID);
+
+	private Expression partitionKeyExpression;
+
+	private EvaluationContext evaluationContext;
+
+	private ErrorHandler errorHandler;
+
+	private volatile boolean started;
+
+	private volatile boolean stopped;
+
+	/**
+	 * Create a channel with the provided number of partitions, each with a queue of
+	 * {@value #DEFAULT_PARTITION_CAPACITY} messages.
+	 * @param partitionCount the number of partitions.
+	 */
+	public PartitionedChannel(int partitionCount) {
+		this(partitionCount, DEFAULT_PARTITION_CAPACITY);
+	}
+
+	/**
+	 * Create a channel with the provided number of partitions and partition queue
+	 * capacity.
+	 * @param partitionCount the number of partitions.
+	 * @param partitionCapacity the capacity of each partition queue.
+	 */
+	public PartitionedChannel(int partitionCount, int partitionCapacity) {
+		this(partitionCount, partitionCapacity, null);
+	}
+
+	/**
+	 * Create a channel with the provided number of partitions and partition queue
+	 * capacity, creating the partition threads with the provided {@link ThreadFactory}.
+	 * @param partitionCount the number of partitions.
+	 * @param partitionCapacity the capacity of each partition queue.
+	 * @param threadFactory the thread factory; if null, daemon threads named
+	 * {@code <channelName>-partition-<n>} are used.
+	 */
+	public PartitionedChannel(int partitionCount, int partitionCapacity, ThreadFactory threadFactory) {
+		super(null);
+		Assert.isTrue(partitionCount > 0, "'partitionCount' must be greater than 0");
+		Assert.isTrue(partitionCapacity > 0, "'partitionCapacity' must be greater than 0");
+		this.partitions = new Partition[partitionCount];
+		for (int i = 0; i < partitionCount; i++) {
+			this.partitions[i] = new Partition(partitionCapacity);
+		}
+		if (threadFactory == null) {
+			this.defaultThreadFactory = new CustomizableThreadFactory("partitioned-channel-");
+			this.defaultThreadFactory.setDaemon(true);
+		}
+		else {
+			this.defaultThreadFactory = null;
+		}
+		this.executor = Executors.newFixedThreadPool(partitionCount,
+				threadFactory != null ? threadFactory : this.defaultThreadFactory);
+		this.dispatcher = new UnicastingDispatcher();
+		getDispatcher().setLoadBalancingStrategy(new RoundRobinLoadBalancingStrategy());
+	}
+
+	/**
+	 * Use the value of the provided header as the partition key.
+	 * @param headerName the header name.
+	 */
+	public void setPartitionKeyHeader(String headerName) {
+		Assert.hasText(headerName, "'headerName' must not be empty");
+		setPartitionKeyFunction(message -> message.getHeaders().get(headerName));
+	}
+
+	/**
+	 * Use the result of the provided SpEL expression, evaluated against the message,
+	 * as the partition key.
+	 * @param partitionKeyExpression the expression.
+	 */
+	public void setPartitionKeyExpression(Expression partitionKeyExpression) {
+		Assert.notNull(partitionKeyExpression, "'partitionKeyExpression' must not be null");
+		this.partitionKeyExpression = partitionKeyExpression;
+		this.partitionKeyFunction =
+				message -> this.partitionKeyExpression.getValue(obtainEvaluationContext(), message);
+	}
+
+	/**
+	 * Use the result of the provided function as the partition key.
+	 * @param partitionKeyFunction the function.
+	 */
+	public void setPartitionKeyFunction(Function<Message<?>, Object> partitionKeyFunction) {
+		Assert.notNull(partitionKeyFunction, "'partitionKeyFunction' must not be null");
+		this.partitionKeyExpression = null;
+		this.partitionKeyFunction = partitionKeyFunction;
+	}
+
+	/**
+	 * Specify whether the channel's dispatcher should have failover enabled.
+	 * By default, it will. Set this value to 'false' to disable it.
+	 * @param failover The failover boolean.
+	 */
+	public void setFailover(boolean failover) {
+		getDispatcher().setFailover(failover);
+	}
+
+	/**
+	 * Set the {@link ErrorHandler} for exceptions thrown by the subscribers on the
+	 * partition threads. By default, a {@link MessagePublishingErrorHandler} is used.
+	 * @param errorHandler the error handler.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	@Override
+	protected UnicastingDispatcher getDispatcher() {
+		return (UnicastingDispatcher) this.dispatcher;
+	}
+
+	@Override
+	public int getPartitionCount() {
+		return this.partitions.length;
+	}
+
+	@Override
+	public int[] getPartitionQueueSizes() {
+		int[] sizes = new int[this.partitions.length];
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] = this.partitions[i].queue.size();
+		}
+		return sizes;
+	}
+
+	@Override
+	public int getQueueSize() {
+		int size = 0;
+		for (Partition partition : this.partitions) {
+			size += partition.queue.size();
+		}
+		return size;
+	}
+
+	@Override
+	public int getRemainingCapacity() {
+		int remaining = 0;
+		for (Partition partition : this.partitions) {
+			remaining += partition.queue.remainingCapacity();
+		}
+		return remaining;
+	}
+
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
+		super.registerMetricsCaptor(metricsCaptor);
+		String name = getComponentName() == null ? "unknown" : getComponentName();
+		for (int i = 0; i < this.partitions.length; i++) {
+			metricsCaptor.gaugeBuilder("spring.integration.channel.partition.size", this.partitions[i],
+					partition -> ((Partition) partition).queue.size())
+					.tag("name", name)
+					.tag("partition", Integer.toString(i))
+					.description("The number of messages waiting in a partition queue")
+					.build();
+		}
+	}
+
+	@Override
+	protected void onInit() throws Exception {
+		super.onInit();
+		if (this.errorHandler == null) {
+			this.errorHandler = new MessagePublishingErrorHandler(new BeanFactoryChannelResolver(getBeanFactory()));
+		}
+		if (this.maxSubscribers == null) {
+			setMaxSubscribers(getIntegrationProperty(IntegrationProperties.CHANNELS_MAX_UNICAST_SUBSCRIBERS,
+					Integer.class));
+		}
+		if (this.partitionKeyExpression != null && this.evaluationContext == null) {
+			this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(getBeanFactory());
+		}
+		if (this.defaultThreadFactory != null && getComponentName() != null) {
+			this.defaultThreadFactory.setThreadNamePrefix(getComponentName() + "-partition-");
+		}
+		startPartitions();
+	}
+
+	private EvaluationContext obtainEvaluationContext() {
+		if (this.evaluationContext == null) {
+			this.evaluationContext = ExpressionUtils.createStandardEvaluationContext();
+		}
+		return this.evaluationContext;
+	}
+
+	private void startPartitions() {
+		if (!this.started) {
+			synchronized (this.startMonitor) {
+				if (!this.started) {
+					for (Partition partition : this.partitions) {
+						this.executor.execute(partition);
+					}
+					this.started = true;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected boolean doSend(Message<?> message, long timeout) {
+		if (getDispatcher().getHandlerCount() == 0) {
+			throw new MessageDeliveryException(message,
+					"Dispatcher has no subscribers for channel '" + getFullChannelName() + "'.");
+		}
+		startPartitions();
+		BlockingQueue<Runnable> queue = this.partitions[partitionFor(message)].queue;
+		Runnable task = createMessageHandlingTask(message);
+		try {
+			if (timeout < 0) {
+				queue.put(task);
+				return true;
+			}
+			return queue.offer(task, timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private int partitionFor(Message<?> message) {
+		Object key = this.partitionKeyFunction.apply(message);
+		if (key == null) {
+			return 0;
+		}
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return (hash & Integer.MAX_VALUE) % this.partitions.length;
+	}
+
+	private Runnable createMessageHandlingTask(Message<?> message) {
+		MessageHandlingRunnable task = new MessageHandlingRunnable() {
+
+			@Override
+			public void run() {
+				PartitionedChannel.this.dispatchHandler.handleMessage(message);
+			}
+
+			@Override
+			public Message<?> getMessage() {
+				return message;
+			}
+
+			@Override
+			public MessageHandler getMessageHandler() {
+				return PartitionedChannel.this.dispatchHandler;
+			}
+
+		};
+		return this.executorInterceptorsSize > 0 ? new MessageHandlingTask(task) : task;
+	}
+
+	@Override
+	public void destroy() {
+		this.stopped = true;
+		((ExecutorService) this.executor).shutdownNow();
+		int discarded = getQueueSize();
+		if (discarded > 0 && logger.isWarnEnabled()) {
+			logger.warn("Channel '" + getFullChannelName() + "' destroyed with " + discarded
+					+ " message(s) still queued; they are discarded.");
+		}
+	}
+
+	private void handleError(Throwable t) {
+		ErrorHandler errorHandler = this.errorHandler;
+		if (errorHandler != null) {
+			try {
+				errorHandler.handleError(t);
+				return;
+			}
+			catch (Throwable t2) { // NOSONAR
+				logger.error("Failed to handle error on channel '" + getFullChannelName() + "'", t2);
+			}
+		}
+		logger.error("Failed to handle message on channel '" + getFullChannelName() + "'", t);
+	}
+
+	private final class Partition implements Runnable {
+
+		private final BlockingQueue<Runnable> queue;
+
+		Partition(int capacity) {
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		@Override
+		public void run() {
+			while (!PartitionedChannel.this.stopped) {
+				Runnable task;
+				try {
+					task = this.queue.take();
+				}
+				catch (InterruptedException e) {
+					// only the channel shutdown stops the partition; check the flag again
+					continue;
+				}
+				try {
+					task.run();
+				}
+				catch (Throwable t) { // NOSONAR - the partition thread must survive any failure
+					handleError(t);
+				}
+				finally {
+					// a handler interrupting the thread must not stop the partition
+					Thread.interrupted();
+				}
+			}
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.channel;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
@@ -110,6 +111,41 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 
 	@Override
 	protected Message<?> doReceive(long timeout) {
+		return receiveFromQueue(timeout);
+	}
+
+	/**
+	 * Wait for the first message as {@link #doReceive(long)} does, then drain
+	 * up to {@code maxMessages - 1} more messages; a {@link BlockingQueue} is
+	 * drained with a single {@link BlockingQueue#drainTo(java.util.Collection, int)}.
+	 * @param maxMessages the maximum number of messages.
+	 * @param timeout The timeout.
+	 * @return the messages; empty if none.
+	 * @since 5.1
+	 */
+	@Override
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		Message<?> first = receiveFromQueue(timeout);
+		if (first == null) {
+			return Collections.emptyList();
+		}
+		List<Message<?>> messages = new ArrayList<>(Math.min(maxMessages, getQueueSize() + 1));
+		messages.add(first);
+		if (maxMessages > 1) {
+			if (this.queue instanceof BlockingQueue) {
+				((BlockingQueue<Message<?>>) this.queue).drainTo(messages, maxMessages - 1);
+			}
+			else {
+				Message<?> message;
+				while (messages.size() < maxMessages && (message = this.queue.poll()) != null) {
+					messages.add(message);
+				}
+			}
+		}
+		return messages;
+	}
+
+	private Message<?> receiveFromQueue(long timeout) {
 		try {
 			if (timeout > 0) {
 				if (this.queue instanceof BlockingQueue) {
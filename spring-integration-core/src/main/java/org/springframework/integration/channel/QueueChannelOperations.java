@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,19 @@ public interface QueueChannelOperations {
 	 */
 	List<Message<?>> purge(MessageSelector selector);
 
+	/**
+	 * Receive up to {@code maxMessages} {@link Message Messages} in one operation.
+	 * The timeout applies to the first message only; once one message is available,
+	 * any other messages already queued (up to {@code maxMessages}) are drained
+	 * without waiting.
+	 * @param maxMessages the maximum number of messages to receive.
+	 * @param timeout the time in milliseconds to wait for the first message;
+	 * a negative value blocks indefinitely, 0 returns immediately.
+	 * @return the received messages; never null, empty if none were available.
+	 * @since 5.1
+	 */
+	List<Message<?>> receive(int maxMessages, long timeout);
+
 	/**
 	 * @return The current number of queued {@link Message Messages} in this channel.
 	 */
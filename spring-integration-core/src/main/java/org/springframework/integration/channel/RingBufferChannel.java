@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.integration.core.MessageSelector;
+import org.springframework.integration.util.RingBufferQueue;
+import org.springframework.messaging.Message;
+
+/**
+ * A {@link QueueChannel} backed by a bounded, preallocated, lock-free
+ * {@link RingBufferQueue}. Sending and receiving does not take any lock and does not
+ * allocate per message, which reduces contention and garbage compared with the
+ * default {@link java.util.concurrent.LinkedBlockingQueue}.
+ * <p>
+ * By default, the channel supports any number of concurrent consumers (MPMC).
+ * Use {@code singleConsumer = true} (MPSC) only when the channel is polled by one
+ * thread at a time, for example by a {@code PollingConsumer} without a task executor.
+ * <p>
+ * Since the ring buffer does not support removal of arbitrary elements,
+ * {@link #purge(MessageSelector)} drains the channel and re-sends the accepted messages;
+ * concurrent sends may therefore be interleaved with the retained messages.
+ *
+ * @since 5.1
+ *
+ * @see RingBufferQueue
+ */
+public class RingBufferChannel extends QueueChannel {
+
+	private final RingBufferQueue<Message<?>> ringBuffer;
+
+	/**
+	 * Create a channel supporting multiple consumers with a
+	 * {@link RingBufferQueue.WaitStrategy#parking() parking} wait strategy.
+	 * @param capacity the capacity; rounded up to the next power of two.
+	 */
+	public RingBufferChannel(int capacity) {
+		this(new RingBufferQueue<>(capacity));
+	}
+
+	/**
+	 * Create a channel with the provided consumer mode and wait strategy.
+	 * @param capacity the capacity; rounded up to the next power of two.
+	 * @param singleConsumer true if the channel is polled by one thread at a time.
+	 * @param waitStrategy the wait strategy for blocked senders and receivers.
+	 */
+	public RingBufferChannel(int capacity, boolean singleConsumer, RingBufferQueue.WaitStrategy waitStrategy) {
+		this(new RingBufferQueue<>(capacity, singleConsumer, waitStrategy));
+	}
+
+	/**
+	 * Create a channel with the provided {@link RingBufferQueue}.
+	 * @param ringBuffer the ring buffer.
+	 */
+	public RingBufferChannel(RingBufferQueue<Message<?>> ringBuffer) {
+		super(ringBuffer);
+		this.ringBuffer = ringBuffer;
+	}
+
+	@Override
+	public List<Message<?>> purge(MessageSelector selector) {
+		if (selector == null) {
+			return clear();
+		}
+		List<Message<?>> purgedMessages = new ArrayList<>();
+		for (Message<?> message : clear()) {
+			if (!selector.accept(message) || !this.ringBuffer.offer(message)) {
+				purgedMessages.add(message);
+			}
+		}
+		return purgedMessages;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Serializer} and {@link Deserializer} that delegates to a {@link Codec};
+ * allows a codec to be used wherever a store or component accepts the
+ * {@code org.springframework.core.serializer} strategies.
+ *
+ * @param <T> the type of object to (de)serialize.
+ *
+ * @since 5.1
+ */
+public class CodecSerializer<T> implements Serializer<T>, Deserializer<T> {
+
+	private final Codec codec;
+
+	private final Class<?> type;
+
+	/**
+	 * Construct an instance for the provided codec and target type.
+	 * @param codec the codec.
+	 * @param type the type to decode to; must be compatible with {@code T}.
+	 */
+	public CodecSerializer(Codec codec, Class<?> type) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		Assert.notNull(type, "'type' cannot be null");
+		this.codec = codec;
+		this.type = type;
+	}
+
+	@Override
+	public void serialize(T object, OutputStream outputStream) throws IOException {
+		this.codec.encode(object, outputStream);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T deserialize(InputStream inputStream) throws IOException {
+		return (T) this.codec.decode(inputStream, this.type);
+	}
+
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * A {@link Codec} that compresses the data encoded by a delegate {@link Codec} when it
+ * reaches a size threshold. Each encoded value starts with a header byte identifying
+ * the {@link Algorithm} (or the absence of compression), so values are decoded
+ * regardless of the algorithm and threshold currently configured. Values that do not
+ * become smaller are stored uncompressed.
+ * <p>
+ * It can be used wherever a {@link Codec} is accepted, for example as the {@code codec}
+ * of the persistent message stores (and thus the store of a claim check transformer),
+ * or as a {@code Serializer}/{@code Deserializer} via a {@link CodecSerializer}. To
+ * compress standard Java serialization, delegate to a {@link SerializingCodec}.
+ * <p>
+ * {@link Algorithm#LZ4} requires {@code org.lz4:lz4-java} on the classpath, also for the
+ * applications that decode the values.
+ *
+ * @since 5.1
+ */
+public class CompressingCodec implements Codec {
+
+	private static final boolean LZ4_PRESENT =
+			ClassUtils.isPresent("net.jpountz.lz4.LZ4Factory", CompressingCodec.class.getClassLoader());
+
+	private static final byte UNCOMPRESSED = 0;
+
+	private final Codec delegate;
+
+	private final AtomicLong compressedCount = new AtomicLong();
+
+	private final AtomicLong uncompressedCount = new AtomicLong();
+
+	private final AtomicLong decompressedCount = new AtomicLong();
+
+	private final AtomicLong bytesBeforeCompression = new AtomicLong();
+
+	private final AtomicLong bytesAfterCompression = new AtomicLong();
+
+	private final AtomicLong compressionNanos = new AtomicLong();
+
+	private final AtomicLong decompressionNanos = new AtomicLong();
+
+	private volatile Algorithm algorithm = Algorithm.DEFLATE;
+
+	private volatile int threshold = 1024;
+
+	private volatile int level = Deflater.DEFAULT_COMPRESSION;
+
+	/**
+	 * Construct an instance compressing the data encoded by the provided codec.
+	 * @param delegate the codec.
+	 */
+	public CompressingCodec(Codec delegate) {
+		Assert.notNull(delegate, "'delegate' cannot be null");
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set the compression algorithm.
+	 * @param algorithm the algorithm; default {@link Algorithm#DEFLATE}.
+	 */
+	public void setAlgorithm(Algorithm algorithm) {
+		Assert.notNull(algorithm, "'algorithm' cannot be null");
+		Assert.state(algorithm != Algorithm.LZ4 || LZ4_PRESENT,
+				"The LZ4 algorithm requires 'org.lz4:lz4-java' on the classpath");
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Set the minimum size of the encoded data to compress; smaller data is stored
+	 * uncompressed after the header byte.
+	 * @param threshold the threshold in bytes; default 1024.
+	 */
+	public void setThreshold(int threshold) {
+		Assert.isTrue(threshold >= 0, "'threshold' cannot be negative");
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Set the compression level (0-9) for {@link Algorithm#GZIP} and
+	 * {@link Algorithm#DEFLATE}.
+	 * @param level the level; default {@link Deflater#DEFAULT_COMPRESSION}.
+	 */
+	public void setLevel(int level) {
+		Assert.isTrue(level == Deflater.DEFAULT_COMPRESSION
+				|| (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+				"'level' must be between 0 and 9");
+		this.level = level;
+	}
+
+	/**
+	 * Return true if the {@link Algorithm#LZ4} algorithm is available.
+	 * @return true if {@code lz4-java} is on the classpath.
+	 */
+	public static boolean isLz4Available() {
+		return LZ4_PRESENT;
+	}
+
+	@Override
+	public void encode(Object object, OutputStream outputStream) throws IOException {
+		outputStream.write(encode(object));
+		outputStream.flush();
+	}
+
+	@Override
+	public byte[] encode(Object object) throws IOException {
+		byte[] encoded = this.delegate.encode(object);
+		if (encoded.length >= this.threshold) {
+			Algorithm algorithm = this.algorithm;
+			long start = System.nanoTime();
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(encoded.length / 2 + 1);
+			compressed.write(algorithm.header);
+			try (OutputStream compressing = compressing(algorithm, compressed)) {
+				compressing.write(encoded);
+			}
+			this.compressionNanos.addAndGet(System.nanoTime() - start);
+			if (compressed.size() < encoded.length + 1) {
+				this.compressedCount.incrementAndGet();
+				this.bytesBeforeCompression.addAndGet(encoded.length);
+				this.bytesAfterCompression.addAndGet(compressed.size());
+				return compressed.toByteArray();
+			}
+		}
+		this.uncompressedCount.incrementAndGet();
+		byte[] bytes = new byte[encoded.length + 1];
+		bytes[0] = UNCOMPRESSED;
+		System.arraycopy(encoded, 0, bytes, 1, encoded.length);
+		return bytes;
+	}
+
+	@Override
+	public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+		Assert.notNull(bytes, "'bytes' cannot be null");
+		Assert.isTrue(bytes.length > 0, "'bytes' cannot be empty");
+		return doDecode(bytes[0], new ByteArrayInputStream(bytes, 1, bytes.length - 1), type);
+	}
+
+	@Override
+	public <T> T decode(InputStream inputStream, Class<T> type) throws IOException {
+		Assert.notNull(inputStream, "'inputStream' cannot be null");
+		int header = inputStream.read();
+		if (header < 0) {
+			throw new IOException("No data to decode");
+		}
+		return doDecode((byte) header, inputStream, type);
+	}
+
+	private <T> T doDecode(byte header, InputStream inputStream, Class<T> type) throws IOException {
+		if (header == UNCOMPRESSED) {
+			return this.delegate.decode(inputStream, type);
+		}
+		long start = System.nanoTime();
+		byte[] decompressed;
+		try (InputStream decompressing = decompressing(Algorithm.forHeader(header), inputStream)) {
+			decompressed = StreamUtils.copyToByteArray(decompressing);
+		}
+		this.decompressionNanos.addAndGet(System.nanoTime() - start);
+		this.decompressedCount.incrementAndGet();
+		return this.delegate.decode(decompressed, type);
+	}
+
+	private OutputStream compressing(Algorithm algorithm, OutputStream outputStream) throws IOException {
+		switch (algorithm) {
+			case GZIP:
+				return new LevelGZIPOutputStream(outputStream, this.level);
+			case DEFLATE:
+				return new EndingDeflaterOutputStream(outputStream, new Deflater(this.level));
+			default:
+				return Lz4Streams.compressing(outputStream);
+		}
+	}
+
+	private static InputStream decompressing(Algorithm algorithm, InputStream inputStream) throws IOException {
+		switch (algorithm) {
+			case GZIP:
+				return new GZIPInputStream(inputStream);
+			case DEFLATE:
+				return new InflaterInputStream(inputStream);
+			default:
+				Assert.state(LZ4_PRESENT,
+						"Cannot decode LZ4 compressed data; 'org.lz4:lz4-java' is not on the classpath");
+				return Lz4Streams.decompressing(inputStream);
+		}
+	}
+
+	@ManagedAttribute(description = "Number of values stored compressed")
+	public long getCompressedCount() {
+		return this.compressedCount.get();
+	}
+
+	@ManagedAttribute(description = "Number of values stored uncompressed (below the threshold or not compressible)")
+	public long getUncompressedCount() {
+		return this.uncompressedCount.get();
+	}
+
+	@ManagedAttribute(description = "Number of compressed values decoded")
+	public long getDecompressedCount() {
+		return this.decompressedCount.get();
+	}
+
+	/**
+	 * Return the ratio of the compressed size to the original size of the values
+	 * stored compressed; e.g. 0.25 when the values were reduced to a quarter.
+	 * @return the ratio, 1 if nothing has been compressed.
+	 */
+	@ManagedAttribute(description = "Compressed size / original size of the compressed values")
+	public double getCompressionRatio() {
+		long before = this.bytesBeforeCompression.get();
+		return before == 0 ? 1.0d : (double) this.bytesAfterCompression.get() / before;
+	}
+
+	/**
+	 * Return the mean time spent compressing a value that reached the threshold,
+	 * including the values found not to be compressible.
+	 * @return the mean time in milliseconds.
+	 */
+	@ManagedAttribute(description = "Mean compression time in milliseconds")
+	public double getMeanCompressionTime() {
+		long count = this.compressedCount.get() + this.uncompressedCount.get();
+		return mean(this.compressionNanos.get(), count);
+	}
+
+	/**
+	 * Return the mean time spent decompressing a value.
+	 * @return the mean time in milliseconds.
+	 */
+	@ManagedAttribute(description = "Mean decompression time in milliseconds")
+	public double getMeanDecompressionTime() {
+		return mean(this.decompressionNanos.get(), this.decompressedCount.get());
+	}
+
+	@ManagedOperation
+	public void reset() {
+		this.compressedCount.set(0);
+		this.uncompressedCount.set(0);
+		this.decompressedCount.set(0);
+		this.bytesBeforeCompression.set(0);
+		this.bytesAfterCompression.set(0);
+		this.compressionNanos.set(0);
+		this.decompressionNanos.set(0);
+	}
+
+	private static double mean(long nanos, long count) {
+		return count == 0 ? 0.0d : (double) nanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * The compression algorithms and their header bytes.
+	 */
+	public enum Algorithm {
+
+		GZIP(1),
+
+		DEFLATE(2),
+
+		/**
+		 * Requires {@code org.lz4:lz4-java} on the classpath.
+		 */
+		LZ4(3);
+
+		private final byte header;
+
+		Algorithm(int header) {
+			this.header = (byte) header;
+		}
+
+		static Algorithm forHeader(byte header) throws IOException {
+			for (Algorithm algorithm : values()) {
+				if (algorithm.header == header) {
+					return algorithm;
+				}
+			}
+			throw new IOException("Unknown compression header: " + header);
+		}
+
+	}
+
+	private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+
+		LevelGZIPOutputStream(OutputStream outputStream, int level) throws IOException {
+			super(outputStream);
+			this.def.setLevel(level);
+		}
+
+	}
+
+	/**
+	 * Releases the native resources of its own {@link Deflater} on close.
+	 */
+	private static final class EndingDeflaterOutputStream extends DeflaterOutputStream {
+
+		EndingDeflaterOutputStream(OutputStream outputStream, Deflater deflater) {
+			super(outputStream, deflater);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			}
+			finally {
+				this.def.end();
+			}
+		}
+
+	}
+
+}
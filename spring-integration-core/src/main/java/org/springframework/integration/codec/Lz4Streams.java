@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+
+/**
+ * LZ4 streams for the {@link CompressingCodec}; a separate class so that
+ * {@code lz4-java} is only loaded when LZ4 is used.
+ *
+ * @since 5.1
+ */
+final class Lz4Streams {
+
+	private Lz4Streams() {
+		super();
+	}
+
+	static OutputStream compressing(OutputStream outputStream) {
+		return new LZ4BlockOutputStream(outputStream);
+	}
+
+	static InputStream decompressing(InputStream inputStream) {
+		return new LZ4BlockInputStream(inputStream);
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.support.converter.WhiteListDeserializingConverter;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+/**
+ * A {@link Codec} that delegates to a {@link Serializer} and a {@link Deserializer}, by
+ * default standard Java serialization, as used by the message stores unless configured
+ * otherwise. It allows those stores to use codec based features, such as a
+ * {@link CompressingCodec}, while keeping their serialization format.
+ * <p>
+ * Decoding is performed by a {@link WhiteListDeserializingConverter}, so deserialization
+ * of untrusted data can be restricted to the classes/packages added with
+ * {@link #setWhiteListPatterns(String...)} or {@link #addWhiteListPatterns(String...)}.
+ * The white list of a store does not apply to the codec it uses; configure it here
+ * instead.
+ *
+ * @since 5.1
+ */
+public class SerializingCodec implements Codec {
+
+	private final Serializer<Object> serializer;
+
+	private final WhiteListDeserializingConverter deserializingConverter;
+
+	/**
+	 * Construct an instance using standard Java serialization.
+	 */
+	public SerializingCodec() {
+		this(new DefaultSerializer(), new DefaultDeserializer());
+	}
+
+	/**
+	 * Construct an instance using standard Java serialization and the provided class
+	 * loader for deserialization.
+	 * @param classLoader the class loader.
+	 */
+	public SerializingCodec(ClassLoader classLoader) {
+		this(new DefaultSerializer(), new DefaultDeserializer(classLoader));
+	}
+
+	/**
+	 * Construct an instance using the provided serializer and deserializer. The white
+	 * list applies only to a {@link DefaultDeserializer}.
+	 * @param serializer the serializer.
+	 * @param deserializer the deserializer.
+	 */
+	public SerializingCodec(Serializer<Object> serializer, Deserializer<Object> deserializer) {
+		Assert.notNull(serializer, "'serializer' cannot be null");
+		Assert.notNull(deserializer, "'deserializer' cannot be null");
+		this.serializer = serializer;
+		this.deserializingConverter = new WhiteListDeserializingConverter(deserializer);
+	}
+
+	/**
+	 * Set simple patterns for allowable packages/classes for deserialization.
+	 * @param patterns the patterns.
+	 * @see WhiteListDeserializingConverter#setWhiteListPatterns(String...)
+	 */
+	public void setWhiteListPatterns(String... patterns) {
+		this.deserializingConverter.setWhiteListPatterns(patterns);
+	}
+
+	/**
+	 * Add package/class patterns to the white list.
+	 * @param patterns the patterns to add.
+	 * @see WhiteListDeserializingConverter#addWhiteListPatterns(String...)
+	 */
+	public void addWhiteListPatterns(String... patterns) {
+		this.deserializingConverter.addWhiteListPatterns(patterns);
+	}
+
+	@Override
+	public void encode(Object object, OutputStream outputStream) throws IOException {
+		this.serializer.serialize(object, outputStream);
+	}
+
+	@Override
+	public byte[] encode(Object object) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1024);
+		this.serializer.serialize(object, outputStream);
+		return outputStream.toByteArray();
+	}
+
+	@Override
+	public <T> T decode(InputStream inputStream, Class<T> type) throws IOException {
+		return decode(StreamUtils.copyToByteArray(inputStream), type);
+	}
+
+	@Override
+	public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+		Object decoded = this.deserializingConverter.convert(bytes);
+		Assert.isInstanceOf(type, decoded);
+		return type.cast(decoded);
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec.kryo;
+
+import org.springframework.integration.store.MessageHolder;
+import org.springframework.messaging.Message;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Kryo Serializer for {@link MessageHolder}. The message id is not written separately
+ * since it is restored from the message headers.
+ *
+ * @since 5.1
+ */
+class MessageHolderSerializer extends Serializer<MessageHolder> {
+
+	@Override
+	public void write(Kryo kryo, Output output, MessageHolder holder) {
+		kryo.writeClassAndObject(output, holder.getMessage());
+		output.writeLong(holder.getMessageMetadata().getTimestamp());
+	}
+
+	@Override
+	public MessageHolder read(Kryo kryo, Input input, Class<MessageHolder> type) {
+		MessageHolder holder = new MessageHolder((Message<?>) kryo.readClassAndObject(input));
+		holder.setTimestamp(input.readLong());
+		return holder;
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec.kryo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * {@link PojoCodec} for the persistent message stores; encodes messages,
+ * {@code MessageHolder}s and {@code MessageGroupMetadata} using the registrations
+ * of a {@link MessageStoreKryoRegistrar}. The concrete type is written with the value,
+ * so any stored object can be decoded using {@code Object.class} or a super type.
+ * Payload types can be registered with additional {@link KryoRegistrar}s to avoid
+ * writing class names; their ids must remain stable for data that is already stored.
+ *
+ * @since 5.1
+ */
+public class MessageStoreCodec extends PojoCodec {
+
+	/**
+	 * Construct an instance using the default registration ids.
+	 */
+	public MessageStoreCodec() {
+		this(new MessageStoreKryoRegistrar());
+	}
+
+	/**
+	 * Construct an instance using a custom registrar for the store types and,
+	 * optionally, additional registrars for payload types.
+	 * @param registrar the registrar for the store types.
+	 * @param additionalRegistrars registrars for payload types.
+	 */
+	public MessageStoreCodec(MessageStoreKryoRegistrar registrar, KryoRegistrar... additionalRegistrars) {
+		super(registrars(registrar, additionalRegistrars));
+	}
+
+	@Override
+	protected void doEncode(Kryo kryo, Object object, Output output) {
+		kryo.writeClassAndObject(output, object);
+	}
+
+	@Override
+	protected <T> T doDecode(Kryo kryo, Input input, Class<T> type) {
+		return type.cast(kryo.readClassAndObject(input));
+	}
+
+	private static List<KryoRegistrar> registrars(MessageStoreKryoRegistrar registrar,
+			KryoRegistrar... additionalRegistrars) {
+
+		Assert.notNull(registrar, "'registrar' cannot be null");
+		List<KryoRegistrar> registrars = new ArrayList<>();
+		registrars.add(registrar);
+		registrars.addAll(Arrays.asList(additionalRegistrars));
+		return registrars;
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec.kryo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.store.MessageGroupMetadata;
+import org.springframework.integration.store.MessageHolder;
+import org.springframework.integration.support.MutableMessage;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+
+import com.esotericsoftware.kryo.Registration;
+
+/**
+ * Registers the types persisted by the message stores - messages, message headers,
+ * {@link MessageHolder} and {@link MessageGroupMetadata} - with fixed registration
+ * ids, so that stored data can be read back by other instances and after restarts.
+ * Unlike {@link MessageKryoRegistrar}, {@link MessageHeaders} are restored with
+ * their original {@code id} and {@code timestamp}.
+ *
+ * @since 5.1
+ */
+public class MessageStoreKryoRegistrar extends MessageKryoRegistrar {
+
+	private int uuidRegistrationId = RegistrationIds.DEFAULT_UUID_ID;
+
+	private int genericMessageRegistrationId = RegistrationIds.DEFAULT_GENERIC_MESSAGE_ID;
+
+	private int errorMessageRegistrationId = RegistrationIds.DEFAULT_ERROR_MESSAGE_ID;
+
+	private int mutableMessageRegistrationId = RegistrationIds.DEFAULT_MUTABLE_MESSAGE_ID;
+
+	private int adviceMessageRegistrationId = RegistrationIds.DEFAULT_ADVICE_MESSAGE_ID;
+
+	private int messageHolderRegistrationId = RegistrationIds.DEFAULT_MESSAGE_HOLDER_ID;
+
+	private int messageGroupMetadataRegistrationId = RegistrationIds.DEFAULT_MESSAGE_GROUP_METADATA_ID;
+
+	/**
+	 * Set the registration id for {@link UUID}.
+	 * @param uuidRegistrationId the id, default 43.
+	 */
+	public void setUuidRegistrationId(int uuidRegistrationId) {
+		this.uuidRegistrationId = uuidRegistrationId;
+	}
+
+	/**
+	 * Set the registration id for {@link GenericMessage}.
+	 * @param genericMessageRegistrationId the id, default 44.
+	 */
+	public void setGenericMessageRegistrationId(int genericMessageRegistrationId) {
+		this.genericMessageRegistrationId = genericMessageRegistrationId;
+	}
+
+	/**
+	 * Set the registration id for {@link ErrorMessage}.
+	 * @param errorMessageRegistrationId the id, default 45.
+	 */
+	public void setErrorMessageRegistrationId(int errorMessageRegistrationId) {
+		this.errorMessageRegistrationId = errorMessageRegistrationId;
+	}
+
+	/**
+	 * Set the registration id for {@link MutableMessage}.
+	 * @param mutableMessageRegistrationId the id, default 46.
+	 */
+	public void setMutableMessageRegistrationId(int mutableMessageRegistrationId) {
+		this.mutableMessageRegistrationId = mutableMessageRegistrationId;
+	}
+
+	/**
+	 * Set the registration id for {@link AdviceMessage}.
+	 * @param adviceMessageRegistrationId the id, default 47.
+	 */
+	public void setAdviceMessageRegistrationId(int adviceMessageRegistrationId) {
+		this.adviceMessageRegistrationId = adviceMessageRegistrationId;
+	}
+
+	/**
+	 * Set the registration id for {@link MessageHolder}.
+	 * @param messageHolderRegistrationId the id, default 48.
+	 */
+	public void setMessageHolderRegistrationId(int messageHolderRegistrationId) {
+		this.messageHolderRegistrationId = messageHolderRegistrationId;
+	}
+
+	/**
+	 * Set the registration id for {@link MessageGroupMetadata}.
+	 * @param messageGroupMetadataRegistrationId the id, default 49.
+	 */
+	public void setMessageGroupMetadataRegistrationId(int messageGroupMetadataRegistrationId) {
+		this.messageGroupMetadataRegistrationId = messageGroupMetadataRegistrationId;
+	}
+
+	@Override
+	public List<Registration> getRegistrations() {
+		List<Registration> registrations = new ArrayList<>();
+		for (Registration registration : super.getRegistrations()) {
+			if (MessageHeaders.class.equals(registration.getType())) {
+				registrations.add(new Registration(MessageHeaders.class, new StoredMessageHeadersSerializer(),
+						registration.getId()));
+			}
+			else {
+				registrations.add(registration);
+			}
+		}
+		registrations.add(new Registration(UUID.class, new UUIDSerializer(), this.uuidRegistrationId));
+		registrations.add(new Registration(GenericMessage.class, kryo.getSerializer(GenericMessage.class),
+				this.genericMessageRegistrationId));
+		registrations.add(new Registration(ErrorMessage.class, kryo.getSerializer(ErrorMessage.class),
+				this.errorMessageRegistrationId));
+		registrations.add(new Registration(MutableMessage.class, kryo.getSerializer(MutableMessage.class),
+				this.mutableMessageRegistrationId));
+		registrations.add(new Registration(AdviceMessage.class, kryo.getSerializer(AdviceMessage.class),
+				this.adviceMessageRegistrationId));
+		registrations.add(new Registration(MessageHolder.class, new MessageHolderSerializer(),
+				this.messageHolderRegistrationId));
+		registrations.add(new Registration(MessageGroupMetadata.class,
+				kryo.getSerializer(MessageGroupMetadata.class), this.messageGroupMetadataRegistrationId));
+		return registrations;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2016 the original author or authors.
+ * Copyright 2015-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,48 @@ public final class RegistrationIds {
 
 	public static final int DEFAULT_MUTABLE_MESSAGEHEADERS_ID = 42;
 
+	/**
+	 * Default registration id for {@link java.util.UUID}.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_UUID_ID = 43;
+
+	/**
+	 * Default registration id for {@code GenericMessage}.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_GENERIC_MESSAGE_ID = 44;
+
+	/**
+	 * Default registration id for {@code ErrorMessage}.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_ERROR_MESSAGE_ID = 45;
+
+	/**
+	 * Default registration id for {@code MutableMessage}.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_MUTABLE_MESSAGE_ID = 46;
+
+	/**
+	 * Default registration id for {@code AdviceMessage}.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_ADVICE_MESSAGE_ID = 47;
+
+	/**
+	 * Default registration id for {@code MessageHolder}.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_MESSAGE_HOLDER_ID = 48;
+
+	/**
+	 * Default registration id for {@code MessageGroupMetadata}.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_MESSAGE_GROUP_METADATA_ID = 49;
+
 	private RegistrationIds() { }
 
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec.kryo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.messaging.MessageHeaders;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+
+/**
+ * Kryo Serializer for {@link MessageHeaders} that retains the original {@code id}
+ * and {@code timestamp} headers, as required when messages are restored from a
+ * message store.
+ *
+ * @since 5.1
+ */
+class StoredMessageHeadersSerializer extends MessageHeadersSerializer {
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public MessageHeaders read(Kryo kryo, Input input, Class<MessageHeaders> type) {
+		Map<String, Object> headers = kryo.readObject(input, HashMap.class);
+		MessageHeaders messageHeaders = new MessageHeaders(headers);
+		Map<String, Object> innerMap =
+				(Map<String, Object>) new DirectFieldAccessor(messageHeaders).getPropertyValue("headers");
+		// using reflection to set ID and TIMESTAMP since they are immutable through MessageHeaders
+		innerMap.put(MessageHeaders.ID, headers.get(MessageHeaders.ID));
+		innerMap.put(MessageHeaders.TIMESTAMP, headers.get(MessageHeaders.TIMESTAMP));
+		return messageHeaders;
+	}
+
+}
@@ -302,6 +302,8 @@ public class ConsumerEndpointFactoryBean
 				pollingConsumer.setErrorHandler(this.pollerMetadata.getErrorHandler());
 
 				pollingConsumer.setReceiveTimeout(this.pollerMetadata.getReceiveTimeout());
+				pollingConsumer.setReceiveBatchSize(this.pollerMetadata.getReceiveBatchSize());
+				pollingConsumer.setHandleBatchAsList(this.pollerMetadata.isHandleBatchAsList());
 				pollingConsumer.setTransactionSynchronizationFactory(
 						this.pollerMetadata.getTransactionSynchronizationFactory());
 				pollingConsumer.setBeanClassLoader(this.beanClassLoader);
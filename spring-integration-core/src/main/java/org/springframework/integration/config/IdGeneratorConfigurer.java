@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.ApplicationContext;
@@ -30,9 +31,16 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ApplicationContextEvent;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.context.IntegrationProperties;
+import org.springframework.integration.support.IdGenerators;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.IdGenerator;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * @author Oleg Zhurakousky
@@ -57,6 +65,12 @@ public final class IdGeneratorConfigurer implements ApplicationListener<Applicat
 					IdGeneratorConfigurer.generatorContextId.add(context.getId());
 				}
 			}
+			else {
+				IdGenerator idGenerator = idGeneratorFromProperties(context);
+				if (idGenerator != null && this.setIdGenerator(idGenerator)) {
+					IdGeneratorConfigurer.generatorContextId.add(context.getId());
+				}
+			}
 		}
 		else if (event instanceof ContextClosedEvent) {
 			if (IdGeneratorConfigurer.generatorContextId.contains(context.getId())) {
@@ -74,6 +88,24 @@ public final class IdGeneratorConfigurer implements ApplicationListener<Applicat
 			if (this.logger.isDebugEnabled()) {
 				this.logger.debug("using custom MessageHeaders.IdGenerator [" + idGeneratorBean.getClass() + "]");
 			}
+			return setIdGenerator(idGeneratorBean);
+		}
+		catch (NoSuchBeanDefinitionException e) {
+			// No custom IdGenerator. We will use the default.
+			int idBeans = context.getBeansOfType(IdGenerator.class).size();
+			if (idBeans > 1 && this.logger.isWarnEnabled()) {
+				this.logger.warn("Found too many 'IdGenerator' beans (" + idBeans + ") " +
+						"Will use the existing UUID strategy.");
+			}
+			else if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Unable to locate MessageHeaders.IdGenerator. Will use the existing UUID strategy.");
+			}
+			return false;
+		}
+	}
+
+	private boolean setIdGenerator(IdGenerator idGeneratorBean) {
+		try {
 			Field idGeneratorField = ReflectionUtils.findField(MessageHeaders.class, "idGenerator");
 			ReflectionUtils.makeAccessible(idGeneratorField);
 			IdGenerator currentIdGenerator = (IdGenerator) ReflectionUtils.getField(idGeneratorField, null);
@@ -102,18 +134,6 @@ public final class IdGeneratorConfigurer implements ApplicationListener<Applicat
 			ReflectionUtils.setField(idGeneratorField, null, idGeneratorBean);
 			IdGeneratorConfigurer.theIdGenerator = idGeneratorBean;
 		}
-		catch (NoSuchBeanDefinitionException e) {
-			// No custom IdGenerator. We will use the default.
-			int idBeans = context.getBeansOfType(IdGenerator.class).size();
-			if (idBeans > 1 && this.logger.isWarnEnabled()) {
-				this.logger.warn("Found too many 'IdGenerator' beans (" + idBeans + ") " +
-						"Will use the existing UUID strategy.");
-			}
-			else if (this.logger.isDebugEnabled()) {
-				this.logger.debug("Unable to locate MessageHeaders.IdGenerator. Will use the existing UUID strategy.");
-			}
-			return false;
-		}
 		catch (IllegalStateException e) {
 			// thrown from ReflectionUtils
 			if (this.logger.isWarnEnabled()) {
@@ -125,6 +145,41 @@ public final class IdGeneratorConfigurer implements ApplicationListener<Applicat
 		return true;
 	}
 
+	/**
+	 * Create the {@link IdGenerator} configured with the
+	 * {@link IntegrationProperties#MESSAGE_ID_GENERATOR} property, if any.
+	 * @param context the application context.
+	 * @return the id generator or null.
+	 */
+	@Nullable
+	private static IdGenerator idGeneratorFromProperties(ApplicationContext context) {
+		String generator = IntegrationContextUtils.getIntegrationProperties(context)
+				.getProperty(IntegrationProperties.MESSAGE_ID_GENERATOR);
+		if (!StringUtils.hasText(generator)) {
+			return null;
+		}
+		switch (generator.trim()) {
+			case "jdk":
+				return new IdGenerators.JdkIdGenerator();
+			case "simple":
+				return new IdGenerators.SimpleIncrementingIdGenerator();
+			case "time-ordered":
+				return new IdGenerators.ThreadLocalTimeOrderedIdGenerator();
+			case "monotonic":
+				return new IdGenerators.MonotonicIdGenerator();
+			default:
+				try {
+					Class<?> generatorClass = ClassUtils.forName(generator.trim(), context.getClassLoader());
+					Assert.isAssignable(IdGenerator.class, generatorClass);
+					return (IdGenerator) BeanUtils.instantiateClass(generatorClass);
+				}
+				catch (ClassNotFoundException | LinkageError e) {
+					throw new BeanDefinitionStoreException("Cannot load the '" + generator + "' class configured with the '"
+							+ IntegrationProperties.MESSAGE_ID_GENERATOR + "' property", e);
+				}
+		}
+	}
+
 	private void unsetIdGenerator() {
 		try {
 			Field idGeneratorField = ReflectionUtils.findField(MessageHeaders.class, "idGenerator");
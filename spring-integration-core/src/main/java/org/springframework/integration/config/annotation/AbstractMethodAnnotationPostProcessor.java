@@ -410,7 +410,10 @@ public abstract class AbstractMethodAnnotationPostProcessor<T extends Annotation
 		pollingEndpoint.setMaxMessagesPerPoll(pollerMetadata.getMaxMessagesPerPoll());
 		pollingEndpoint.setErrorHandler(pollerMetadata.getErrorHandler());
 		if (pollingEndpoint instanceof PollingConsumer) {
-			((PollingConsumer) pollingEndpoint).setReceiveTimeout(pollerMetadata.getReceiveTimeout());
+			PollingConsumer pollingConsumer = (PollingConsumer) pollingEndpoint;
+			pollingConsumer.setReceiveTimeout(pollerMetadata.getReceiveTimeout());
+			pollingConsumer.setReceiveBatchSize(pollerMetadata.getReceiveBatchSize());
+			pollingConsumer.setHandleBatchAsList(pollerMetadata.isHandleBatchAsList());
 		}
 		pollingEndpoint.setTransactionSynchronizationFactory(pollerMetadata.getTransactionSynchronizationFactory());
 	}
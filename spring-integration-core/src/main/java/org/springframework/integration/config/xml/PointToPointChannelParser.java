@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import org.w3c.dom.Element;
 
 import org.springframework.beans.factory.config.TypedStringValue;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.ExecutorChannel;
@@ -27,6 +28,8 @@ import org.springframework.integration.channel.FixedSubscriberChannel;
 import org.springframework.integration.channel.PriorityChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.channel.RendezvousChannel;
+import org.springframework.integration.dispatcher.LeastOutstandingLoadBalancingStrategy;
+import org.springframework.integration.dispatcher.PowerOfTwoChoicesLoadBalancingStrategy;
 import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.util.StringUtils;
 import org.springframework.util.xml.DomUtils;
@@ -140,8 +143,8 @@ public class PointToPointChannelParser extends AbstractChannelParser {
 			else {
 				builder = BeanDefinitionBuilder.genericBeanDefinition(DirectChannel.class);
 			}
-			// unless the 'load-balancer' attribute is explicitly set to 'none'
-			// or 'load-balancer-ref' is explicitly configured,
+			// unless the 'load-balancer' attribute is explicitly set to 'none', 'least-outstanding'
+			// or 'power-of-two-choices', or 'load-balancer-ref' is explicitly configured,
 			// configure the default RoundRobinLoadBalancingStrategy
 			String loadBalancer = dispatcherElement.getAttribute("load-balancer");
 			String loadBalancerRef = dispatcherElement.getAttribute("load-balancer-ref");
@@ -156,6 +159,14 @@ public class PointToPointChannelParser extends AbstractChannelParser {
 				if ("none".equals(loadBalancer)) {
 					builder.addConstructorArgValue(null);
 				}
+				else if ("least-outstanding".equals(loadBalancer)) {
+					builder.addConstructorArgValue(
+							new RootBeanDefinition(LeastOutstandingLoadBalancingStrategy.class));
+				}
+				else if ("power-of-two-choices".equals(loadBalancer)) {
+					builder.addConstructorArgValue(
+							new RootBeanDefinition(PowerOfTwoChoicesLoadBalancingStrategy.class));
+				}
 			}
 
 			IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, dispatcherElement, "failover");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -84,6 +84,8 @@ public class PollerParser extends AbstractBeanDefinitionParser {
 
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(metadataBuilder, element, "max-messages-per-poll");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(metadataBuilder, element, "receive-timeout");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(metadataBuilder, element, "receive-batch-size");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(metadataBuilder, element, "handle-batch-as-list");
 		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(metadataBuilder, element, "task-executor");
 
 		Element txElement = DomUtils.getChildElementByTagName(element, "transactional");
@@ -77,6 +77,32 @@ public final class IntegrationProperties {
 	 */
 	public static final String ENDPOINTS_NO_AUTO_STARTUP = INTEGRATION_PROPERTIES_PREFIX + "endpoints.noAutoStartup";
 
+	/**
+	 * Specifies the {@link org.springframework.util.IdGenerator} for message ids when no
+	 * {@code IdGenerator} bean is present: {@code jdk}, {@code simple}, {@code time-ordered},
+	 * {@code monotonic} or a fully qualified class name. Empty for the default strategy.
+	 * @since 5.1
+	 * @see org.springframework.integration.config.IdGeneratorConfigurer
+	 */
+	public static final String MESSAGE_ID_GENERATOR = INTEGRATION_PROPERTIES_PREFIX + "messageIdGenerator";
+
+	/**
+	 * Specifies the default value of
+	 * {@link org.springframework.integration.handler.support.MessagingMethodInvokerHelper#setUseDirectInvoker(boolean)}.
+	 * @since 5.1
+	 */
+	public static final String METHOD_INVOKER_DIRECT = INTEGRATION_PROPERTIES_PREFIX + "methodInvoker.direct";
+
+	/**
+	 * Specifies the {@link org.springframework.expression.spel.SpelCompilerMode} ({@code off},
+	 * {@code mixed} or {@code immediate}) for expressions evaluated by the
+	 * {@link org.springframework.integration.handler.ExpressionEvaluatingMessageProcessor}.
+	 * Empty to leave the compilation to the parser configuration.
+	 * @since 5.1
+	 * @see org.springframework.integration.expression.CompilingExpression
+	 */
+	public static final String SPEL_COMPILER_MODE = INTEGRATION_PROPERTIES_PREFIX + "spel.compilerMode";
+
 	private static Properties defaults;
 
 	static {
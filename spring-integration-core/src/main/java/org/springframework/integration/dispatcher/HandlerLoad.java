@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The load figures of a single {@link org.springframework.messaging.MessageHandler}
+ * as tracked by a {@link LoadTrackingLoadBalancingStrategy}: the number of messages
+ * currently being handled and an exponential moving average of the time taken to
+ * handle a message successfully. All counters are updated without locking.
+ *
+ * @since 5.1
+ */
+public final class HandlerLoad {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final LongAdder completed = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final AtomicLong meanDurationBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+	private final double smoothingFactor;
+
+	HandlerLoad(double smoothingFactor) {
+		this.smoothingFactor = smoothingFactor;
+	}
+
+	void started() {
+		this.inFlight.incrementAndGet();
+	}
+
+	void completed(long durationNanos, boolean success) {
+		this.inFlight.decrementAndGet();
+		if (success) {
+			this.completed.increment();
+			updateMeanDuration(durationNanos);
+		}
+		else {
+			this.failed.increment();
+		}
+	}
+
+	private void updateMeanDuration(long durationNanos) {
+		while (true) {
+			long currentBits = this.meanDurationBits.get();
+			double current = Double.longBitsToDouble(currentBits);
+			double next = Double.isNaN(current)
+					? durationNanos
+					: current + this.smoothingFactor * (durationNanos - current);
+			if (this.meanDurationBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Return the number of messages the handler is currently handling.
+	 * @return the in-flight count.
+	 */
+	public int getInFlight() {
+		return this.inFlight.get();
+	}
+
+	/**
+	 * Return the moving average of the successful handling time, in milliseconds;
+	 * {@code 0} until the handler has handled a message.
+	 * @return the mean duration.
+	 */
+	public double getMeanDuration() {
+		return meanDurationNanos() / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Return the number of messages the handler has handled successfully.
+	 * @return the count.
+	 */
+	public long getCompletedCount() {
+		return this.completed.sum();
+	}
+
+	/**
+	 * Return the number of messages for which the handler threw an exception.
+	 * @return the count.
+	 */
+	public long getFailedCount() {
+		return this.failed.sum();
+	}
+
+	double meanDurationNanos() {
+		double mean = Double.longBitsToDouble(this.meanDurationBits.get());
+		return Double.isNaN(mean) ? 0 : mean;
+	}
+
+	/**
+	 * Compare the load of two handlers: the one with fewer messages in flight is
+	 * less loaded; on a tie, the one with the lower mean duration.
+	 * @param load1 the first load.
+	 * @param load2 the second load.
+	 * @return a negative integer, zero, or a positive integer as the first load is
+	 * lower than, equal to, or higher than the second.
+	 */
+	static int compare(HandlerLoad load1, HandlerLoad load2) {
+		int result = Integer.compare(load1.getInFlight(), load2.getInFlight());
+		if (result == 0) {
+			result = Double.compare(load1.meanDurationNanos(), load2.meanDurationNanos());
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "HandlerLoad [inFlight=" + getInFlight() + ", meanDuration=" + getMeanDuration()
+				+ ", completed=" + getCompletedCount() + ", failed=" + getFailedCount() + "]";
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.messaging.MessageHandler;
+
+/**
+ * A {@link LoadBalancingStrategy} that selects the handler with the fewest messages
+ * in flight ("least outstanding requests"); on a tie, the one with the lower
+ * moving-average duration. The scan starts at a different handler on each dispatch,
+ * so equally loaded handlers are used in turn.
+ *
+ * @since 5.1
+ */
+public class LeastOutstandingLoadBalancingStrategy extends LoadTrackingLoadBalancingStrategy {
+
+	private final AtomicInteger offset = new AtomicInteger();
+
+	@Override
+	protected int select(MessageHandler[] handlers) {
+		int size = handlers.length;
+		int start = (this.offset.getAndIncrement() & Integer.MAX_VALUE) % size;
+		int selected = start;
+		HandlerLoad selectedLoad = getLoad(handlers[start]);
+		for (int i = 1; i < size; i++) {
+			int index = (start + i) % size;
+			HandlerLoad load = getLoad(handlers[index]);
+			if (HandlerLoad.compare(load, selectedLoad) < 0) {
+				selected = index;
+				selectedLoad = load;
+			}
+		}
+		return selected;
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.util.Assert;
+
+/**
+ * Base class for {@link LoadBalancingStrategy} implementations that choose a handler
+ * based on its current load. The {@link UnicastingDispatcher} reports the start and
+ * the end of each handler invocation, from which a {@link HandlerLoad} (in-flight
+ * count and moving-average duration) is maintained per handler.
+ * <p>
+ * The handler returned first by the iterator is the one selected by
+ * {@link #select(MessageHandler[])}; the remaining handlers follow in their
+ * subscription order, for failover.
+ * <p>
+ * A strategy instance keeps the load of the handlers of a single channel and must
+ * not be shared between channels.
+ *
+ * @since 5.1
+ */
+public abstract class LoadTrackingLoadBalancingStrategy implements LoadBalancingStrategy {
+
+	/**
+	 * The default weight of the latest duration in the moving average.
+	 */
+	public static final double DEFAULT_SMOOTHING_FACTOR = 0.2;
+
+	private final ConcurrentMap<MessageHandler, HandlerLoad> loads = new ConcurrentHashMap<>();
+
+	private volatile double smoothingFactor = DEFAULT_SMOOTHING_FACTOR;
+
+	/**
+	 * Set the weight (between 0 exclusive and 1 inclusive) of the latest duration in
+	 * the exponential moving average of handler durations; higher values react
+	 * faster to changes. Applies to handlers not yet seen by this strategy.
+	 * Default {@value #DEFAULT_SMOOTHING_FACTOR}.
+	 * @param smoothingFactor the smoothing factor.
+	 */
+	public void setSmoothingFactor(double smoothingFactor) {
+		Assert.isTrue(smoothingFactor > 0 && smoothingFactor <= 1, "'smoothingFactor' must be in (0, 1]");
+		this.smoothingFactor = smoothingFactor;
+	}
+
+	@Override
+	public final Iterator<MessageHandler> getHandlerIterator(Message<?> message, Collection<MessageHandler> handlers) {
+		int size = handlers.size();
+		if (size < 2) {
+			return handlers.iterator();
+		}
+		MessageHandler[] candidates = handlers.toArray(new MessageHandler[size]);
+		int selected = select(candidates);
+		if (selected > 0) {
+			MessageHandler handler = candidates[selected];
+			System.arraycopy(candidates, 0, candidates, 1, selected);
+			candidates[0] = handler;
+		}
+		return Arrays.asList(candidates).iterator();
+	}
+
+	/**
+	 * Select the handler that should be tried first.
+	 * @param handlers the subscribed handlers (at least two).
+	 * @return the index of the selected handler.
+	 */
+	protected abstract int select(MessageHandler[] handlers);
+
+	/**
+	 * Return the current load of the provided handler.
+	 * @param handler the handler.
+	 * @return the load.
+	 */
+	protected HandlerLoad getLoad(MessageHandler handler) {
+		HandlerLoad load = this.loads.get(handler);
+		if (load == null) {
+			load = this.loads.computeIfAbsent(handler, h -> new HandlerLoad(this.smoothingFactor));
+		}
+		return load;
+	}
+
+	/**
+	 * Record that the handler has started to handle a message.
+	 * @param handler the handler.
+	 * @return the load to pass to {@link #handlingCompleted(HandlerLoad, long, boolean)}.
+	 */
+	public HandlerLoad handlingStarted(MessageHandler handler) {
+		HandlerLoad load = getLoad(handler);
+		load.started();
+		return load;
+	}
+
+	/**
+	 * Record that the handler has finished handling a message. The load returned by
+	 * {@link #handlingStarted(MessageHandler)} is updated, rather than looked up again,
+	 * so that a handler removed in the meantime isn't tracked anew.
+	 * @param load the value returned by {@link #handlingStarted(MessageHandler)}.
+	 * @param durationNanos the time taken to handle the message, in nanoseconds.
+	 * @param success false if the handler threw an exception.
+	 */
+	public void handlingCompleted(HandlerLoad load, long durationNanos, boolean success) {
+		load.completed(durationNanos, success);
+	}
+
+	/**
+	 * Discard the load figures of a handler that is no longer subscribed.
+	 * @param handler the handler.
+	 */
+	public void handlerRemoved(MessageHandler handler) {
+		this.loads.remove(handler);
+	}
+
+	/**
+	 * Return the load of each handler seen by this strategy, keyed by the handler's
+	 * component name (or {@code toString()} if it is not a {@link NamedComponent}).
+	 * @return the loads.
+	 */
+	public Map<String, HandlerLoad> getHandlerLoads() {
+		Map<String, HandlerLoad> handlerLoads = new LinkedHashMap<>();
+		for (Map.Entry<MessageHandler, HandlerLoad> entry : this.loads.entrySet()) {
+			handlerLoads.put(handlerName(entry.getKey()), entry.getValue());
+		}
+		return Collections.unmodifiableMap(handlerLoads);
+	}
+
+	private static String handlerName(MessageHandler handler) {
+		if (handler instanceof NamedComponent) {
+			String name = ((NamedComponent) handler).getComponentName();
+			if (name != null) {
+				return name;
+			}
+		}
+		return handler.toString();
+	}
+
+}
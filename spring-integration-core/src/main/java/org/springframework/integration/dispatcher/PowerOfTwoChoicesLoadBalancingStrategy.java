@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.messaging.MessageHandler;
+
+/**
+ * A {@link LoadBalancingStrategy} that picks two handlers at random and selects the
+ * less loaded one ("power of two random choices"): the one with fewer messages in
+ * flight or, on a tie, the lower moving-average duration. Unlike
+ * {@link LeastOutstandingLoadBalancingStrategy} it reads the load of two handlers
+ * only, regardless of the number of subscribers, and it avoids herding concurrent
+ * senders onto the same momentarily idle handler.
+ *
+ * @since 5.1
+ */
+public class PowerOfTwoChoicesLoadBalancingStrategy extends LoadTrackingLoadBalancingStrategy {
+
+	@Override
+	protected int select(MessageHandler[] handlers) {
+		int size = handlers.length;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(size);
+		int second = random.nextInt(size - 1);
+		if (second >= first) {
+			second++;
+		}
+		return HandlerLoad.compare(getLoad(handlers[second]), getLoad(handlers[first])) < 0 ? second : first;
+	}
+
+}
@@ -17,8 +17,10 @@
 package org.springframework.integration.dispatcher;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 import org.springframework.integration.MessageDispatchingException;
@@ -60,6 +62,8 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 
 	private volatile LoadBalancingStrategy loadBalancingStrategy;
 
+	private volatile LoadTrackingLoadBalancingStrategy loadTracker;
+
 	private volatile MessageHandlingTaskDecorator messageHandlingTaskDecorator = task -> task;
 
 	public UnicastingDispatcher() {
@@ -84,11 +88,37 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 
 	/**
 	 * Provide a {@link LoadBalancingStrategy} for this dispatcher.
+	 * A {@link LoadTrackingLoadBalancingStrategy} is notified of the start and end of
+	 * each handler invocation, even when there is a single subscriber.
 	 *
 	 * @param loadBalancingStrategy The load balancing strategy implementation.
 	 */
 	public void setLoadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
 		this.loadBalancingStrategy = loadBalancingStrategy;
+		this.loadTracker = loadBalancingStrategy instanceof LoadTrackingLoadBalancingStrategy
+				? (LoadTrackingLoadBalancingStrategy) loadBalancingStrategy
+				: null;
+	}
+
+	/**
+	 * Return the load of each subscribed handler if the {@link LoadBalancingStrategy}
+	 * is a {@link LoadTrackingLoadBalancingStrategy}; otherwise an empty map.
+	 * @return the handler loads keyed by handler name.
+	 * @since 5.1
+	 */
+	public Map<String, HandlerLoad> getHandlerLoads() {
+		LoadTrackingLoadBalancingStrategy loadTracker = this.loadTracker;
+		return loadTracker != null ? loadTracker.getHandlerLoads() : Collections.emptyMap();
+	}
+
+	@Override
+	public synchronized boolean removeHandler(MessageHandler handler) {
+		boolean removed = super.removeHandler(handler);
+		LoadTrackingLoadBalancingStrategy loadTracker = this.loadTracker;
+		if (removed && loadTracker != null) {
+			loadTracker.handlerRemoved(handler);
+		}
+		return removed;
 	}
 
 	public void setMessageHandlingTaskDecorator(MessageHandlingTaskDecorator messageHandlingTaskDecorator) {
@@ -130,7 +160,8 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 	}
 
 	private boolean doDispatch(Message<?> message) {
-		if (tryOptimizedDispatch(message)) {
+		LoadTrackingLoadBalancingStrategy loadTracker = this.loadTracker;
+		if (loadTracker == null && tryOptimizedDispatch(message)) {
 			return true;
 		}
 		boolean success = false;
@@ -142,7 +173,12 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 		while (!success && handlerIterator.hasNext()) {
 			MessageHandler handler = handlerIterator.next();
 			try {
-				handler.handleMessage(message);
+				if (loadTracker != null) {
+					handleTracked(loadTracker, handler, message);
+				}
+				else {
+					handler.handleMessage(message);
+				}
 				success = true; // we have a winner.
 			}
 			catch (Exception e) {
@@ -155,6 +191,21 @@ public class UnicastingDispatcher extends AbstractDispatcher {
 		return success;
 	}
 
+	private static void handleTracked(LoadTrackingLoadBalancingStrategy loadTracker, MessageHandler handler,
+			Message<?> message) {
+
+		HandlerLoad load = loadTracker.handlingStarted(handler);
+		long start = System.nanoTime();
+		boolean handled = false;
+		try {
+			handler.handleMessage(message);
+			handled = true;
+		}
+		finally {
+			loadTracker.handlingCompleted(load, System.nanoTime() - start, handled);
+		}
+	}
+
 	/**
 	 * Returns the iterator that will be used to loop over the handlers.
 	 * Delegates to a {@link LoadBalancingStrategy} if available. Otherwise,
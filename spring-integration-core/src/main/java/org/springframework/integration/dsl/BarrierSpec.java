@@ -106,4 +106,9 @@ public class BarrierSpec extends ConsumerEndpointSpec<BarrierSpec, BarrierMessag
 		return super.doGet();
 	}
 
+	@Override
+	boolean isFusible() {
+		return false;
+	}
+
 }
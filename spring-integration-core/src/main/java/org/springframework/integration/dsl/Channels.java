@@ -71,6 +71,22 @@ public class Channels {
 		return MessageChannels.queue(id, messageGroupStore, groupId);
 	}
 
+	public RingBufferChannelSpec ringBuffer(int capacity) {
+		return MessageChannels.ringBuffer(capacity);
+	}
+
+	public RingBufferChannelSpec ringBuffer(String id, int capacity) {
+		return MessageChannels.ringBuffer(id, capacity);
+	}
+
+	public PartitionedChannelSpec partitioned(int partitionCount) {
+		return MessageChannels.partitioned(partitionCount);
+	}
+
+	public PartitionedChannelSpec partitioned(String id, int partitionCount) {
+		return MessageChannels.partitioned(id, partitionCount);
+	}
+
 	public PriorityChannelSpec priority() {
 		return MessageChannels.priority();
 	}
@@ -54,6 +54,8 @@ public abstract class ConsumerEndpointSpec<S extends ConsumerEndpointSpec<S, H>,
 
 	protected final List<Advice> adviceChain = new LinkedList<>();
 
+	private boolean fusible = true;
+
 	protected ConsumerEndpointSpec(H messageHandler) {
 		super(messageHandler);
 	}
@@ -67,18 +69,21 @@ public abstract class ConsumerEndpointSpec<S extends ConsumerEndpointSpec<S, H>,
 	@Override
 	public S autoStartup(boolean autoStartup) {
 		this.endpointFactoryBean.setAutoStartup(autoStartup);
+		this.fusible &= autoStartup;
 		return _this();
 	}
 
 	@Override
 	public S poller(PollerMetadata pollerMetadata) {
 		this.endpointFactoryBean.setPollerMetadata(pollerMetadata);
+		this.fusible = false;
 		return _this();
 	}
 
 	@Override
 	public S role(String role) {
 		this.endpointFactoryBean.setRole(role);
+		this.fusible = false;
 		return _this();
 	}
 
@@ -274,4 +279,17 @@ public abstract class ConsumerEndpointSpec<S extends ConsumerEndpointSpec<S, H>,
 		return super.doGet();
 	}
 
+	/**
+	 * Whether the endpoint can consume from a
+	 * {@link org.springframework.integration.channel.FixedSubscriberChannel} in a fused flow:
+	 * it is not polled, it has no advice chain, and it is not started or stopped independently
+	 * of the flow.
+	 * @return true if the endpoint can be fused.
+	 * @since 5.1
+	 * @see IntegrationFlowDefinition#fused()
+	 */
+	boolean isFusible() {
+		return this.fusible && this.adviceChain.isEmpty();
+	}
+
 }
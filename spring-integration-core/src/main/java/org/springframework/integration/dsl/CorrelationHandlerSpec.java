@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 the original author or authors.
+ * Copyright 2016-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -276,6 +276,21 @@ public abstract class CorrelationHandlerSpec<S extends CorrelationHandlerSpec<S,
 		return _this();
 	}
 
+	/**
+	 * Process the group timeouts from a hashed timing wheel with the provided tick
+	 * duration instead of scheduling a task per group.
+	 * @param tickDuration the tick duration in milliseconds.
+	 * @return the handler spec.
+	 * @since 5.1
+	 * @see AbstractCorrelatingMessageHandler#setTimingWheel(boolean)
+	 * @see AbstractCorrelatingMessageHandler#setTickDuration(long)
+	 */
+	public S timingWheel(long tickDuration) {
+		this.handler.setTimingWheel(true);
+		this.handler.setTickDuration(tickDuration);
+		return _this();
+	}
+
 	/**
 	 * Expire (completely remove) a group if it is completed due to timeout.
 	 * Default {@code true} for aggregator and {@code false} for resequencer.
@@ -314,4 +329,9 @@ public abstract class CorrelationHandlerSpec<S extends CorrelationHandlerSpec<S,
 		return _this();
 	}
 
+	@Override
+	boolean isFusible() {
+		return false;
+	}
+
 }
@@ -165,6 +165,49 @@ public final class DelayerEndpointSpec extends ConsumerEndpointSpec<DelayerEndpo
 		return this;
 	}
 
+	/**
+	 * Release delayed messages from a hashed timing wheel with the provided tick
+	 * duration instead of scheduling a task per message.
+	 * @param tickDuration the tick duration in milliseconds.
+	 * @return the endpoint spec.
+	 * @see DelayHandler#setTimingWheel(boolean)
+	 * @see DelayHandler#setTickDuration(long)
+	 * @since 5.1
+	 */
+	public DelayerEndpointSpec timingWheel(long tickDuration) {
+		this.handler.setTimingWheel(true);
+		this.handler.setTickDuration(tickDuration);
+		return this;
+	}
+
+	/**
+	 * Release delayed messages from a hashed timing wheel with the provided tick
+	 * duration and number of slots instead of scheduling a task per message.
+	 * @param tickDuration the tick duration in milliseconds.
+	 * @param ticksPerWheel the number of slots.
+	 * @return the endpoint spec.
+	 * @see DelayHandler#setTimingWheel(boolean)
+	 * @see DelayHandler#setTicksPerWheel(int)
+	 * @since 5.1
+	 */
+	public DelayerEndpointSpec timingWheel(long tickDuration, int ticksPerWheel) {
+		this.handler.setTicksPerWheel(ticksPerWheel);
+		return timingWheel(tickDuration);
+	}
+
+	/**
+	 * Set the number of persisted messages to reload per timing wheel tick.
+	 * Default {@value DelayHandler#DEFAULT_RELOAD_BATCH_SIZE}.
+	 * @param reloadBatchSize the batch size.
+	 * @return the endpoint spec.
+	 * @see DelayHandler#setReloadBatchSize(int)
+	 * @since 5.1
+	 */
+	public DelayerEndpointSpec reloadBatchSize(int reloadBatchSize) {
+		this.handler.setReloadBatchSize(reloadBatchSize);
+		return this;
+	}
+
 	/**
 	 * Specify a {@link TransactionInterceptor} {@link Advice} with default
 	 * {@link PlatformTransactionManager} and {@link DefaultTransactionAttribute} for the
@@ -222,4 +265,9 @@ public final class DelayerEndpointSpec extends ConsumerEndpointSpec<DelayerEndpo
 		return this;
 	}
 
+	@Override
+	boolean isFusible() {
+		return false;
+	}
+
 }
@@ -22,8 +22,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.reactivestreams.Publisher;
 
@@ -36,6 +38,7 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.aggregator.AggregatingMessageHandler;
 import org.springframework.integration.aggregator.BarrierMessageHandler;
+import org.springframework.integration.aggregator.FoldingAggregatingMessageHandler;
 import org.springframework.integration.channel.ChannelInterceptorAware;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.FixedSubscriberChannel;
@@ -131,6 +134,8 @@ public abstract class IntegrationFlowDefinition<B extends IntegrationFlowDefinit
 
 	private boolean implicitChannel;
 
+	private boolean fused;
+
 	IntegrationFlowDefinition() {
 	}
 
@@ -151,6 +156,26 @@ public abstract class IntegrationFlowDefinition<B extends IntegrationFlowDefinit
 		return _this();
 	}
 
+	/**
+	 * Fuse the rest of this flow definition: each implicit channel in front of an endpoint
+	 * is a {@link org.springframework.integration.channel.FixedSubscriberChannel} instead of a
+	 * {@link DirectChannel}, so that a message is handed from one endpoint to the next
+	 * with a direct call, without dispatcher, interceptors or channel metrics.
+	 * Explicit channels (including the ones for {@link #wireTap} and {@link #intercept}) are not affected,
+	 * and neither are polled endpoints, endpoints with an advice chain, {@code autoStartup(false)} or
+	 * a {@code role}, aggregators, resequencers, delayers and barriers: they keep a {@link DirectChannel}
+	 * input.
+	 * <p>
+	 * Since the fixed subscriber can't be unsubscribed, stopping a fused endpoint has no effect.
+	 * Global channel interceptors are not applied to the fused channels either.
+	 * @return the current {@link IntegrationFlowDefinition}.
+	 * @since 5.1
+	 */
+	public B fused() {
+		this.fused = true;
+		return _this();
+	}
+
 	/**
 	 * Populate an {@link org.springframework.integration.channel.FixedSubscriberChannel} instance
 	 * at the current {@link IntegrationFlow} chain position.
@@ -1757,6 +1782,48 @@ public abstract class IntegrationFlowDefinition<B extends IntegrationFlowDefinit
 		return register(new AggregatorSpec(), aggregator);
 	}
 
+	/**
+	 * Populate the {@link FoldingAggregatingMessageHandler} which folds the messages
+	 * of each group into an accumulator instead of retaining them in the store.
+	 * @param seed the {@link Supplier} of the initial accumulator for each group.
+	 * @param accumulator the function to fold a message into the accumulator.
+	 * @param finisher the function to produce the output from the accumulator on release.
+	 * @param <S> the accumulator type.
+	 * @return the current {@link IntegrationFlowDefinition}.
+	 * @since 5.1
+	 * @see #aggregate(Supplier, BiFunction, Function, Consumer)
+	 */
+	public <S> B aggregate(Supplier<S> seed, BiFunction<S, Message<?>, S> accumulator, Function<S, ?> finisher) {
+		return aggregate(seed, accumulator, finisher, null);
+	}
+
+	/**
+	 * Populate the {@link FoldingAggregatingMessageHandler} which folds the messages
+	 * of each group into an accumulator instead of retaining them in the store,
+	 * with provided options from {@link FoldingAggregatorSpec}.
+	 * Typically used with a Java 8 Lambda expression:
+	 * <pre class="code">
+	 * {@code
+	 *  .<Integer>aggregate(() -> 0, (sum, m) -> sum + (Integer) m.getPayload(), sum -> sum,
+	 *                   a -> a.releaseStrategy(g -> g.size() == 1000))
+	 * }
+	 * </pre>
+	 * @param seed the {@link Supplier} of the initial accumulator for each group.
+	 * @param accumulator the function to fold a message into the accumulator.
+	 * @param finisher the function to produce the output from the accumulator on release.
+	 * @param aggregator the {@link Consumer} to provide {@link FoldingAggregatingMessageHandler} options.
+	 * @param <S> the accumulator type.
+	 * @return the current {@link IntegrationFlowDefinition}.
+	 * @since 5.1
+	 * @see FoldingAggregatorSpec
+	 */
+	public <S> B aggregate(Supplier<S> seed, BiFunction<S, Message<?>, S> accumulator, Function<S, ?> finisher,
+			Consumer<FoldingAggregatorSpec> aggregator) {
+
+		return register(new FoldingAggregatorSpec(new FoldingAggregatingMessageHandler<>(seed, accumulator, finisher)),
+				aggregator);
+	}
+
 	/**
 	 * Populate the {@link MethodInvokingRouter} for provided bean and its method
 	 * with default options.
@@ -2933,8 +3000,13 @@ public abstract class IntegrationFlowDefinition<B extends IntegrationFlowDefinit
 		MessageChannel inputChannel = this.currentMessageChannel;
 		this.currentMessageChannel = null;
 		if (inputChannel == null) {
-			inputChannel = new DirectChannel();
-			this.registerOutputChannelIfCan(inputChannel);
+			if (this.fused && endpointSpec.isFusible()) {
+				inputChannel = new FixedSubscriberChannelPrototype();
+			}
+			else {
+				inputChannel = new DirectChannel();
+				this.registerOutputChannelIfCan(inputChannel);
+			}
 		}
 
 		Tuple2<ConsumerEndpointFactoryBean, ? extends MessageHandler> factoryBeanTuple2 = endpointSpec.get();
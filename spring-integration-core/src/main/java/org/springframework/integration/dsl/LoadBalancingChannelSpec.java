@@ -17,7 +17,9 @@
 package org.springframework.integration.dsl;
 
 import org.springframework.integration.channel.AbstractMessageChannel;
+import org.springframework.integration.dispatcher.LeastOutstandingLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.LoadBalancingStrategy;
+import org.springframework.integration.dispatcher.PowerOfTwoChoicesLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
 
 /**
@@ -47,6 +49,26 @@ public abstract class LoadBalancingChannelSpec<S extends MessageChannelSpec<S, C
 		return _this();
 	}
 
+	/**
+	 * Use a {@link LeastOutstandingLoadBalancingStrategy}: dispatch to the handler with
+	 * the fewest messages in flight.
+	 * @return the spec.
+	 * @since 5.1
+	 */
+	public S leastOutstandingLoadBalancer() {
+		return loadBalancer(new LeastOutstandingLoadBalancingStrategy());
+	}
+
+	/**
+	 * Use a {@link PowerOfTwoChoicesLoadBalancingStrategy}: dispatch to the less loaded
+	 * of two randomly chosen handlers.
+	 * @return the spec.
+	 * @since 5.1
+	 */
+	public S powerOfTwoChoicesLoadBalancer() {
+		return loadBalancer(new PowerOfTwoChoicesLoadBalancingStrategy());
+	}
+
 	public S failover(Boolean failover) {
 		this.failover = failover;
 		return _this();
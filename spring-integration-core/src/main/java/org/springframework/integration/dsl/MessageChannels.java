@@ -73,6 +73,22 @@ public final class MessageChannels {
 		return queue(messageGroupStore, groupId).id(id);
 	}
 
+	public static RingBufferChannelSpec ringBuffer(int capacity) {
+		return new RingBufferChannelSpec(capacity);
+	}
+
+	public static RingBufferChannelSpec ringBuffer(String id, int capacity) {
+		return ringBuffer(capacity).id(id);
+	}
+
+	public static PartitionedChannelSpec partitioned(int partitionCount) {
+		return new PartitionedChannelSpec(partitionCount);
+	}
+
+	public static PartitionedChannelSpec partitioned(String id, int partitionCount) {
+		return partitioned(partitionCount).id(id);
+	}
+
 	public static ExecutorChannelSpec executor(Executor executor) {
 		return new ExecutorChannelSpec(executor);
 	}
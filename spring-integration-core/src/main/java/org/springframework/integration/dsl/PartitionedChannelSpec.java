@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dsl;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+import org.springframework.expression.Expression;
+import org.springframework.integration.channel.PartitionedChannel;
+import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MessageChannelSpec} for a {@link PartitionedChannel}.
+ *
+ * @since 5.1
+ */
+public class PartitionedChannelSpec extends MessageChannelSpec<PartitionedChannelSpec, PartitionedChannel> {
+
+	private final int partitionCount;
+
+	private int capacity = PartitionedChannel.DEFAULT_PARTITION_CAPACITY;
+
+	private ThreadFactory threadFactory;
+
+	private String partitionKeyHeader;
+
+	private Expression partitionKeyExpression;
+
+	private Function<Message<?>, Object> partitionKeyFunction;
+
+	private Boolean failover;
+
+	PartitionedChannelSpec(int partitionCount) {
+		this.partitionCount = partitionCount;
+	}
+
+	/**
+	 * Set the capacity of each partition queue.
+	 * @param capacity the capacity.
+	 * @return the spec.
+	 */
+	public PartitionedChannelSpec capacity(int capacity) {
+		this.capacity = capacity;
+		return this;
+	}
+
+	/**
+	 * Set the {@link ThreadFactory} for the partition threads.
+	 * @param threadFactory the thread factory.
+	 * @return the spec.
+	 */
+	public PartitionedChannelSpec threadFactory(ThreadFactory threadFactory) {
+		this.threadFactory = threadFactory;
+		return this;
+	}
+
+	/**
+	 * Use the value of the provided header as the partition key.
+	 * @param headerName the header name.
+	 * @return the spec.
+	 */
+	public PartitionedChannelSpec partitionKeyHeader(String headerName) {
+		Assert.hasText(headerName, "'headerName' must not be empty");
+		this.partitionKeyHeader = headerName;
+		this.partitionKeyExpression = null;
+		this.partitionKeyFunction = null;
+		return this;
+	}
+
+	/**
+	 * Use the result of the provided SpEL expression as the partition key.
+	 * @param partitionKeyExpression the expression.
+	 * @return the spec.
+	 */
+	public PartitionedChannelSpec partitionKey(String partitionKeyExpression) {
+		return partitionKey(PARSER.parseExpression(partitionKeyExpression));
+	}
+
+	/**
+	 * Use the result of the provided SpEL expression as the partition key.
+	 * @param partitionKeyExpression the expression.
+	 * @return the spec.
+	 */
+	public PartitionedChannelSpec partitionKey(Expression partitionKeyExpression) {
+		Assert.notNull(partitionKeyExpression, "'partitionKeyExpression' must not be null");
+		this.partitionKeyHeader = null;
+		this.partitionKeyExpression = partitionKeyExpression;
+		this.partitionKeyFunction = null;
+		return this;
+	}
+
+	/**
+	 * Use the result of the provided function as the partition key.
+	 * @param partitionKeyFunction the function.
+	 * @return the spec.
+	 */
+	public PartitionedChannelSpec partitionKey(Function<Message<?>, Object> partitionKeyFunction) {
+		Assert.notNull(partitionKeyFunction, "'partitionKeyFunction' must not be null");
+		this.partitionKeyHeader = null;
+		this.partitionKeyExpression = null;
+		this.partitionKeyFunction = partitionKeyFunction;
+		return this;
+	}
+
+	public PartitionedChannelSpec failover(Boolean failover) {
+		this.failover = failover;
+		return this;
+	}
+
+	@Override
+	protected PartitionedChannel doGet() {
+		this.channel = new PartitionedChannel(this.partitionCount, this.capacity, this.threadFactory);
+		if (this.partitionKeyHeader != null) {
+			this.channel.setPartitionKeyHeader(this.partitionKeyHeader);
+		}
+		else if (this.partitionKeyExpression != null) {
+			this.channel.setPartitionKeyExpression(this.partitionKeyExpression);
+		}
+		else if (this.partitionKeyFunction != null) {
+			this.channel.setPartitionKeyFunction(this.partitionKeyFunction);
+		}
+		if (this.failover != null) {
+			this.channel.setFailover(this.failover);
+		}
+		return super.doGet();
+	}
+
+}
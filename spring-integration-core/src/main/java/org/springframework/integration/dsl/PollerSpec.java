@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2017 the original author or authors.
+ * Copyright 2016-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -133,6 +133,31 @@ public final class PollerSpec extends IntegrationComponentSpec<PollerSpec, Polle
 		return this;
 	}
 
+	/**
+	 * Receive up to this number of messages from the channel in one receive operation
+	 * and handle them within a single poll.
+	 * @param receiveBatchSize the batch size.
+	 * @return the spec.
+	 * @since 5.1
+	 * @see PollerMetadata#setReceiveBatchSize(int)
+	 */
+	public PollerSpec receiveBatchSize(int receiveBatchSize) {
+		this.target.setReceiveBatchSize(receiveBatchSize);
+		return this;
+	}
+
+	/**
+	 * Hand each received batch to the handler as a single message with a
+	 * {@code List<Message<?>>} payload.
+	 * @return the spec.
+	 * @since 5.1
+	 * @see PollerMetadata#setHandleBatchAsList(boolean)
+	 */
+	public PollerSpec handleBatchAsList() {
+		this.target.setHandleBatchAsList(true);
+		return this;
+	}
+
 	/**
 	 * Specify AOP {@link Advice}s for the {@code pollingTask}.
 	 * @param advice the {@link Advice}s to use.
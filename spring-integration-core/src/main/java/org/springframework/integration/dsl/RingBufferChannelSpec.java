@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dsl;
+
+import org.springframework.integration.channel.RingBufferChannel;
+import org.springframework.integration.util.RingBufferQueue;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MessageChannelSpec} for a {@link RingBufferChannel}.
+ *
+ * @since 5.1
+ */
+public class RingBufferChannelSpec extends MessageChannelSpec<RingBufferChannelSpec, RingBufferChannel> {
+
+	private final int capacity;
+
+	private boolean singleConsumer;
+
+	private RingBufferQueue.WaitStrategy waitStrategy = RingBufferQueue.WaitStrategy.parking();
+
+	RingBufferChannelSpec(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Configure the channel for a single consumer thread (MPSC) instead of
+	 * multiple consumers (MPMC).
+	 * @return the spec.
+	 */
+	public RingBufferChannelSpec singleConsumer() {
+		this.singleConsumer = true;
+		return this;
+	}
+
+	/**
+	 * Set the {@link RingBufferQueue.WaitStrategy} for blocked senders and receivers;
+	 * {@link RingBufferQueue.WaitStrategy#parking()} by default.
+	 * @param waitStrategy the wait strategy.
+	 * @return the spec.
+	 */
+	public RingBufferChannelSpec waitStrategy(RingBufferQueue.WaitStrategy waitStrategy) {
+		Assert.notNull(waitStrategy, "'waitStrategy' must not be null");
+		this.waitStrategy = waitStrategy;
+		return this;
+	}
+
+	@Override
+	protected RingBufferChannel doGet() {
+		this.channel = new RingBufferChannel(this.capacity, this.singleConsumer, this.waitStrategy);
+		return super.doGet();
+	}
+
+}
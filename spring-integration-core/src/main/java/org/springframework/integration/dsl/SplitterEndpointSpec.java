@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 the original author or authors.
+ * Copyright 2016-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,30 @@ public final class SplitterEndpointSpec<S extends AbstractMessageSplitter>
 		return _this();
 	}
 
+	/**
+	 * Set the number of split items to group into a single {@link java.util.List} payload.
+	 * @param chunkSize the maximum number of items in a chunk.
+	 * @return the endpoint spec.
+	 * @since 5.1
+	 * @see AbstractMessageSplitter#setChunkSize(int)
+	 */
+	public SplitterEndpointSpec<S> chunkSize(int chunkSize) {
+		this.handler.setChunkSize(chunkSize);
+		return _this();
+	}
+
+	/**
+	 * Set the maximum number of split items requested ahead of the downstream demand.
+	 * @param maxInFlight the maximum number of items requested at a time.
+	 * @return the endpoint spec.
+	 * @since 5.1
+	 * @see AbstractMessageSplitter#setMaxInFlight(int)
+	 */
+	public SplitterEndpointSpec<S> maxInFlight(int maxInFlight) {
+		this.handler.setMaxInFlight(maxInFlight);
+		return _this();
+	}
+
 	/**
 	 * Set delimiters to tokenize String values. The default is
 	 * <code>null</code> indicating that no tokenizing should occur.
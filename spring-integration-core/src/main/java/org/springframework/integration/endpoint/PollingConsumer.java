@@ -17,6 +17,7 @@
 package org.springframework.integration.endpoint;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
@@ -25,6 +26,7 @@ import org.reactivestreams.Subscriber;
 
 import org.springframework.context.Lifecycle;
 import org.springframework.integration.channel.ExecutorChannelInterceptorAware;
+import org.springframework.integration.channel.QueueChannelOperations;
 import org.springframework.integration.channel.ReactiveStreamsSubscribableChannel;
 import org.springframework.integration.core.MessageProducer;
 import org.springframework.integration.router.MessageRouter;
@@ -59,6 +61,10 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	private volatile long receiveTimeout = 1000;
 
+	private volatile int receiveBatchSize = 1;
+
+	private volatile boolean handleBatchAsList;
+
 	public PollingConsumer(PollableChannel inputChannel, MessageHandler handler) {
 		Assert.notNull(inputChannel, "inputChannel must not be null");
 		Assert.notNull(handler, "handler must not be null");
@@ -77,6 +83,38 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * Set the maximum number of messages to receive from the channel in one receive
+	 * operation (default 1). With a {@link QueueChannelOperations} channel, the batch is
+	 * obtained with a single {@link QueueChannelOperations#receive(int, long)} call;
+	 * other channels are received from until they return no message or the batch is
+	 * complete. The receive timeout applies to the first message only.
+	 * The whole batch is handled within one poll, so the poller's advice chain
+	 * (and transaction, if any) applies once per batch.
+	 * If handling a message fails, the rest of the batch is not handled; with a
+	 * transactional poller, the whole batch is rolled back.
+	 * Not supported when the handler is a reactive {@link Subscriber}.
+	 * @param receiveBatchSize the batch size.
+	 * @since 5.1
+	 * @see #setHandleBatchAsList(boolean)
+	 */
+	public void setReceiveBatchSize(int receiveBatchSize) {
+		Assert.isTrue(receiveBatchSize > 0, "'receiveBatchSize' must be greater than 0");
+		this.receiveBatchSize = receiveBatchSize;
+	}
+
+	/**
+	 * When receiving in batches, set to true to invoke the handler once per batch
+	 * with a message whose payload is the {@code List<Message<?>>} of received
+	 * messages, instead of invoking it for each message.
+	 * @param handleBatchAsList true to hand the batch to the handler as a list.
+	 * @since 5.1
+	 * @see #setReceiveBatchSize(int)
+	 */
+	public void setHandleBatchAsList(boolean handleBatchAsList) {
+		this.handleBatchAsList = handleBatchAsList;
+	}
+
 	@Override
 	public MessageChannel getInputChannel() {
 		return this.inputChannel;
@@ -108,6 +146,8 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	@Override
 	protected void doStart() {
+		Assert.state(this.receiveBatchSize == 1 || !isReactive(),
+				"'receiveBatchSize' is not supported with a reactive handler");
 		if (this.handler instanceof Lifecycle) {
 			((Lifecycle) this.handler).start();
 		}
@@ -123,7 +163,19 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	protected void handleMessage(Message<?> message) {
+		if (this.receiveBatchSize > 1 && !this.handleBatchAsList) {
+			for (Message<?> batchMessage : (List<Message<?>>) message.getPayload()) {
+				doHandleMessage(batchMessage);
+			}
+		}
+		else {
+			doHandleMessage(message);
+		}
+	}
+
+	private void doHandleMessage(Message<?> message) {
 		Message<?> theMessage = message;
 		Deque<ExecutorChannelInterceptor> interceptorStack = null;
 		try {
@@ -194,11 +246,34 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	@Override
 	protected Message<?> receiveMessage() {
+		if (this.receiveBatchSize > 1) {
+			List<Message<?>> messages = receiveBatch();
+			return messages.isEmpty()
+					? null
+					: getMessageBuilderFactory()
+							.withPayload(messages)
+							.build();
+		}
 		return (this.receiveTimeout >= 0)
 				? this.inputChannel.receive(this.receiveTimeout)
 				: this.inputChannel.receive();
 	}
 
+	private List<Message<?>> receiveBatch() {
+		if (this.inputChannel instanceof QueueChannelOperations) {
+			return ((QueueChannelOperations) this.inputChannel).receive(this.receiveBatchSize, this.receiveTimeout);
+		}
+		List<Message<?>> messages = new ArrayList<>();
+		Message<?> message = (this.receiveTimeout >= 0)
+				? this.inputChannel.receive(this.receiveTimeout)
+				: this.inputChannel.receive();
+		while (message != null) {
+			messages.add(message);
+			message = messages.size() < this.receiveBatchSize ? this.inputChannel.receive(0) : null;
+		}
+		return messages;
+	}
+
 	@Override
 	protected Object getResourceToBind() {
 		return this.inputChannel;
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.expression;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link Expression} that compiles a {@link SpelExpression} according to a
+ * {@link SpelCompilerMode}, independently of the configuration of the parser that
+ * created it, and records evaluation statistics.
+ * <p>
+ * With {@link SpelCompilerMode#IMMEDIATE} the expression is compiled after its first
+ * (interpreted) evaluation; with {@link SpelCompilerMode#MIXED} after
+ * {@value #MIXED_INTERPRETED_THRESHOLD} interpreted evaluations; with
+ * {@link SpelCompilerMode#OFF} it is never compiled, only measured.
+ * If the compiled form fails at runtime (for example, because a value of a different
+ * type is met), the expression reverts to interpretation permanently and the failed
+ * evaluation is performed again in interpreted mode.
+ *
+ * @since 5.1
+ */
+public class CompilingExpression implements Expression {
+
+	/**
+	 * The number of interpreted evaluations before compilation in
+	 * {@link SpelCompilerMode#MIXED} mode.
+	 */
+	public static final int MIXED_INTERPRETED_THRESHOLD = 100;
+
+	private static final int MAX_COMPILATION_ATTEMPTS = 100;
+
+	private static final Log logger = LogFactory.getLog(CompilingExpression.class);
+
+	private final SpelExpression expression;
+
+	private final SpelCompilerMode compilerMode;
+
+	private final LongAdder evaluationCount = new LongAdder();
+
+	private final LongAdder evaluationTime = new LongAdder();
+
+	private final AtomicInteger interpretedCount = new AtomicInteger();
+
+	private final AtomicInteger compilationFailureCount = new AtomicInteger();
+
+	private volatile boolean compiled;
+
+	private volatile boolean compilationSettled;
+
+	public CompilingExpression(SpelExpression expression, SpelCompilerMode compilerMode) {
+		Assert.notNull(expression, "'expression' must not be null");
+		Assert.notNull(compilerMode, "'compilerMode' must not be null");
+		this.expression = expression;
+		this.compilerMode = compilerMode;
+		this.compilationSettled = SpelCompilerMode.OFF.equals(compilerMode);
+	}
+
+	public SpelCompilerMode getCompilerMode() {
+		return this.compilerMode;
+	}
+
+	/**
+	 * @return the number of evaluations.
+	 */
+	public long getEvaluationCount() {
+		return this.evaluationCount.sum();
+	}
+
+	/**
+	 * @return the total evaluation time in nanoseconds.
+	 */
+	public long getTotalEvaluationTime() {
+		return this.evaluationTime.sum();
+	}
+
+	/**
+	 * @return the mean evaluation time in nanoseconds.
+	 */
+	public double getMeanEvaluationTime() {
+		long count = this.evaluationCount.sum();
+		return count == 0 ? 0 : (double) this.evaluationTime.sum() / count;
+	}
+
+	/**
+	 * @return true if the expression currently runs compiled.
+	 */
+	public boolean isCompiled() {
+		return this.compiled;
+	}
+
+	/**
+	 * @return true if the expression won't be compiled (any more): the mode is
+	 * {@link SpelCompilerMode#OFF}, the compilation failed too many times, or the
+	 * compiled form failed at runtime.
+	 */
+	public boolean isInterpretedOnly() {
+		return this.compilationSettled && !this.compiled;
+	}
+
+	/**
+	 * @return the number of failed compilation attempts.
+	 */
+	public int getCompilationFailureCount() {
+		return this.compilationFailureCount.get();
+	}
+
+	@Override
+	public Object getValue() throws EvaluationException {
+		return evaluate(this.expression::getValue);
+	}
+
+	@Override
+	public Object getValue(Object rootObject) throws EvaluationException {
+		return evaluate(() -> this.expression.getValue(rootObject));
+	}
+
+	@Override
+	public <T> T getValue(Class<T> desiredResultType) throws EvaluationException {
+		return evaluate(() -> this.expression.getValue(desiredResultType));
+	}
+
+	@Override
+	public <T> T getValue(Object rootObject, Class<T> desiredResultType) throws EvaluationException {
+		return evaluate(() -> this.expression.getValue(rootObject, desiredResultType));
+	}
+
+	@Override
+	public Object getValue(EvaluationContext context) throws EvaluationException {
+		return evaluate(() -> this.expression.getValue(context));
+	}
+
+	@Override
+	public Object getValue(EvaluationContext context, Object rootObject) throws EvaluationException {
+		return evaluate(() -> this.expression.getValue(context, rootObject));
+	}
+
+	@Override
+	public <T> T getValue(EvaluationContext context, Class<T> desiredResultType) throws EvaluationException {
+		return evaluate(() -> this.expression.getValue(context, desiredResultType));
+	}
+
+	@Override
+	public <T> T getValue(EvaluationContext context, Object rootObject, Class<T> desiredResultType)
+			throws EvaluationException {
+
+		return evaluate(() -> this.expression.getValue(context, rootObject, desiredResultType));
+	}
+
+	@Override
+	public Class<?> getValueType() throws EvaluationException {
+		return this.expression.getValueType();
+	}
+
+	@Override
+	public Class<?> getValueType(Object rootObject) throws EvaluationException {
+		return this.expression.getValueType(rootObject);
+	}
+
+	@Override
+	public Class<?> getValueType(EvaluationContext context) throws EvaluationException {
+		return this.expression.getValueType(context);
+	}
+
+	@Override
+	public Class<?> getValueType(EvaluationContext context, Object rootObject) throws EvaluationException {
+		return this.expression.getValueType(context, rootObject);
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor() throws EvaluationException {
+		return this.expression.getValueTypeDescriptor();
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor(Object rootObject) throws EvaluationException {
+		return this.expression.getValueTypeDescriptor(rootObject);
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor(EvaluationContext context) throws EvaluationException {
+		return this.expression.getValueTypeDescriptor(context);
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor(EvaluationContext context, Object rootObject)
+			throws EvaluationException {
+
+		return this.expression.getValueTypeDescriptor(context, rootObject);
+	}
+
+	@Override
+	public boolean isWritable(Object rootObject) throws EvaluationException {
+		return this.expression.isWritable(rootObject);
+	}
+
+	@Override
+	public boolean isWritable(EvaluationContext context) throws EvaluationException {
+		return this.expression.isWritable(context);
+	}
+
+	@Override
+	public boolean isWritable(EvaluationContext context, Object rootObject) throws EvaluationException {
+		return this.expression.isWritable(context, rootObject);
+	}
+
+	@Override
+	public void setValue(Object rootObject, Object value) throws EvaluationException {
+		this.expression.setValue(rootObject, value);
+	}
+
+	@Override
+	public void setValue(EvaluationContext context, Object value) throws EvaluationException {
+		this.expression.setValue(context, value);
+	}
+
+	@Override
+	public void setValue(EvaluationContext context, Object rootObject, Object value) throws EvaluationException {
+		this.expression.setValue(context, rootObject, value);
+	}
+
+	@Override
+	public String getExpressionString() {
+		return this.expression.getExpressionString();
+	}
+
+	@Override
+	public String toString() {
+		return "CompilingExpression [expression=" + getExpressionString() + ", compilerMode=" + this.compilerMode
+				+ ", compiled=" + this.compiled + ", evaluationCount=" + getEvaluationCount()
+				+ ", meanEvaluationTime=" + getMeanEvaluationTime() + "ns]";
+	}
+
+	private <T> T evaluate(Supplier<T> evaluation) {
+		long start = System.nanoTime();
+		try {
+			if (this.compiled) {
+				try {
+					return evaluation.get();
+				}
+				catch (SpelEvaluationException e) {
+					if (!SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION.equals(e.getMessageCode())) {
+						throw e;
+					}
+					revertToInterpreted(e);
+				}
+			}
+			T value = evaluation.get();
+			if (!this.compilationSettled) {
+				checkCompile();
+			}
+			return value;
+		}
+		finally {
+			this.evaluationTime.add(System.nanoTime() - start);
+			this.evaluationCount.increment();
+		}
+	}
+
+	private void checkCompile() {
+		int count = this.interpretedCount.incrementAndGet();
+		if (SpelCompilerMode.IMMEDIATE.equals(this.compilerMode) || count > MIXED_INTERPRETED_THRESHOLD) {
+			if (this.expression.compileExpression()) {
+				this.compiled = true;
+				this.compilationSettled = true;
+				if (logger.isDebugEnabled()) {
+					logger.debug("Compiled expression [" + getExpressionString() + "]");
+				}
+			}
+			else if (this.compilationFailureCount.incrementAndGet() >= MAX_COMPILATION_ATTEMPTS) {
+				this.compilationSettled = true;
+				if (logger.isDebugEnabled()) {
+					logger.debug("Expression [" + getExpressionString() + "] can't be compiled; "
+							+ "it will be interpreted");
+				}
+			}
+		}
+	}
+
+	private void revertToInterpreted(SpelEvaluationException e) {
+		this.expression.revertToInterpreted();
+		this.compiled = false;
+		if (logger.isWarnEnabled()) {
+			logger.warn("The compiled form of expression [" + getExpressionString() + "] failed; "
+					+ "reverting to interpretation", e);
+		}
+	}
+
+}
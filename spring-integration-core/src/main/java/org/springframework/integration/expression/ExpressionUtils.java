@@ -17,6 +17,7 @@
 package org.springframework.integration.expression;
 
 import java.io.File;
+import java.util.Locale;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,6 +29,8 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.DataBindingPropertyAccessor;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
@@ -35,9 +38,12 @@ import org.springframework.expression.spel.support.SimpleEvaluationContext.Build
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeConverter;
 import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.context.IntegrationProperties;
 import org.springframework.integration.support.utils.IntegrationUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * Utility class with static methods for helping with evaluation of SpEL expressions.
@@ -222,4 +228,32 @@ public final class ExpressionUtils {
 		return EXPRESSION_PARSER.parseExpression(expression);
 	}
 
+	/**
+	 * Return a {@link CompilingExpression} for a {@link SpelExpression} when the
+	 * {@link IntegrationProperties#SPEL_COMPILER_MODE} integration property is set,
+	 * otherwise the expression itself.
+	 * @param expression the expression.
+	 * @param beanFactory the bean factory to obtain the integration properties from.
+	 * @return the expression to evaluate.
+	 * @since 5.1
+	 */
+	public static Expression compilingExpression(Expression expression, @Nullable BeanFactory beanFactory) {
+		if (!(expression instanceof SpelExpression)) {
+			return expression;
+		}
+		String compilerMode = IntegrationContextUtils.getIntegrationProperties(beanFactory)
+				.getProperty(IntegrationProperties.SPEL_COMPILER_MODE);
+		if (!StringUtils.hasText(compilerMode)) {
+			return expression;
+		}
+		try {
+			return new CompilingExpression((SpelExpression) expression,
+					SpelCompilerMode.valueOf(compilerMode.trim().toUpperCase(Locale.ROOT)));
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid '" + IntegrationProperties.SPEL_COMPILER_MODE
+					+ "' value [" + compilerMode + "]; expected 'off', 'mixed' or 'immediate'", e);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,8 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.integration.core.MessageSelector;
 import org.springframework.integration.handler.AbstractMessageProcessor;
 import org.springframework.integration.handler.MessageProcessor;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.MetricsCaptorAware;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 
@@ -35,7 +37,7 @@ import org.springframework.util.Assert;
  * @author Artem Bilan
  */
 public abstract class AbstractMessageProcessingSelector
-		implements MessageSelector, BeanFactoryAware, Lifecycle {
+		implements MessageSelector, BeanFactoryAware, Lifecycle, MetricsCaptorAware {
 
 	private final MessageProcessor<Boolean> messageProcessor;
 
@@ -58,6 +60,13 @@ public abstract class AbstractMessageProcessingSelector
 		}
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor, String componentName) {
+		if (this.messageProcessor instanceof MetricsCaptorAware) {
+			((MetricsCaptorAware) this.messageProcessor).registerMetricsCaptor(metricsCaptor, componentName);
+		}
+	}
+
 	public final boolean accept(Message<?> message) {
 		Object result = this.messageProcessor.processMessage(message);
 		Assert.notNull(result, "result must not be null");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import org.springframework.integration.MessageRejectedException;
 import org.springframework.integration.core.MessageSelector;
 import org.springframework.integration.handler.AbstractReplyProducingPostProcessingMessageHandler;
 import org.springframework.integration.handler.DiscardingMessageHandler;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.MetricsCaptorAware;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.util.Assert;
@@ -141,6 +143,14 @@ public class MessageFilter extends AbstractReplyProducingPostProcessingMessageHa
 		}
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
+		super.registerMetricsCaptor(metricsCaptor);
+		if (metricsCaptor != null && this.selector instanceof MetricsCaptorAware) {
+			((MetricsCaptorAware) this.selector).registerMetricsCaptor(metricsCaptor, getComponentName());
+		}
+	}
+
 	@Override
 	public void start() {
 		if (this.selector instanceof Lifecycle) {
@@ -59,6 +59,7 @@ import org.springframework.integration.annotation.GatewayHeader;
 import org.springframework.integration.endpoint.AbstractEndpoint;
 import org.springframework.integration.expression.ExpressionUtils;
 import org.springframework.integration.expression.ValueExpression;
+import org.springframework.integration.support.CompactMessageBuilderFactory;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
 import org.springframework.integration.support.management.TrackableComponent;
@@ -635,7 +636,8 @@ public class GatewayProxyFactoryBean extends AbstractEndpoint
 			headers.put(MessageHeaders.ERROR_CHANNEL, errorChannel);
 		}
 
-		if (getMessageBuilderFactory() instanceof DefaultMessageBuilderFactory) {
+		if (getMessageBuilderFactory() instanceof DefaultMessageBuilderFactory
+				|| getMessageBuilderFactory() instanceof CompactMessageBuilderFactory) {
 			Set<String> headerNames = new HashSet<>(headerExpressions.keySet());
 
 			if (this.globalMethodMetadata != null) {
@@ -17,19 +17,23 @@
 package org.springframework.integration.handler;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.aopalliance.aop.Advice;
 
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.expression.EvaluationContext;
@@ -43,6 +47,7 @@ import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.management.IntegrationManagedResource;
+import org.springframework.integration.util.HashedTimingWheel;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -77,6 +82,12 @@ import org.springframework.util.ObjectUtils;
  * Message can be released as soon as five seconds from the current time). If the value is
  * a Date, it will be delayed at least until that Date occurs (i.e. the delay in that case
  * is equivalent to {@code headerDate.getTime() - new Date().getTime()}).
+ * <p>
+ * By default each delayed Message is a separate task for the {@link TaskScheduler}. With
+ * {@link #setTimingWheel(boolean) timingWheel} enabled, delayed Messages are instead
+ * bucketed into the slots of a {@link HashedTimingWheel}, which is advanced by a single
+ * periodic task releasing all due Messages of a tick in bulk; persisted Messages are
+ * then reloaded incrementally, {@link #setReloadBatchSize(int) reloadBatchSize} per tick.
  *
  * @author Mark Fisher
  * @author Artem Bilan
@@ -88,12 +99,18 @@ import org.springframework.util.ObjectUtils;
 @ManagedResource
 @IntegrationManagedResource
 public class DelayHandler extends AbstractReplyProducingMessageHandler implements DelayHandlerManagement,
-		ApplicationListener<ContextRefreshedEvent> {
+		ApplicationListener<ContextRefreshedEvent>, DisposableBean {
 
 	public static final int DEFAULT_MAX_ATTEMPTS = 5;
 
 	public static final long DEFAULT_RETRY_DELAY = 1_000;
 
+	public static final long DEFAULT_TICK_DURATION = 100;
+
+	public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+	public static final int DEFAULT_RELOAD_BATCH_SIZE = 1_000;
+
 	private final String messageGroupId;
 
 	private final ConcurrentMap<String, AtomicInteger> deliveries = new ConcurrentHashMap<>();
@@ -122,6 +139,20 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 
 	private long retryDelay = DEFAULT_RETRY_DELAY;
 
+	private boolean timingWheel;
+
+	private long tickDuration = DEFAULT_TICK_DURATION;
+
+	private int ticksPerWheel = DEFAULT_TICKS_PER_WHEEL;
+
+	private int reloadBatchSize = DEFAULT_RELOAD_BATCH_SIZE;
+
+	private volatile HashedTimingWheel<Runnable> wheel;
+
+	private volatile ScheduledFuture<?> tickFuture;
+
+	private Iterator<Message<?>> pendingReload;
+
 	/**
 	 * Create a DelayHandler with the given 'messageGroupId' that is used as 'key' for
 	 * {@link MessageGroup} to store delayed Messages in the {@link MessageGroupStore}.
@@ -269,6 +300,57 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		this.retryDelay = retryDelay;
 	}
 
+	/**
+	 * Set to true to bucket delayed messages into the slots of a {@link HashedTimingWheel}
+	 * instead of scheduling a {@link TaskScheduler} task per message. The wheel is advanced
+	 * by a single fixed-rate task, releasing all due messages of a tick in bulk; a message
+	 * is released at most one {@link #setTickDuration(long) tickDuration} after its delay
+	 * has expired. Default false.
+	 * @param timingWheel true to use a timing wheel.
+	 * @since 5.1
+	 */
+	public void setTimingWheel(boolean timingWheel) {
+		this.timingWheel = timingWheel;
+	}
+
+	/**
+	 * Set the timing wheel tick duration in milliseconds; this is the release precision.
+	 * Default {@value #DEFAULT_TICK_DURATION}.
+	 * @param tickDuration the tick duration.
+	 * @since 5.1
+	 * @see #setTimingWheel(boolean)
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of timing wheel slots (rounded up to a power of two). Delays longer
+	 * than {@code ticksPerWheel * tickDuration} simply stay in their slot for more than one
+	 * revolution. Default {@value #DEFAULT_TICKS_PER_WHEEL}.
+	 * @param ticksPerWheel the number of slots.
+	 * @since 5.1
+	 * @see #setTimingWheel(boolean)
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0, "'ticksPerWheel' must be greater than 0");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * Set the maximum number of persisted messages to reload from the message store on
+	 * each tick when {@link #reschedulePersistedMessages()} is invoked in timing wheel
+	 * mode. Default {@value #DEFAULT_RELOAD_BATCH_SIZE}.
+	 * @param reloadBatchSize the batch size.
+	 * @since 5.1
+	 * @see #setTimingWheel(boolean)
+	 */
+	public void setReloadBatchSize(int reloadBatchSize) {
+		Assert.isTrue(reloadBatchSize > 0, "'reloadBatchSize' must be greater than 0");
+		this.reloadBatchSize = reloadBatchSize;
+	}
+
 	private MessageChannel getErrorChannel() {
 		if (this.delayedMessageErrorChannel != null) {
 			return this.delayedMessageErrorChannel;
@@ -297,6 +379,9 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		}
 		this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(this.getBeanFactory());
 		this.releaseHandler = this.createReleaseMessageTask();
+		if (this.timingWheel) {
+			this.wheel = new HashedTimingWheel<>(this.tickDuration, this.ticksPerWheel);
+		}
 	}
 
 	private MessageHandler createReleaseMessageTask() {
@@ -425,7 +510,71 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 			};
 		}
 
-		getTaskScheduler().schedule(releaseTask, new Date(messageWrapper.getRequestDate() + delay));
+		schedule(releaseTask, messageWrapper.getRequestDate() + delay);
+	}
+
+	private void schedule(Runnable task, long time) {
+		if (this.wheel != null) {
+			this.wheel.schedule(task, time);
+			startTimingWheelIfNecessary();
+		}
+		else {
+			getTaskScheduler().schedule(task, new Date(time));
+		}
+	}
+
+	private void startTimingWheelIfNecessary() {
+		if (this.tickFuture == null) {
+			synchronized (this.wheel) {
+				if (this.tickFuture == null) {
+					this.tickFuture = getTaskScheduler().scheduleAtFixedRate(this::tick, this.tickDuration);
+				}
+			}
+		}
+	}
+
+	private void tick() {
+		try {
+			reloadNextBatch();
+			for (Runnable releaseTask : this.wheel.expire(System.currentTimeMillis())) {
+				try {
+					releaseTask.run();
+				}
+				catch (Exception e) {
+					// don't let one failed release cancel the periodic tick
+					this.logger.error("Failed to release delayed message", e);
+				}
+			}
+		}
+		catch (Exception e) {
+			this.logger.error("Failed to advance the timing wheel", e);
+		}
+	}
+
+	private synchronized void reloadNextBatch() {
+		if (this.pendingReload != null) {
+			try {
+				int count = 0;
+				while (count++ < this.reloadBatchSize && this.pendingReload.hasNext()) {
+					Message<?> message = this.pendingReload.next();
+					long delay = determineDelayForMessage(message);
+					if (delay > 0) {
+						releaseMessageAfterDelay(message, delay);
+					}
+					else {
+						this.wheel.schedule(() -> releaseMessage(message), 0);
+					}
+				}
+				if (!this.pendingReload.hasNext()) {
+					this.pendingReload = null;
+				}
+			}
+			catch (RuntimeException e) {
+				// don't retry a failing reload on every tick
+				this.pendingReload = null;
+				throw e;
+			}
+		}
 	}
 
 	private Message<?> getMessageById(UUID messageId) {
@@ -505,8 +654,7 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 	}
 
 	protected void rescheduleAt(final Message<?> message, Date startTime) {
-		getTaskScheduler()
-				.schedule(() -> releaseMessage(message), startTime);
+		schedule(() -> releaseMessage(message), startTime.getTime());
 	}
 
 	private void doReleaseMessage(Message<?> message) {
@@ -548,15 +696,47 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		return this.messageStore.messageGroupSize(this.messageGroupId);
 	}
 
+	@Override
+	public int getTimingWheelSize() {
+		HashedTimingWheel<Runnable> wheel = this.wheel;
+		return wheel != null ? wheel.size() : 0;
+	}
+
+	@Override
+	public int getTimingWheelSlotCount() {
+		HashedTimingWheel<Runnable> wheel = this.wheel;
+		return wheel != null ? wheel.getSlotCount() : 0;
+	}
+
+	@Override
+	public int getTimingWheelOccupiedSlotCount() {
+		HashedTimingWheel<Runnable> wheel = this.wheel;
+		return wheel != null ? wheel.getOccupiedSlotCount() : 0;
+	}
+
+	@Override
+	public int getTimingWheelMaxSlotSize() {
+		HashedTimingWheel<Runnable> wheel = this.wheel;
+		return wheel != null ? wheel.getMaxSlotSize() : 0;
+	}
+
 	/**
 	 * Used for reading persisted Messages in the 'messageStore' to reschedule them e.g.
 	 * upon application restart. The logic is based on iteration over
 	 * {@code messageGroup.getMessages()} and schedules task for 'delay' logic. This
 	 * behavior is dictated by the avoidance of invocation thread overload.
+	 * In timing wheel mode, the messages are instead reloaded incrementally from the
+	 * timing wheel tick, {@link #setReloadBatchSize(int) reloadBatchSize} at a time.
 	 */
 	@Override
 	public synchronized void reschedulePersistedMessages() {
 		MessageGroup messageGroup = this.messageStore.getMessageGroup(this.messageGroupId);
+		if (this.wheel != null) {
+			// copy - the group may be a live view that changes as the messages are released
+			this.pendingReload = new ArrayList<>(messageGroup.getMessages()).iterator();
+			startTimingWheelIfNecessary();
+			return;
+		}
 		for (final Message<?> message : messageGroup.getMessages()) {
 			getTaskScheduler()
 					.schedule(() -> {
@@ -591,6 +771,15 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		}
 	}
 
+	@Override
+	public void destroy() throws Exception {
+		ScheduledFuture<?> tickFuture = this.tickFuture;
+		if (tickFuture != null) {
+			tickFuture.cancel(false);
+			this.tickFuture = null;
+		}
+	}
+
 	/**
 	 * Delegate {@link MessageHandler} implementation for 'release Message task'. Used as
 	 * 'pointcut' to wrap 'release Message task' with <code>adviceChain</code>.
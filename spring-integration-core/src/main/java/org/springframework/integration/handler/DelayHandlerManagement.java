@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,4 +31,45 @@ public interface DelayHandlerManagement {
 
 	@ManagedOperation
 	void reschedulePersistedMessages();
+
+	/**
+	 * Return the number of delayed messages currently held in the timing wheel.
+	 * @return the number of messages; 0 when no timing wheel is used.
+	 * @since 5.1
+	 */
+	@ManagedAttribute(description = "Number of delayed messages in the timing wheel")
+	default int getTimingWheelSize() {
+		return 0;
+	}
+
+	/**
+	 * Return the number of timing wheel slots.
+	 * @return the number of slots; 0 when no timing wheel is used.
+	 * @since 5.1
+	 */
+	@ManagedAttribute(description = "Number of timing wheel slots")
+	default int getTimingWheelSlotCount() {
+		return 0;
+	}
+
+	/**
+	 * Return the number of timing wheel slots holding at least one delayed message.
+	 * @return the number of occupied slots; 0 when no timing wheel is used.
+	 * @since 5.1
+	 */
+	@ManagedAttribute(description = "Number of timing wheel slots holding delayed messages")
+	default int getTimingWheelOccupiedSlotCount() {
+		return 0;
+	}
+
+	/**
+	 * Return the number of delayed messages in the most populated timing wheel slot.
+	 * @return the maximum slot size; 0 when no timing wheel is used.
+	 * @since 5.1
+	 */
+	@ManagedAttribute(description = "Largest number of delayed messages in a timing wheel slot")
+	default int getTimingWheelMaxSlotSize() {
+		return 0;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,23 +16,34 @@
 
 package org.springframework.integration.handler;
 
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ParseException;
+import org.springframework.integration.expression.CompilingExpression;
+import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.MetricsCaptorAware;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 
 /**
  * A {@link MessageProcessor} implementation that evaluates a SpEL expression
  * with the Message itself as the root object within the evaluation context.
+ * <p>
+ * When the {@link org.springframework.integration.context.IntegrationProperties#SPEL_COMPILER_MODE}
+ * integration property is set, a SpEL expression is evaluated through a
+ * {@link CompilingExpression}, whose statistics are registered as gauges when a
+ * {@link MetricsCaptor} is available (see {@link #registerMetricsCaptor(MetricsCaptor, String)}).
  *
  * @author Mark Fisher
  * @author Artem Bilan
  * @author Gary Russell
  * @since 2.0
  */
-public class ExpressionEvaluatingMessageProcessor<T> extends AbstractMessageProcessor<T> {
+public class ExpressionEvaluatingMessageProcessor<T> extends AbstractMessageProcessor<T>
+		implements MetricsCaptorAware {
 
-	private final Expression expression;
+	private volatile Expression expression;
 
 	private final Class<T> expectedType;
 
@@ -94,6 +105,58 @@ public class ExpressionEvaluatingMessageProcessor<T> extends AbstractMessageProc
 		}
 	}
 
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		super.setBeanFactory(beanFactory);
+		this.expression = ExpressionUtils.compilingExpression(this.expression, beanFactory);
+	}
+
+	/**
+	 * Return the expression to evaluate; a {@link CompilingExpression} exposes the
+	 * evaluation statistics.
+	 * @return the expression.
+	 * @since 5.1
+	 */
+	public Expression getExpression() {
+		return this.expression;
+	}
+
+	/**
+	 * Register the statistics of a {@link CompilingExpression} as the
+	 * {@code spring.integration.expression.evaluations},
+	 * {@code spring.integration.expression.evaluation.mean} (nanoseconds) and
+	 * {@code spring.integration.expression.compiled} (1 when compiled) gauges, tagged with
+	 * the component name and the expression string. No-op for other expressions.
+	 * @param metricsCaptor the captor.
+	 * @param componentName the name of the component using this processor.
+	 * @since 5.1
+	 */
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor, String componentName) {
+		if (this.expression instanceof CompilingExpression) {
+			String name = componentName == null ? "unknown" : componentName;
+			String expressionString = this.expression.getExpressionString();
+			metricsCaptor.gaugeBuilder("spring.integration.expression.evaluations", this.expression,
+					exp -> ((CompilingExpression) exp).getEvaluationCount())
+					.tag("name", name)
+					.tag("expression", expressionString)
+					.description("The number of evaluations of the expression")
+					.build();
+			metricsCaptor.gaugeBuilder("spring.integration.expression.evaluation.mean", this.expression,
+					exp -> ((CompilingExpression) exp).getMeanEvaluationTime())
+					.tag("name", name)
+					.tag("expression", expressionString)
+					.description("The mean evaluation time of the expression in nanoseconds")
+					.build();
+			metricsCaptor.gaugeBuilder("spring.integration.expression.compiled", this.expression,
+					exp -> ((CompilingExpression) exp).isCompiled() ? 1 : 0)
+					.tag("name", name)
+					.tag("expression", expressionString)
+					.description("Whether the expression currently runs compiled (1) or interpreted (0)")
+					.build();
+		}
+	}
+
 	/**
 	 * Processes the Message by evaluating the expression with that Message as the
 	 * root object. The expression evaluation result Object will be returned.
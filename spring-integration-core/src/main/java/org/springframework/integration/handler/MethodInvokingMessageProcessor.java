@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -83,6 +83,18 @@ public class MethodInvokingMessageProcessor<T> extends AbstractMessageProcessor<
 		this.delegate.setUseSpelInvoker(useSpelInvoker);
 	}
 
+	/**
+	 * A {@code boolean} flag to invoke the target method through a
+	 * {@link java.lang.invoke.MethodHandle} with precomputed argument extractors
+	 * where the method signature allows it.
+	 * @param useDirectInvoker true to use the direct invoker where possible.
+	 * @since 5.1
+	 * @see MessagingMethodInvokerHelper#setUseDirectInvoker(boolean)
+	 */
+	public void setUseDirectInvoker(boolean useDirectInvoker) {
+		this.delegate.setUseDirectInvoker(useDirectInvoker);
+	}
+
 	@Override
 	public void start() {
 		this.delegate.start();
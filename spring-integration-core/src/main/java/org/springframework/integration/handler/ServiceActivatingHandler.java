@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.context.Lifecycle;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.MetricsCaptorAware;
 import org.springframework.messaging.Message;
 
 /**
@@ -69,6 +71,14 @@ public class ServiceActivatingHandler extends AbstractReplyProducingMessageHandl
 		}
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
+		super.registerMetricsCaptor(metricsCaptor);
+		if (metricsCaptor != null && this.processor instanceof MetricsCaptorAware) {
+			((MetricsCaptorAware) this.processor).registerMetricsCaptor(metricsCaptor, getComponentName());
+		}
+	}
+
 	@Override
 	public void start() {
 		if (this.processor instanceof Lifecycle) {
@@ -71,6 +71,7 @@ import org.springframework.integration.annotation.Payloads;
 import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.annotation.UseSpelInvoker;
 import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.context.IntegrationProperties;
 import org.springframework.integration.support.MutableMessage;
 import org.springframework.integration.support.json.JsonObjectMapper;
 import org.springframework.integration.support.json.JsonObjectMapperProvider;
@@ -94,6 +95,7 @@ import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
 import org.springframework.messaging.handler.invocation.MethodArgumentResolutionException;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.ReflectionUtils.MethodFilter;
@@ -178,6 +180,8 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 	private final List<Map<Class<?>, HandlerMethod>> handlerMethodsList;
 
+	private final Map<Class<?>, HandlerMethod> handlerMethodsByPayloadType = new ConcurrentReferenceHashMap<>();
+
 	private final HandlerMethod handlerMethod;
 
 	private final TypeDescriptor expectedType;
@@ -194,6 +198,8 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 	private boolean useSpelInvoker;
 
+	private Boolean useDirectInvoker;
+
 	private HandlerMethod defaultHandlerMethod;
 
 	private BeanExpressionResolver resolver = new StandardBeanExpressionResolver();
@@ -286,6 +292,21 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		this.useSpelInvoker = useSpelInvoker;
 	}
 
+	/**
+	 * A {@code boolean} flag to invoke the target method through a {@link java.lang.invoke.MethodHandle}
+	 * with argument extractors computed once from the method signature, instead of the
+	 * {@link InvocableHandlerMethod} argument resolvers.
+	 * Only applies to methods whose parameters are the payload, the {@link Message}, the {@link Headers}
+	 * or {@link Header}s without expressions; when an argument requires a conversion, the
+	 * invocation falls back to the {@link InvocableHandlerMethod}.
+	 * Defaults to the {@link IntegrationProperties#METHOD_INVOKER_DIRECT} integration property.
+	 * @param useDirectInvoker true to use the direct invoker where possible.
+	 * @since 5.1
+	 */
+	public void setUseDirectInvoker(boolean useDirectInvoker) {
+		this.useDirectInvoker = useDirectInvoker;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		super.setBeanFactory(beanFactory);
@@ -465,6 +486,9 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		if (this.useSpelInvoker || candidate.spelOnly) {
 			result = invokeExpression(expression, parameters);
 		}
+		else if (candidate.directInvoker != null) {
+			result = invokeDirect(candidate, parameters);
+		}
 		else {
 			result = invokeHandlerMethod(candidate, parameters);
 		}
@@ -492,6 +516,13 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 					: SPEL_COMPILERS.get(SpelCompilerMode.valueOf(compilerMode));
 		}
 		candidate.expression = parser.parseExpression(candidate.expressionString);
+		if (this.useDirectInvoker && !this.canProcessMessageList && !candidate.spelOnly) {
+			candidate.directInvoker = MethodHandleInvoker.create(candidate.invocableHandlerMethod.getBean(),
+					candidate.invocableHandlerMethod.getMethod(), PARAMETER_NAME_DISCOVERER);
+			if (candidate.directInvoker == null && logger.isDebugEnabled()) {
+				logger.debug("No direct invoker for [" + candidate + "]; using the argument resolvers");
+			}
+		}
 		candidate.initialized = true;
 	}
 
@@ -526,6 +557,10 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			}
 
 			this.messageHandlerMethodFactory.afterPropertiesSet();
+			if (this.useDirectInvoker == null) {
+				this.useDirectInvoker = Boolean.valueOf(IntegrationContextUtils.getIntegrationProperties(beanFactory)
+						.getProperty(IntegrationProperties.METHOD_INVOKER_DIRECT));
+			}
 			prepareEvaluationContext();
 			this.initialized = true;
 		}
@@ -607,6 +642,15 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private T invokeDirect(HandlerMethod handlerMethod, ParametersWrapper parameters) throws Exception {
+		Object[] arguments = handlerMethod.directInvoker.resolveArguments(parameters.getMessage());
+		if (arguments == null) {
+			return invokeHandlerMethod(handlerMethod, parameters);
+		}
+		return (T) handlerMethod.directInvoker.invoke(arguments);
+	}
+
 	@SuppressWarnings("unchecked")
 	private T invokeExpression(Expression expression, ParametersWrapper parameters) throws Exception {
 		try {
@@ -971,19 +1015,22 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 		final Class<?> payloadType = parameters.getFirstParameterType();
 
-		HandlerMethod closestMatch = this.findClosestMatch(payloadType);
-		if (closestMatch != null) {
-			return closestMatch;
-
-		}
-
-		if (Iterable.class.isAssignableFrom(payloadType) && this.handlerMethods.containsKey(Iterator.class)) {
-			return this.handlerMethods.get(Iterator.class);
-		}
-		else {
-			return this.handlerMethods.get(Void.class);
+		HandlerMethod candidate = this.handlerMethodsByPayloadType.get(payloadType);
+		if (candidate == null) {
+			candidate = this.findClosestMatch(payloadType);
+			if (candidate == null) {
+				if (Iterable.class.isAssignableFrom(payloadType) && this.handlerMethods.containsKey(Iterator.class)) {
+					candidate = this.handlerMethods.get(Iterator.class);
+				}
+				else {
+					candidate = this.handlerMethods.get(Void.class);
+				}
+			}
+			if (candidate != null) {
+				this.handlerMethodsByPayloadType.put(payloadType, candidate);
+			}
 		}
-
+		return candidate;
 	}
 
 	private HandlerMethod findClosestMatch(Class<?> payloadType) {
@@ -1034,6 +1081,8 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 		private volatile UseSpelInvoker useSpelInvoker;
 
+		private volatile MethodHandleInvoker directInvoker;
+
 		private volatile boolean initialized;
 
 		// The number of times InvocableHandlerMethod was attempted and failed - enables us to eventually
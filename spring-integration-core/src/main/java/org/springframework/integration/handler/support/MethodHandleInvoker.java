@@ -0,0 +1,235 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.handler.support;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.ValueConstants;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Invokes a handler method through a {@link MethodHandle} bound to the target, with
+ * argument extractors computed once from the method signature.
+ * <p>
+ * Only the simple message parts are supported: the payload (unannotated or with a
+ * {@link Payload} without expression), the {@link Message}, the {@link Headers} and
+ * {@link Header} parameters without expression or default value. {@link #create} returns
+ * {@code null} for other signatures. At runtime, {@link #resolveArguments(Message)}
+ * returns {@code null} when an argument would need a conversion (or a required header
+ * is missing), so that the caller can fall back to the regular invocation.
+ *
+ * @since 5.1
+ */
+final class MethodHandleInvoker {
+
+	private static final Object UNRESOLVED = new Object();
+
+	private final Method method;
+
+	private final MethodHandle handle;
+
+	private final ArgumentExtractor[] extractors;
+
+	private MethodHandleInvoker(Method method, MethodHandle handle, ArgumentExtractor[] extractors) {
+		this.method = method;
+		this.handle = handle;
+		this.extractors = extractors;
+	}
+
+	/**
+	 * Create an invoker for the method, if its signature is supported.
+	 * @param targetObject the target object.
+	 * @param method the method.
+	 * @param parameterNameDiscoverer the discoverer for {@link Header} parameters without a name.
+	 * @return the invoker or null.
+	 */
+	@Nullable
+	static MethodHandleInvoker create(Object targetObject, Method method,
+			ParameterNameDiscoverer parameterNameDiscoverer) {
+
+		boolean isStatic = Modifier.isStatic(method.getModifiers());
+		if (!isStatic && !method.getDeclaringClass().isInstance(targetObject)) {
+			return null;
+		}
+		int parameterCount = method.getParameterCount();
+		ArgumentExtractor[] extractors = new ArgumentExtractor[parameterCount];
+		for (int i = 0; i < parameterCount; i++) {
+			MethodParameter methodParameter = new MethodParameter(method, i);
+			methodParameter.initParameterNameDiscovery(parameterNameDiscoverer);
+			extractors[i] = extractorFor(methodParameter);
+			if (extractors[i] == null) {
+				return null;
+			}
+		}
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+			if (!isStatic) {
+				handle = handle.bindTo(targetObject);
+			}
+			handle = handle.asSpreader(Object[].class, parameterCount)
+					.asType(MethodType.methodType(Object.class, Object[].class));
+			return new MethodHandleInvoker(method, handle, extractors);
+		}
+		catch (IllegalAccessException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Extract the arguments from the message.
+	 * @param message the message.
+	 * @return the arguments or null if they can't be extracted without conversion.
+	 */
+	@Nullable
+	Object[] resolveArguments(Message<?> message) {
+		Object[] arguments = new Object[this.extractors.length];
+		for (int i = 0; i < arguments.length; i++) {
+			Object argument = this.extractors[i].extract(message);
+			if (argument == UNRESOLVED) {
+				return null;
+			}
+			arguments[i] = argument;
+		}
+		return arguments;
+	}
+
+	Object invoke(Object[] arguments) throws Exception {
+		try {
+			return this.handle.invokeExact(arguments);
+		}
+		catch (Exception | Error e) {
+			throw e;
+		}
+		catch (Throwable t) {
+			throw new IllegalStateException("Failed to invoke " + this.method, t);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MethodHandleInvoker for " + this.method;
+	}
+
+	@Nullable
+	private static ArgumentExtractor extractorFor(MethodParameter methodParameter) {
+		Annotation[] annotations = methodParameter.getParameterAnnotations();
+		Class<?> parameterType = methodParameter.getParameterType();
+		if (annotations.length > 1) {
+			return null;
+		}
+		else if (annotations.length == 1) {
+			Annotation annotation = annotations[0];
+			if (annotation instanceof Payload) {
+				AnnotationAttributes attributes = AnnotationUtils.getAnnotationAttributes(annotation, false, false);
+				return StringUtils.hasText(attributes.getString("expression"))
+						? null
+						: payloadExtractor(parameterType);
+			}
+			else if (annotation instanceof Headers) {
+				return parameterType.isAssignableFrom(MessageHeaders.class)
+						? Message::getHeaders
+						: null;
+			}
+			else if (annotation instanceof Header) {
+				return headerExtractor(annotation, methodParameter);
+			}
+			return null;
+		}
+		else if (Message.class.isAssignableFrom(parameterType)) {
+			Class<?> payloadType =
+					ResolvableType.forMethodParameter(methodParameter).getGeneric(0).resolve(Object.class);
+			return message -> parameterType.isInstance(message) && payloadType.isInstance(message.getPayload())
+					? message
+					: UNRESOLVED;
+		}
+		else if (Map.class.isAssignableFrom(parameterType) || Collection.class.isAssignableFrom(parameterType)
+				|| Iterator.class.isAssignableFrom(parameterType) || parameterType.isArray()) {
+			return null;
+		}
+		else {
+			return payloadExtractor(parameterType);
+		}
+	}
+
+	private static ArgumentExtractor payloadExtractor(Class<?> parameterType) {
+		Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(parameterType);
+		return message -> {
+			Object payload = message.getPayload();
+			return type.isInstance(payload) ? payload : UNRESOLVED;
+		};
+	}
+
+	@Nullable
+	private static ArgumentExtractor headerExtractor(Annotation annotation, MethodParameter methodParameter) {
+		AnnotationAttributes attributes = AnnotationUtils.getAnnotationAttributes(annotation, false, false);
+		String headerName = attributes.getString(AnnotationUtils.VALUE);
+		if (!StringUtils.hasText(headerName)) {
+			headerName = methodParameter.getParameterName();
+		}
+		if (headerName == null || headerName.indexOf('.') != -1
+				|| !ValueConstants.DEFAULT_NONE.equals(attributes.getString("defaultValue"))
+				|| Optional.class.equals(methodParameter.getParameterType())) {
+			return null;
+		}
+		String name = headerName;
+		boolean required = attributes.getBoolean("required") || methodParameter.getParameterType().isPrimitive();
+		Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(methodParameter.getParameterType());
+		return message -> {
+			Object value = message.getHeaders().get(name);
+			if (value == null) {
+				return required ? UNRESOLVED : null;
+			}
+			return type.isInstance(value) ? value : UNRESOLVED;
+		};
+	}
+
+	@FunctionalInterface
+	private interface ArgumentExtractor {
+
+		/**
+		 * Extract the argument from the message.
+		 * @param message the message.
+		 * @return the argument or {@link #UNRESOLVED}.
+		 */
+		Object extract(Message<?> message);
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,13 @@
 
 package org.springframework.integration.history;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -30,11 +35,13 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.support.CompactMessageBuilderFactory;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.integration.support.MutableMessage;
 import org.springframework.integration.support.MutableMessageBuilderFactory;
 import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.messaging.support.GenericMessage;
@@ -42,13 +49,25 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
+ * The list of components a message passed through, stored in the {@link #HEADER_NAME}
+ * header.
+ * <p>
+ * Since version 5.1, each instance only holds the entry for the last component and a
+ * reference to the previous history, so that tracking a component does not copy the
+ * history. The {@link Properties} entries are only created when the history is read.
+ * The serialized form is unchanged: a list of {@link Entry} instances.
+ *
  * @author Mark Fisher
  * @author Artem Bilan
  * @since 2.0
  */
-@SuppressWarnings("serial")
 public final class MessageHistory implements List<Properties>, Serializable {
 
+	private static final long serialVersionUID = 1426799817181873282L;
+
+	private static final ObjectStreamField[] serialPersistentFields =
+			{ new ObjectStreamField("components", List.class) };
+
 	private static final Log logger = LogFactory.getLog(MessageHistory.class);
 
 	public static final String HEADER_NAME = "history";
@@ -62,7 +81,23 @@ public final class MessageHistory implements List<Properties>, Serializable {
 	private static final MessageBuilderFactory MESSAGE_BUILDER_FACTORY = new DefaultMessageBuilderFactory();
 
 
-	private final List<Properties> components;
+	// set by link() before the history is published in a message header
+
+	private transient MessageHistory previous;
+
+	private transient String name;
+
+	private transient String type;
+
+	private transient long timestamp;
+
+	private transient int size;
+
+	/**
+	 * The materialized entries; set on creation for a history without {@link #previous},
+	 * otherwise on first read.
+	 */
+	private volatile List<Properties> components;
 
 
 	public static MessageHistory read(Message<?> message) {
@@ -78,13 +113,11 @@ public final class MessageHistory implements List<Properties>, Serializable {
 			MessageBuilderFactory messageBuilderFactory) {
 		Assert.notNull(message, "Message must not be null");
 		Assert.notNull(component, "Component must not be null");
-		Properties metadata = extractMetadata(component);
-		if (!metadata.isEmpty()) {
+		String name = component.getComponentName();
+		if (name != null && !name.startsWith("org.springframework.integration")) {
 			MessageHistory previousHistory = message.getHeaders().get(HEADER_NAME, MessageHistory.class);
-			List<Properties> components = (previousHistory != null) ?
-					new ArrayList<Properties>(previousHistory) : new ArrayList<Properties>();
-			components.add(metadata);
-			MessageHistory history = new MessageHistory(components);
+			MessageHistory history = link(previousHistory, name, component.getComponentType(),
+					System.currentTimeMillis());
 
 			if (message instanceof MutableMessage) {
 				message.getHeaders().put(HEADER_NAME, history);
@@ -105,6 +138,7 @@ public final class MessageHistory implements List<Properties>, Serializable {
 			else {
 				if (!(message instanceof GenericMessage) &&
 						(messageBuilderFactory instanceof DefaultMessageBuilderFactory ||
+								messageBuilderFactory instanceof CompactMessageBuilderFactory ||
 								messageBuilderFactory instanceof MutableMessageBuilderFactory)) {
 					if (logger.isWarnEnabled()) {
 						logger.warn("MessageHistory rebuilds the message and produces the result of the [" +
@@ -122,81 +156,105 @@ public final class MessageHistory implements List<Properties>, Serializable {
 	}
 
 
-	private MessageHistory(List<Properties> components) {
-		Assert.notEmpty(components, "component list must not be empty");
-		this.components = components;
+	/**
+	 * The only constructor, so that data mappers (such as Spring Data MongoDB) can
+	 * restore a history from its components; linked histories are created by
+	 * {@link #link(MessageHistory, String, String, long)}.
+	 * @param components the entries; null for a linked history.
+	 */
+	private MessageHistory(@Nullable List<Properties> components) {
+		if (components != null) {
+			Assert.notEmpty(components, "component list must not be empty");
+			this.size = components.size();
+			this.components = Collections.unmodifiableList(new ArrayList<>(components));
+		}
+	}
+
+	private static MessageHistory link(@Nullable MessageHistory previous, String name, @Nullable String type,
+			long timestamp) {
+
+		if (previous == null) {
+			return new MessageHistory(Collections.singletonList(createEntry(name, type, timestamp)));
+		}
+		MessageHistory history = new MessageHistory(null);
+		history.previous = previous;
+		history.name = name;
+		history.type = type;
+		history.timestamp = timestamp;
+		history.size = previous.size + 1;
+		return history;
 	}
 
 
 	@Override
 	public int size() {
-		return this.components.size();
+		return this.size;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return this.components.isEmpty();
+		return this.size == 0;
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		return this.components.contains(o);
+		return components().contains(o);
 	}
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return this.components.containsAll(c);
+		return components().containsAll(c);
 	}
 
 	@Override
 	public Properties get(int index) {
-		return this.components.get(index);
+		return components().get(index);
 	}
 
 	@Override
 	public Iterator<Properties> iterator() {
-		return Collections.unmodifiableList(this.components).iterator();
+		return components().iterator();
 	}
 
 	@Override
 	public ListIterator<Properties> listIterator() {
-		return Collections.unmodifiableList(this.components).listIterator();
+		return components().listIterator();
 	}
 
 	@Override
 	public ListIterator<Properties> listIterator(int index) {
-		return Collections.unmodifiableList(this.components).listIterator(index);
+		return components().listIterator(index);
 	}
 
 	@Override
 	public List<Properties> subList(int fromIndex, int toIndex) {
-		return Collections.unmodifiableList(this.components).subList(fromIndex, toIndex);
+		return components().subList(fromIndex, toIndex);
 	}
 
 	@Override
 	public Object[] toArray() {
-		return this.components.toArray();
+		return components().toArray();
 	}
 
 	@Override
 	public <T> T[] toArray(T[] a) {
-		return this.components.toArray(a);
+		return components().toArray(a);
 	}
 
 	@Override
 	public int indexOf(Object o) {
-		return this.components.indexOf(o);
+		return components().indexOf(o);
 	}
 
 	@Override
 	public int lastIndexOf(Object o) {
-		return this.components.lastIndexOf(o);
+		return components().lastIndexOf(o);
 	}
 
 	@Override
 	public String toString() {
 		List<String> names = new ArrayList<String>();
-		for (Properties p : this.components) {
+		for (Properties p : components()) {
 			String name = p.getProperty(NAME_PROPERTY);
 			if (name != null) {
 				names.add(name);
@@ -205,6 +263,64 @@ public final class MessageHistory implements List<Properties>, Serializable {
 		return StringUtils.collectionToCommaDelimitedString(names);
 	}
 
+	/**
+	 * Materialize the entries: walk back to the closest history with materialized
+	 * entries, then create the entries of the histories in between.
+	 * @return the unmodifiable list of entries.
+	 */
+	private List<Properties> components() {
+		List<Properties> list = this.components;
+		if (list == null) {
+			Properties[] entries = new Properties[this.size];
+			int index = this.size;
+			MessageHistory history = this;
+			List<Properties> materialized = null;
+			while (materialized == null) {
+				materialized = history.components;
+				if (materialized == null) {
+					entries[--index] = history.createEntry();
+					history = history.previous;
+				}
+			}
+			for (int i = 0; i < index; i++) {
+				entries[i] = materialized.get(i);
+			}
+			list = Collections.unmodifiableList(Arrays.asList(entries));
+			this.components = list;
+		}
+		return list;
+	}
+
+	private Entry createEntry() {
+		return createEntry(this.name, this.type, this.timestamp);
+	}
+
+	private static Entry createEntry(String name, @Nullable String type, long timestamp) {
+		Entry entry = new Entry();
+		entry.setName(name);
+		if (type != null) {
+			entry.setType(type);
+		}
+		entry.setTimestamp(Long.toString(timestamp));
+		return entry;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("components", new ArrayList<>(components()));
+		out.writeFields();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		this.components = (List<Properties>) fields.get("components", null);
+	}
+
+	private Object readResolve() {
+		return new MessageHistory(this.components);
+	}
+
 
 	/*
 	 * Unsupported Operations
@@ -261,28 +377,13 @@ public final class MessageHistory implements List<Properties>, Serializable {
 	}
 
 
-	private static Properties extractMetadata(NamedComponent component) {
-		Entry entry = new Entry();
-		String name = component.getComponentName();
-		String type = component.getComponentType();
-		if (name != null && !name.startsWith("org.springframework.integration")) {
-			entry.setName(name);
-			if (type != null) {
-				entry.setType(type);
-			}
-		}
-		if (!entry.isEmpty()) {
-			entry.setTimestamp(Long.toString(System.currentTimeMillis()));
-		}
-		return entry;
-	}
-
-
 	/**
 	 * Inner class for each Entry in the history.
 	 */
 	public static class Entry extends Properties {
 
+		private static final long serialVersionUID = -8225834391885601079L;
+
 		public String getName() {
 			return this.getProperty(NAME_PROPERTY);
 		}
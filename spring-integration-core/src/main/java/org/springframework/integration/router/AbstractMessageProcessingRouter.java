@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,8 @@ import org.springframework.context.Lifecycle;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.integration.handler.AbstractMessageProcessor;
 import org.springframework.integration.handler.MessageProcessor;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.MetricsCaptorAware;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 
@@ -60,6 +62,14 @@ class AbstractMessageProcessingRouter extends AbstractMappingMessageRouter
 		}
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
+		super.registerMetricsCaptor(metricsCaptor);
+		if (metricsCaptor != null && this.messageProcessor instanceof MetricsCaptorAware) {
+			((MetricsCaptorAware) this.messageProcessor).registerMetricsCaptor(metricsCaptor, getComponentName());
+		}
+	}
+
 	@Override
 	public void start() {
 		if (this.messageProcessor instanceof Lifecycle) {
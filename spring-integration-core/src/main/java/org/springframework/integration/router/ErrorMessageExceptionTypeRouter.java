@@ -38,6 +38,8 @@ import org.springframework.util.ClassUtils;
  * <p>
  * The channel-mapping can be specified for the super classes to avoid mapping duplication
  * for the particular exception implementation.
+ * <p>
+ * The mapping resolved for each exception class is cached until the channel mappings change.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -48,6 +50,8 @@ public class ErrorMessageExceptionTypeRouter extends AbstractMappingMessageRoute
 
 	private volatile Map<String, Class<?>> classNameMappings = new ConcurrentHashMap<>();
 
+	private final TypeResolutionCache<String> typeCache = new TypeResolutionCache<>();
+
 	private volatile boolean initialized;
 
 	@Override
@@ -65,6 +69,7 @@ public class ErrorMessageExceptionTypeRouter extends AbstractMappingMessageRoute
 			newClassNameMappings.put(className, resolveClassFromName(className));
 		}
 		this.classNameMappings = newClassNameMappings;
+		this.typeCache.invalidate();
 	}
 
 	private Class<?> resolveClassFromName(String className) {
@@ -85,6 +90,7 @@ public class ErrorMessageExceptionTypeRouter extends AbstractMappingMessageRoute
 			Map<String, Class<?>> newClassNameMappings = new ConcurrentHashMap<>(this.classNameMappings);
 			newClassNameMappings.put(key, resolveClassFromName(key));
 			this.classNameMappings = newClassNameMappings;
+			this.typeCache.invalidate();
 		}
 	}
 
@@ -95,6 +101,7 @@ public class ErrorMessageExceptionTypeRouter extends AbstractMappingMessageRoute
 		Map<String, Class<?>> newClassNameMappings = new ConcurrentHashMap<>(this.classNameMappings);
 		newClassNameMappings.remove(key);
 		this.classNameMappings = newClassNameMappings;
+		this.typeCache.invalidate();
 	}
 
 	@Override
@@ -104,6 +111,24 @@ public class ErrorMessageExceptionTypeRouter extends AbstractMappingMessageRoute
 		populateClassNameMapping(this.channelMappings.keySet());
 	}
 
+	@Override
+	@ManagedAttribute
+	public long getTypeCacheHits() {
+		return this.typeCache.getHits();
+	}
+
+	@Override
+	@ManagedAttribute
+	public long getTypeCacheMisses() {
+		return this.typeCache.getMisses();
+	}
+
+	@Override
+	@ManagedAttribute
+	public int getTypeCacheSize() {
+		return this.typeCache.size();
+	}
+
 	@Override
 	protected void onInit() throws Exception {
 		super.onInit();
@@ -118,12 +143,9 @@ public class ErrorMessageExceptionTypeRouter extends AbstractMappingMessageRoute
 		if (payload instanceof Throwable) {
 			Throwable cause = (Throwable) payload;
 			while (cause != null) {
-				for (Map.Entry<String, Class<?>> entry : this.classNameMappings.entrySet()) {
-					String channelKey = entry.getKey();
-					Class<?> exceptionClass = entry.getValue();
-					if (exceptionClass.isInstance(cause)) {
-						mostSpecificCause = channelKey;
-					}
+				String channelKey = this.typeCache.resolve(cause.getClass(), this::resolveChannelKey);
+				if (channelKey != null) {
+					mostSpecificCause = channelKey;
 				}
 				cause = cause.getCause();
 			}
@@ -131,4 +153,14 @@ public class ErrorMessageExceptionTypeRouter extends AbstractMappingMessageRoute
 		return Collections.singletonList(mostSpecificCause);
 	}
 
+	private String resolveChannelKey(Class<?> exceptionType) {
+		String channelKey = null;
+		for (Map.Entry<String, Class<?>> entry : this.classNameMappings.entrySet()) {
+			if (entry.getValue().isAssignableFrom(exceptionType)) {
+				channelKey = entry.getKey();
+			}
+		}
+		return channelKey;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,11 @@ package org.springframework.integration.router;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.util.CollectionUtils;
@@ -36,6 +40,54 @@ public class PayloadTypeRouter extends AbstractMappingMessageRouter {
 
 	private static final String ARRAY_SUFFIX = "[]";
 
+	private final TypeResolutionCache<List<Object>> typeCache = new TypeResolutionCache<>();
+
+	@Override
+	@ManagedAttribute
+	public void setChannelMappings(Map<String, String> channelMappings) {
+		super.setChannelMappings(channelMappings);
+		this.typeCache.invalidate();
+	}
+
+	@Override
+	@ManagedOperation
+	public void setChannelMapping(String key, String channelName) {
+		super.setChannelMapping(key, channelName);
+		this.typeCache.invalidate();
+	}
+
+	@Override
+	@ManagedOperation
+	public void removeChannelMapping(String key) {
+		super.removeChannelMapping(key);
+		this.typeCache.invalidate();
+	}
+
+	@Override
+	@ManagedOperation
+	public void replaceChannelMappings(Properties channelMappings) {
+		super.replaceChannelMappings(channelMappings);
+		this.typeCache.invalidate();
+	}
+
+	@Override
+	@ManagedAttribute
+	public long getTypeCacheHits() {
+		return this.typeCache.getHits();
+	}
+
+	@Override
+	@ManagedAttribute
+	public long getTypeCacheMisses() {
+		return this.typeCache.getMisses();
+	}
+
+	@Override
+	@ManagedAttribute
+	public int getTypeCacheSize() {
+		return this.typeCache.size();
+	}
+
 	/**
 	 * Selects the most appropriate channel name matching channel identifiers which are the
 	 * fully qualified class names encountered while traversing the payload type hierarchy.
@@ -44,13 +96,18 @@ public class PayloadTypeRouter extends AbstractMappingMessageRouter {
 	 * 2. Name of the subclass of the type to channel identifier else...
 	 * 3. Name of the Interface of the type to channel identifier while also
 	 *    preferring direct interface over indirect subclass
+	 * The resolution is cached per payload class until the channel mappings change.
 	 */
 	@Override
 	protected List<Object> getChannelKeys(Message<?> message) {
 		if (CollectionUtils.isEmpty(this.channelMappings)) {
 			return null;
 		}
-		Class<?> type = message.getPayload().getClass();
+		return this.typeCache.resolve(message.getPayload().getClass(), this::resolveChannelKeys);
+	}
+
+	private List<Object> resolveChannelKeys(Class<?> payloadType) {
+		Class<?> type = payloadType;
 		boolean isArray = type.isArray();
 		if (isArray) {
 			type = type.getComponentType();
@@ -59,7 +116,6 @@ public class PayloadTypeRouter extends AbstractMappingMessageRouter {
 		return (closestMatch != null) ? Collections.<Object>singletonList(closestMatch) : null;
 	}
 
-
 	private String findClosestMatch(Class<?> type, boolean isArray) {
 		int minTypeDiffWeight = Integer.MAX_VALUE;
 		List<String> matches = new ArrayList<String>();
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.router;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A cache of the routing resolution per concrete type, used by the type based routers
+ * to avoid walking the type hierarchy against all the channel mappings for each message.
+ * The owner must {@link #invalidate()} the cache after its channel mappings change.
+ *
+ * @param <V> the resolution type.
+ *
+ * @since 5.1
+ */
+final class TypeResolutionCache<V> {
+
+	/**
+	 * The maximum number of cached types; the resolution of further types is not cached
+	 * to protect against an unbounded number of (e.g. generated) payload classes.
+	 */
+	static final int MAX_SIZE = 1024;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private volatile ConcurrentMap<Class<?>, Optional<V>> resolutions = new ConcurrentHashMap<>();
+
+	V resolve(Class<?> type, Function<Class<?>, V> resolver) {
+		// capture the map before resolving, so a concurrent invalidation cannot be overwritten
+		ConcurrentMap<Class<?>, Optional<V>> current = this.resolutions;
+		Optional<V> resolution = current.get(type);
+		if (resolution != null) {
+			this.hits.increment();
+			return resolution.orElse(null);
+		}
+		this.misses.increment();
+		V value = resolver.apply(type);
+		if (current.size() < MAX_SIZE) {
+			current.put(type, Optional.ofNullable(value));
+		}
+		return value;
+	}
+
+	void invalidate() {
+		this.resolutions = new ConcurrentHashMap<>();
+	}
+
+	long getHits() {
+		return this.hits.sum();
+	}
+
+	long getMisses() {
+		return this.misses.sum();
+	}
+
+	int size() {
+		return this.resolutions.size();
+	}
+
+}
@@ -16,16 +16,24 @@
 
 package org.springframework.integration.scattergather;
 
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.springframework.aop.support.AopUtils;
 import org.springframework.context.Lifecycle;
 import org.springframework.integration.channel.FixedSubscriberChannel;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.channel.ReactiveStreamsSubscribableChannel;
 import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.core.MessageProducer;
 import org.springframework.integration.endpoint.AbstractEndpoint;
 import org.springframework.integration.endpoint.EventDrivenConsumer;
 import org.springframework.integration.endpoint.PollingConsumer;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
+import org.springframework.integration.handler.ReplyRequiredException;
 import org.springframework.integration.support.channel.HeaderChannelRegistry;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -37,10 +45,21 @@ import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import reactor.core.publisher.Mono;
 
 /**
  * The {@link MessageHandler} implementation for the
  * <a href="http://www.eaipatterns.com/BroadcastAggregate.html">Scatter-Gather</a> EIP pattern.
+ * <p>
+ * By default, the calling thread waits for the gather result (up to the
+ * {@link #setGatherTimeout(long) gatherTimeout}). When {@link #setAsync(boolean) async}
+ * is {@code true}, the handler returns a {@link org.springframework.util.concurrent.ListenableFuture}
+ * (or a {@link Mono} when the output channel is a {@link ReactiveStreamsSubscribableChannel})
+ * instead, which is completed by the thread delivering the gather result; the pending
+ * requests are correlated through a map and the gather timeouts are scheduled on the
+ * shared {@link org.springframework.scheduling.TaskScheduler}.
  *
  * @author Artem Bilan
  * @author Abdul Zaheer
@@ -51,6 +70,12 @@ public class ScatterGatherHandler extends AbstractReplyProducingMessageHandler i
 
 	private static final String GATHER_RESULT_CHANNEL = "gatherResultChannel";
 
+	private static final String GATHER_RESULT_KEY = "gatherResultKey";
+
+	private final Map<Object, PendingGather> pendingGathers = new ConcurrentHashMap<>();
+
+	private final AtomicLong gatherResultKeys = new AtomicLong();
+
 	private final MessageChannel scatterChannel;
 
 	private final MessageHandler gatherer;
@@ -111,7 +136,10 @@ public class ScatterGatherHandler extends AbstractReplyProducingMessageHandler i
 
 		((MessageProducer) this.gatherer).setOutputChannel(new FixedSubscriberChannel(message -> {
 			MessageHeaders headers = message.getHeaders();
-			if (headers.containsKey(GATHER_RESULT_CHANNEL)) {
+			if (headers.containsKey(GATHER_RESULT_KEY)) {
+				completeGather(message);
+			}
+			else if (headers.containsKey(GATHER_RESULT_CHANNEL)) {
 				Object gatherResultChannel = headers.get(GATHER_RESULT_CHANNEL);
 				if (gatherResultChannel instanceof MessageChannel) {
 					messagingTemplate.send((MessageChannel) gatherResultChannel, message);
@@ -133,6 +161,10 @@ public class ScatterGatherHandler extends AbstractReplyProducingMessageHandler i
 
 	@Override
 	protected Object handleRequestMessage(Message<?> requestMessage) {
+		if (isAsync()) {
+			return scatterAsync(requestMessage);
+		}
+
 		PollableChannel gatherResultChannel = new QueueChannel();
 
 		Object gatherResultChannelName = this.replyChannelRegistry.channelToChannelName(gatherResultChannel);
@@ -157,6 +189,76 @@ public class ScatterGatherHandler extends AbstractReplyProducingMessageHandler i
 		return null;
 	}
 
+	private Object scatterAsync(Message<?> requestMessage) {
+		Long gatherResultKey = this.gatherResultKeys.incrementAndGet();
+		boolean reactive = getOutputChannel() instanceof ReactiveStreamsSubscribableChannel;
+		PendingGather pendingGather = new PendingGather(requestMessage, reactive);
+		this.pendingGathers.put(gatherResultKey, pendingGather);
+		if (this.gatherTimeout >= 0) {
+			pendingGather.timeout =
+					getTaskScheduler()
+							.schedule(() -> gatherTimedOut(gatherResultKey),
+									new Date(System.currentTimeMillis() + this.gatherTimeout));
+		}
+
+		Message<?> scatterMessage = getMessageBuilderFactory()
+				.fromMessage(requestMessage)
+				.setHeader(GATHER_RESULT_KEY, gatherResultKey)
+				.setReplyChannel(this.gatherChannel)
+				.build();
+
+		try {
+			this.messagingTemplate.send(this.scatterChannel, scatterMessage);
+		}
+		catch (RuntimeException e) {
+			this.pendingGathers.remove(gatherResultKey);
+			pendingGather.cancelTimeout();
+			throw e;
+		}
+
+		SettableListenableFuture<Message<?>> future = pendingGather.future;
+		if (reactive) {
+			return Mono.<Message<?>>create(sink -> future.addCallback(sink::success, sink::error));
+		}
+		else {
+			return future;
+		}
+	}
+
+	private void completeGather(Message<?> gatherResult) {
+		PendingGather pendingGather = this.pendingGathers.remove(gatherResult.getHeaders().get(GATHER_RESULT_KEY));
+		if (pendingGather != null) {
+			pendingGather.cancelTimeout();
+			pendingGather.future.set(getMessageBuilderFactory()
+					.fromMessage(gatherResult)
+					.removeHeader(GATHER_RESULT_KEY)
+					.setHeader(MessageHeaders.REPLY_CHANNEL, pendingGather.requestMessage.getHeaders().getReplyChannel())
+					.build());
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("No pending scatter request (timed out?) for the gather result: " + gatherResult);
+		}
+	}
+
+	private void gatherTimedOut(Object gatherResultKey) {
+		PendingGather pendingGather = this.pendingGathers.remove(gatherResultKey);
+		if (pendingGather != null) {
+			if (getRequiresReply()) {
+				pendingGather.future.setException(new ReplyRequiredException(pendingGather.requestMessage,
+						"No gather result within " + this.gatherTimeout + "ms in handler '" + getComponentName()
+								+ "', and its 'requiresReply' property is set to true."));
+			}
+			else if (pendingGather.reactive) {
+				// complete the Mono empty
+				pendingGather.future.set(null);
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("No gather result within " + this.gatherTimeout + "ms for request Message: "
+						+ pendingGather.requestMessage);
+			}
+		}
+	}
+
 	@Override
 	public void start() {
 		if (this.gatherEndpoint != null) {
@@ -186,4 +288,28 @@ public class ScatterGatherHandler extends AbstractReplyProducingMessageHandler i
 		Assert.isAssignable(clazz, gathererClass, "the '" + type + "' must be an " + className + " instance");
 	}
 
+	private static final class PendingGather {
+
+		private final SettableListenableFuture<Message<?>> future = new SettableListenableFuture<>();
+
+		private final Message<?> requestMessage;
+
+		private final boolean reactive;
+
+		private volatile ScheduledFuture<?> timeout;
+
+		PendingGather(Message<?> requestMessage, boolean reactive) {
+			this.requestMessage = requestMessage;
+			this.reactive = reactive;
+		}
+
+		void cancelTimeout() {
+			ScheduledFuture<?> scheduledTimeout = this.timeout;
+			if (scheduledTimeout != null) {
+				scheduledTimeout.cancel(false);
+			}
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,6 +50,10 @@ public class PollerMetadata {
 
 	private volatile long receiveTimeout = 1000;
 
+	private volatile int receiveBatchSize = 1;
+
+	private volatile boolean handleBatchAsList;
+
 	private volatile ErrorHandler errorHandler;
 
 	private volatile List<Advice> adviceChain;
@@ -114,6 +118,37 @@ public class PollerMetadata {
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Set the maximum number of messages a polling consumer receives from its channel
+	 * in one receive operation; the whole batch is handled in a single poll.
+	 * Default 1. Ignored for polled message sources.
+	 * @param receiveBatchSize the batch size.
+	 * @since 5.1
+	 * @see org.springframework.integration.endpoint.PollingConsumer#setReceiveBatchSize(int)
+	 */
+	public void setReceiveBatchSize(int receiveBatchSize) {
+		this.receiveBatchSize = receiveBatchSize;
+	}
+
+	public int getReceiveBatchSize() {
+		return this.receiveBatchSize;
+	}
+
+	/**
+	 * When receiving in batches, set to true to hand the whole batch to the handler
+	 * as a single message with a {@code List<Message<?>>} payload.
+	 * @param handleBatchAsList true to hand the batch to the handler as a list.
+	 * @since 5.1
+	 * @see org.springframework.integration.endpoint.PollingConsumer#setHandleBatchAsList(boolean)
+	 */
+	public void setHandleBatchAsList(boolean handleBatchAsList) {
+		this.handleBatchAsList = handleBatchAsList;
+	}
+
+	public boolean isHandleBatchAsList() {
+		return this.handleBatchAsList;
+	}
+
 	public void setAdviceChain(List<Advice> adviceChain) {
 		this.adviceChain = adviceChain;
 	}
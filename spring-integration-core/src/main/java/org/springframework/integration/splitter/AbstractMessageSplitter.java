@@ -31,8 +31,11 @@ import org.reactivestreams.Publisher;
 import org.springframework.integration.channel.ReactiveStreamsSubscribableChannel;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.integration.support.CompactMessageBuilderFactory;
+import org.springframework.integration.support.CompactMessageHeaders;
 import org.springframework.integration.util.FunctionIterator;
 import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
 
 import reactor.core.publisher.Flux;
 
@@ -49,6 +52,10 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 
 	private boolean applySequence = true;
 
+	private int chunkSize;
+
+	private int maxInFlight;
+
 	/**
 	 * Set the applySequence flag to the specified value. Defaults to true.
 	 * @param applySequence true to apply sequence information.
@@ -57,6 +64,35 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 		this.applySequence = applySequence;
 	}
 
+	/**
+	 * Set the number of split items to group into a single {@link java.util.List}
+	 * payload. Items which are {@link Message}s or message builders are not grouped;
+	 * they are emitted on their own, after the pending chunk. The sequence details then
+	 * reflect the emitted messages rather than the split items. Defaults to 0 - no
+	 * chunking.
+	 * @param chunkSize the maximum number of items in a chunk.
+	 * @since 5.1
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize >= 0, "'chunkSize' must not be negative");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Set the maximum number of split items requested from the splitting result ahead of
+	 * the downstream demand. Applies when the output channel is a
+	 * {@link ReactiveStreamsSubscribableChannel} (the split {@link Flux} requests at
+	 * most this many items at a time) and when the splitting result is a
+	 * {@link Publisher} consumed for a regular output channel (at most this many items
+	 * are buffered). Defaults to 0 - the Reactor defaults.
+	 * @param maxInFlight the maximum number of items requested at a time.
+	 * @since 5.1
+	 */
+	public void setMaxInFlight(int maxInFlight) {
+		Assert.isTrue(maxInFlight >= 0, "'maxInFlight' must not be negative");
+		this.maxInFlight = maxInFlight;
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	protected final Object handleRequestMessage(Message<?> message) {
@@ -121,7 +157,8 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 				flux = Flux.from(publisher);
 			}
 			else {
-				iterator = Flux.from((Publisher<Object>) result).toIterable().iterator();
+				Flux<Object> items = Flux.from(publisher);
+				iterator = (this.maxInFlight > 0 ? items.toIterable(this.maxInFlight) : items.toIterable()).iterator();
 			}
 		}
 		else {
@@ -138,25 +175,70 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 			return null;
 		}
 
+		AutoCloseable closeable = result instanceof AutoCloseable && !result.equals(iterator)
+				? (AutoCloseable) result : null;
+
+		final int messageCount;
+
+		if (this.chunkSize > 0) {
+			messageCount = obtainChunkCount(result, sequenceSize);
+			if (reactive) {
+				flux = chunk(flux);
+			}
+			else {
+				iterator = new SplitItemChunker(this.chunkSize).iterator(iterator);
+			}
+		}
+		else {
+			messageCount = sequenceSize;
+		}
+
+		if (reactive && this.maxInFlight > 0) {
+			flux = flux.limitRate(this.maxInFlight);
+		}
+
 		Map<String, Object> messageHeaders = message.getHeaders();
 		if (willAddHeaders(message)) {
 			messageHeaders = new HashMap<>(messageHeaders);
 			addHeaders(message, messageHeaders);
 		}
+		if (getMessageBuilderFactory() instanceof CompactMessageBuilderFactory) {
+			// convert once so that each split is an overlay on these headers rather than a copy
+			messageHeaders = CompactMessageHeaders.from(messageHeaders);
+		}
 
 		final Map<String, Object> headers = messageHeaders;
 		final Object correlationId = message.getHeaders().getId();
 		final AtomicInteger sequenceNumber = new AtomicInteger(1);
 
 		Function<Object, AbstractIntegrationMessageBuilder<?>> messageBuilderFunction =
-				object -> createBuilder(object, headers, correlationId, sequenceNumber.getAndIncrement(), sequenceSize);
+				object -> createBuilder(object, headers, correlationId, sequenceNumber.getAndIncrement(), messageCount);
 
 		if (reactive) {
 			return flux.map(messageBuilderFunction);
 		}
 		else {
-			return new FunctionIterator<>(result instanceof AutoCloseable && !result.equals(iterator)
-					? (AutoCloseable) result : null, iterator, messageBuilderFunction);
+			return new FunctionIterator<>(closeable, iterator, messageBuilderFunction);
+		}
+	}
+
+	private Flux<Object> chunk(Flux<Object> items) {
+		return Flux.defer(() -> {
+			SplitItemChunker chunker = new SplitItemChunker(this.chunkSize);
+			return items.concatMapIterable(chunker::add, this.chunkSize)
+					.concatWith(Flux.defer(() -> Flux.fromIterable(chunker.flush())));
+		});
+	}
+
+	private int obtainChunkCount(Object result, int itemCount) {
+		if (result instanceof Collection<?>) {
+			return SplitItemChunker.count((Collection<?>) result, this.chunkSize);
+		}
+		else if (result.getClass().isArray()) {
+			return SplitItemChunker.count(Arrays.asList((Object[]) result), this.chunkSize);
+		}
+		else {
+			return (itemCount + this.chunkSize - 1) / this.chunkSize;
 		}
 	}
 
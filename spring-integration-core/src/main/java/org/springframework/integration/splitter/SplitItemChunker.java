@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.splitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.integration.util.CloseableIterator;
+import org.springframework.messaging.Message;
+
+/**
+ * Groups the items produced by a splitter into {@link List} chunks of up to
+ * {@code chunkSize} items. {@link Message} and {@link AbstractIntegrationMessageBuilder}
+ * items carry their own headers, so they are never chunked: they are emitted as is,
+ * after the pending chunk (if any).
+ * <p>
+ * Not thread safe; an instance is used for a single split.
+ *
+ * @since 5.1
+ */
+final class SplitItemChunker {
+
+	private final int chunkSize;
+
+	private List<Object> chunk;
+
+	SplitItemChunker(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Add the item to the current chunk.
+	 * @param item the split item.
+	 * @return the items to emit; empty while the current chunk is not complete.
+	 */
+	List<Object> add(Object item) {
+		if (!isChunkable(item)) {
+			List<Object> pending = takeChunk();
+			return pending == null
+					? Collections.singletonList(item)
+					: Arrays.asList(pending, item);
+		}
+		if (this.chunk == null) {
+			this.chunk = new ArrayList<>(this.chunkSize);
+		}
+		this.chunk.add(item);
+		if (this.chunk.size() == this.chunkSize) {
+			return Collections.singletonList(takeChunk());
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Complete the current chunk after the last item.
+	 * @return the items to emit; empty if there is no pending chunk.
+	 */
+	List<Object> flush() {
+		List<Object> pending = takeChunk();
+		return pending == null ? Collections.emptyList() : Collections.singletonList(pending);
+	}
+
+	/**
+	 * Wrap the provided iterator into one which emits the chunks; the source iterator
+	 * is consumed lazily, one chunk at a time.
+	 * @param source the split items.
+	 * @return the chunking iterator, closing the source (if {@link AutoCloseable}) on close.
+	 */
+	CloseableIterator<Object> iterator(Iterator<?> source) {
+		return new ChunkingIterator(source);
+	}
+
+	private List<Object> takeChunk() {
+		List<Object> pending = this.chunk;
+		this.chunk = null;
+		return pending;
+	}
+
+	/**
+	 * Return the number of output items the provided items are grouped into.
+	 * @param items the split items.
+	 * @param chunkSize the chunk size.
+	 * @return the number of chunks and non-chunkable items.
+	 */
+	static int count(Iterable<?> items, int chunkSize) {
+		int count = 0;
+		int chunked = 0;
+		for (Object item : items) {
+			if (isChunkable(item)) {
+				if (++chunked == chunkSize) {
+					count++;
+					chunked = 0;
+				}
+			}
+			else {
+				count += chunked > 0 ? 2 : 1;
+				chunked = 0;
+			}
+		}
+		return chunked > 0 ? count + 1 : count;
+	}
+
+	private static boolean isChunkable(Object item) {
+		return !(item instanceof Message || item instanceof AbstractIntegrationMessageBuilder);
+	}
+
+	private final class ChunkingIterator implements CloseableIterator<Object> {
+
+		private final Iterator<?> source;
+
+		private final Deque<Object> ready = new ArrayDeque<>();
+
+		ChunkingIterator(Iterator<?> source) {
+			this.source = source;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.ready.isEmpty() && this.source.hasNext()) {
+				this.ready.addAll(add(this.source.next()));
+			}
+			if (this.ready.isEmpty()) {
+				this.ready.addAll(flush());
+			}
+			return !this.ready.isEmpty();
+		}
+
+		@Override
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return this.ready.poll();
+		}
+
+		@Override
+		public void close() {
+			if (this.source instanceof AutoCloseable) {
+				try {
+					((AutoCloseable) this.source).close();
+				}
+				catch (Exception e) {
+					// ignored
+				}
+			}
+		}
+
+	}
+
+}
@@ -55,6 +55,10 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	private final String groupPrefix;
 
+	private boolean expiryIndex;
+
+	private boolean appendOnlyMembership;
+
 	protected AbstractKeyValueMessageStore() {
 		this("");
 	}
@@ -95,6 +99,49 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		return this.groupPrefix;
 	}
 
+	/**
+	 * Set to true to maintain a time-ordered expiry index of the groups, so that
+	 * {@link #expireMessageGroups(long)} only loads the due groups instead of all of them.
+	 * The store implementation must support the index (see
+	 * {@link #isExpiryIndexSupported()}), otherwise an {@link IllegalStateException} is
+	 * thrown. Only groups created or modified while the index is enabled are indexed.
+	 * Default false.
+	 * @param expiryIndex true to maintain the expiry index.
+	 * @since 5.1
+	 */
+	public void setExpiryIndex(boolean expiryIndex) {
+		Assert.state(!expiryIndex || isExpiryIndexSupported(),
+				() -> "The expiry index isn't supported by " + getClass().getName());
+		this.expiryIndex = expiryIndex;
+	}
+
+	public boolean isExpiryIndex() {
+		return this.expiryIndex;
+	}
+
+	/**
+	 * Set to true to keep the ids of the messages in a group in a native append-based
+	 * structure of the target store (see {@link #doAddToGroup(Object, List)}), instead of
+	 * the {@link MessageGroupMetadata} which is otherwise rewritten with all the ids on
+	 * each add or removal. The stored metadata is then limited to the group timestamps and
+	 * flags, so adding to or removing from a group no longer depends on its size. The
+	 * membership of the groups stored without this option is not visible with it, and
+	 * vice versa, so it must not be changed for a store with existing groups. The store
+	 * implementation must support it (see {@link #isAppendOnlyMembershipSupported()}),
+	 * otherwise an {@link IllegalStateException} is thrown. Default false.
+	 * @param appendOnlyMembership true to use the append-based group membership.
+	 * @since 5.1
+	 */
+	public void setAppendOnlyMembership(boolean appendOnlyMembership) {
+		Assert.state(!appendOnlyMembership || isAppendOnlyMembershipSupported(),
+				() -> "The append-only membership isn't supported by " + getClass().getName());
+		this.appendOnlyMembership = appendOnlyMembership;
+	}
+
+	public boolean isAppendOnlyMembership() {
+		return this.appendOnlyMembership;
+	}
+
 	// MessageStore methods
 
 	@Override
@@ -176,7 +223,7 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	 */
 	@Override
 	public MessageGroup getMessageGroup(Object groupId) {
-		MessageGroupMetadata metadata = getGroupMetadata(groupId);
+		MessageGroupMetadata metadata = retrieveGroupMetadata(groupId);
 		if (metadata != null) {
 
 			MessageGroup messageGroup = getMessageGroupFactory()
@@ -192,6 +239,20 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	@Override
 	public MessageGroupMetadata getGroupMetadata(Object groupId) {
+		MessageGroupMetadata metadata = retrieveGroupMetadata(groupId);
+		if (metadata != null && this.appendOnlyMembership) {
+			for (UUID messageId : doListGroupMessageIds(groupId)) {
+				metadata.add(messageId);
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Return the metadata as stored: without the message ids with the
+	 * {@link #setAppendOnlyMembership(boolean) append-only membership}.
+	 */
+	private MessageGroupMetadata retrieveGroupMetadata(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Object mgm = this.doRetrieve(this.groupPrefix + groupId);
 		if (mgm != null) {
@@ -206,6 +267,11 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(messages, "'messages' must not be null");
 
+		if (this.appendOnlyMembership) {
+			appendMessagesToGroup(groupId, messages);
+			return;
+		}
+
 		MessageGroupMetadata metadata = getGroupMetadata(groupId);
 		SimpleMessageGroup group = null;
 		if (metadata == null) {
@@ -234,6 +300,30 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 		// store MessageGroupMetadata built from enriched MG
 		doStore(this.groupPrefix + groupId, metadata);
+		index(groupId, metadata, group != null);
+	}
+
+	private void appendMessagesToGroup(Object groupId, Message<?>... messages) {
+		MessageGroupMetadata metadata = retrieveGroupMetadata(groupId);
+		boolean created = metadata == null;
+		if (created) {
+			metadata = new MessageGroupMetadata(new SimpleMessageGroup(groupId));
+			// When the group is new reuse "create time" as a "last modified"
+			metadata.setLastModified(metadata.getTimestamp());
+		}
+		else {
+			metadata.setLastModified(System.currentTimeMillis());
+		}
+
+		List<UUID> messageIds = new ArrayList<>(messages.length);
+		for (Message<?> message : messages) {
+			doAddMessage(message);
+			messageIds.add(message.getHeaders().getId());
+		}
+
+		doAddToGroup(groupId, messageIds);
+		doStore(this.groupPrefix + groupId, metadata);
+		index(groupId, metadata, created);
 	}
 
 	@Override
@@ -251,7 +341,12 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 							.map(messageToRemove -> messageToRemove.getHeaders().getId())
 							.collect(Collectors.toList());
 
-			messageGroupMetadata.removeAll(ids);
+			if (this.appendOnlyMembership) {
+				doRemoveFromGroup(groupId, ids);
+			}
+			else {
+				messageGroupMetadata.removeAll(ids);
+			}
 
 			List<Object> messageIds =
 					ids.stream()
@@ -262,17 +357,19 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 			messageGroupMetadata.setLastModified(System.currentTimeMillis());
 			doStore(this.groupPrefix + groupId, messageGroupMetadata);
+			index(groupId, messageGroupMetadata, false);
 		}
 	}
 
 	@Override
 	public void completeGroup(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
-		MessageGroupMetadata metadata = getGroupMetadata(groupId);
+		MessageGroupMetadata metadata = retrieveGroupMetadata(groupId);
 		if (metadata != null) {
 			metadata.complete();
 			metadata.setLastModified(System.currentTimeMillis());
 			doStore(this.groupPrefix + groupId, metadata);
+			index(groupId, metadata, false);
 		}
 	}
 
@@ -283,13 +380,24 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	public void removeMessageGroup(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Object mgm = doRemove(this.groupPrefix + groupId);
+		if (this.expiryIndex) {
+			doRemoveFromExpiryIndex(groupId);
+		}
 		if (mgm != null) {
 			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
 			MessageGroupMetadata messageGroupMetadata = (MessageGroupMetadata) mgm;
 
+			List<UUID> ids;
+			if (this.appendOnlyMembership) {
+				ids = doListGroupMessageIds(groupId);
+				doRemoveGroupMessageIds(groupId);
+			}
+			else {
+				ids = messageGroupMetadata.getMessageIds();
+			}
+
 			List<Object> messageIds =
-					messageGroupMetadata.getMessageIds()
-							.stream()
+					ids.stream()
 							.map(id -> this.messagePrefix + id)
 							.collect(Collectors.toList());
 
@@ -300,25 +408,37 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	@Override
 	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
 		Assert.notNull(groupId, "'groupId' must not be null");
-		MessageGroupMetadata metadata = getGroupMetadata(groupId);
+		MessageGroupMetadata metadata = retrieveGroupMetadata(groupId);
+		boolean created = false;
 		if (metadata == null) {
 			SimpleMessageGroup messageGroup = new SimpleMessageGroup(groupId);
 			metadata = new MessageGroupMetadata(messageGroup);
+			created = true;
 		}
 		metadata.setLastReleasedMessageSequenceNumber(sequenceNumber);
 		metadata.setLastModified(System.currentTimeMillis());
 		doStore(this.groupPrefix + groupId, metadata);
+		index(groupId, metadata, created);
 	}
 
 	@Override
 	public Message<?> pollMessageFromGroup(Object groupId) {
-		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
+		MessageGroupMetadata groupMetadata = retrieveGroupMetadata(groupId);
 		if (groupMetadata != null) {
-			UUID firstId = groupMetadata.firstId();
+			UUID firstId;
+			if (this.appendOnlyMembership) {
+				firstId = doPollGroupMessageId(groupId);
+			}
+			else {
+				firstId = groupMetadata.firstId();
+				if (firstId != null) {
+					groupMetadata.remove(firstId);
+				}
+			}
 			if (firstId != null) {
-				groupMetadata.remove(firstId);
 				groupMetadata.setLastModified(System.currentTimeMillis());
 				doStore(this.groupPrefix + groupId, groupMetadata);
+				index(groupId, groupMetadata, false);
 				return removeMessage(firstId);
 			}
 		}
@@ -327,6 +447,10 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	@Override
 	public Message<?> getOneMessageFromGroup(Object groupId) {
+		if (this.appendOnlyMembership) {
+			UUID messageId = doGetFirstGroupMessageId(groupId);
+			return messageId != null ? getMessage(messageId) : null;
+		}
 		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
 		if (groupMetadata != null) {
 			UUID messageId = groupMetadata.firstId();
@@ -339,8 +463,14 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	@Override
 	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
-		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
 		ArrayList<Message<?>> messages = new ArrayList<>();
+		if (this.appendOnlyMembership) {
+			for (UUID messageId : doListGroupMessageIds(groupId)) {
+				messages.add(getMessage(messageId));
+			}
+			return messages;
+		}
+		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
 		if (groupMetadata != null) {
 			Iterator<UUID> messageIds = groupMetadata.messageIdIterator();
 			while (messageIds.hasNext()) {
@@ -359,6 +489,27 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		return new MessageGroupIterator(idIterator);
 	}
 
+	private void index(Object groupId, MessageGroupMetadata metadata, boolean created) {
+		if (this.expiryIndex && (created || isTimeoutOnIdle())) {
+			doAddToExpiryIndex(groupId, isTimeoutOnIdle() ? metadata.getLastModified() : metadata.getTimestamp());
+		}
+	}
+
+	/**
+	 * Return the groups from the expiry index when it is {@link #setExpiryIndex(boolean)
+	 * enabled}; all the groups otherwise.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		if (this.expiryIndex) {
+			Collection<?> groupIds = doListGroupIdsToExpire(threshold);
+			return () -> new MessageGroupIterator(groupIds.iterator());
+		}
+		else {
+			return super.getMessageGroupsToExpire(threshold);
+		}
+	}
+
 	private Collection<String> normalizeKeys(Collection<String> keys) {
 		Set<String> normalizedKeys = new HashSet<>();
 		for (Object key : keys) {
@@ -376,6 +527,9 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	@Override
 	public int messageGroupSize(Object groupId) {
+		if (this.appendOnlyMembership) {
+			return doGetGroupMessageCount(groupId);
+		}
 		MessageGroupMetadata mgm = getGroupMetadata(groupId);
 		if (mgm != null) {
 			return mgm.size();
@@ -397,6 +551,141 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	protected abstract Collection<?> doListKeys(String keyPattern);
 
+	/**
+	 * Return true if this store implements the expiry index hooks
+	 * ({@link #doAddToExpiryIndex(Object, long)}, {@link #doRemoveFromExpiryIndex(Object)}
+	 * and {@link #doListGroupIdsToExpire(long)}). Default false.
+	 * @return true if the {@link #setExpiryIndex(boolean) expiry index} is supported.
+	 * @since 5.1
+	 */
+	protected boolean isExpiryIndexSupported() {
+		return false;
+	}
+
+	/**
+	 * Add the group to the expiry index with the provided timestamp, replacing any
+	 * previous entry. Must be implemented when the {@link #setExpiryIndex(boolean) expiry
+	 * index} is enabled.
+	 * @param groupId the group id.
+	 * @param timestamp the timestamp the group timeout is counted from.
+	 * @since 5.1
+	 */
+	protected void doAddToExpiryIndex(Object groupId, long timestamp) {
+		throw new UnsupportedOperationException("The expiry index isn't supported by this store");
+	}
+
+	/**
+	 * Remove the group from the expiry index. Must be implemented when the
+	 * {@link #setExpiryIndex(boolean) expiry index} is enabled.
+	 * @param groupId the group id.
+	 * @since 5.1
+	 */
+	protected void doRemoveFromExpiryIndex(Object groupId) {
+		throw new UnsupportedOperationException("The expiry index isn't supported by this store");
+	}
+
+	/**
+	 * Return the ids of the groups indexed with a timestamp less than or equal to the
+	 * threshold. Must be implemented when the {@link #setExpiryIndex(boolean) expiry
+	 * index} is enabled.
+	 * @param threshold the threshold.
+	 * @return the group ids.
+	 * @since 5.1
+	 */
+	protected Collection<?> doListGroupIdsToExpire(long threshold) {
+		throw new UnsupportedOperationException("The expiry index isn't supported by this store");
+	}
+
+	/**
+	 * Return true if this store implements the append-only membership hooks
+	 * ({@link #doAddToGroup(Object, List)} through {@link #doRemoveGroupMessageIds(Object)}).
+	 * Default false.
+	 * @return true if the {@link #setAppendOnlyMembership(boolean) append-only membership}
+	 * is supported.
+	 * @since 5.1
+	 */
+	protected boolean isAppendOnlyMembershipSupported() {
+		return false;
+	}
+
+	/**
+	 * Append the message ids to the group membership, in order; the ids already in the
+	 * group are ignored. Must be implemented when the
+	 * {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled.
+	 * @param groupId the group id.
+	 * @param messageIds the message ids.
+	 * @since 5.1
+	 */
+	protected void doAddToGroup(Object groupId, List<UUID> messageIds) {
+		throw new UnsupportedOperationException("The append-only membership isn't supported by this store");
+	}
+
+	/**
+	 * Remove the message ids from the group membership. Must be implemented when the
+	 * {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled.
+	 * @param groupId the group id.
+	 * @param messageIds the message ids.
+	 * @since 5.1
+	 */
+	protected void doRemoveFromGroup(Object groupId, Collection<UUID> messageIds) {
+		throw new UnsupportedOperationException("The append-only membership isn't supported by this store");
+	}
+
+	/**
+	 * Return the message ids of the group, in the order they were added. Must be
+	 * implemented when the {@link #setAppendOnlyMembership(boolean) append-only
+	 * membership} is enabled.
+	 * @param groupId the group id.
+	 * @return the message ids; empty if the group doesn't exist.
+	 * @since 5.1
+	 */
+	protected List<UUID> doListGroupMessageIds(Object groupId) {
+		throw new UnsupportedOperationException("The append-only membership isn't supported by this store");
+	}
+
+	/**
+	 * Return the first message id of the group. Must be implemented when the
+	 * {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled.
+	 * @param groupId the group id.
+	 * @return the message id, or null if the group is empty.
+	 * @since 5.1
+	 */
+	protected UUID doGetFirstGroupMessageId(Object groupId) {
+		throw new UnsupportedOperationException("The append-only membership isn't supported by this store");
+	}
+
+	/**
+	 * Remove and return the first message id of the group. Must be implemented when the
+	 * {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled.
+	 * @param groupId the group id.
+	 * @return the message id, or null if the group is empty.
+	 * @since 5.1
+	 */
+	protected UUID doPollGroupMessageId(Object groupId) {
+		throw new UnsupportedOperationException("The append-only membership isn't supported by this store");
+	}
+
+	/**
+	 * Return the number of messages in the group. Must be implemented when the
+	 * {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled.
+	 * @param groupId the group id.
+	 * @return the number of messages.
+	 * @since 5.1
+	 */
+	protected int doGetGroupMessageCount(Object groupId) {
+		throw new UnsupportedOperationException("The append-only membership isn't supported by this store");
+	}
+
+	/**
+	 * Remove the whole membership of the group. Must be implemented when the
+	 * {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled.
+	 * @param groupId the group id.
+	 * @since 5.1
+	 */
+	protected void doRemoveGroupMessageIds(Object groupId) {
+		throw new UnsupportedOperationException("The append-only membership isn't supported by this store");
+	}
+
 	private final class MessageGroupIterator implements Iterator<MessageGroup> {
 
 		private final Iterator<?> idIterator;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.integration.store;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -44,6 +46,8 @@ public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageG
 
 	private final Collection<MessageGroupCallback> expiryCallbacks = new LinkedHashSet<MessageGroupCallback>();
 
+	private final Lock expiryLock = new ReentrantLock();
+
 	private final MessageGroupFactory persistentMessageGroupFactory =
 			new SimpleMessageGroupFactory(SimpleMessageGroupFactory.GroupType.PERSISTENT);
 
@@ -113,24 +117,59 @@ public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageG
 		this.expiryCallbacks.add(callback);
 	}
 
+	/**
+	 * Expire the groups whose {@link #getExpiryTimestamp(MessageGroup) expiry timestamp}
+	 * is older than the provided timeout. Only the candidates returned by
+	 * {@link #getMessageGroupsToExpire(long)} are visited; concurrent invocations are
+	 * serialized, but group operations are not blocked while expiring.
+	 */
 	@Override
 	@ManagedOperation
-	public synchronized int expireMessageGroups(long timeout) {
-		int count = 0;
-		long threshold = System.currentTimeMillis() - timeout;
-		for (MessageGroup group : this) {
-
-			long timestamp = group.getTimestamp();
-			if (this.isTimeoutOnIdle() && group.getLastModified() > 0) {
-				timestamp = group.getLastModified();
+	public int expireMessageGroups(long timeout) {
+		this.expiryLock.lock();
+		try {
+			int count = 0;
+			long threshold = System.currentTimeMillis() - timeout;
+			for (MessageGroup group : getMessageGroupsToExpire(threshold)) {
+				if (getExpiryTimestamp(group) <= threshold) {
+					count++;
+					expire(copy(group));
+				}
 			}
+			return count;
+		}
+		finally {
+			this.expiryLock.unlock();
+		}
+	}
 
-			if (timestamp <= threshold) {
-				count++;
-				expire(copy(group));
-			}
+	/**
+	 * Return the groups which may be expired for the provided threshold: a superset of
+	 * the groups with an {@link #getExpiryTimestamp(MessageGroup) expiry timestamp} less
+	 * than or equal to the threshold. The default implementation returns all the groups
+	 * in the store; implementations maintaining an expiry index, or able to query for
+	 * due groups, should override it so that only the due groups are loaded.
+	 * @param threshold the threshold in milliseconds.
+	 * @return the candidate groups.
+	 * @since 5.1
+	 */
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		return this;
+	}
+
+	/**
+	 * Return the timestamp the group timeout is counted from: the group creation time
+	 * or, when {@link #isTimeoutOnIdle() timeoutOnIdle}, the last modification time.
+	 * @param group the group.
+	 * @return the timestamp.
+	 * @since 5.1
+	 */
+	protected long getExpiryTimestamp(MessageGroup group) {
+		long timestamp = group.getTimestamp();
+		if (isTimeoutOnIdle() && group.getLastModified() > 0) {
+			timestamp = group.getLastModified();
 		}
-		return count;
+		return timestamp;
 	}
 
 	/**
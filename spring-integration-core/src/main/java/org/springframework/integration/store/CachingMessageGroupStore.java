@@ -0,0 +1,913 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.integration.support.locks.DefaultLockRegistry;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.integration.util.FunctionIterator;
+import org.springframework.integration.util.UUIDConverter;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MessageGroupStore} decorator keeping the recently used groups of a persistent
+ * store (such as the JDBC, MongoDB or Redis stores) in a bounded local cache.
+ * <p>
+ * The groups are loaded on the first access (read-through) and the subsequent reads are
+ * served from the cache. The modifications are applied to the cache and queued per
+ * group; the queues are written to the target store in the background (write-behind)
+ * every {@link #setWriteDelay(long) writeDelay}, which is the durability window:
+ * the modifications of this period are lost if the process dies. Consecutive
+ * additions (or removals) are written in a single operation and a message added and
+ * removed within the window is not written at all. A {@code writeDelay} of 0 writes
+ * the modifications before each operation returns (write-through).
+ * <p>
+ * Each group operation is performed while holding a local lock of the group; the queue
+ * of a group is also written under that lock. The cached groups are only evicted (least
+ * recently used first, when there are more than {@link #setMaxGroups(int) maxGroups})
+ * when they have no pending writes.
+ * <p>
+ * When several nodes modify the same groups, provide a distributed
+ * {@link #setLockRegistry(LockRegistry) lockRegistry}: a node then owns a group, holding
+ * its lock in the registry, from its first access until the next background write of
+ * the modifications, so the other nodes wait for the modifications to be written and
+ * reload the group when they obtain the lock in turn.
+ *
+ * @since 5.1
+ */
+public class CachingMessageGroupStore extends AbstractMessageGroupStore
+		implements InitializingBean, DisposableBean {
+
+	/**
+	 * The default maximum number of cached groups.
+	 */
+	public static final int DEFAULT_MAX_GROUPS = 1000;
+
+	/**
+	 * The default write delay in milliseconds.
+	 */
+	public static final long DEFAULT_WRITE_DELAY = 1000;
+
+	/**
+	 * The default number of pending writes (messages to add or remove and other group
+	 * operations) beyond which the writers flush their own group.
+	 */
+	public static final int DEFAULT_MAX_PENDING_WRITES = 10000;
+
+	private static final String OWNERSHIP_LOCK_PREFIX = "caching-group-store-";
+
+	private static final long OWNERSHIP_WAIT = 100;
+
+	private final MessageGroupStore targetStore;
+
+	private final Map<Object, CachedGroup> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Set<CachedGroup> dirtyGroups = new LinkedHashSet<>();
+
+	private final AtomicLong cacheHits = new AtomicLong();
+
+	private final AtomicLong cacheMisses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	private final AtomicLong flushedWrites = new AtomicLong();
+
+	private final AtomicInteger pendingWrites = new AtomicInteger();
+
+	private final LockRegistry localLockRegistry = new DefaultLockRegistry();
+
+	private final Map<Object, Ownership> ownerships = new ConcurrentHashMap<>();
+
+	private LockRegistry lockRegistry;
+
+	private ExecutorService ownerExecutor;
+
+	private int maxGroups = DEFAULT_MAX_GROUPS;
+
+	private long writeDelay = DEFAULT_WRITE_DELAY;
+
+	private int maxPendingWrites = DEFAULT_MAX_PENDING_WRITES;
+
+	private boolean validateOnAccess;
+
+	private TaskScheduler taskScheduler;
+
+	private ThreadPoolTaskScheduler internalTaskScheduler;
+
+	private ScheduledFuture<?> flushTask;
+
+	/**
+	 * Create a cache for the provided store.
+	 * @param targetStore the store to cache.
+	 */
+	public CachingMessageGroupStore(MessageGroupStore targetStore) {
+		Assert.notNull(targetStore, "'targetStore' must not be null");
+		this.targetStore = targetStore;
+	}
+
+	/**
+	 * Set a distributed {@link LockRegistry} when the groups of the target store are shared
+	 * between several nodes. The lock of a group is obtained on its first access and held,
+	 * by a dedicated thread of this store, until its modifications have been written to
+	 * the target store by the next background write (or, with a {@code writeDelay} of 0,
+	 * until the end of the operation); the group is reloaded from the target store each
+	 * time its lock is obtained. The lock keys are distinct from those of the correlation
+	 * endpoints, so their registry can also be used here. By default, the groups are only
+	 * guarded by local locks.
+	 * @param lockRegistry the lock registry.
+	 */
+	public void setLockRegistry(LockRegistry lockRegistry) {
+		Assert.notNull(lockRegistry, "'lockRegistry' must not be null");
+		this.lockRegistry = lockRegistry;
+	}
+
+	/**
+	 * Set the maximum number of cached groups. Defaults to {@link #DEFAULT_MAX_GROUPS}.
+	 * @param maxGroups the maximum number of groups.
+	 */
+	public void setMaxGroups(int maxGroups) {
+		Assert.isTrue(maxGroups > 0, "'maxGroups' must be positive");
+		this.maxGroups = maxGroups;
+	}
+
+	/**
+	 * Set the delay for writing the modifications to the target store; 0 to write them
+	 * before each operation returns. Defaults to {@link #DEFAULT_WRITE_DELAY}.
+	 * @param writeDelay the delay in milliseconds.
+	 */
+	public void setWriteDelay(long writeDelay) {
+		Assert.isTrue(writeDelay >= 0, "'writeDelay' must not be negative");
+		this.writeDelay = writeDelay;
+	}
+
+	/**
+	 * Set the number of pending writes beyond which an operation writes the pending
+	 * modifications of its group before returning. Each message to add or remove counts
+	 * as a write, even when it is written together with others, as do the other group
+	 * operations. Defaults to {@link #DEFAULT_MAX_PENDING_WRITES}.
+	 * @param maxPendingWrites the maximum number of pending writes.
+	 */
+	public void setMaxPendingWrites(int maxPendingWrites) {
+		Assert.isTrue(maxPendingWrites > 0, "'maxPendingWrites' must be positive");
+		this.maxPendingWrites = maxPendingWrites;
+	}
+
+	/**
+	 * Set to true to check the last modification time of a cached group in the target
+	 * store when it is accessed without pending writes, and reload it when it was
+	 * modified elsewhere. Not needed with a {@link #setLockRegistry(LockRegistry)
+	 * lockRegistry}, which reloads the group when its lock is obtained. Default false.
+	 * @param validateOnAccess true to validate the cached groups.
+	 */
+	public void setValidateOnAccess(boolean validateOnAccess) {
+		this.validateOnAccess = validateOnAccess;
+	}
+
+	/**
+	 * Set the scheduler for the background writes. By default, a single thread scheduler
+	 * is created for this store.
+	 * @param taskScheduler the task scheduler.
+	 */
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.writeDelay > 0) {
+			if (this.taskScheduler == null) {
+				this.internalTaskScheduler = new ThreadPoolTaskScheduler();
+				this.internalTaskScheduler.setThreadNamePrefix("caching-group-store-");
+				this.internalTaskScheduler.setDaemon(true);
+				this.internalTaskScheduler.initialize();
+				this.taskScheduler = this.internalTaskScheduler;
+			}
+			this.flushTask = this.taskScheduler.scheduleWithFixedDelay(this::flushInBackground,
+					new Date(System.currentTimeMillis() + this.writeDelay), this.writeDelay);
+		}
+		if (this.lockRegistry != null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("caching-group-store-owner-");
+			threadFactory.setDaemon(true);
+			this.ownerExecutor = Executors.newSingleThreadExecutor(threadFactory);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.flushTask != null) {
+			this.flushTask.cancel(false);
+		}
+		flush();
+		if (this.ownerExecutor != null) {
+			this.ownerExecutor.shutdown();
+		}
+		if (this.internalTaskScheduler != null) {
+			this.internalTaskScheduler.shutdown();
+			this.internalTaskScheduler = null;
+			this.taskScheduler = null;
+		}
+	}
+
+	/**
+	 * Write all the pending modifications to the target store and, with a
+	 * {@link #setLockRegistry(LockRegistry) lockRegistry}, release the locks of the groups.
+	 */
+	@ManagedOperation
+	public void flush() {
+		List<CachedGroup> groups;
+		synchronized (this.dirtyGroups) {
+			groups = new ArrayList<>(this.dirtyGroups);
+		}
+		for (CachedGroup group : groups) {
+			Lock lock = lock(group.groupId);
+			try {
+				flush(group);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		if (this.lockRegistry != null) {
+			releaseOwnerships();
+		}
+		evictIfNecessary();
+	}
+
+	@ManagedAttribute(description = "Number of group accesses served from the cache")
+	public long getCacheHits() {
+		return this.cacheHits.get();
+	}
+
+	@ManagedAttribute(description = "Number of group accesses loading the group from the target store")
+	public long getCacheMisses() {
+		return this.cacheMisses.get();
+	}
+
+	@ManagedAttribute(description = "Number of groups evicted from the cache")
+	public long getEvictionCount() {
+		return this.evictions.get();
+	}
+
+	@ManagedAttribute(description = "Number of cached groups")
+	public int getCachedGroupCount() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	@ManagedAttribute(description = "Number of messages and operations waiting to be written to the target store")
+	public int getPendingWriteCount() {
+		return this.pendingWrites.get();
+	}
+
+	@ManagedAttribute(description = "Number of writes applied to the target store")
+	public long getFlushedWriteCount() {
+		return this.flushedWrites.get();
+	}
+
+	@Override
+	public MessageGroup getMessageGroup(Object groupId) {
+		return execute(groupId, group -> {
+			MessageGroup messageGroup = getMessageGroupFactory()
+					.create(new ArrayList<>(group.messages.values()), groupId, group.timestamp, group.complete);
+			messageGroup.setLastModified(group.lastModified);
+			messageGroup.setLastReleasedMessageSequenceNumber(group.lastReleased);
+			return messageGroup;
+		});
+	}
+
+	@Override
+	public MessageGroupMetadata getGroupMetadata(Object groupId) {
+		return execute(groupId, group -> new MessageGroupMetadata(snapshot(group, group.messages.values())));
+	}
+
+	@Override
+	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
+		return execute(groupId, group -> new ArrayList<>(group.messages.values()));
+	}
+
+	@Override
+	public Message<?> getOneMessageFromGroup(Object groupId) {
+		return execute(groupId, group -> group.messages.isEmpty() ? null : group.messages.values().iterator().next());
+	}
+
+	@Override
+	public int messageGroupSize(Object groupId) {
+		return execute(groupId, group -> group.messages.size());
+	}
+
+	@Override
+	public void addMessagesToGroup(Object groupId, Message<?>... messages) {
+		Assert.notNull(messages, "'messages' must not be null");
+		write(groupId, group -> {
+			List<Message<?>> added = new ArrayList<>(messages.length);
+			for (Message<?> message : messages) {
+				if (group.messages.putIfAbsent(message.getHeaders().getId(), message) == null) {
+					added.add(message);
+				}
+			}
+			if (!added.isEmpty()) {
+				group.add(added);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public void removeMessagesFromGroup(Object key, Collection<Message<?>> messages) {
+		Assert.notNull(messages, "'messages' must not be null");
+		write(key, group -> {
+			List<Message<?>> removed = new ArrayList<>(messages.size());
+			for (Message<?> message : messages) {
+				if (group.messages.remove(message.getHeaders().getId()) != null) {
+					removed.add(message);
+				}
+			}
+			if (!removed.isEmpty()) {
+				group.remove(removed);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public Message<?> pollMessageFromGroup(Object groupId) {
+		return write(groupId, group -> {
+			Iterator<Message<?>> iterator = group.messages.values().iterator();
+			if (!iterator.hasNext()) {
+				return null;
+			}
+			Message<?> message = iterator.next();
+			iterator.remove();
+			group.remove(Collections.singletonList(message));
+			return message;
+		});
+	}
+
+	@Override
+	public void completeGroup(Object groupId) {
+		write(groupId, group -> {
+			group.complete = true;
+			group.append(new GroupWrite(WriteType.COMPLETE));
+			return null;
+		});
+	}
+
+	@Override
+	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
+		write(groupId, group -> {
+			group.lastReleased = sequenceNumber;
+			group.setLastReleased(sequenceNumber);
+			return null;
+		});
+	}
+
+	@Override
+	public void removeMessageGroup(Object groupId) {
+		write(groupId, group -> {
+			group.messages.clear();
+			group.timestamp = System.currentTimeMillis();
+			group.complete = false;
+			group.lastReleased = 0;
+			group.removeGroup();
+			return null;
+		});
+	}
+
+	@Override
+	public Iterator<MessageGroup> iterator() {
+		flush();
+		return new FunctionIterator<>(this.targetStore.iterator(), group -> getMessageGroup(group.getGroupId()));
+	}
+
+	@Override
+	public int getMessageGroupCount() {
+		flush();
+		return this.targetStore.getMessageGroupCount();
+	}
+
+	@Override
+	public int getMessageCountForAllMessageGroups() {
+		flush();
+		return this.targetStore.getMessageCountForAllMessageGroups();
+	}
+
+	/**
+	 * Return the candidates of the target store, after writing the pending modifications,
+	 * with the state of the cache.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		flush();
+		Iterable<MessageGroup> candidates =
+				this.targetStore instanceof AbstractMessageGroupStore
+						? ((AbstractMessageGroupStore) this.targetStore).getMessageGroupsToExpire(threshold)
+						: this.targetStore::iterator;
+		List<MessageGroup> groups = new ArrayList<>();
+		for (MessageGroup candidate : candidates) {
+			groups.add(getMessageGroup(candidate.getGroupId()));
+		}
+		return groups;
+	}
+
+	private MessageGroup snapshot(CachedGroup group, Collection<Message<?>> messages) {
+		SimpleMessageGroup messageGroup =
+				new SimpleMessageGroup(messages, group.groupId, group.timestamp, group.complete);
+		messageGroup.setLastModified(group.lastModified);
+		messageGroup.setLastReleasedMessageSequenceNumber(group.lastReleased);
+		return messageGroup;
+	}
+
+	private Lock lock(Object groupId) {
+		Lock lock = this.localLockRegistry.obtain(groupId);
+		try {
+			lock.lockInterruptibly();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while obtaining lock", e);
+		}
+		return lock;
+	}
+
+	/**
+	 * Obtain the local lock of the group and, with a distributed lock registry, make sure
+	 * the group is owned; the distributed lock is not waited for under the local lock.
+	 */
+	private Lock lockGroup(Object groupId) {
+		while (true) {
+			if (this.lockRegistry != null && !this.ownerships.containsKey(groupId)) {
+				acquireOwnership(groupId);
+			}
+			Lock lock = lock(groupId);
+			if (this.lockRegistry == null || this.ownerships.containsKey(groupId)) {
+				return lock;
+			}
+			// released by a concurrent flush in the meantime
+			lock.unlock();
+		}
+	}
+
+	private <T> T execute(Object groupId, Function<CachedGroup, T> operation) {
+		return access(groupId, operation, false);
+	}
+
+	private <T> T write(Object groupId, Function<CachedGroup, T> operation) {
+		return access(groupId, operation, true);
+	}
+
+	private <T> T access(Object groupId, Function<CachedGroup, T> operation, boolean write) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		boolean evict = false;
+		T result;
+		Lock lock = lockGroup(groupId);
+		try {
+			CachedGroup group = obtainGroup(groupId);
+			int pending = group.pendingCount();
+			result = operation.apply(group);
+			if (write) {
+				group.lastModified = System.currentTimeMillis();
+				this.pendingWrites.addAndGet(group.pendingCount() - pending);
+				if (!group.writes.isEmpty()) {
+					if (this.writeDelay == 0 || this.pendingWrites.get() >= this.maxPendingWrites) {
+						flush(group);
+						evict = true;
+					}
+					else {
+						synchronized (this.dirtyGroups) {
+							this.dirtyGroups.add(group);
+						}
+					}
+				}
+			}
+			if (this.writeDelay == 0 && this.lockRegistry != null && group.writes.isEmpty()) {
+				releaseOwnership(groupId);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		if (evict) {
+			evictIfNecessary();
+		}
+		return result;
+	}
+
+	/**
+	 * Return the cached group, or load it from the target store; must be called under the
+	 * group lock.
+	 */
+	private CachedGroup obtainGroup(Object groupId) {
+		CachedGroup group;
+		synchronized (this.cache) {
+			group = this.cache.get(groupId);
+		}
+		if (this.lockRegistry != null) {
+			Ownership ownership = this.ownerships.get(groupId);
+			if (!ownership.loaded) {
+				// the lock has just been obtained; another node may have modified the group
+				CachedGroup loaded = load(groupId, this.targetStore.getMessageGroup(groupId));
+				ownership.loaded = true;
+				return loaded;
+			}
+		}
+		else if (group != null && this.validateOnAccess && group.writes.isEmpty()) {
+			MessageGroup messageGroup = this.targetStore.getMessageGroup(groupId);
+			if (group.storeLastModified != messageGroup.getLastModified()) {
+				return load(groupId, messageGroup);
+			}
+		}
+		if (group != null) {
+			this.cacheHits.incrementAndGet();
+			return group;
+		}
+		return load(groupId, this.targetStore.getMessageGroup(groupId));
+	}
+
+	private CachedGroup load(Object groupId, MessageGroup messageGroup) {
+		this.cacheMisses.incrementAndGet();
+		CachedGroup loaded = new CachedGroup(groupId);
+		for (Message<?> message : messageGroup.getMessages()) {
+			loaded.messages.put(message.getHeaders().getId(), message);
+		}
+		loaded.timestamp = messageGroup.getTimestamp();
+		loaded.lastModified = messageGroup.getLastModified();
+		loaded.storeLastModified = messageGroup.getLastModified();
+		loaded.complete = messageGroup.isComplete();
+		loaded.lastReleased = messageGroup.getLastReleasedMessageSequenceNumber();
+		boolean evict;
+		synchronized (this.cache) {
+			this.cache.put(groupId, loaded);
+			evict = this.cache.size() > this.maxGroups;
+		}
+		if (evict) {
+			evictIfNecessary();
+		}
+		return loaded;
+	}
+
+	/**
+	 * Obtain the distributed lock of the group on the owner thread, which holds it until
+	 * the group is released; the attempts are bounded so that the releases queued on the
+	 * owner thread are not delayed by a lock held by another node.
+	 */
+	private void acquireOwnership(Object groupId) {
+		Lock lock = this.lockRegistry.obtain(OWNERSHIP_LOCK_PREFIX + UUIDConverter.getUUID(groupId));
+		try {
+			boolean owned = false;
+			while (!owned) {
+				owned = this.ownerExecutor.submit(() -> tryOwn(groupId, lock)).get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while obtaining the lock of group " + groupId, e);
+		}
+		catch (ExecutionException e) {
+			throw new MessagingException("Failed to obtain the lock of group " + groupId, e.getCause());
+		}
+	}
+
+	private boolean tryOwn(Object groupId, Lock lock) throws InterruptedException {
+		if (this.ownerships.containsKey(groupId)) {
+			return true;
+		}
+		if (lock.tryLock(OWNERSHIP_WAIT, TimeUnit.MILLISECONDS)) {
+			this.ownerships.put(groupId, new Ownership(lock));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Release the distributed lock of the group; must be called under the group lock,
+	 * without pending writes.
+	 */
+	private void releaseOwnership(Object groupId) {
+		Ownership ownership = this.ownerships.remove(groupId);
+		if (ownership != null) {
+			this.ownerExecutor.execute(() -> {
+				try {
+					ownership.lock.unlock();
+				}
+				catch (RuntimeException e) {
+					this.logger.error("Failed to release the lock of group " + groupId, e);
+				}
+			});
+		}
+	}
+
+	private void releaseOwnerships() {
+		for (Object groupId : new ArrayList<>(this.ownerships.keySet())) {
+			Lock lock = lock(groupId);
+			try {
+				CachedGroup group;
+				synchronized (this.cache) {
+					group = this.cache.get(groupId);
+				}
+				if (group == null || group.writes.isEmpty()) {
+					releaseOwnership(groupId);
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Apply the pending writes of the group to the target store; must be called under
+	 * the group lock. The writes are kept pending when the target store fails.
+	 */
+	private void flush(CachedGroup group) {
+		synchronized (this.dirtyGroups) {
+			this.dirtyGroups.remove(group);
+		}
+		List<GroupWrite> writes = group.writes;
+		if (writes.isEmpty()) {
+			return;
+		}
+		group.writes = new ArrayList<>();
+		int written = 0;
+		int writtenCount = 0;
+		try {
+			for (GroupWrite write : writes) {
+				write.applyTo(this.targetStore, group.groupId);
+				written++;
+				writtenCount += write.count();
+			}
+			if (this.validateOnAccess) {
+				group.storeLastModified = this.targetStore.getMessageGroup(group.groupId).getLastModified();
+			}
+		}
+		catch (RuntimeException e) {
+			group.writes.addAll(0, writes.subList(written, writes.size()));
+			synchronized (this.dirtyGroups) {
+				this.dirtyGroups.add(group);
+			}
+			throw e;
+		}
+		finally {
+			this.pendingWrites.addAndGet(-writtenCount);
+			this.flushedWrites.addAndGet(written);
+		}
+	}
+
+	private void flushInBackground() {
+		try {
+			flush();
+		}
+		catch (RuntimeException e) {
+			this.logger.error("Failed to write the pending modifications to " + this.targetStore, e);
+		}
+	}
+
+	/**
+	 * Evict the least recently used groups without pending writes; the groups locked by
+	 * other threads or owned by this node are skipped.
+	 */
+	private void evictIfNecessary() {
+		List<CachedGroup> candidates;
+		synchronized (this.cache) {
+			int excess = this.cache.size() - this.maxGroups;
+			if (excess <= 0) {
+				return;
+			}
+			candidates = new ArrayList<>(excess);
+			for (CachedGroup group : this.cache.values()) {
+				if (candidates.size() == excess) {
+					break;
+				}
+				candidates.add(group);
+			}
+		}
+		for (CachedGroup group : candidates) {
+			Lock lock = this.localLockRegistry.obtain(group.groupId);
+			if (lock.tryLock()) {
+				try {
+					if (group.writes.isEmpty() && !this.ownerships.containsKey(group.groupId)) {
+						synchronized (this.cache) {
+							if (this.cache.remove(group.groupId, group)) {
+								this.evictions.incrementAndGet();
+							}
+						}
+					}
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	private enum WriteType {
+
+		ADD, REMOVE, COMPLETE, LAST_RELEASED, REMOVE_GROUP
+
+	}
+
+	private static final class GroupWrite {
+
+		private final WriteType type;
+
+		private final List<Message<?>> messages = new ArrayList<>();
+
+		private int sequenceNumber;
+
+		GroupWrite(WriteType type) {
+			this.type = type;
+		}
+
+		/**
+		 * The number of pending writes: one per message for the additions and removals.
+		 */
+		int count() {
+			return this.type == WriteType.ADD || this.type == WriteType.REMOVE ? this.messages.size() : 1;
+		}
+
+		void applyTo(MessageGroupStore store, Object groupId) {
+			switch (this.type) {
+				case ADD:
+					store.addMessagesToGroup(groupId, this.messages.toArray(new Message<?>[0]));
+					break;
+				case REMOVE:
+					store.removeMessagesFromGroup(groupId, this.messages);
+					break;
+				case COMPLETE:
+					store.completeGroup(groupId);
+					break;
+				case LAST_RELEASED:
+					store.setLastReleasedSequenceNumberForGroup(groupId, this.sequenceNumber);
+					break;
+				default:
+					store.removeMessageGroup(groupId);
+			}
+		}
+
+	}
+
+	/**
+	 * The distributed lock of a group held by the owner thread.
+	 */
+	private static final class Ownership {
+
+		private final Lock lock;
+
+		/**
+		 * Whether the group has been reloaded since the lock was obtained; guarded by the
+		 * group lock.
+		 */
+		private boolean loaded;
+
+		Ownership(Lock lock) {
+			this.lock = lock;
+		}
+
+	}
+
+	/**
+	 * The cached state of a group and its pending writes, guarded by the group lock.
+	 */
+	private static final class CachedGroup {
+
+		private final Object groupId;
+
+		private final Map<UUID, Message<?>> messages = new LinkedHashMap<>();
+
+		private List<GroupWrite> writes = new ArrayList<>();
+
+		private long timestamp;
+
+		private long lastModified;
+
+		private long storeLastModified;
+
+		private boolean complete;
+
+		private int lastReleased;
+
+		CachedGroup(Object groupId) {
+			this.groupId = groupId;
+		}
+
+		void append(GroupWrite write) {
+			this.writes.add(write);
+		}
+
+		int pendingCount() {
+			int count = 0;
+			for (GroupWrite write : this.writes) {
+				count += write.count();
+			}
+			return count;
+		}
+
+		GroupWrite last() {
+			return this.writes.isEmpty() ? null : this.writes.get(this.writes.size() - 1);
+		}
+
+		void add(List<Message<?>> messages) {
+			GroupWrite last = last();
+			if (last == null || last.type != WriteType.ADD) {
+				last = new GroupWrite(WriteType.ADD);
+				append(last);
+			}
+			last.messages.addAll(messages);
+		}
+
+		void remove(List<Message<?>> messages) {
+			List<Message<?>> written = new ArrayList<>(messages.size());
+			for (Message<?> message : messages) {
+				if (!cancelAdd(message.getHeaders().getId())) {
+					written.add(message);
+				}
+			}
+			if (!written.isEmpty()) {
+				GroupWrite last = last();
+				if (last == null || last.type != WriteType.REMOVE) {
+					last = new GroupWrite(WriteType.REMOVE);
+					append(last);
+				}
+				last.messages.addAll(written);
+			}
+		}
+
+		/**
+		 * Drop a pending addition of the message, so neither the addition nor the removal
+		 * is written.
+		 */
+		private boolean cancelAdd(UUID messageId) {
+			for (int i = this.writes.size() - 1; i >= 0; i--) {
+				GroupWrite write = this.writes.get(i);
+				if (write.type == WriteType.ADD
+						&& write.messages.removeIf(message -> message.getHeaders().getId().equals(messageId))) {
+					if (write.messages.isEmpty()) {
+						this.writes.remove(i);
+					}
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void setLastReleased(int sequenceNumber) {
+			GroupWrite last = last();
+			if (last == null || last.type != WriteType.LAST_RELEASED) {
+				last = new GroupWrite(WriteType.LAST_RELEASED);
+				append(last);
+			}
+			last.sequenceNumber = sequenceNumber;
+		}
+
+		void removeGroup() {
+			this.writes.clear();
+			append(new GroupWrite(WriteType.REMOVE_GROUP));
+		}
+
+	}
+
+}
@@ -0,0 +1,1176 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.CodecSerializer;
+import org.springframework.integration.support.converter.WhiteListDeserializingConverter;
+import org.springframework.integration.util.FunctionIterator;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MessageGroupStore} and {@link PriorityCapableChannelMessageStore} which
+ * persists to a local directory, for durable aggregators and {@code QueueChannel}s
+ * on a single node.
+ * <p>
+ * All the store operations are appended to a log of fixed-size, memory-mapped segment
+ * files; an in-memory index keeps the location of each live message, so reads go
+ * straight to the mapped segments and the log is only scanned on startup to rebuild
+ * the index. Removals are appended as tombstones. A background task compacts the
+ * oldest segments, whose live data is below the {@link #setCompactionThreshold(double)
+ * compactionThreshold}, by moving their live records to the head of the log.
+ * <p>
+ * The {@link SyncPolicy} determines when the appended records are forced to the
+ * storage device: on each store operation, on a group commit shared by the concurrent
+ * operations, or periodically in the background.
+ * <p>
+ * The messages are serialized with a {@link Serializer} (Java serialization by default),
+ * so their payloads and headers must be supported by the configured (de)serializer.
+ * The store must not be shared by several processes.
+ *
+ * @since 5.1
+ */
+public class MappedFileMessageStore extends AbstractMessageGroupStore
+		implements PriorityCapableChannelMessageStore, Flushable, InitializingBean, DisposableBean {
+
+	/**
+	 * The default size of the log segments: 64 MB.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final byte SNAPSHOT = 1;
+
+	private static final byte ADD = 2;
+
+	private static final byte REMOVE = 3;
+
+	private static final byte REMOVE_GROUP = 4;
+
+	// frame: content length, content CRC32
+	private static final int FRAME_HEADER_SIZE = 8;
+
+	// content: record type, timestamp, group number, then the type specific body
+	private static final int RECORD_HEADER_SIZE = 13;
+
+	// ADD body: sequence, message id, priority flag and value, then the serialized message
+	private static final int ADD_HEADER_SIZE = 29;
+
+	private static final int ADD_MESSAGE_OFFSET = FRAME_HEADER_SIZE + RECORD_HEADER_SIZE + ADD_HEADER_SIZE;
+
+	// SNAPSHOT body: timestamp, complete flag, last released sequence, then the serialized group id
+	private static final int SNAPSHOT_HEADER_SIZE = 13;
+
+	private static final Comparator<MessageEntry> PRIORITY_ORDER =
+			Comparator.comparing((MessageEntry entry) -> entry.priority,
+					Comparator.nullsLast(Comparator.reverseOrder()))
+					.thenComparingLong(entry -> entry.sequence);
+
+	private final File directory;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Object, GroupState> groups = new HashMap<>();
+
+	private final Map<Integer, GroupState> groupsByNumber = new HashMap<>();
+
+	private final NavigableMap<Long, MappedFileSegment> segments = new TreeMap<>();
+
+	private final MessageGroupExpiryIndex expiryIndex = new MessageGroupExpiryIndex();
+
+	private final Object syncMonitor = new Object();
+
+	private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+	private SyncPolicy syncPolicy = SyncPolicy.GROUP_COMMIT;
+
+	private long syncInterval = 1000;
+
+	private long compactionInterval = 60000;
+
+	private double compactionThreshold = 0.5;
+
+	private boolean priorityEnabled;
+
+	private SerializingConverter serializer = new SerializingConverter();
+
+	private WhiteListDeserializingConverter deserializer = new WhiteListDeserializingConverter();
+
+	private TaskScheduler taskScheduler;
+
+	private ThreadPoolTaskScheduler internalTaskScheduler;
+
+	private ScheduledFuture<?> compactionTask;
+
+	private ScheduledFuture<?> syncTask;
+
+	private volatile MappedFileSegment activeSegment;
+
+	private volatile long appendCount;
+
+	private volatile boolean running;
+
+	private int nextGroupNumber;
+
+	private long nextSequence;
+
+	private long syncedCount;
+
+	private boolean syncing;
+
+	/**
+	 * Create a store persisting to the provided directory, which is created if needed.
+	 * @param directory the directory for the log segment files.
+	 */
+	public MappedFileMessageStore(File directory) {
+		Assert.notNull(directory, "'directory' must not be null");
+		this.directory = directory;
+	}
+
+	/**
+	 * Set the size of the log segment files. A message larger than the segment size is
+	 * appended to a dedicated segment. Defaults to {@link #DEFAULT_SEGMENT_SIZE}.
+	 * @param segmentSize the segment size in bytes.
+	 */
+	public void setSegmentSize(int segmentSize) {
+		Assert.isTrue(segmentSize > 0, "'segmentSize' must be positive");
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Set the policy for forcing the appended records to the storage device.
+	 * Defaults to {@link SyncPolicy#GROUP_COMMIT}.
+	 * @param syncPolicy the sync policy.
+	 */
+	public void setSyncPolicy(SyncPolicy syncPolicy) {
+		Assert.notNull(syncPolicy, "'syncPolicy' must not be null");
+		this.syncPolicy = syncPolicy;
+	}
+
+	/**
+	 * Set the interval for forcing the appended records to the storage device with the
+	 * {@link SyncPolicy#INTERVAL} policy. Defaults to 1 second.
+	 * @param syncInterval the interval in milliseconds.
+	 */
+	public void setSyncInterval(long syncInterval) {
+		Assert.isTrue(syncInterval > 0, "'syncInterval' must be positive");
+		this.syncInterval = syncInterval;
+	}
+
+	/**
+	 * Set the delay between the background compactions of the log; 0 to disable the
+	 * background compaction (see {@link #compact()}). Defaults to 1 minute.
+	 * @param compactionInterval the interval in milliseconds.
+	 */
+	public void setCompactionInterval(long compactionInterval) {
+		Assert.isTrue(compactionInterval >= 0, "'compactionInterval' must not be negative");
+		this.compactionInterval = compactionInterval;
+	}
+
+	/**
+	 * Set the ratio of live data below which a segment is compacted. Defaults to 0.5.
+	 * @param compactionThreshold the ratio, between 0 and 1.
+	 */
+	public void setCompactionThreshold(double compactionThreshold) {
+		Assert.isTrue(compactionThreshold >= 0 && compactionThreshold <= 1,
+				"'compactionThreshold' must be between 0 and 1");
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	/**
+	 * Set to true to poll the messages of a group by their
+	 * {@link IntegrationMessageHeaderAccessor#PRIORITY} header (highest first, messages
+	 * without priority last), and in FIFO order for the same priority. Must be set before
+	 * the store is started. Defaults to false - FIFO order.
+	 * @param priorityEnabled true to enable priority.
+	 */
+	public void setPriorityEnabled(boolean priorityEnabled) {
+		Assert.state(!this.running, "'priorityEnabled' cannot be changed after the store is started");
+		this.priorityEnabled = priorityEnabled;
+	}
+
+	@Override
+	public boolean isPriorityEnabled() {
+		return this.priorityEnabled;
+	}
+
+	/**
+	 * A serializer for the messages and the group ids.
+	 * @param serializer the serializer.
+	 */
+	@SuppressWarnings("unchecked")
+	public void setSerializer(Serializer<? super Message<?>> serializer) {
+		Assert.notNull(serializer, "'serializer' must not be null");
+		this.serializer = new SerializingConverter((Serializer<Object>) serializer);
+	}
+
+	/**
+	 * A deserializer for the messages and the group ids.
+	 * @param deserializer the deserializer.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void setDeserializer(Deserializer<? extends Message<?>> deserializer) {
+		Assert.notNull(deserializer, "'deserializer' must not be null");
+		this.deserializer = new WhiteListDeserializingConverter((Deserializer) deserializer);
+	}
+
+	/**
+	 * Add patterns for packages/classes that are allowed to be deserialized.
+	 * A class can be fully qualified or a wildcard '*' is allowed at the
+	 * beginning or end of the class name.
+	 * Examples: {@code com.foo.*}, {@code *.MyClass}.
+	 * @param patterns the patterns.
+	 */
+	public void addWhiteListPatterns(String... patterns) {
+		this.deserializer.addWhiteListPatterns(patterns);
+	}
+
+	/**
+	 * Use a {@link Codec} - typically a
+	 * {@link org.springframework.integration.codec.kryo.MessageStoreCodec} - to serialize and
+	 * deserialize messages instead of Java serialization. Replaces any configured
+	 * serializer and deserializer; white list patterns do not apply to codecs.
+	 * Records already in the directory must have been written with the same codec.
+	 * Since the group ids are stored with the same codec, it must write the concrete
+	 * type with each value, as the {@code MessageStoreCodec} does.
+	 * @param codec the codec.
+	 */
+	public void setCodec(Codec codec) {
+		// decode to Object - the group ids are (de)serialized with the same codec
+		CodecSerializer<Message<?>> codecSerializer = new CodecSerializer<>(codec, Object.class);
+		setSerializer(codecSerializer);
+		setDeserializer(codecSerializer);
+	}
+
+	/**
+	 * Set the scheduler for the background compaction and interval sync tasks.
+	 * By default, a single thread scheduler is created for this store.
+	 * @param taskScheduler the task scheduler.
+	 */
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+	}
+
+	@Override
+	public void setTimeoutOnIdle(boolean timeoutOnIdle) {
+		super.setTimeoutOnIdle(timeoutOnIdle);
+		this.lock.writeLock().lock();
+		try {
+			this.expiryIndex.clear();
+			for (GroupState group : this.groups.values()) {
+				this.expiryIndex.put(group.groupId, expiryTimestamp(group));
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		Assert.state(this.directory.isDirectory() || this.directory.mkdirs(),
+				() -> "Cannot create the store directory: " + this.directory);
+		this.lock.writeLock().lock();
+		try {
+			recover();
+			this.running = true;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		if (this.compactionInterval > 0 || SyncPolicy.INTERVAL.equals(this.syncPolicy)) {
+			if (this.taskScheduler == null) {
+				this.internalTaskScheduler = new ThreadPoolTaskScheduler();
+				this.internalTaskScheduler.setThreadNamePrefix("mapped-file-store-");
+				this.internalTaskScheduler.setDaemon(true);
+				this.internalTaskScheduler.initialize();
+				this.taskScheduler = this.internalTaskScheduler;
+			}
+			if (this.compactionInterval > 0) {
+				this.compactionTask = this.taskScheduler.scheduleWithFixedDelay(this::compactInBackground,
+						this.compactionInterval);
+			}
+			if (SyncPolicy.INTERVAL.equals(this.syncPolicy)) {
+				this.syncTask = this.taskScheduler.scheduleWithFixedDelay(this::flush, this.syncInterval);
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.running = false;
+		if (this.compactionTask != null) {
+			this.compactionTask.cancel(false);
+		}
+		if (this.syncTask != null) {
+			this.syncTask.cancel(false);
+		}
+		this.lock.writeLock().lock();
+		try {
+			if (this.activeSegment != null) {
+				this.activeSegment.force();
+				this.activeSegment = null;
+			}
+			this.segments.values().forEach(MappedFileSegment::close);
+			this.segments.clear();
+			this.groups.clear();
+			this.groupsByNumber.clear();
+			this.expiryIndex.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		if (this.internalTaskScheduler != null) {
+			this.internalTaskScheduler.shutdown();
+			this.internalTaskScheduler = null;
+			this.taskScheduler = null;
+		}
+	}
+
+	/**
+	 * Force the records appended so far to the storage device.
+	 */
+	@Override
+	public void flush() {
+		long appended = this.appendCount;
+		MappedFileSegment segment = this.activeSegment;
+		if (segment != null) {
+			segment.force();
+			synchronized (this.syncMonitor) {
+				this.syncedCount = Math.max(this.syncedCount, appended);
+			}
+		}
+	}
+
+	/**
+	 * Compact the oldest segments of the log while their ratio of live data is below the
+	 * {@link #setCompactionThreshold(double) compactionThreshold}: their live records are
+	 * appended to the head of the log and the segment files are deleted.
+	 * @return the number of compacted segments.
+	 */
+	@ManagedOperation
+	public int compact() {
+		int compacted = 0;
+		while (compactOldestSegment()) {
+			compacted++;
+		}
+		return compacted;
+	}
+
+	/**
+	 * Return the number of segment files in the log.
+	 * @return the number of segments.
+	 */
+	@ManagedAttribute
+	public int getSegmentCount() {
+		this.lock.readLock().lock();
+		try {
+			return this.segments.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void addMessagesToGroup(Object groupId, Message<?>... messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+		byte[][] serialized = new byte[messages.length][];
+		for (int i = 0; i < messages.length; i++) {
+			serialized[i] = this.serializer.convert(messages[i]);
+		}
+		long appended;
+		this.lock.writeLock().lock();
+		try {
+			assertRunning();
+			long now = System.currentTimeMillis();
+			GroupState group = obtainGroup(groupId, now);
+			for (int i = 0; i < messages.length; i++) {
+				appendAdd(group, messages[i], serialized[i], now);
+			}
+			touch(group, now);
+			appended = afterWrite();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		awaitSync(appended);
+	}
+
+	@Override
+	public void removeMessagesFromGroup(Object key, Collection<Message<?>> messages) {
+		long appended;
+		this.lock.writeLock().lock();
+		try {
+			assertRunning();
+			GroupState group = this.groups.get(key);
+			Assert.notNull(group, () -> "MessageGroup for groupId '" + key + "' " +
+					"can not be located while attempting to remove Message(s) from the MessageGroup");
+			long now = System.currentTimeMillis();
+			boolean modified = false;
+			for (Message<?> message : messages) {
+				MessageEntry entry = group.byId.get(message.getHeaders().getId());
+				if (entry != null) {
+					appendRemove(group, entry, now);
+					modified = true;
+				}
+			}
+			if (modified) {
+				touch(group, now);
+			}
+			appended = afterWrite();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		awaitSync(appended);
+	}
+
+	@Override
+	public Message<?> pollMessageFromGroup(Object groupId) {
+		byte[] message = null;
+		long appended;
+		this.lock.writeLock().lock();
+		try {
+			assertRunning();
+			GroupState group = this.groups.get(groupId);
+			MessageEntry entry = group != null ? group.next() : null;
+			if (entry == null) {
+				return null;
+			}
+			message = read(entry);
+			long now = System.currentTimeMillis();
+			appendRemove(group, entry, now);
+			touch(group, now);
+			appended = afterWrite();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		awaitSync(appended);
+		return deserialize(message);
+	}
+
+	@Override
+	public void removeMessageGroup(Object groupId) {
+		long appended;
+		this.lock.writeLock().lock();
+		try {
+			assertRunning();
+			GroupState group = this.groups.remove(groupId);
+			if (group == null) {
+				return;
+			}
+			this.groupsByNumber.remove(group.number);
+			this.expiryIndex.remove(groupId);
+			release(group);
+			append(newRecord(REMOVE_GROUP, System.currentTimeMillis(), group.number, 0));
+			appended = afterWrite();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		awaitSync(appended);
+	}
+
+	@Override
+	public void completeGroup(Object groupId) {
+		long appended;
+		this.lock.writeLock().lock();
+		try {
+			assertRunning();
+			GroupState group = this.groups.get(groupId);
+			Assert.notNull(group, () -> "MessageGroup for groupId '" + groupId + "' " +
+					"can not be located while attempting to complete the MessageGroup");
+			long now = System.currentTimeMillis();
+			group.complete = true;
+			appendSnapshot(group, now);
+			touch(group, now);
+			appended = afterWrite();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		awaitSync(appended);
+	}
+
+	@Override
+	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
+		long appended;
+		this.lock.writeLock().lock();
+		try {
+			assertRunning();
+			GroupState group = this.groups.get(groupId);
+			Assert.notNull(group, () -> "MessageGroup for groupId '" + groupId + "' " +
+					"can not be located while attempting to set 'lastReleasedSequenceNumber'");
+			long now = System.currentTimeMillis();
+			group.lastReleased = sequenceNumber;
+			appendSnapshot(group, now);
+			touch(group, now);
+			appended = afterWrite();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		awaitSync(appended);
+	}
+
+	@Override
+	public MessageGroup getMessageGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		long timestamp;
+		boolean complete;
+		long lastModified;
+		int lastReleased;
+		this.lock.readLock().lock();
+		try {
+			GroupState group = this.groups.get(groupId);
+			if (group == null) {
+				return getMessageGroupFactory().create(groupId);
+			}
+			timestamp = group.timestamp;
+			complete = group.complete;
+			lastModified = group.lastModified;
+			lastReleased = group.lastReleased;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		MessageGroup messageGroup = getMessageGroupFactory().create(this, groupId, timestamp, complete);
+		messageGroup.setLastModified(lastModified);
+		messageGroup.setLastReleasedMessageSequenceNumber(lastReleased);
+		return messageGroup;
+	}
+
+	@Override
+	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
+		List<byte[]> serialized = new ArrayList<>();
+		this.lock.readLock().lock();
+		try {
+			GroupState group = this.groups.get(groupId);
+			if (group != null) {
+				for (MessageEntry entry : group.bySequence.values()) {
+					serialized.add(read(entry));
+				}
+			}
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		List<Message<?>> messages = new ArrayList<>(serialized.size());
+		for (byte[] message : serialized) {
+			messages.add(deserialize(message));
+		}
+		return messages;
+	}
+
+	@Override
+	public Message<?> getOneMessageFromGroup(Object groupId) {
+		byte[] message = null;
+		this.lock.readLock().lock();
+		try {
+			GroupState group = this.groups.get(groupId);
+			if (group != null && !group.bySequence.isEmpty()) {
+				message = read(group.bySequence.firstEntry().getValue());
+			}
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		return message != null ? deserialize(message) : null;
+	}
+
+	@Override
+	public int messageGroupSize(Object groupId) {
+		this.lock.readLock().lock();
+		try {
+			GroupState group = this.groups.get(groupId);
+			return group != null ? group.byId.size() : 0;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public MessageGroupMetadata getGroupMetadata(Object groupId) {
+		return new MessageGroupMetadata(getMessageGroup(groupId));
+	}
+
+	@Override
+	public Iterator<MessageGroup> iterator() {
+		List<Object> groupIds;
+		this.lock.readLock().lock();
+		try {
+			groupIds = new ArrayList<>(this.groups.keySet());
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		return new FunctionIterator<>(groupIds, this::getMessageGroup);
+	}
+
+	@Override
+	@ManagedAttribute
+	public int getMessageGroupCount() {
+		this.lock.readLock().lock();
+		try {
+			return this.groups.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	@ManagedAttribute
+	public int getMessageCountForAllMessageGroups() {
+		this.lock.readLock().lock();
+		try {
+			int count = 0;
+			for (GroupState group : this.groups.values()) {
+				count += group.byId.size();
+			}
+			return count;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the groups found in the expiry index for the provided threshold, without
+	 * visiting the other groups.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		List<Object> groupIds;
+		this.lock.readLock().lock();
+		try {
+			groupIds = this.expiryIndex.getGroupIdsUntil(threshold);
+			groupIds.removeIf(groupId -> !this.groups.containsKey(groupId));
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		List<MessageGroup> groups = new ArrayList<>(groupIds.size());
+		for (Object groupId : groupIds) {
+			groups.add(getMessageGroup(groupId));
+		}
+		return groups;
+	}
+
+	private void assertRunning() {
+		Assert.state(this.running, () -> "The store for " + this.directory + " is not started");
+	}
+
+	private Message<?> deserialize(byte[] message) {
+		return (Message<?>) this.deserializer.convert(message);
+	}
+
+	private byte[] read(MessageEntry entry) {
+		return entry.segment.read(entry.offset + ADD_MESSAGE_OFFSET, entry.recordSize - ADD_MESSAGE_OFFSET);
+	}
+
+	private long expiryTimestamp(GroupState group) {
+		return isTimeoutOnIdle() && group.lastModified > 0 ? group.lastModified : group.timestamp;
+	}
+
+	private void touch(GroupState group, long timestamp) {
+		group.lastModified = timestamp;
+		this.expiryIndex.put(group.groupId, expiryTimestamp(group));
+	}
+
+	private GroupState obtainGroup(Object groupId, long timestamp) {
+		GroupState group = this.groups.get(groupId);
+		if (group == null) {
+			group = new GroupState(this.nextGroupNumber++, this.priorityEnabled);
+			group.groupId = groupId;
+			group.groupIdBytes = this.serializer.convert(groupId);
+			group.timestamp = timestamp;
+			this.groups.put(groupId, group);
+			this.groupsByNumber.put(group.number, group);
+			appendSnapshot(group, timestamp);
+		}
+		return group;
+	}
+
+	private void appendSnapshot(GroupState group, long timestamp) {
+		ByteBuffer record = newRecord(SNAPSHOT, timestamp, group.number,
+				SNAPSHOT_HEADER_SIZE + group.groupIdBytes.length);
+		record.putLong(group.timestamp)
+				.put((byte) (group.complete ? 1 : 0))
+				.putInt(group.lastReleased)
+				.put(group.groupIdBytes);
+		byte[] bytes = frame(record);
+		append(bytes);
+		releaseSnapshot(group);
+		group.snapshotSegment = this.activeSegment;
+		group.snapshotSize = bytes.length;
+		this.activeSegment.addLiveBytes(bytes.length);
+	}
+
+	private void appendAdd(GroupState group, Message<?> message, byte[] serialized, long timestamp) {
+		UUID id = message.getHeaders().getId();
+		Integer priority = new IntegrationMessageHeaderAccessor(message).getPriority();
+		long sequence = this.nextSequence++;
+		ByteBuffer record = newRecord(ADD, timestamp, group.number, ADD_HEADER_SIZE + serialized.length);
+		record.putLong(sequence)
+				.putLong(id.getMostSignificantBits())
+				.putLong(id.getLeastSignificantBits())
+				.put((byte) (priority != null ? 1 : 0))
+				.putInt(priority != null ? priority : 0)
+				.put(serialized);
+		byte[] bytes = frame(record);
+		int offset = append(bytes);
+		MessageEntry entry = new MessageEntry(id, sequence, priority, this.activeSegment, offset, bytes.length);
+		this.activeSegment.addLiveBytes(bytes.length);
+		release(group.put(entry));
+	}
+
+	private void appendRemove(GroupState group, MessageEntry entry, long timestamp) {
+		ByteBuffer record = newRecord(REMOVE, timestamp, group.number, 16);
+		record.putLong(entry.id.getMostSignificantBits())
+				.putLong(entry.id.getLeastSignificantBits());
+		append(frame(record));
+		release(group.remove(entry.id));
+	}
+
+	private ByteBuffer newRecord(byte type, long timestamp, int groupNumber, int bodySize) {
+		ByteBuffer record = ByteBuffer.allocate(FRAME_HEADER_SIZE + RECORD_HEADER_SIZE + bodySize);
+		record.position(FRAME_HEADER_SIZE);
+		record.put(type)
+				.putLong(timestamp)
+				.putInt(groupNumber);
+		return record;
+	}
+
+	private byte[] frame(ByteBuffer record) {
+		byte[] bytes = record.array();
+		CRC32 crc = new CRC32();
+		crc.update(bytes, FRAME_HEADER_SIZE, bytes.length - FRAME_HEADER_SIZE);
+		record.putInt(0, bytes.length - FRAME_HEADER_SIZE);
+		record.putInt(Integer.BYTES, (int) crc.getValue());
+		return bytes;
+	}
+
+	private int append(ByteBuffer record) {
+		return append(frame(record));
+	}
+
+	private int append(byte[] record) {
+		if (this.activeSegment.getRemaining() < record.length) {
+			roll(record.length);
+		}
+		int offset = this.activeSegment.append(record);
+		this.appendCount++;
+		return offset;
+	}
+
+	private void roll(int recordSize) {
+		MappedFileSegment previous = this.activeSegment;
+		if (previous != null) {
+			// the group commit only forces the active segment
+			previous.force();
+		}
+		long index = this.segments.isEmpty() ? 0 : this.segments.lastKey() + 1;
+		try {
+			MappedFileSegment segment =
+					MappedFileSegment.create(this.directory, index, Math.max(this.segmentSize, recordSize));
+			this.segments.put(index, segment);
+			this.activeSegment = segment;
+		}
+		catch (IOException e) {
+			throw new MessageStoreException("Failed to create a log segment in " + this.directory, e);
+		}
+	}
+
+	private long afterWrite() {
+		if (SyncPolicy.EVERY_WRITE.equals(this.syncPolicy)) {
+			this.activeSegment.force();
+		}
+		return this.appendCount;
+	}
+
+	/**
+	 * Wait until the records appended so far are forced to the storage device: the first
+	 * waiting thread forces the active segment for all the records appended meanwhile.
+	 */
+	private void awaitSync(long appended) {
+		if (!SyncPolicy.GROUP_COMMIT.equals(this.syncPolicy)) {
+			return;
+		}
+		while (true) {
+			synchronized (this.syncMonitor) {
+				while (this.syncing && this.syncedCount < appended) {
+					try {
+						this.syncMonitor.wait();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new MessageStoreException("Interrupted while waiting for the log sync", e);
+					}
+				}
+				if (this.syncedCount >= appended) {
+					return;
+				}
+				this.syncing = true;
+			}
+			long synced = this.appendCount;
+			try {
+				MappedFileSegment segment = this.activeSegment;
+				if (segment != null) {
+					segment.force();
+				}
+			}
+			finally {
+				synchronized (this.syncMonitor) {
+					this.syncing = false;
+					this.syncedCount = Math.max(this.syncedCount, synced);
+					this.syncMonitor.notifyAll();
+				}
+			}
+		}
+	}
+
+	private void release(MessageEntry entry) {
+		if (entry != null) {
+			entry.segment.addLiveBytes(-entry.recordSize);
+		}
+	}
+
+	private void releaseSnapshot(GroupState group) {
+		if (group.snapshotSegment != null) {
+			group.snapshotSegment.addLiveBytes(-group.snapshotSize);
+		}
+	}
+
+	private void release(GroupState group) {
+		for (MessageEntry entry : group.byId.values()) {
+			release(entry);
+		}
+		releaseSnapshot(group);
+	}
+
+	private void compactInBackground() {
+		try {
+			compact();
+		}
+		catch (RuntimeException e) {
+			this.logger.error("Failed to compact the log in " + this.directory, e);
+		}
+	}
+
+	/**
+	 * Only the oldest segment is compacted, so the tombstones it holds can be dropped:
+	 * the records they remove are either in the same segment or already compacted.
+	 */
+	private boolean compactOldestSegment() {
+		this.lock.writeLock().lock();
+		try {
+			if (!this.running) {
+				return false;
+			}
+			MappedFileSegment segment = this.segments.firstEntry().getValue();
+			if (segment == this.activeSegment
+					|| (segment.getLiveBytes() > 0
+							&& segment.getLiveBytes() >= segment.getPosition() * this.compactionThreshold)) {
+				return false;
+			}
+			for (GroupState group : this.groups.values()) {
+				if (group.snapshotSegment == segment) {
+					appendSnapshot(group, group.lastModified);
+				}
+				for (MessageEntry entry : group.bySequence.values()) {
+					if (entry.segment == segment) {
+						int offset = append(segment.read(entry.offset, entry.recordSize));
+						release(entry);
+						entry.segment = this.activeSegment;
+						entry.offset = offset;
+						this.activeSegment.addLiveBytes(entry.recordSize);
+					}
+				}
+			}
+			// the moved records must be durable before their original segment is gone
+			this.activeSegment.force();
+			this.segments.remove(segment.getIndex());
+			if (!segment.delete()) {
+				this.logger.warn("Failed to delete the compacted segment: " + segment);
+			}
+			return true;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void recover() {
+		File[] files = this.directory.listFiles(MappedFileSegment::isSegmentFile);
+		if (files != null) {
+			// zero-padded names: the lexical order is the log order
+			Arrays.sort(files);
+			for (File file : files) {
+				try {
+					MappedFileSegment segment = MappedFileSegment.open(file);
+					this.segments.put(segment.getIndex(), segment);
+					replay(segment);
+				}
+				catch (IOException e) {
+					throw new MessageStoreException("Failed to open the log segment " + file, e);
+				}
+			}
+		}
+		this.groupsByNumber.values().removeIf(group -> group.groupId == null);
+		if (this.segments.isEmpty()) {
+			roll(0);
+		}
+		else {
+			this.activeSegment = this.segments.lastEntry().getValue();
+		}
+		for (GroupState group : this.groups.values()) {
+			this.expiryIndex.put(group.groupId, expiryTimestamp(group));
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Recovered " + this.groups.size() + " group(s) from " + this.segments.size()
+					+ " segment(s) in " + this.directory);
+		}
+	}
+
+	private void replay(MappedFileSegment segment) {
+		ByteBuffer view = segment.view();
+		int capacity = view.capacity();
+		int position = 0;
+		CRC32 crc = new CRC32();
+		while (capacity - position >= FRAME_HEADER_SIZE + RECORD_HEADER_SIZE) {
+			int length = view.getInt(position);
+			if (length < RECORD_HEADER_SIZE || length > capacity - position - FRAME_HEADER_SIZE) {
+				// the end of the written records, or a torn write
+				break;
+			}
+			ByteBuffer content = view.duplicate();
+			content.limit(position + FRAME_HEADER_SIZE + length);
+			content.position(position + FRAME_HEADER_SIZE);
+			crc.reset();
+			crc.update(content);
+			if ((int) crc.getValue() != view.getInt(position + Integer.BYTES)) {
+				this.logger.warn("Corrupted record at offset " + position + " of " + segment
+						+ ", ignoring the rest of the segment");
+				break;
+			}
+			apply(segment, view, position, FRAME_HEADER_SIZE + length);
+			position += FRAME_HEADER_SIZE + length;
+		}
+		segment.setPosition(position);
+	}
+
+	private void apply(MappedFileSegment segment, ByteBuffer view, int offset, int size) {
+		int position = offset + FRAME_HEADER_SIZE;
+		byte type = view.get(position);
+		long timestamp = view.getLong(position + 1);
+		int groupNumber = view.getInt(position + 9);
+		position += RECORD_HEADER_SIZE;
+		this.nextGroupNumber = Math.max(this.nextGroupNumber, groupNumber + 1);
+		if (type == REMOVE_GROUP) {
+			GroupState group = this.groupsByNumber.remove(groupNumber);
+			if (group != null) {
+				release(group);
+				if (group.groupId != null) {
+					this.groups.remove(group.groupId);
+				}
+			}
+			return;
+		}
+		GroupState group =
+				this.groupsByNumber.computeIfAbsent(groupNumber, number -> new GroupState(number, this.priorityEnabled));
+		group.lastModified = Math.max(group.lastModified, timestamp);
+		if (type == SNAPSHOT) {
+			group.timestamp = view.getLong(position);
+			group.complete = view.get(position + 8) != 0;
+			group.lastReleased = view.getInt(position + 9);
+			if (group.groupId == null) {
+				int idOffset = position + SNAPSHOT_HEADER_SIZE;
+				group.groupIdBytes = segment.read(idOffset, offset + size - idOffset);
+				group.groupId = this.deserializer.convert(group.groupIdBytes);
+				this.groups.put(group.groupId, group);
+			}
+			releaseSnapshot(group);
+			group.snapshotSegment = segment;
+			group.snapshotSize = size;
+			segment.addLiveBytes(size);
+		}
+		else if (type == ADD) {
+			long sequence = view.getLong(position);
+			UUID id = new UUID(view.getLong(position + 8), view.getLong(position + 16));
+			Integer priority = view.get(position + 24) != 0 ? view.getInt(position + 25) : null;
+			this.nextSequence = Math.max(this.nextSequence, sequence + 1);
+			segment.addLiveBytes(size);
+			release(group.put(new MessageEntry(id, sequence, priority, segment, offset, size)));
+		}
+		else if (type == REMOVE) {
+			release(group.remove(new UUID(view.getLong(position), view.getLong(position + 8))));
+		}
+		else {
+			this.logger.warn("Unknown record type " + type + " at offset " + offset + " of " + segment);
+		}
+	}
+
+	/**
+	 * The policy for forcing the appended records to the storage device.
+	 */
+	public enum SyncPolicy {
+
+		/**
+		 * Force the log before each store operation returns.
+		 */
+		EVERY_WRITE,
+
+		/**
+		 * Force the log before each store operation returns, sharing a single force
+		 * between the concurrent operations.
+		 */
+		GROUP_COMMIT,
+
+		/**
+		 * Force the log periodically in the background; the operations since the last
+		 * sync can be lost on a system crash (not on a process crash).
+		 */
+		INTERVAL
+
+	}
+
+	private static final class MessageEntry {
+
+		private final UUID id;
+
+		private final long sequence;
+
+		private final Integer priority;
+
+		private final int recordSize;
+
+		private MappedFileSegment segment;
+
+		private int offset;
+
+		MessageEntry(UUID id, long sequence, Integer priority, MappedFileSegment segment, int offset,
+				int recordSize) {
+
+			this.id = id;
+			this.sequence = sequence;
+			this.priority = priority;
+			this.segment = segment;
+			this.offset = offset;
+			this.recordSize = recordSize;
+		}
+
+	}
+
+	private static final class GroupState {
+
+		private final int number;
+
+		private final NavigableMap<Long, MessageEntry> bySequence = new TreeMap<>();
+
+		private final Map<UUID, MessageEntry> byId = new HashMap<>();
+
+		private final NavigableSet<MessageEntry> byPriority;
+
+		private Object groupId;
+
+		private byte[] groupIdBytes;
+
+		private long timestamp;
+
+		private long lastModified;
+
+		private boolean complete;
+
+		private int lastReleased;
+
+		private MappedFileSegment snapshotSegment;
+
+		private int snapshotSize;
+
+		GroupState(int number, boolean priorityEnabled) {
+			this.number = number;
+			this.byPriority = priorityEnabled ? new TreeSet<>(PRIORITY_ORDER) : null;
+		}
+
+		MessageEntry put(MessageEntry entry) {
+			MessageEntry replaced = remove(entry.id);
+			this.byId.put(entry.id, entry);
+			this.bySequence.put(entry.sequence, entry);
+			if (this.byPriority != null) {
+				this.byPriority.add(entry);
+			}
+			return replaced;
+		}
+
+		MessageEntry remove(UUID id) {
+			MessageEntry entry = this.byId.remove(id);
+			if (entry != null) {
+				this.bySequence.remove(entry.sequence);
+				if (this.byPriority != null) {
+					this.byPriority.remove(entry);
+				}
+			}
+			return entry;
+		}
+
+		MessageEntry next() {
+			if (this.byPriority != null) {
+				return this.byPriority.isEmpty() ? null : this.byPriority.first();
+			}
+			Map.Entry<Long, MessageEntry> first = this.bySequence.firstEntry();
+			return first != null ? first.getValue() : null;
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.util.Assert;
+
+/**
+ * A fixed-size, memory-mapped segment file of the {@link MappedFileMessageStore} append
+ * log. Records are framed by their length, which is written after the record content,
+ * so a record torn by a crash reads as the end of the segment. The appends are not
+ * thread safe and are serialized by the store; the reads use independent buffer views.
+ *
+ * @since 5.1
+ */
+final class MappedFileSegment {
+
+	static final String FILE_SUFFIX = ".log";
+
+	private final long index;
+
+	private final File file;
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buffer;
+
+	private int position;
+
+	private long liveBytes;
+
+	private MappedFileSegment(long index, File file, int size) throws IOException {
+		this.index = index;
+		this.file = file;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+	}
+
+	static MappedFileSegment create(File directory, long index, int size) throws IOException {
+		return new MappedFileSegment(index, new File(directory, String.format("%020d", index) + FILE_SUFFIX), size);
+	}
+
+	static MappedFileSegment open(File file) throws IOException {
+		long length = file.length();
+		Assert.state(length <= Integer.MAX_VALUE, () -> "The segment file is too large: " + file);
+		String name = file.getName();
+		long index = Long.parseLong(name.substring(0, name.length() - FILE_SUFFIX.length()));
+		return new MappedFileSegment(index, file, (int) length);
+	}
+
+	static boolean isSegmentFile(File directory, String name) {
+		return name.endsWith(FILE_SUFFIX)
+				&& name.substring(0, name.length() - FILE_SUFFIX.length()).chars().allMatch(Character::isDigit);
+	}
+
+	long getIndex() {
+		return this.index;
+	}
+
+	int getPosition() {
+		return this.position;
+	}
+
+	void setPosition(int position) {
+		this.position = position;
+	}
+
+	int getRemaining() {
+		return this.buffer.capacity() - this.position;
+	}
+
+	long getLiveBytes() {
+		return this.liveBytes;
+	}
+
+	void addLiveBytes(int bytes) {
+		this.liveBytes += bytes;
+	}
+
+	/**
+	 * Write the framed record at the current position; the length prefix is written last.
+	 * @param record the record, starting with its length.
+	 * @return the offset of the record.
+	 */
+	int append(byte[] record) {
+		int offset = this.position;
+		ByteBuffer target = this.buffer.duplicate();
+		target.position(offset + Integer.BYTES);
+		target.put(record, Integer.BYTES, record.length - Integer.BYTES);
+		this.buffer.putInt(offset, ByteBuffer.wrap(record).getInt());
+		this.position += record.length;
+		return offset;
+	}
+
+	byte[] read(int offset, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer source = this.buffer.duplicate();
+		source.position(offset);
+		source.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Return an independent view of the whole mapped segment, for the recovery scan.
+	 * @return the view.
+	 */
+	ByteBuffer view() {
+		return this.buffer.duplicate();
+	}
+
+	void force() {
+		this.buffer.force();
+	}
+
+	void close() {
+		try {
+			this.channel.close();
+		}
+		catch (IOException e) {
+			// ignored
+		}
+	}
+
+	/**
+	 * Close and delete the segment file. The mapping itself is released when the
+	 * buffer is garbage collected.
+	 * @return true if the file was deleted.
+	 */
+	boolean delete() {
+		close();
+		return this.file.delete();
+	}
+
+	@Override
+	public String toString() {
+		return "MappedFileSegment [file=" + this.file + ", position=" + this.position + ", liveBytes="
+				+ this.liveBytes + "]";
+	}
+
+}
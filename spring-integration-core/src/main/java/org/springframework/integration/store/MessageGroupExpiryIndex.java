@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A time-ordered index of message group ids, keyed by the timestamp the group timeout
+ * is counted from. Lets a store find the groups due for expiry without visiting all the
+ * groups. Updates for the same group are expected to be serialized by the caller
+ * (typically under the group lock); stale entries left by racing updates are purged
+ * lazily.
+ *
+ * @since 5.1
+ */
+final class MessageGroupExpiryIndex {
+
+	private static final Comparator<Entry> ENTRY_COMPARATOR =
+			Comparator.<Entry>comparingLong(entry -> entry.timestamp)
+					.thenComparingLong(entry -> entry.sequence);
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(ENTRY_COMPARATOR);
+
+	private final ConcurrentMap<Object, Entry> entriesByGroupId = new ConcurrentHashMap<>();
+
+	/**
+	 * Add the group to the index, or move it if its timestamp has changed.
+	 * @param groupId the group id.
+	 * @param timestamp the timestamp.
+	 */
+	void put(Object groupId, long timestamp) {
+		Entry existing = this.entriesByGroupId.get(groupId);
+		if (existing != null && existing.timestamp == timestamp) {
+			return;
+		}
+		Entry entry = new Entry(groupId, timestamp, this.sequence.incrementAndGet());
+		// map first: an entry found in the set but not in the map is considered stale
+		Entry previous = this.entriesByGroupId.put(groupId, entry);
+		this.entries.add(entry);
+		if (previous != null) {
+			this.entries.remove(previous);
+		}
+	}
+
+	void remove(Object groupId) {
+		Entry entry = this.entriesByGroupId.remove(groupId);
+		if (entry != null) {
+			this.entries.remove(entry);
+		}
+	}
+
+	void clear() {
+		this.entriesByGroupId.clear();
+		this.entries.clear();
+	}
+
+	int size() {
+		return this.entriesByGroupId.size();
+	}
+
+	/**
+	 * Return the ids of the groups with a timestamp less than or equal to the threshold,
+	 * oldest first.
+	 * @param threshold the threshold.
+	 * @return the group ids.
+	 */
+	List<Object> getGroupIdsUntil(long threshold) {
+		List<Object> groupIds = new ArrayList<>();
+		for (Entry entry : this.entries.headSet(new Entry(null, threshold, Long.MAX_VALUE), true)) {
+			if (this.entriesByGroupId.get(entry.groupId) == entry) {
+				groupIds.add(entry.groupId);
+			}
+			else {
+				this.entries.remove(entry);
+			}
+		}
+		return groupIds;
+	}
+
+	private static final class Entry {
+
+		private final Object groupId;
+
+		private final long timestamp;
+
+		private final long sequence;
+
+		Entry(Object groupId, long timestamp, long sequence) {
+			this.groupId = groupId;
+			this.timestamp = timestamp;
+			this.sequence = sequence;
+		}
+
+	}
+
+}
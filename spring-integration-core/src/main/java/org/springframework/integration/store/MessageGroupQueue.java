@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -201,10 +201,10 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		try {
 			storeLock.lockInterruptibly();
 			try {
-				Message<?> message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
-				for (int i = 0; i < maxElements && message != null; i++) {
+				Message<?> message;
+				while (list.size() < maxElements
+						&& (message = this.messageGroupStore.pollMessageFromGroup(this.groupId)) != null) {
 					list.add(message);
-					message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
 				}
 				this.messageStoreNotFull.signal();
 			}
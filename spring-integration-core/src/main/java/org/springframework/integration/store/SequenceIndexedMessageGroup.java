@@ -0,0 +1,358 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.messaging.Message;
+
+/**
+ * A compact {@link SimpleMessageGroup} for sequences of messages (e.g. a splitter
+ * fan-out or a resequencer window): messages are held in a growable ring of slots indexed
+ * by their {@link IntegrationMessageHeaderAccessor#SEQUENCE_NUMBER sequence number} and
+ * their arrival is tracked in a {@link BitSet}, instead of hashed collections.
+ * <p>
+ * Duplicate detection ({@link #containsSequence(Integer)}) is O(1), while locating the
+ * first buffered sequence number and measuring a contiguous run of sequence numbers are
+ * O(words) bitmap scans. The {@link #getMessages()} view is ordered by sequence number.
+ * The index starts at the sequence number of the first message added to an empty group
+ * and spans a window of at most {@value #MAX_WINDOW} sequence numbers; it is shifted
+ * down when a lower sequence number arrives (as long as the window allows it) and up
+ * when the leading slots have been released (e.g. by a resequencer), so that its size
+ * follows the buffered sequence numbers rather than their values.
+ * <p>
+ * Messages without a positive sequence number, further messages with an already indexed
+ * sequence number and messages outside of the index window are kept in a plain overflow
+ * list.
+ *
+ * @since 5.1
+ *
+ * @see SimpleMessageGroupFactory.GroupType#SEQUENCE_INDEXED
+ */
+public class SequenceIndexedMessageGroup extends SimpleMessageGroup {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	private static final int MAX_WINDOW = 1 << 16;
+
+	private final Collection<Message<?>> messagesView = new MessagesView();
+
+	private BitSet arrived = new BitSet();
+
+	private Message<?>[] indexed;
+
+	/**
+	 * The number of sequence numbers before the first slot: slot {@code i} holds the
+	 * message with the sequence number {@code base + i + 1}.
+	 */
+	private int base;
+
+	private int indexedCount;
+
+	private List<Message<?>> overflow;
+
+	public SequenceIndexedMessageGroup(Object groupId) {
+		this(Collections.emptyList(), groupId);
+	}
+
+	public SequenceIndexedMessageGroup(Collection<? extends Message<?>> messages, Object groupId) {
+		this(messages, groupId, System.currentTimeMillis(), false);
+	}
+
+	public SequenceIndexedMessageGroup(Collection<? extends Message<?>> messages, Object groupId, long timestamp,
+			boolean complete) {
+
+		super(Collections.emptyList(), null, groupId, timestamp, complete, true);
+		this.indexed = new Message<?>[Math.min(Math.max(messages.size(), DEFAULT_INITIAL_CAPACITY), MAX_WINDOW)];
+		for (Message<?> message : messages) {
+			if (message != null) {
+				add(message);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void add(Message<?> messageToAdd) {
+		int sequence = sequenceNumber(messageToAdd);
+		if (sequence > 0) {
+			if (this.indexedCount == 0) {
+				this.base = sequence - 1;
+				presize(messageToAdd);
+			}
+			else if (sequence <= this.base) {
+				rebaseBelow(sequence);
+			}
+		}
+		int slot = sequence - this.base - 1;
+		if (sequence > 0 && slot >= 0 && slot < MAX_WINDOW && !this.arrived.get(slot)) {
+			ensureCapacity(slot + 1);
+			this.indexed[slot] = messageToAdd;
+			this.arrived.set(slot);
+			this.indexedCount++;
+		}
+		else {
+			if (this.overflow == null) {
+				this.overflow = new ArrayList<>();
+			}
+			this.overflow.add(messageToAdd);
+		}
+	}
+
+	@Override
+	public synchronized boolean remove(Message<?> message) {
+		int sequence = sequenceNumber(message);
+		int slot = sequence - this.base - 1;
+		if (sequence > 0 && slot >= 0 && this.arrived.get(slot) && this.indexed[slot].equals(message)) {
+			this.indexed[slot] = null;
+			this.arrived.clear(slot);
+			this.indexedCount--;
+			if (!promoteDuplicate(sequence, slot)) {
+				shiftIfReleased(slot);
+			}
+			return true;
+		}
+		return this.overflow != null && this.overflow.remove(message);
+	}
+
+	@Override
+	public Collection<Message<?>> getMessages() {
+		return this.messagesView;
+	}
+
+	@Override
+	public synchronized int size() {
+		return this.indexedCount + (this.overflow != null ? this.overflow.size() : 0);
+	}
+
+	@Override
+	public synchronized Message<?> getOne() {
+		if (this.overflow != null && !this.overflow.isEmpty()) {
+			Message<?> first = this.overflow.get(0);
+			if (sequenceNumber(first) <= this.base + 1 || this.indexedCount == 0) {
+				return first;
+			}
+		}
+		int first = this.arrived.nextSetBit(0);
+		return first >= 0 ? this.indexed[first] : null;
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.base += this.arrived.length();
+		this.indexed = new Message<?>[DEFAULT_INITIAL_CAPACITY];
+		this.arrived = new BitSet();
+		this.indexedCount = 0;
+		this.overflow = null;
+	}
+
+	@Override
+	public synchronized boolean containsSequence(Integer sequence) {
+		int number = sequence != null ? sequence : 0;
+		if (number > this.base && this.arrived.get(number - this.base - 1)) {
+			return true;
+		}
+		return this.overflow != null && this.overflow.stream()
+				.anyMatch(message -> sequenceNumber(message) == number);
+	}
+
+	/**
+	 * Return the lowest sequence number in the group; the same as the sequence number of the
+	 * minimum message according to the
+	 * {@link org.springframework.integration.aggregator.MessageSequenceComparator}.
+	 * @return the sequence number or 0 if the group is empty.
+	 */
+	public synchronized int getFirstSequenceNumber() {
+		int firstSlot = this.arrived.nextSetBit(0);
+		int first = firstSlot >= 0 ? this.base + firstSlot + 1 : Integer.MAX_VALUE;
+		if (this.overflow != null) {
+			for (Message<?> message : this.overflow) {
+				first = Math.min(first, sequenceNumber(message));
+			}
+		}
+		return first != Integer.MAX_VALUE ? first : 0;
+	}
+
+	/**
+	 * Return the number of consecutive sequence numbers present in the index, starting
+	 * with the provided one.
+	 * @param fromSequenceNumber the first sequence number of the run (1-based).
+	 * @return the length of the contiguous run; 0 if the provided sequence number is not
+	 * indexed.
+	 */
+	public synchronized int getContiguousSequenceCount(int fromSequenceNumber) {
+		int slot = fromSequenceNumber - this.base - 1;
+		if (fromSequenceNumber <= 0 || slot < 0 || !this.arrived.get(slot)) {
+			return 0;
+		}
+		return this.arrived.nextClearBit(slot) - slot;
+	}
+
+	/**
+	 * Return the indexed messages for a range of sequence numbers, in order; absent
+	 * sequence numbers are skipped. Only the requested slots are visited.
+	 * @param fromSequenceNumber the first sequence number (1-based).
+	 * @param count the number of sequence numbers.
+	 * @return the messages.
+	 */
+	public synchronized List<Message<?>> getMessages(int fromSequenceNumber, int count) {
+		List<Message<?>> messages = new ArrayList<>(count);
+		int from = Math.max(fromSequenceNumber - this.base - 1, 0);
+		int to = Math.min(fromSequenceNumber - this.base - 1 + count, this.indexed.length);
+		for (int i = from; i < to; i++) {
+			if (this.indexed[i] != null) {
+				messages.add(this.indexed[i]);
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * Return true if all the messages of the group are held in the sequence number index,
+	 * i.e. there are no unsequenced, duplicate or out of window messages.
+	 * @return true if the group has no overflow messages.
+	 */
+	public synchronized boolean isFullyIndexed() {
+		return this.overflow == null || this.overflow.isEmpty();
+	}
+
+	private void presize(Message<?> message) {
+		Integer sequenceSize = message.getHeaders().get(IntegrationMessageHeaderAccessor.SEQUENCE_SIZE, Integer.class);
+		if (sequenceSize != null && sequenceSize > this.indexed.length) {
+			this.indexed = new Message<?>[Math.min(sequenceSize, MAX_WINDOW)];
+		}
+	}
+
+	/**
+	 * Grow the index up to the window size; the slot count is never above it.
+	 */
+	private void ensureCapacity(int slots) {
+		int length = this.indexed.length;
+		if (slots > length) {
+			int newLength = Math.min(Math.max(slots, length + (length >> 1)), MAX_WINDOW);
+			this.indexed = Arrays.copyOf(this.indexed, newLength);
+		}
+	}
+
+	/**
+	 * Shift the index down so that it starts below the provided sequence number, when the
+	 * indexed messages stay within the window; some slack is left below that sequence
+	 * number so that a descending arrival order doesn't shift the index on each message.
+	 */
+	private void rebaseBelow(int sequence) {
+		int used = this.arrived.length();
+		int lowest = this.base + used - MAX_WINDOW;
+		if (sequence - 1 < lowest) {
+			return;
+		}
+		int newBase = Math.max(Math.max(sequence - 1 - Math.max(used >> 1, DEFAULT_INITIAL_CAPACITY), 0), lowest);
+		int shift = this.base - newBase;
+		Message<?>[] newIndexed = new Message<?>[Math.min(Math.max(this.indexed.length, used + shift), MAX_WINDOW)];
+		System.arraycopy(this.indexed, 0, newIndexed, shift, used);
+		BitSet newArrived = new BitSet(used + shift);
+		for (int i = this.arrived.nextSetBit(0); i >= 0; i = this.arrived.nextSetBit(i + 1)) {
+			newArrived.set(i + shift);
+		}
+		this.indexed = newIndexed;
+		this.arrived = newArrived;
+		this.base = newBase;
+	}
+
+	private boolean promoteDuplicate(int sequence, int slot) {
+		if (this.overflow != null) {
+			Iterator<Message<?>> iterator = this.overflow.iterator();
+			while (iterator.hasNext()) {
+				Message<?> message = iterator.next();
+				if (sequenceNumber(message) == sequence) {
+					iterator.remove();
+					this.indexed[slot] = message;
+					this.arrived.set(slot);
+					this.indexedCount++;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Shift (and shrink) the index when at least half of the slots precede the first
+	 * buffered message; the copy is amortized over the removals which released those slots.
+	 */
+	private void shiftIfReleased(int removedSlot) {
+		int first = this.arrived.nextSetBit(0);
+		int shift = first >= 0 ? first : removedSlot + 1;
+		if (shift > 0 && shift >= this.indexed.length >> 1) {
+			int length = Math.max(this.indexed.length - shift, DEFAULT_INITIAL_CAPACITY);
+			this.indexed = Arrays.copyOfRange(this.indexed, shift, shift + length);
+			this.arrived = this.arrived.get(shift, Math.max(shift, this.arrived.length()));
+			this.base += shift;
+		}
+	}
+
+	private synchronized List<Message<?>> snapshot() {
+		List<Message<?>> messages = new ArrayList<>(size());
+		for (int i = this.arrived.nextSetBit(0); i >= 0; i = this.arrived.nextSetBit(i + 1)) {
+			messages.add(this.indexed[i]);
+		}
+		if (this.overflow != null) {
+			messages.addAll(this.overflow);
+		}
+		return messages;
+	}
+
+	private static int sequenceNumber(Message<?> message) {
+		Integer sequence = message.getHeaders().get(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, Integer.class);
+		return sequence != null ? sequence : 0;
+	}
+
+	@Override
+	public String toString() {
+		return "SequenceIndexedMessageGroup{" +
+				"groupId=" + getGroupId() +
+				", messages=" + this.messagesView +
+				", timestamp=" + getTimestamp() +
+				", lastModified=" + getLastModified() +
+				'}';
+	}
+
+	/**
+	 * An unmodifiable view over the group; iteration is performed on a snapshot,
+	 * in sequence number order.
+	 */
+	private final class MessagesView extends AbstractCollection<Message<?>> {
+
+		@Override
+		public Iterator<Message<?>> iterator() {
+			return Collections.unmodifiableList(snapshot()).iterator();
+		}
+
+		@Override
+		public int size() {
+			return SequenceIndexedMessageGroup.this.size();
+		}
+
+	}
+
+}
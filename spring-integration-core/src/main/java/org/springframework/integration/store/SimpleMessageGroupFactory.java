@@ -28,6 +28,7 @@ import org.springframework.messaging.Message;
  * The {@link MessageGroupFactory} implementation to produce {@link SimpleMessageGroup} instances.
  * The {@link GroupType} modificator specifies the internal collection for the {@link SimpleMessageGroup}.
  * The {@link GroupType#HASH_SET} is the default type.
+ * The {@link GroupType#SEQUENCE_INDEXED} produces a {@link SequenceIndexedMessageGroup} instead.
  *
  * @author Artem Bilan
  *
@@ -59,6 +60,9 @@ public class SimpleMessageGroupFactory implements MessageGroupFactory {
 	public MessageGroup create(Collection<? extends Message<?>> messages, Object groupId, long timestamp,
 			boolean complete) {
 
+		if (GroupType.SEQUENCE_INDEXED.equals(this.type)) {
+			return new SequenceIndexedMessageGroup(messages, groupId, timestamp, complete);
+		}
 		return new SimpleMessageGroup(this.type.get(), messages, groupId, timestamp, complete, false);
 	}
 
@@ -129,6 +133,20 @@ public class SimpleMessageGroupFactory implements MessageGroupFactory {
 				return HASH_SET.get();
 			}
 
+		},
+
+		/**
+		 * Produce a {@link SequenceIndexedMessageGroup}: a compact group indexed by the
+		 * messages sequence numbers.
+		 * @since 5.1
+		 */
+		SEQUENCE_INDEXED {
+
+			@Override
+			Collection<Message<?>> get() {
+				return HASH_SET.get();
+			}
+
 		};
 
 		abstract Collection<Message<?>> get();
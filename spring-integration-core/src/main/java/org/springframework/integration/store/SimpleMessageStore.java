@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,11 @@
 
 package org.springframework.integration.store;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -57,6 +59,8 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	private final ConcurrentMap<Object, UpperBound> groupToUpperBound = new ConcurrentHashMap<Object, UpperBound>();
 
+	private final MessageGroupExpiryIndex expiryIndex = new MessageGroupExpiryIndex();
+
 	private final int groupCapacity;
 
 	private final int individualCapacity;
@@ -162,6 +166,15 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		this.lockRegistry = lockRegistry;
 	}
 
+	@Override
+	public void setTimeoutOnIdle(boolean timeoutOnIdle) {
+		super.setTimeoutOnIdle(timeoutOnIdle);
+		this.expiryIndex.clear();
+		for (MessageGroup group : this.groupIdToMessageGroup.values()) {
+			index(group);
+		}
+	}
+
 	@Override
 	public void setLazyLoadMessageGroups(boolean lazyLoadMessageGroups) {
 		throw new UnsupportedOperationException("The lazy-load isn't supported for in-memory 'SimpleMessageStore'");
@@ -301,6 +314,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 				}
 
 				group.setLastModified(System.currentTimeMillis());
+				index(group);
 			}
 			finally {
 				if (!unlocked) {
@@ -321,6 +335,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 			lock.lockInterruptibly();
 			try {
 				MessageGroup messageGroup = this.groupIdToMessageGroup.remove(groupId);
+				this.expiryIndex.remove(groupId);
 				if (messageGroup != null) {
 					UpperBound upperBound = this.groupToUpperBound.remove(groupId);
 					Assert.state(upperBound != null, "'upperBound' must not be null.");
@@ -357,6 +372,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 				}
 				if (modified) {
 					group.setLastModified(System.currentTimeMillis());
+					index(group);
 				}
 			}
 			finally {
@@ -369,6 +385,26 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		}
 	}
 
+	private void index(MessageGroup group) {
+		this.expiryIndex.put(group.getGroupId(), getExpiryTimestamp(group));
+	}
+
+	/**
+	 * Return the groups found in the expiry index for the provided threshold, without
+	 * visiting the other groups.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		List<MessageGroup> groups = new ArrayList<>();
+		for (Object groupId : this.expiryIndex.getGroupIdsUntil(threshold)) {
+			MessageGroup group = this.groupIdToMessageGroup.get(groupId);
+			if (group != null) {
+				groups.add(group);
+			}
+		}
+		return groups;
+	}
+
 	@Override
 	public Iterator<MessageGroup> iterator() {
 		return new HashSet<MessageGroup>(this.groupIdToMessageGroup.values()).iterator();
@@ -385,6 +421,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 						"can not be located while attempting to set 'lastReleasedSequenceNumber'");
 				group.setLastReleasedMessageSequenceNumber(sequenceNumber);
 				group.setLastModified(System.currentTimeMillis());
+				index(group);
 			}
 			finally {
 				lock.unlock();
@@ -407,6 +444,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 						"can not be located while attempting to complete the MessageGroup");
 				group.complete();
 				group.setLastModified(System.currentTimeMillis());
+				index(group);
 			}
 			finally {
 				lock.unlock();
@@ -461,6 +499,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 						"can not be located while attempting to complete the MessageGroup");
 				group.clear();
 				group.setLastModified(System.currentTimeMillis());
+				index(group);
 				UpperBound upperBound = this.groupToUpperBound.get(groupId);
 				Assert.state(upperBound != null, "'upperBound' must not be null.");
 				upperBound.release(this.groupCapacity);
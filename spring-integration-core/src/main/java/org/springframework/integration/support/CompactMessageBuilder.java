@@ -0,0 +1,431 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * A message builder producing messages with {@link CompactMessageHeaders}.
+ * <p>
+ * Unlike the {@link MessageBuilder}, the headers of the original message are not
+ * copied: when the original headers are {@link CompactMessageHeaders}, only the
+ * changes made with this builder are stored in the new message; other headers are
+ * copied once into the compact representation. Header names and values are validated
+ * the same way as with the {@link MessageBuilder}.
+ *
+ * @param <T> the payload type.
+ *
+ * @since 5.1
+ *
+ * @see CompactMessageBuilderFactory
+ */
+public final class CompactMessageBuilder<T> extends AbstractIntegrationMessageBuilder<T> {
+
+	private static final Log logger = LogFactory.getLog(CompactMessageBuilder.class);
+
+	private static final int INITIAL_CAPACITY = 4;
+
+	private final T payload;
+
+	private final Message<T> originalMessage;
+
+	private CompactMessageHeaders base;
+
+	private String[] keys;
+
+	private Object[] values;
+
+	private int size;
+
+	private Set<String> readOnlyHeaders;
+
+	private boolean lazyId;
+
+	private boolean modified;
+
+	private CompactMessageBuilder(T payload, @Nullable Message<T> originalMessage) {
+		Assert.notNull(payload, "payload must not be null");
+		this.payload = payload;
+		this.originalMessage = originalMessage;
+		if (originalMessage != null) {
+			this.modified = !payload.equals(originalMessage.getPayload());
+			MessageHeaders headers = originalMessage.getHeaders();
+			if (headers instanceof CompactMessageHeaders) {
+				this.base = (CompactMessageHeaders) headers;
+			}
+			else {
+				this.keys = new String[headers.size()];
+				this.values = new Object[headers.size()];
+				for (Map.Entry<String, Object> entry : headers.entrySet()) {
+					if (!isIdOrTimestamp(entry.getKey()) && entry.getValue() != null) {
+						this.keys[this.size] = entry.getKey();
+						this.values[this.size++] = entry.getValue();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create a builder for a new {@link Message} instance pre-populated with all of the
+	 * headers from the provided message. The payload of the provided Message will also
+	 * be used as the payload for the new message.
+	 * @param message the Message from which the payload and all headers will be taken.
+	 * @param <T> The type of the payload.
+	 * @return A CompactMessageBuilder.
+	 */
+	public static <T> CompactMessageBuilder<T> fromMessage(Message<T> message) {
+		Assert.notNull(message, "'message' must not be null");
+		return new CompactMessageBuilder<>(message.getPayload(), message);
+	}
+
+	/**
+	 * Create a builder for a new {@link Message} instance with the provided payload.
+	 * @param payload the payload for the new message.
+	 * @param <T> The type of the payload.
+	 * @return A CompactMessageBuilder.
+	 */
+	public static <T> CompactMessageBuilder<T> withPayload(T payload) {
+		return new CompactMessageBuilder<>(payload, null);
+	}
+
+	/**
+	 * Specify a list of headers which should be considered as read only
+	 * and prohibited from being populated in the message.
+	 * {@link MessageHeaders#ID} and {@link MessageHeaders#TIMESTAMP} are always read only.
+	 * @param readOnlyHeaders the list of headers for {@code readOnly} mode.
+	 * @return the current {@link CompactMessageBuilder}.
+	 */
+	public CompactMessageBuilder<T> readOnlyHeaders(@Nullable String... readOnlyHeaders) {
+		if (!ObjectUtils.isEmpty(readOnlyHeaders)) {
+			Assert.noNullElements(readOnlyHeaders, "'readOnlyHeaders' must not be contain null items.");
+			this.readOnlyHeaders = new HashSet<>(Arrays.asList(readOnlyHeaders));
+		}
+		else {
+			this.readOnlyHeaders = null;
+		}
+		return this;
+	}
+
+	/**
+	 * Set to true to generate the {@link MessageHeaders#ID} of the built message
+	 * on first access instead of eagerly.
+	 * @param lazyId true to generate the id lazily.
+	 * @return the current {@link CompactMessageBuilder}.
+	 */
+	public CompactMessageBuilder<T> lazyId(boolean lazyId) {
+		this.lazyId = lazyId;
+		return this;
+	}
+
+	@Override
+	public T getPayload() {
+		return this.payload;
+	}
+
+	@Override
+	public Map<String, Object> getHeaders() {
+		Map<String, Object> headers;
+		if (this.base != null) {
+			headers = this.base.collect(this.keys, this.values, this.size);
+		}
+		else {
+			headers = new LinkedHashMap<>();
+			for (int i = 0; i < this.size; i++) {
+				headers.put(this.keys[i], this.values[i]);
+			}
+		}
+		if (this.originalMessage != null) {
+			headers.put(MessageHeaders.ID, this.originalMessage.getHeaders().getId());
+			headers.put(MessageHeaders.TIMESTAMP, this.originalMessage.getHeaders().getTimestamp());
+		}
+		return headers;
+	}
+
+	@Override
+	public CompactMessageBuilder<T> setHeader(String headerName, @Nullable Object headerValue) {
+		Assert.notNull(headerName, "'headerName' must not be null");
+		if (isReadOnly(headerName)) {
+			throw new IllegalArgumentException("'" + headerName + "' header is read-only");
+		}
+		if (headerValue == null) {
+			return removeHeader(headerName);
+		}
+		verifyType(headerName, headerValue);
+		put(headerName, headerValue);
+		return this;
+	}
+
+	@Override
+	public CompactMessageBuilder<T> setHeaderIfAbsent(String headerName, Object headerValue) {
+		if (lookup(headerName) == null) {
+			setHeader(headerName, headerValue);
+		}
+		return this;
+	}
+
+	@Override
+	public CompactMessageBuilder<T> removeHeaders(String... headerPatterns) {
+		for (String pattern : headerPatterns) {
+			if (StringUtils.hasLength(pattern)) {
+				if (pattern.contains("*")) {
+					for (String headerName : getHeaders().keySet()) {
+						if (PatternMatchUtils.simpleMatch(pattern, headerName)) {
+							removeHeader(headerName);
+						}
+					}
+				}
+				else {
+					removeHeader(pattern);
+				}
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompactMessageBuilder<T> removeHeader(String headerName) {
+		if (!StringUtils.hasLength(headerName)) {
+			return this;
+		}
+		if (isReadOnly(headerName)) {
+			if (logger.isInfoEnabled()) {
+				logger.info("The header [" + headerName + "] is ignored for removal because it is is readOnly.");
+			}
+		}
+		else {
+			doRemove(headerName);
+		}
+		return this;
+	}
+
+	@Override
+	public CompactMessageBuilder<T> copyHeaders(@Nullable Map<String, ?> headersToCopy) {
+		if (headersToCopy != null && !adopt(headersToCopy)) {
+			for (Map.Entry<String, ?> entry : headersToCopy.entrySet()) {
+				if (!isReadOnly(entry.getKey())) {
+					setHeader(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompactMessageBuilder<T> copyHeadersIfAbsent(@Nullable Map<String, ?> headersToCopy) {
+		if (headersToCopy != null && !adopt(headersToCopy)) {
+			for (Map.Entry<String, ?> entry : headersToCopy.entrySet()) {
+				String headerName = entry.getKey();
+				if (!isReadOnly(headerName)) {
+					setHeaderIfAbsent(headerName, entry.getValue());
+				}
+			}
+		}
+		return this;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected List<List<Object>> getSequenceDetails() {
+		return (List<List<Object>>) lookup(IntegrationMessageHeaderAccessor.SEQUENCE_DETAILS);
+	}
+
+	@Override
+	protected Object getCorrelationId() {
+		return lookup(IntegrationMessageHeaderAccessor.CORRELATION_ID);
+	}
+
+	@Override
+	protected Object getSequenceNumber() {
+		return lookup(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER);
+	}
+
+	@Override
+	protected Object getSequenceSize() {
+		return lookup(IntegrationMessageHeaderAccessor.SEQUENCE_SIZE);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Message<T> build() {
+		boolean readOnlyPresent = removeReadOnlyHeaders();
+		if (!this.modified && !readOnlyPresent && this.originalMessage != null) {
+			return this.originalMessage;
+		}
+		CompactMessageHeaders headers =
+				new CompactMessageHeaders(this.base, this.keys, this.values, this.size, this.lazyId);
+		if (this.payload instanceof Throwable) {
+			return (Message<T>) new ErrorMessage((Throwable) this.payload, headers);
+		}
+		return new GenericMessage<>(this.payload, headers);
+	}
+
+	/**
+	 * When nothing has been set yet, use the provided {@link CompactMessageHeaders} as
+	 * the base of the new headers instead of copying them.
+	 * @param headersToCopy the headers to copy.
+	 * @return true if the headers have been adopted.
+	 */
+	private boolean adopt(Map<String, ?> headersToCopy) {
+		if (headersToCopy instanceof CompactMessageHeaders && this.base == null && this.size == 0
+				&& this.readOnlyHeaders == null) {
+			this.base = (CompactMessageHeaders) headersToCopy;
+			this.modified = true;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean removeReadOnlyHeaders() {
+		boolean removed = false;
+		if (this.readOnlyHeaders != null) {
+			for (String headerName : this.readOnlyHeaders) {
+				if (!isIdOrTimestamp(headerName) && lookup(headerName) != null) {
+					doRemove(headerName);
+					removed = true;
+				}
+			}
+		}
+		return removed;
+	}
+
+	private void doRemove(String headerName) {
+		if (this.base != null && this.base.contains(headerName)) {
+			put(headerName, CompactMessageHeaders.REMOVED);
+		}
+		else {
+			int index = indexOf(headerName);
+			if (index >= 0) {
+				this.size--;
+				System.arraycopy(this.keys, index + 1, this.keys, index, this.size - index);
+				System.arraycopy(this.values, index + 1, this.values, index, this.size - index);
+				this.keys[this.size] = null;
+				this.values[this.size] = null;
+				this.modified = true;
+			}
+		}
+	}
+
+	@Nullable
+	private Object lookup(String headerName) {
+		int index = indexOf(headerName);
+		if (index >= 0) {
+			Object value = this.values[index];
+			return value == CompactMessageHeaders.REMOVED ? null : value;
+		}
+		else if (this.base != null) {
+			return this.base.get(headerName);
+		}
+		else if (this.originalMessage != null && isIdOrTimestamp(headerName)) {
+			return this.originalMessage.getHeaders().get(headerName);
+		}
+		return null;
+	}
+
+	private void put(String headerName, Object headerValue) {
+		int index = indexOf(headerName);
+		if (index >= 0) {
+			if (!ObjectUtils.nullSafeEquals(this.values[index], headerValue)) {
+				this.values[index] = headerValue;
+				this.modified = true;
+			}
+			return;
+		}
+		if (this.base != null && ObjectUtils.nullSafeEquals(this.base.get(headerName), headerValue)) {
+			return;
+		}
+		if (this.keys == null) {
+			this.keys = new String[INITIAL_CAPACITY];
+			this.values = new Object[INITIAL_CAPACITY];
+		}
+		else if (this.size == this.keys.length) {
+			int capacity = Math.max(INITIAL_CAPACITY, this.size * 2);
+			this.keys = Arrays.copyOf(this.keys, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+		this.keys[this.size] = headerName;
+		this.values[this.size++] = headerValue;
+		this.modified = true;
+	}
+
+	private int indexOf(String headerName) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.keys[i].equals(headerName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean isReadOnly(String headerName) {
+		return isIdOrTimestamp(headerName)
+				|| (this.readOnlyHeaders != null && this.readOnlyHeaders.contains(headerName));
+	}
+
+	private static boolean isIdOrTimestamp(String headerName) {
+		return MessageHeaders.ID.equals(headerName) || MessageHeaders.TIMESTAMP.equals(headerName);
+	}
+
+	private static void verifyType(String headerName, Object headerValue) {
+		if (MessageHeaders.ERROR_CHANNEL.equals(headerName) || MessageHeaders.REPLY_CHANNEL.equals(headerName)) {
+			if (!(headerValue instanceof MessageChannel || headerValue instanceof String)) {
+				throw new IllegalArgumentException(
+						"'" + headerName + "' header value must be a MessageChannel or String");
+			}
+		}
+		else if (IntegrationMessageHeaderAccessor.EXPIRATION_DATE.equals(headerName)) {
+			Assert.isTrue(headerValue instanceof Date || headerValue instanceof Long, "The '" + headerName
+					+ "' header value must be a Date or Long.");
+		}
+		else if (IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER.equals(headerName)
+				|| IntegrationMessageHeaderAccessor.SEQUENCE_SIZE.equals(headerName)
+				|| IntegrationMessageHeaderAccessor.PRIORITY.equals(headerName)) {
+			Assert.isTrue(headerValue instanceof Number, "The '" + headerName
+					+ "' header value must be a Number.");
+		}
+		else if (IntegrationMessageHeaderAccessor.ROUTING_SLIP.equals(headerName)) {
+			Assert.isTrue(headerValue instanceof Map, "The '" + headerName
+					+ "' header value must be a Map.");
+		}
+		else if (IntegrationMessageHeaderAccessor.DUPLICATE_MESSAGE.equals(headerName)) {
+			Assert.isTrue(headerValue instanceof Boolean, "The '" + headerName
+					+ "' header value must be an Boolean.");
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import java.util.Arrays;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+
+/**
+ * A {@link MessageBuilderFactory} producing {@link CompactMessageBuilder}s, so that
+ * messages carry {@link CompactMessageHeaders} and components that only add a few headers
+ * (header enrichers, splitters, etc.) do not copy the whole header map.
+ * <p>
+ * Register an instance with the
+ * {@link org.springframework.integration.support.utils.IntegrationUtils#INTEGRATION_MESSAGE_BUILDER_FACTORY_BEAN_NAME}
+ * bean name to use it instead of the {@link DefaultMessageBuilderFactory}.
+ *
+ * @since 5.1
+ */
+public class CompactMessageBuilderFactory implements MessageBuilderFactory {
+
+	private String[] readOnlyHeaders;
+
+	private boolean lazyId;
+
+	/**
+	 * Specify a list of headers which should be considered as a read only
+	 * and prohibited from the population to the message.
+	 * @param readOnlyHeaders the list of headers for {@code readOnly} mode.
+	 * Defaults to {@link MessageHeaders#ID} and {@link MessageHeaders#TIMESTAMP}.
+	 */
+	public void setReadOnlyHeaders(String... readOnlyHeaders) {
+		this.readOnlyHeaders = Arrays.copyOf(readOnlyHeaders, readOnlyHeaders.length);
+	}
+
+	/**
+	 * Add headers to the configured list of read only headers.
+	 * @param readOnlyHeaders the additional headers.
+	 */
+	public void addReadOnlyHeaders(String... readOnlyHeaders) {
+		String[] headers = this.readOnlyHeaders;
+		if (headers == null || headers.length == 0) {
+			headers = Arrays.copyOf(readOnlyHeaders, readOnlyHeaders.length);
+		}
+		else {
+			headers = Arrays.copyOf(headers, headers.length + readOnlyHeaders.length);
+			System.arraycopy(readOnlyHeaders, 0, headers, this.readOnlyHeaders.length, readOnlyHeaders.length);
+		}
+		this.readOnlyHeaders = headers;
+	}
+
+	/**
+	 * Set to true to generate the {@link MessageHeaders#ID} of the built messages on
+	 * first access instead of when the message is created; useful when most messages
+	 * never have their id read (no message store, history or tracing).
+	 * Default false.
+	 * @param lazyId true to generate ids lazily.
+	 */
+	public void setLazyId(boolean lazyId) {
+		this.lazyId = lazyId;
+	}
+
+	@Override
+	public <T> CompactMessageBuilder<T> fromMessage(Message<T> message) {
+		return CompactMessageBuilder.fromMessage(message)
+				.readOnlyHeaders(this.readOnlyHeaders)
+				.lazyId(this.lazyId);
+	}
+
+	@Override
+	public <T> CompactMessageBuilder<T> withPayload(T payload) {
+		return CompactMessageBuilder.withPayload(payload)
+				.readOnlyHeaders(this.readOnlyHeaders)
+				.lazyId(this.lazyId);
+	}
+
+}
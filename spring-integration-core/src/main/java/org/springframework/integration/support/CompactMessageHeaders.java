@@ -0,0 +1,362 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.MessageHeaders;
+
+/**
+ * A {@link MessageHeaders} implementation that keeps headers in small parallel arrays
+ * instead of a {@link java.util.HashMap}.
+ * <p>
+ * A message built from another message with {@link CompactMessageHeaders} does not copy
+ * the headers: the new instance only records the added, replaced or removed entries
+ * (an overlay) and delegates to the parent headers for the rest. The overlay chain is
+ * flattened once it becomes deeper than {@value #MAX_DEPTH} levels, so lookups stay
+ * bounded on long flows.
+ * <p>
+ * The {@link MessageHeaders#ID} can optionally be generated lazily, on first access;
+ * the {@link MessageHeaders#TIMESTAMP} is always captured when the headers are created,
+ * but is only boxed on access.
+ * <p>
+ * Map views ({@link #entrySet()}, {@link #keySet()}, {@link #values()}) as well as
+ * {@link #equals(Object)}, {@link #hashCode()} and {@link #toString()} materialize
+ * (and cache) a regular map. Note that, since {@link MessageHeaders#equals(Object)}
+ * compares the internal maps, a plain {@link MessageHeaders} is never equal to
+ * {@link CompactMessageHeaders}, while the opposite comparison is based on the entries.
+ * <p>
+ * Instances are serialized as {@link MutableMessageHeaders}, so message stores are not
+ * affected by this representation.
+ *
+ * @since 5.1
+ *
+ * @see CompactMessageBuilder
+ * @see CompactMessageBuilderFactory
+ */
+public final class CompactMessageHeaders extends MessageHeaders {
+
+	private static final long serialVersionUID = 5409342156316536816L;
+
+	/**
+	 * The maximum number of overlay levels before the headers are flattened.
+	 */
+	public static final int MAX_DEPTH = 8;
+
+	static final Object REMOVED = new Object();
+
+	private static final Object NOT_FOUND = new Object();
+
+	private static final String[] NO_KEYS = new String[0];
+
+	private static final Object[] NO_VALUES = new Object[0];
+
+	private final transient CompactMessageHeaders parent;
+
+	private final transient String[] keys;
+
+	private final transient Object[] values;
+
+	private final transient int depth;
+
+	private final transient long timestamp;
+
+	private transient volatile UUID id;
+
+	private transient volatile Map<String, Object> materialized;
+
+	CompactMessageHeaders(@Nullable CompactMessageHeaders parent, String[] keys, Object[] values, int size,
+			boolean lazyId) {
+
+		this(parent, keys, values, size, lazyId ? null : getIdGenerator().generateId(), System.currentTimeMillis());
+	}
+
+	private CompactMessageHeaders(@Nullable CompactMessageHeaders parent, String[] keys, Object[] values, int size,
+			@Nullable UUID id, long timestamp) {
+
+		super(null, ID_VALUE_NONE, -1L);
+		if (parent != null && parent.depth >= MAX_DEPTH) {
+			Map<String, Object> flat = parent.collect(keys, values, size);
+			this.parent = null;
+			this.keys = flat.keySet().toArray(new String[flat.size()]);
+			this.values = flat.values().toArray();
+			this.depth = 0;
+		}
+		else {
+			this.parent = parent;
+			this.keys = size == 0 ? NO_KEYS : copy(keys, new String[size], size);
+			this.values = size == 0 ? NO_VALUES : copy(values, new Object[size], size);
+			this.depth = parent == null ? 0 : parent.depth + 1;
+		}
+		this.id = id;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Return {@link CompactMessageHeaders} with the entries of the provided map.
+	 * If the map is already a {@link CompactMessageHeaders}, it is returned as is;
+	 * otherwise the {@link MessageHeaders#ID} and {@link MessageHeaders#TIMESTAMP} are
+	 * carried over from the map when present (generated lazily or captured otherwise).
+	 * @param headers the headers.
+	 * @return the compact headers.
+	 */
+	public static CompactMessageHeaders from(Map<String, ?> headers) {
+		if (headers instanceof CompactMessageHeaders) {
+			return (CompactMessageHeaders) headers;
+		}
+		String[] keys = new String[headers.size()];
+		Object[] values = new Object[headers.size()];
+		UUID id = null;
+		long timestamp = System.currentTimeMillis();
+		int size = 0;
+		for (Map.Entry<String, ?> entry : headers.entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+			if (ID.equals(key)) {
+				if (value instanceof UUID) {
+					id = (UUID) value;
+				}
+			}
+			else if (TIMESTAMP.equals(key)) {
+				if (value instanceof Long) {
+					timestamp = (Long) value;
+				}
+			}
+			else if (value != null) {
+				keys[size] = key;
+				values[size++] = value;
+			}
+		}
+		return new CompactMessageHeaders(null, keys, values, size, id, timestamp);
+	}
+
+	@Override
+	public UUID getId() {
+		UUID uuid = this.id;
+		if (uuid == null) {
+			synchronized (this) {
+				uuid = this.id;
+				if (uuid == null) {
+					uuid = getIdGenerator().generateId();
+					this.id = uuid;
+				}
+			}
+		}
+		return uuid;
+	}
+
+	@Override
+	public Long getTimestamp() {
+		return this.timestamp;
+	}
+
+	@Override
+	public Object getReplyChannel() {
+		return get(REPLY_CHANNEL);
+	}
+
+	@Override
+	public Object getErrorChannel() {
+		return get(ERROR_CHANNEL);
+	}
+
+	@Override
+	@Nullable
+	public Object get(Object key) {
+		if (ID.equals(key)) {
+			return getId();
+		}
+		else if (TIMESTAMP.equals(key)) {
+			return getTimestamp();
+		}
+		Object value = lookup(key);
+		return value == NOT_FOUND ? null : value;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		Object value = get(key);
+		if (value == null) {
+			return null;
+		}
+		if (!type.isAssignableFrom(value.getClass())) {
+			throw new IllegalArgumentException("Incorrect type specified for header '" +
+					key + "'. Expected [" + type + "] but actual type is [" + value.getClass() + "]");
+		}
+		return (T) value;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return ID.equals(key) || TIMESTAMP.equals(key) || lookup(key) != NOT_FOUND;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return materialize().containsValue(value);
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return materialize().entrySet();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return materialize().keySet();
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return materialize().values();
+	}
+
+	@Override
+	public int size() {
+		return materialize().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+
+	@Override
+	protected Map<String, Object> getRawHeaders() {
+		return materialize();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return this == other || (other instanceof Map && materialize().equals(other));
+	}
+
+	@Override
+	public int hashCode() {
+		return materialize().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return materialize().toString();
+	}
+
+	/**
+	 * Return the number of overlay levels on top of the root headers.
+	 * @return the depth.
+	 */
+	int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * Look up a header, excluding {@link MessageHeaders#ID} and {@link MessageHeaders#TIMESTAMP}.
+	 * @param key the header name.
+	 * @return the value, or {@link #NOT_FOUND}.
+	 */
+	Object lookup(Object key) {
+		CompactMessageHeaders headers = this;
+		while (headers != null) {
+			String[] names = headers.keys;
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(key)) {
+					Object value = headers.values[i];
+					return value == REMOVED ? NOT_FOUND : value;
+				}
+			}
+			headers = headers.parent;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Determine whether the header is present, excluding {@link MessageHeaders#ID} and
+	 * {@link MessageHeaders#TIMESTAMP}.
+	 * @param key the header name.
+	 * @return true if present.
+	 */
+	boolean contains(Object key) {
+		return lookup(key) != NOT_FOUND;
+	}
+
+	/**
+	 * Collect all the headers, excluding {@link MessageHeaders#ID} and
+	 * {@link MessageHeaders#TIMESTAMP}, with the provided overlay applied on top.
+	 * @param overlayKeys the overlay names.
+	 * @param overlayValues the overlay values ({@link #REMOVED} to remove a header).
+	 * @param overlaySize the number of overlay entries.
+	 * @return the map.
+	 */
+	Map<String, Object> collect(String[] overlayKeys, Object[] overlayValues, int overlaySize) {
+		List<CompactMessageHeaders> levels = new ArrayList<>(this.depth + 1);
+		CompactMessageHeaders headers = this;
+		while (headers != null) {
+			levels.add(headers);
+			headers = headers.parent;
+		}
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (int i = levels.size() - 1; i >= 0; i--) {
+			CompactMessageHeaders level = levels.get(i);
+			apply(map, level.keys, level.values, level.keys.length);
+		}
+		apply(map, overlayKeys, overlayValues, overlaySize);
+		return map;
+	}
+
+	private Map<String, Object> materialize() {
+		Map<String, Object> map = this.materialized;
+		if (map == null) {
+			map = collect(NO_KEYS, NO_VALUES, 0);
+			map.put(ID, getId());
+			map.put(TIMESTAMP, getTimestamp());
+			map = Collections.unmodifiableMap(map);
+			this.materialized = map;
+		}
+		return map;
+	}
+
+	private Object writeReplace() {
+		return new MutableMessageHeaders(new LinkedHashMap<>(materialize()));
+	}
+
+	private static void apply(Map<String, Object> map, String[] keys, Object[] values, int size) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == REMOVED) {
+				map.remove(keys[i]);
+			}
+			else {
+				map.put(keys[i], values[i]);
+			}
+		}
+	}
+
+	private static <E> E[] copy(E[] source, E[] target, int size) {
+		System.arraycopy(source, 0, target, 0, size);
+		return target;
+	}
+
+}
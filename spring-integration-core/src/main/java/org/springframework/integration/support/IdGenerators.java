@@ -1,5 +1,5 @@
 /*
- * Copyright 2013-2015 the original author or authors.
+ * Copyright 2013-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.support;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.util.IdGenerator;
@@ -78,4 +79,88 @@ public class IdGenerators {
 
 	}
 
+	/**
+	 * A time-ordered {@link IdGenerator} that does not share any state between threads.
+	 * <p>
+	 * Each id has the layout of a version 7 (Unix epoch time-based) {@link UUID}: the
+	 * most significant bits hold the current time in milliseconds and a per-thread
+	 * sequence within that millisecond; the least significant bits hold a random value
+	 * chosen once per thread. The ids generated on a thread are strictly increasing:
+	 * if the sequence is exhausted within a millisecond (or the clock moves back),
+	 * the time component is advanced past the current time.
+	 * <p>
+	 * Since consecutive ids are close to each other, they also provide a better index
+	 * locality than random {@link UUID}s for message stores that use the id as a key
+	 * (such as the {@code JdbcMessageStore} and {@code JdbcChannelMessageStore}).
+	 * @since 5.1
+	 */
+	public static class ThreadLocalTimeOrderedIdGenerator implements IdGenerator {
+
+		private static final int MAX_SEQUENCE = 0xfff;
+
+		private static final long VERSION = 0x7000L;
+
+		private static final long VARIANT = 0x8000000000000000L;
+
+		private static final long VARIANT_MASK = 0x3fffffffffffffffL;
+
+		private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+		@Override
+		public UUID generateId() {
+			State state = this.state.get();
+			long now = System.currentTimeMillis();
+			if (now > state.time) {
+				state.time = now;
+				state.sequence = 0;
+			}
+			else if (++state.sequence > MAX_SEQUENCE) {
+				state.time++;
+				state.sequence = 0;
+			}
+			return new UUID((state.time << 16) | VERSION | state.sequence, state.node);
+		}
+
+		private static final class State {
+
+			private final long node = (ThreadLocalRandom.current().nextLong() & VARIANT_MASK) | VARIANT;
+
+			private long time;
+
+			private int sequence;
+
+		}
+
+	}
+
+	/**
+	 * A counter-based {@link IdGenerator} producing strictly increasing ids.
+	 * <p>
+	 * The most significant bits are fixed for the generator instance: the creation time
+	 * in milliseconds followed by 16 random bits. The least significant bits are a counter
+	 * incremented with a single atomic operation, starting at a random offset. Unlike the
+	 * {@link SimpleIncrementingIdGenerator}, the ids therefore do not repeat when the
+	 * application is restarted, so this generator can be used with persistent message
+	 * stores.
+	 * @since 5.1
+	 */
+	public static class MonotonicIdGenerator implements IdGenerator {
+
+		private final long mostSignificantBits;
+
+		private final AtomicLong counter;
+
+		public MonotonicIdGenerator() {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			this.mostSignificantBits = (System.currentTimeMillis() << 16) | (random.nextInt() & 0xffff);
+			this.counter = new AtomicLong((random.nextInt() & 0x7fffffffL) << 32);
+		}
+
+		@Override
+		public UUID generateId() {
+			return new UUID(this.mostSignificantBits, this.counter.incrementAndGet());
+		}
+
+	}
+
 }
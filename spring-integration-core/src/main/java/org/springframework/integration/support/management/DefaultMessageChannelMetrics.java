@@ -36,6 +36,12 @@ public class DefaultMessageChannelMetrics extends AbstractMessageChannelMetrics
 
 	public static final int DEFAULT_MOVING_AVERAGE_WINDOW = 10;
 
+	/**
+	 * The context returned from {@link #beforeSend()} when only counts are enabled;
+	 * shared, so that sends on a counting channel do not allocate.
+	 */
+	private static final MetricsContext COUNTS_ONLY_CONTEXT = new DefaultChannelMetricsContext(0);
+
 	protected final ExponentialMovingAverage sendDuration;
 
 	protected final ExponentialMovingAverageRate sendErrorRate;
@@ -101,13 +107,13 @@ public class DefaultMessageChannelMetrics extends AbstractMessageChannelMetrics
 
 	@Override
 	public MetricsContext beforeSend() {
-		long start = 0;
+		this.sendCount.incrementAndGet();
 		if (isFullStatsEnabled()) {
-			start = System.nanoTime();
+			long start = System.nanoTime();
 			this.sendRate.increment(start);
+			return new DefaultChannelMetricsContext(start);
 		}
-		this.sendCount.incrementAndGet();
-		return new DefaultChannelMetricsContext(start);
+		return COUNTS_ONLY_CONTEXT;
 	}
 
 	@Override
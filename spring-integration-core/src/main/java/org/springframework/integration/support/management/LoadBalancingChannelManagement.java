@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.Map;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+
+/**
+ * Per-handler load figures for channels that dispatch each message to one of their
+ * subscribers. Populated when the channel uses a
+ * {@link org.springframework.integration.dispatcher.LoadTrackingLoadBalancingStrategy};
+ * empty otherwise.
+ *
+ * @since 5.1
+ */
+public interface LoadBalancingChannelManagement {
+
+	/**
+	 * The number of messages each subscribed handler is currently handling.
+	 * @return the in-flight counts keyed by handler name.
+	 */
+	@ManagedAttribute(description = "Messages currently being handled, per subscriber")
+	Map<String, Integer> getHandlerInFlightCounts();
+
+	/**
+	 * The moving-average handling time, in milliseconds, of each subscribed handler.
+	 * @return the mean durations keyed by handler name.
+	 */
+	@ManagedAttribute(description = "Moving average handling time in milliseconds, per subscriber")
+	Map<String, Double> getHandlerMeanDurations();
+
+}
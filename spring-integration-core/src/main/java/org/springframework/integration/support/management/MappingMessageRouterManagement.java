@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -86,4 +86,38 @@ public interface MappingMessageRouterManagement {
 	@ManagedAttribute
 	Collection<String> getDynamicChannelNames();
 
+	/**
+	 * Return the number of messages routed with a cached resolution of their type,
+	 * for routers which cache the resolution of channel keys per payload type.
+	 * @return the number of cache hits; 0 if the router has no such cache.
+	 * @since 5.1
+	 */
+	@ManagedAttribute(description = "Number of type resolution cache hits")
+	default long getTypeCacheHits() {
+		return 0;
+	}
+
+	/**
+	 * Return the number of messages for which the type had to be resolved against the
+	 * channel mappings, for routers which cache the resolution of channel keys per
+	 * payload type.
+	 * @return the number of cache misses; 0 if the router has no such cache.
+	 * @since 5.1
+	 */
+	@ManagedAttribute(description = "Number of type resolution cache misses")
+	default long getTypeCacheMisses() {
+		return 0;
+	}
+
+	/**
+	 * Return the number of types currently cached, for routers which cache the
+	 * resolution of channel keys per payload type.
+	 * @return the number of cached types; 0 if the router has no such cache.
+	 * @since 5.1
+	 */
+	@ManagedAttribute(description = "Number of types in the type resolution cache")
+	default int getTypeCacheSize() {
+		return 0;
+	}
+
 }
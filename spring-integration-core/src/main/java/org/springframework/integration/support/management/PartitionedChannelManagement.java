@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.support.MetricType;
+
+/**
+ * Queue metrics for partitioned channels.
+ *
+ * @since 5.1
+ */
+public interface PartitionedChannelManagement {
+
+	@ManagedAttribute(description = "The number of partitions")
+	int getPartitionCount();
+
+	@ManagedAttribute(description = "The number of messages waiting in each partition queue")
+	int[] getPartitionQueueSizes();
+
+	@ManagedMetric(metricType = MetricType.GAUGE, displayName = "PartitionedChannel Queue Size")
+	int getQueueSize();
+
+	@ManagedMetric(metricType = MetricType.GAUGE, displayName = "PartitionedChannel Remaining Capacity")
+	int getRemainingCapacity();
+
+}
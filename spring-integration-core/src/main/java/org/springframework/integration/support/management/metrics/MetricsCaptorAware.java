@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.support.management.metrics;
+
+/**
+ * Implemented by the strategies of a managed component (such as the message processor
+ * of a router or a transformer) that register their own metrics on its behalf. The
+ * component forwards its {@link MetricsCaptor} with its name, to be used as a tag.
+ *
+ * @since 5.1
+ */
+@FunctionalInterface
+public interface MetricsCaptorAware {
+
+	/**
+	 * Register the metrics of this strategy with the provided captor.
+	 * @param metricsCaptor the captor.
+	 * @param componentName the name of the component using this strategy.
+	 */
+	void registerMetricsCaptor(MetricsCaptor metricsCaptor, String componentName);
+
+}
@@ -24,6 +24,8 @@ import org.springframework.context.Lifecycle;
 import org.springframework.integration.handler.MessageProcessor;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.MessageBuilderFactory;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.MetricsCaptorAware;
 import org.springframework.integration.support.utils.IntegrationUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
@@ -37,7 +39,7 @@ import org.springframework.util.ObjectUtils;
  * @author Artem Bilan
  */
 public abstract class AbstractMessageProcessingTransformer
-		implements Transformer, BeanFactoryAware, Lifecycle {
+		implements Transformer, BeanFactoryAware, Lifecycle, MetricsCaptorAware {
 
 	private final MessageProcessor<?> messageProcessor;
 
@@ -64,6 +66,13 @@ public abstract class AbstractMessageProcessingTransformer
 		}
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor, String componentName) {
+		if (this.messageProcessor instanceof MetricsCaptorAware) {
+			((MetricsCaptorAware) this.messageProcessor).registerMetricsCaptor(metricsCaptor, componentName);
+		}
+	}
+
 	protected MessageBuilderFactory getMessageBuilderFactory() {
 		if (!this.messageBuilderFactorySet) {
 			if (this.beanFactory != null) {
@@ -30,6 +30,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.integration.context.IntegrationObjectSupport;
 import org.springframework.integration.handler.MessageProcessor;
 import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.integration.support.CompactMessageBuilderFactory;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.transformer.support.HeaderValueMessageProcessor;
 import org.springframework.messaging.Message;
@@ -162,7 +163,8 @@ public class HeaderEnricher extends IntegrationObjectSupport implements Transfor
 	@Override
 	public void onInit() throws Exception {
 		boolean shouldOverwrite = this.defaultOverwrite;
-		boolean checkReadOnlyHeaders = getMessageBuilderFactory() instanceof DefaultMessageBuilderFactory;
+		boolean checkReadOnlyHeaders = getMessageBuilderFactory() instanceof DefaultMessageBuilderFactory
+				|| getMessageBuilderFactory() instanceof CompactMessageBuilderFactory;
 
 		for (Entry<String, ? extends HeaderValueMessageProcessor<?>> entry : this.headersToAdd.entrySet()) {
 			if (checkReadOnlyHeaders &&
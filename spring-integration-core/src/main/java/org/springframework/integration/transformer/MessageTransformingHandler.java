@@ -22,6 +22,8 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.context.Lifecycle;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.integration.support.management.metrics.MetricsCaptor;
+import org.springframework.integration.support.management.metrics.MetricsCaptorAware;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.util.Assert;
@@ -83,6 +85,14 @@ public class MessageTransformingHandler extends AbstractReplyProducingMessageHan
 		}
 	}
 
+	@Override
+	public void registerMetricsCaptor(MetricsCaptor metricsCaptor) {
+		super.registerMetricsCaptor(metricsCaptor);
+		if (metricsCaptor != null && this.transformer instanceof MetricsCaptorAware) {
+			((MetricsCaptorAware) this.transformer).registerMetricsCaptor(metricsCaptor, getComponentName());
+		}
+	}
+
 	@Override
 	public void start() {
 		if (this.transformer instanceof Lifecycle) {
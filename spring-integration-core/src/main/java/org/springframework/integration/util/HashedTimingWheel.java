@@ -0,0 +1,348 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.util.Assert;
+
+/**
+ * A hashed timing wheel: a fixed ring of slots, each holding the tasks whose deadline
+ * falls into the same tick modulo the wheel size. Scheduling and cancellation are
+ * {@code O(1)}; a single {@link #expire(long)} call per tick collects all due tasks of
+ * the visited slots in bulk, so a large number of pending deadlines does not translate
+ * into a large number of scheduled tasks on a {@code TaskScheduler}.
+ * <p>
+ * Tasks are never expired before their deadline, but may be expired up to one
+ * {@code tickDuration} after it. Deadlines further away than one revolution stay in their
+ * slot until the wheel has turned enough times.
+ * <p>
+ * The wheel itself is passive; it is up to the caller to invoke {@link #expire(long)}
+ * periodically, typically at a fixed rate equal to the {@code tickDuration}.
+ *
+ * @param <T> the task type.
+ *
+ * @since 5.1
+ */
+public class HashedTimingWheel<T> {
+
+	private final Lock lock = new ReentrantLock();
+
+	private final long tickDuration;
+
+	private final long startTime;
+
+	private final Timeout<T>[] slots;
+
+	private final int[] slotSizes;
+
+	private final int mask;
+
+	private long nextTick;
+
+	private int size;
+
+	private int occupiedSlots;
+
+	/**
+	 * Create a wheel with the provided tick duration and number of slots, starting now.
+	 * @param tickDuration the tick duration in milliseconds.
+	 * @param ticksPerWheel the number of slots; rounded up to a power of two.
+	 */
+	public HashedTimingWheel(long tickDuration, int ticksPerWheel) {
+		this(tickDuration, ticksPerWheel, System.currentTimeMillis());
+	}
+
+	/**
+	 * Create a wheel with the provided tick duration and number of slots, with tick
+	 * {@code 0} starting at the provided time.
+	 * @param tickDuration the tick duration in milliseconds.
+	 * @param ticksPerWheel the number of slots; rounded up to a power of two.
+	 * @param startTime the start time in milliseconds.
+	 */
+	@SuppressWarnings("unchecked")
+	public HashedTimingWheel(long tickDuration, int ticksPerWheel, long startTime) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30,
+				"'ticksPerWheel' must be between 1 and 2^30");
+		int wheelSize = 1;
+		while (wheelSize < ticksPerWheel) {
+			wheelSize <<= 1;
+		}
+		this.tickDuration = tickDuration;
+		this.startTime = startTime;
+		this.slots = new Timeout[wheelSize];
+		this.slotSizes = new int[wheelSize];
+		this.mask = wheelSize - 1;
+	}
+
+	public long getTickDuration() {
+		return this.tickDuration;
+	}
+
+	/**
+	 * Return the number of slots in this wheel.
+	 * @return the number of slots.
+	 */
+	public int getSlotCount() {
+		return this.slots.length;
+	}
+
+	/**
+	 * Return the number of pending (not yet expired or cancelled) tasks.
+	 * @return the number of pending tasks.
+	 */
+	public int size() {
+		this.lock.lock();
+		try {
+			return this.size;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of slots holding at least one pending task.
+	 * @return the number of occupied slots.
+	 */
+	public int getOccupiedSlotCount() {
+		this.lock.lock();
+		try {
+			return this.occupiedSlots;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of pending tasks in the most populated slot.
+	 * @return the maximum slot size.
+	 */
+	public int getMaxSlotSize() {
+		this.lock.lock();
+		try {
+			int max = 0;
+			for (int slotSize : this.slotSizes) {
+				max = Math.max(max, slotSize);
+			}
+			return max;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Schedule a task for the provided deadline. A deadline in the past makes the task
+	 * due on the next {@link #expire(long)} call.
+	 * @param task the task.
+	 * @param deadline the deadline in milliseconds.
+	 * @return the {@link Timeout} handle, which can be used to cancel the task.
+	 */
+	public Timeout<T> schedule(T task, long deadline) {
+		Assert.notNull(task, "'task' must not be null");
+		long elapsed = deadline - this.startTime;
+		long tick = elapsed <= 0 ? 0 : (elapsed + this.tickDuration - 1) / this.tickDuration;
+		this.lock.lock();
+		try {
+			Timeout<T> timeout = new Timeout<>(this, task, deadline, Math.max(tick, this.nextTick));
+			link(timeout);
+			return timeout;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Advance the wheel up to the provided time and return the tasks which are due,
+	 * in no particular order. Slots skipped since the previous call (e.g. because the
+	 * caller was late) are visited as well.
+	 * @param now the current time in milliseconds.
+	 * @return the expired tasks.
+	 */
+	public List<T> expire(long now) {
+		long currentTick = (now - this.startTime) / this.tickDuration;
+		List<T> expired = null;
+		this.lock.lock();
+		try {
+			if (currentTick < this.nextTick) {
+				return Collections.emptyList();
+			}
+			long ticks = Math.min(currentTick - this.nextTick + 1, this.slots.length);
+			for (long tick = currentTick - ticks + 1; tick <= currentTick; tick++) {
+				Timeout<T> timeout = this.slots[(int) (tick & this.mask)];
+				while (timeout != null) {
+					Timeout<T> next = timeout.next;
+					if (timeout.tick <= currentTick) {
+						unlink(timeout);
+						if (expired == null) {
+							expired = new ArrayList<>();
+						}
+						expired.add(timeout.task);
+					}
+					timeout = next;
+				}
+			}
+			this.nextTick = currentTick + 1;
+		}
+		finally {
+			this.lock.unlock();
+		}
+		return expired != null ? expired : Collections.emptyList();
+	}
+
+	/**
+	 * Remove and return all pending tasks, regardless of their deadline.
+	 * @return the pending tasks.
+	 */
+	public List<T> clear() {
+		List<T> pending = new ArrayList<>();
+		this.lock.lock();
+		try {
+			for (Timeout<T> head : this.slots) {
+				Timeout<T> timeout = head;
+				while (timeout != null) {
+					Timeout<T> next = timeout.next;
+					unlink(timeout);
+					pending.add(timeout.task);
+					timeout = next;
+				}
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		return pending;
+	}
+
+	private void link(Timeout<T> timeout) {
+		int slot = (int) (timeout.tick & this.mask);
+		Timeout<T> head = this.slots[slot];
+		timeout.next = head;
+		if (head != null) {
+			head.prev = timeout;
+		}
+		this.slots[slot] = timeout;
+		timeout.linked = true;
+		if (this.slotSizes[slot]++ == 0) {
+			this.occupiedSlots++;
+		}
+		this.size++;
+	}
+
+	private void unlink(Timeout<T> timeout) {
+		int slot = (int) (timeout.tick & this.mask);
+		if (timeout.prev != null) {
+			timeout.prev.next = timeout.next;
+		}
+		else {
+			this.slots[slot] = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.prev = timeout.prev;
+		}
+		timeout.prev = null;
+		timeout.next = null;
+		timeout.linked = false;
+		if (--this.slotSizes[slot] == 0) {
+			this.occupiedSlots--;
+		}
+		this.size--;
+	}
+
+	private boolean cancel(Timeout<T> timeout) {
+		this.lock.lock();
+		try {
+			if (timeout.linked) {
+				unlink(timeout);
+				return true;
+			}
+			return false;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * A handle for a task scheduled in a {@link HashedTimingWheel}.
+	 *
+	 * @param <T> the task type.
+	 */
+	public static final class Timeout<T> {
+
+		private final HashedTimingWheel<T> wheel;
+
+		private final T task;
+
+		private final long deadline;
+
+		private final long tick;
+
+		private Timeout<T> prev;
+
+		private Timeout<T> next;
+
+		private boolean linked;
+
+		Timeout(HashedTimingWheel<T> wheel, T task, long deadline, long tick) {
+			this.wheel = wheel;
+			this.task = task;
+			this.deadline = deadline;
+			this.tick = tick;
+		}
+
+		public T getTask() {
+			return this.task;
+		}
+
+		public long getDeadline() {
+			return this.deadline;
+		}
+
+		/**
+		 * Return true if the task is still in the wheel.
+		 * @return true if pending.
+		 */
+		public boolean isPending() {
+			this.wheel.lock.lock();
+			try {
+				return this.linked;
+			}
+			finally {
+				this.wheel.lock.unlock();
+			}
+		}
+
+		/**
+		 * Remove the task from the wheel if it is still pending.
+		 * @return true if the task was removed by this call.
+		 */
+		public boolean cancel() {
+			return this.wheel.cancel(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bounded, lock-free {@link BlockingQueue} backed by a preallocated ring buffer.
+ * <p>
+ * Each slot of the ring carries a sequence number, so producers and consumers only
+ * contend on a compare-and-set of their own cursor and never allocate per element
+ * (unlike the node per element of a {@link java.util.concurrent.LinkedBlockingQueue}).
+ * Both producers and consumers can be many (MPMC); when {@code singleConsumer} is
+ * {@code true} the consumer cursor is advanced without a compare-and-set (MPSC), in
+ * which case the caller must guarantee that only one thread at a time takes elements.
+ * <p>
+ * The capacity is rounded up to the next power of two. Blocking operations do not
+ * use locks or conditions; threads waiting for space or elements invoke the configured
+ * {@link WaitStrategy} until the operation succeeds or the timeout elapses.
+ * <p>
+ * Iteration is weakly consistent and {@link Iterator#remove()} is not supported, so
+ * {@link #remove(Object)} is not supported either.
+ *
+ * @param <E> the element type.
+ *
+ * @since 5.1
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	private final int capacity;
+
+	private final int mask;
+
+	private final boolean singleConsumer;
+
+	private final WaitStrategy waitStrategy;
+
+	private final AtomicReferenceArray<E> elements;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong producerCursor = new AtomicLong();
+
+	private final AtomicLong consumerCursor = new AtomicLong();
+
+	/**
+	 * Create a multi-consumer queue of (at least) the provided capacity with a
+	 * {@link WaitStrategy#parking() parking} wait strategy.
+	 * @param capacity the capacity.
+	 */
+	public RingBufferQueue(int capacity) {
+		this(capacity, false, WaitStrategy.parking());
+	}
+
+	/**
+	 * Create a queue of (at least) the provided capacity.
+	 * @param capacity the capacity; rounded up to the next power of two.
+	 * @param singleConsumer true if only one thread at a time takes elements from the queue.
+	 * @param waitStrategy the {@link WaitStrategy} for blocking operations.
+	 */
+	public RingBufferQueue(int capacity, boolean singleConsumer, WaitStrategy waitStrategy) {
+		Assert.isTrue(capacity > 0, "'capacity' must be a positive integer");
+		Assert.isTrue(capacity <= 1 << 30, "'capacity' must not be greater than 2^30");
+		Assert.notNull(waitStrategy, "'waitStrategy' must not be null");
+		this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = this.capacity - 1;
+		this.singleConsumer = singleConsumer;
+		this.waitStrategy = waitStrategy;
+		this.elements = new AtomicReferenceArray<>(this.capacity);
+		this.sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			this.sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * @return the actual capacity (a power of two).
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return true if the queue is configured for a single consumer.
+	 */
+	public boolean isSingleConsumer() {
+		return this.singleConsumer;
+	}
+
+	@Override
+	public boolean offer(E element) {
+		Assert.notNull(element, "'element' must not be null");
+		while (true) {
+			long position = this.producerCursor.get();
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - position;
+			if (difference == 0) {
+				if (this.producerCursor.compareAndSet(position, position + 1)) {
+					this.elements.lazySet(index, element);
+					this.sequences.lazySet(index, position + 1);
+					return true;
+				}
+			}
+			else if (difference < 0) {
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public E poll() {
+		while (true) {
+			long position = this.consumerCursor.get();
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (this.singleConsumer) {
+					this.consumerCursor.lazySet(position + 1);
+				}
+				else if (!this.consumerCursor.compareAndSet(position, position + 1)) {
+					continue;
+				}
+				E element = this.elements.get(index);
+				this.elements.lazySet(index, null);
+				this.sequences.lazySet(index, position + this.capacity);
+				return element;
+			}
+			else if (difference < 0) {
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public E peek() {
+		while (true) {
+			long position = this.consumerCursor.get();
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - (position + 1);
+			if (difference < 0) {
+				return null;
+			}
+			E element = this.elements.get(index);
+			if (difference == 0 && element != null && this.consumerCursor.get() == position) {
+				return element;
+			}
+		}
+	}
+
+	@Override
+	public void put(E element) throws InterruptedException {
+		int counter = 0;
+		while (!offer(element)) {
+			checkInterrupted();
+			this.waitStrategy.idle(counter++);
+		}
+	}
+
+	@Override
+	public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int counter = 0;
+		while (!offer(element)) {
+			checkInterrupted();
+			if (deadline - System.nanoTime() <= 0) {
+				return false;
+			}
+			this.waitStrategy.idle(counter++);
+		}
+		return true;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		int counter = 0;
+		E element;
+		while ((element = poll()) == null) {
+			checkInterrupted();
+			this.waitStrategy.idle(counter++);
+		}
+		return element;
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int counter = 0;
+		E element;
+		while ((element = poll()) == null) {
+			checkInterrupted();
+			if (deadline - System.nanoTime() <= 0) {
+				return null;
+			}
+			this.waitStrategy.idle(counter++);
+		}
+		return element;
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return this.capacity - size();
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection) {
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection, int maxElements) {
+		Assert.notNull(collection, "'collection' must not be null");
+		Assert.isTrue(collection != this, "Cannot drain a queue to itself");
+		int drained = 0;
+		E element;
+		while (drained < maxElements && (element = poll()) != null) {
+			collection.add(element);
+			drained++;
+		}
+		return drained;
+	}
+
+	@Override
+	public int size() {
+		while (true) {
+			long consumer = this.consumerCursor.get();
+			long producer = this.producerCursor.get();
+			if (consumer == this.consumerCursor.get()) {
+				return (int) Math.max(0, Math.min(producer - consumer, this.capacity));
+			}
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Return a weakly consistent iterator over a snapshot of the elements present
+	 * when the method is invoked. {@link Iterator#remove()} is not supported.
+	 * @return the iterator.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		long consumer = this.consumerCursor.get();
+		long producer = this.producerCursor.get();
+		List<E> snapshot = new ArrayList<>();
+		for (long position = consumer; position < producer; position++) {
+			E element = this.elements.get((int) position & this.mask);
+			if (element != null) {
+				snapshot.add(element);
+			}
+		}
+		Iterator<E> iterator = snapshot.iterator();
+		return new Iterator<E>() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public E next() {
+				return iterator.next();
+			}
+
+		};
+	}
+
+	private static void checkInterrupted() throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * The strategy applied by threads blocked on a full (producers) or an empty
+	 * (consumers) {@link RingBufferQueue}.
+	 */
+	@FunctionalInterface
+	public interface WaitStrategy {
+
+		/**
+		 * Called each time an attempt to put or take an element fails.
+		 * @param counter the number of previous failed attempts in the current wait.
+		 */
+		void idle(int counter);
+
+		/**
+		 * Busy spin; lowest latency, but burns a CPU core per waiting thread.
+		 * @return the strategy.
+		 */
+		static WaitStrategy spinning() {
+			return counter -> { };
+		}
+
+		/**
+		 * Spin for a few attempts, then {@link Thread#yield()}.
+		 * @return the strategy.
+		 */
+		static WaitStrategy yielding() {
+			return counter -> {
+				if (counter > 100) {
+					Thread.yield();
+				}
+			};
+		}
+
+		/**
+		 * Spin, then yield, then park for 1 microsecond at a time.
+		 * @return the strategy.
+		 */
+		static WaitStrategy parking() {
+			return parking(1000);
+		}
+
+		/**
+		 * Spin, then yield, then park for the provided time at a time; the best
+		 * choice when waiting threads must not consume CPU.
+		 * @param parkNanos the time to park in nanoseconds.
+		 * @return the strategy.
+		 */
+		static WaitStrategy parking(long parkNanos) {
+			Assert.isTrue(parkNanos > 0, "'parkNanos' must be greater than 0");
+			return counter -> {
+				if (counter > 200) {
+					LockSupport.parkNanos(parkNanos);
+				}
+				else if (counter > 100) {
+					Thread.yield();
+				}
+			};
+		}
+
+	}
+
+}
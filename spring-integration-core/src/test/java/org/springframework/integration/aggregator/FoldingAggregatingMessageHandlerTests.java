@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.expression.ValueExpression;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * @since 5.1
+ */
+public class FoldingAggregatingMessageHandlerTests {
+
+	@Test
+	public void testFoldWithoutRetainingMessages() {
+		SimpleMessageStore store = new SimpleMessageStore();
+		FoldingAggregatingMessageHandler<Integer> handler =
+				new FoldingAggregatingMessageHandler<>(() -> 0, (sum, m) -> sum + (Integer) m.getPayload(),
+						sum -> "sum=" + sum, store);
+		QueueChannel outputChannel = new QueueChannel();
+		handler.setOutputChannel(outputChannel);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+
+		for (int i = 1; i <= 100; i++) {
+			handler.handleMessage(createMessage(i, "foo", 100, i));
+			if (i < 100) {
+				assertThat(store.getMessageGroup("foo").size()).isEqualTo(1);
+				assertThat(store.getMessageGroup("foo").getOne().getPayload()).isEqualTo(i * (i + 1) / 2);
+			}
+		}
+
+		Message<?> result = outputChannel.receive(0);
+		assertThat(result).isNotNull();
+		assertThat(result.getPayload()).isEqualTo("sum=5050");
+		assertThat(result.getHeaders()).doesNotContainKey(FoldingAggregatingMessageHandler.FOLDED_MESSAGE_COUNT);
+		assertThat(store.getMessageGroup("foo").size()).isEqualTo(0);
+		assertThat(store.getMessageGroup("foo").isComplete()).isTrue();
+	}
+
+	@Test
+	public void testReleaseStrategySeesFoldedCount() {
+		FoldingAggregatingMessageHandler<StringBuilder> handler =
+				new FoldingAggregatingMessageHandler<>(StringBuilder::new,
+						(sb, m) -> sb.append(m.getPayload()), StringBuilder::toString);
+		handler.setReleaseStrategy(group -> group.size() == 3);
+		handler.setExpireGroupsUponCompletion(true);
+		QueueChannel outputChannel = new QueueChannel();
+		handler.setOutputChannel(outputChannel);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+
+		handler.handleMessage(createMessage("a", "foo", 0, 0));
+		handler.handleMessage(createMessage("x", "bar", 0, 0));
+		handler.handleMessage(createMessage("b", "foo", 0, 0));
+		assertThat(outputChannel.receive(0)).isNull();
+		handler.handleMessage(createMessage("c", "foo", 0, 0));
+
+		Message<?> result = outputChannel.receive(0);
+		assertThat(result).isNotNull();
+		assertThat(result.getPayload()).isEqualTo("abc");
+		assertThat(handler.getMessageStore().getMessageGroupCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testPartialResultOnGroupTimeout() throws Exception {
+		FoldingAggregatingMessageHandler<Integer> handler =
+				new FoldingAggregatingMessageHandler<>(() -> 0, (count, m) -> count + 1);
+		handler.setGroupTimeoutExpression(new ValueExpression<>(100L));
+		handler.setSendPartialResultOnExpiry(true);
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		handler.setTaskScheduler(taskScheduler);
+		QueueChannel outputChannel = new QueueChannel();
+		handler.setOutputChannel(outputChannel);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+
+		handler.handleMessage(createMessage("a", "foo", 5, 1));
+		handler.handleMessage(createMessage("b", "foo", 5, 2));
+
+		Message<?> result = outputChannel.receive(10000);
+		assertThat(result).isNotNull();
+		assertThat(result.getPayload()).isEqualTo(2);
+		assertThat(result.getHeaders()).doesNotContainKey(FoldingAggregatingMessageHandler.FOLDED_MESSAGE_COUNT);
+		handler.destroy();
+		taskScheduler.destroy();
+	}
+
+	@Test
+	public void testAccumulatorDiscardedOnGroupTimeout() throws Exception {
+		FoldingAggregatingMessageHandler<Integer> handler =
+				new FoldingAggregatingMessageHandler<>(() -> 0, (count, m) -> count + 1);
+		handler.setGroupTimeoutExpression(new ValueExpression<>(100L));
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		handler.setTaskScheduler(taskScheduler);
+		QueueChannel discardChannel = new QueueChannel();
+		handler.setDiscardChannel(discardChannel);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+
+		handler.handleMessage(createMessage("a", "foo", 5, 1));
+		handler.handleMessage(createMessage("b", "foo", 5, 2));
+		handler.handleMessage(createMessage("c", "foo", 5, 3));
+
+		Message<?> discarded = discardChannel.receive(10000);
+		assertThat(discarded).isNotNull();
+		assertThat(discarded.getPayload()).isEqualTo(3);
+		assertThat(discardChannel.receive(0)).isNull();
+		handler.destroy();
+		taskScheduler.destroy();
+	}
+
+	private static Message<?> createMessage(Object payload, Object correlationId, int sequenceSize,
+			int sequenceNumber) {
+
+		return MessageBuilder.withPayload(payload)
+				.setCorrelationId(correlationId)
+				.setSequenceSize(sequenceSize)
+				.setSequenceNumber(sequenceNumber)
+				.build();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,17 +17,23 @@
 package org.springframework.integration.aggregator;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -36,9 +42,13 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.SequenceIndexedMessageGroup;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.integration.util.UUIDConverter;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
@@ -141,6 +151,42 @@ public class ResequencerTests {
 		assertNotNull(replyChannel.receive(0));
 	}
 
+	@Test
+	public void testDefaultStoreWithLargeSequenceNumbers() {
+		SequenceSizeReleaseStrategy releaseStrategy = new SequenceSizeReleaseStrategy();
+		releaseStrategy.setReleasePartialSequences(true);
+		this.resequencer = new ResequencingMessageHandler(processor);
+		this.resequencer.setReleaseStrategy(releaseStrategy);
+		this.resequencer.setCorrelationStrategy(message -> "A");
+		this.resequencer.setBeanFactory(mock(BeanFactory.class));
+		this.resequencer.afterPropertiesSet();
+		QueueChannel replyChannel = new QueueChannel();
+
+		this.resequencer.handleMessage(MessageBuilder.withPayload("max")
+				.setSequenceNumber(Integer.MAX_VALUE).setReplyChannel(replyChannel).build());
+		this.resequencer.handleMessage(MessageBuilder.withPayload("1")
+				.setSequenceNumber(1).setReplyChannel(replyChannel).build());
+		this.resequencer.handleMessage(MessageBuilder.withPayload("far")
+				.setSequenceNumber(10_000_000).setReplyChannel(replyChannel).build());
+		this.resequencer.handleMessage(MessageBuilder.withPayload("2")
+				.setSequenceNumber(2).setReplyChannel(replyChannel).build());
+
+		Message<?> reply = replyChannel.receive(0);
+		assertNotNull(reply);
+		assertEquals("1", reply.getPayload());
+		reply = replyChannel.receive(0);
+		assertNotNull(reply);
+		assertEquals("2", reply.getPayload());
+		assertNull(replyChannel.receive(0));
+
+		MessageGroupStore messageStore = TestUtils.getPropertyValue(this.resequencer, "messageStore",
+				MessageGroupStore.class);
+		MessageGroup group = messageStore.getMessageGroup("A");
+		assertThat(group, instanceOf(SequenceIndexedMessageGroup.class));
+		assertEquals(2, group.size());
+		assertTrue(((Message<?>[]) TestUtils.getPropertyValue(group, "indexed")).length <= 1 << 16);
+	}
+
 	@Test
 	public void testResequencingWithDuplicateMessages() {
 		QueueChannel replyChannel = new QueueChannel();
@@ -404,6 +450,47 @@ public class ResequencerTests {
 		assertNotNull(out3);
 	}
 
+	@Test
+	public void testTimeoutWithTimingWheel() throws Exception {
+		this.resequencer = new ResequencingMessageHandler(processor, store, null, null);
+		this.resequencer.setBeanFactory(mock(BeanFactory.class));
+		this.resequencer.setTimingWheel(true);
+		this.resequencer.setTickDuration(10);
+		this.resequencer.setGroupTimeoutExpression(new SpelExpressionParser().parseExpression("100"));
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		this.resequencer.setTaskScheduler(taskScheduler);
+		QueueChannel discardChannel = new QueueChannel();
+		this.resequencer.setDiscardChannel(discardChannel);
+		QueueChannel replyChannel = new QueueChannel();
+		this.resequencer.setOutputChannel(replyChannel);
+		this.resequencer.afterPropertiesSet();
+
+		this.resequencer.handleMessage(createMessage("789", "ABC", 3, 3, null));
+		this.resequencer.handleMessage(createMessage("456", "ABC", 3, 2, null));
+		Map<?, ?> futures = TestUtils.getPropertyValue(this.resequencer, "expireGroupScheduledFutures", Map.class);
+		ScheduledFuture<?> future = (ScheduledFuture<?>) futures.get(UUIDConverter.getUUID("ABC"));
+		assertNull(replyChannel.receive(10));
+		assertNull(future.get(10, TimeUnit.SECONDS));
+		assertTrue(future.isDone());
+		assertNotNull(discardChannel.receive(10000));
+		assertNotNull(discardChannel.receive(10));
+
+		this.resequencer.handleMessage(createMessage("123", "DEF", 3, 2, null));
+		future = (ScheduledFuture<?>) futures.get(UUIDConverter.getUUID("DEF"));
+		assertTrue(future.cancel(false));
+		assertTrue(future.isCancelled());
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("CancellationException expected");
+		}
+		catch (CancellationException e) {
+			// expected
+		}
+		this.resequencer.destroy();
+		taskScheduler.destroy();
+	}
+
 	private static Message<?> createMessage(String payload, Object correlationId, int sequenceSize, int sequenceNumber,
 			MessageChannel replyChannel) {
 		return MessageBuilder.withPayload(payload).setCorrelationId(correlationId).setSequenceSize(sequenceSize)
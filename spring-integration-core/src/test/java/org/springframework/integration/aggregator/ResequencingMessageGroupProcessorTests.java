@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.integration.aggregator;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
@@ -25,6 +26,7 @@ import java.util.List;
 
 import org.junit.Test;
 
+import org.springframework.integration.store.SequenceIndexedMessageGroup;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
@@ -70,4 +72,23 @@ public class ResequencingMessageGroupProcessorTests {
 		assertThat(processedMessages.size(), is(1));
 	}
 
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void shouldProcessIndexedGroupIncrementally() {
+		Message prototypeMessage = MessageBuilder.withPayload("foo").setCorrelationId("x").setSequenceSize(5).build();
+		SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("x");
+		Message message1 = MessageBuilder.fromMessage(prototypeMessage).setSequenceNumber(1).build();
+		Message message2 = MessageBuilder.fromMessage(prototypeMessage).setSequenceNumber(2).build();
+		Message message4 = MessageBuilder.fromMessage(prototypeMessage).setSequenceNumber(4).build();
+		group.add(message4);
+		group.add(message2);
+		group.add(message1);
+		List<Message> processedMessages = (List<Message>) processor.processMessageGroup(group);
+		assertThat(processedMessages, contains(message1, message2));
+		group.remove(message1);
+		group.remove(message2);
+		processedMessages = (List<Message>) processor.processMessageGroup(group);
+		assertThat(processedMessages, contains(message4));
+	}
+
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.1
+ */
+public class PartitionedChannelTests {
+
+	@Test
+	public void testOrderPreservedPerKey() throws Exception {
+		PartitionedChannel channel = new PartitionedChannel(4);
+		channel.setBeanName("partitioned");
+		channel.setBeanFactory(mock(BeanFactory.class));
+		channel.setPartitionKeyHeader("key");
+		channel.afterPropertiesSet();
+		int keys = 16;
+		int perKey = 200;
+		CountDownLatch latch = new CountDownLatch(keys * perKey);
+		Map<Object, List<Integer>> received = new ConcurrentHashMap<>();
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		Map<Object, String> threadPerKey = new ConcurrentHashMap<>();
+		channel.subscribe(message -> {
+			Object key = message.getHeaders().get("key");
+			received.computeIfAbsent(key, k -> new ArrayList<>()).add((Integer) message.getPayload());
+			threads.add(Thread.currentThread().getName());
+			String previous = threadPerKey.putIfAbsent(key, Thread.currentThread().getName());
+			assertThat(previous == null || previous.equals(Thread.currentThread().getName())).isTrue();
+			latch.countDown();
+		});
+		try {
+			for (int i = 0; i < perKey; i++) {
+				for (int key = 0; key < keys; key++) {
+					channel.send(MessageBuilder.withPayload(i).setHeader("key", "key" + key).build());
+				}
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(received).hasSize(keys);
+			for (List<Integer> values : received.values()) {
+				assertThat(values).hasSize(perKey).isSorted();
+			}
+			assertThat(threads.size()).isGreaterThan(1);
+			assertThat(threads).allMatch(name -> name.startsWith("partitioned-partition-"));
+		}
+		finally {
+			channel.destroy();
+		}
+	}
+
+	@Test
+	public void testBackpressureWhenPartitionFull() throws Exception {
+		PartitionedChannel channel = new PartitionedChannel(1, 1);
+		CountDownLatch handling = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		channel.subscribe(message -> {
+			handling.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		try {
+			assertThat(channel.send(new GenericMessage<>("foo"))).isTrue();
+			assertThat(handling.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(channel.send(new GenericMessage<>("bar"), 0)).isTrue();
+			assertThat(channel.getPartitionQueueSizes()).containsExactly(1);
+			assertThat(channel.getRemainingCapacity()).isEqualTo(0);
+			assertThat(channel.send(new GenericMessage<>("baz"), 100)).isFalse();
+		}
+		finally {
+			release.countDown();
+			channel.destroy();
+		}
+	}
+
+	@Test
+	public void testExpressionKey() throws Exception {
+		PartitionedChannel channel = new PartitionedChannel(8);
+		channel.setPartitionKeyExpression(new SpelExpressionParser().parseExpression("payload % 2"));
+		CountDownLatch latch = new CountDownLatch(20);
+		Map<Object, Set<String>> threadsPerKey = new ConcurrentHashMap<>();
+		channel.subscribe(message -> {
+			threadsPerKey.computeIfAbsent((Integer) message.getPayload() % 2, k -> ConcurrentHashMap.newKeySet())
+					.add(Thread.currentThread().getName());
+			latch.countDown();
+		});
+		try {
+			for (int i = 0; i < 20; i++) {
+				channel.send(new GenericMessage<>(i));
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(threadsPerKey.get(0)).hasSize(1);
+			assertThat(threadsPerKey.get(1)).hasSize(1);
+		}
+		finally {
+			channel.destroy();
+		}
+	}
+
+	@Test
+	public void testPartitionSurvivesHandlerInterrupt() throws Exception {
+		PartitionedChannel channel = new PartitionedChannel(1);
+		CountDownLatch latch = new CountDownLatch(2);
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		channel.subscribe(message -> {
+			threads.add(Thread.currentThread().getName());
+			latch.countDown();
+			Thread.currentThread().interrupt();
+		});
+		try {
+			channel.send(new GenericMessage<>("foo"));
+			channel.send(new GenericMessage<>("bar"));
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(threads).hasSize(1);
+		}
+		finally {
+			channel.destroy();
+		}
+	}
+
+	@Test
+	public void testNoSubscribers() {
+		PartitionedChannel channel = new PartitionedChannel(2);
+		try {
+			assertThatThrownBy(() -> channel.send(new GenericMessage<>("foo")))
+					.isInstanceOf(MessageDeliveryException.class)
+					.hasMessageContaining("has no subscribers");
+		}
+		finally {
+			channel.destroy();
+		}
+	}
+
+}
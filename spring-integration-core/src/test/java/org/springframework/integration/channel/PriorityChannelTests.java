@@ -23,6 +23,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -53,6 +54,22 @@ public class PriorityChannelTests {
 		assertTrue(channel.send(new GenericMessage<>("test5")));
 	}
 
+	@Test
+	public void testBatchReceiveUnwrapsAndReleasesCapacity() {
+		PriorityChannel channel = new PriorityChannel(3);
+		channel.send(createPriorityMessage(1));
+		channel.send(createPriorityMessage(5));
+		channel.send(createPriorityMessage(3));
+		assertFalse(channel.send(new GenericMessage<>("full"), 0));
+		List<Message<?>> messages = channel.receive(2, 0);
+		assertEquals(2, messages.size());
+		assertEquals("test:5", messages.get(0).getPayload());
+		assertEquals("test:3", messages.get(1).getPayload());
+		assertTrue(messages.get(0) instanceof GenericMessage);
+		assertEquals(2, channel.getRemainingCapacity());
+		assertEquals("test:1", channel.receive(5, 0).get(0).getPayload());
+	}
+
 	@Test
 	public void testDefaultComparatorWithTimestampFallback() {
 		PriorityChannel channel = new PriorityChannel();
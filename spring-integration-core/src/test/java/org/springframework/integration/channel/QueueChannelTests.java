@@ -35,6 +35,7 @@ import org.junit.rules.TemporaryFolder;
 import org.springframework.integration.selector.UnexpiredMessageSelector;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.GenericMessage;
 
 /**
@@ -224,6 +225,25 @@ public class QueueChannelTests {
 		assertTrue(channel.send(new GenericMessage<String>("roomAvailable"), 0));
 	}
 
+	@Test
+	public void testBatchReceive() {
+		QueueChannel channel = new QueueChannel(10);
+		assertTrue(channel.receive(5, 0).isEmpty());
+		for (int i = 0; i < 7; i++) {
+			assertTrue(channel.send(new GenericMessage<>(i), 0));
+		}
+		List<Message<?>> messages = channel.receive(5, 0);
+		assertEquals(5, messages.size());
+		assertEquals(0, messages.get(0).getPayload());
+		assertEquals(4, messages.get(4).getPayload());
+		assertEquals(5, channel.getRemainingCapacity());
+		channel.addInterceptor(new ChannelInterceptor() { });
+		messages = channel.receive(5, 0);
+		assertEquals(2, messages.size());
+		assertEquals(6, messages.get(1).getPayload());
+		assertEquals(0, channel.getQueueSize());
+	}
+
 	@Rule
 	public final TemporaryFolder tempFolder = new TemporaryFolder();
 
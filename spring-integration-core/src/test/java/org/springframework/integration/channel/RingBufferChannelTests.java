@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.endpoint.PollingConsumer;
+import org.springframework.integration.util.RingBufferQueue;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+/**
+ * @since 5.1
+ */
+public class RingBufferChannelTests {
+
+	@Test
+	public void testSendReceiveAndCapacity() {
+		RingBufferChannel channel = new RingBufferChannel(2);
+		assertThat(channel.send(new GenericMessage<>("foo"), 0)).isTrue();
+		assertThat(channel.send(new GenericMessage<>("bar"), 0)).isTrue();
+		assertThat(channel.send(new GenericMessage<>("baz"), 0)).isFalse();
+		assertThat(channel.getQueueSize()).isEqualTo(2);
+		assertThat(channel.getRemainingCapacity()).isEqualTo(0);
+		assertThat(channel.receive(0).getPayload()).isEqualTo("foo");
+		assertThat(channel.receive(0).getPayload()).isEqualTo("bar");
+		assertThat(channel.receive(10)).isNull();
+	}
+
+	@Test
+	public void testPurgeAndClear() {
+		RingBufferChannel channel = new RingBufferChannel(8, true, RingBufferQueue.WaitStrategy.yielding());
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		List<Message<?>> purged = channel.purge(m -> (Integer) m.getPayload() % 2 == 0);
+		assertThat(purged).extracting(Message::getPayload).containsExactly(1, 3);
+		assertThat(channel.getQueueSize()).isEqualTo(3);
+		assertThat(channel.clear()).extracting(Message::getPayload).containsExactly(0, 2, 4);
+		assertThat(channel.getQueueSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void testPollingConsumer() throws Exception {
+		RingBufferChannel channel = new RingBufferChannel(16, true, RingBufferQueue.WaitStrategy.parking());
+		CountDownLatch latch = new CountDownLatch(100);
+		PollingConsumer consumer = new PollingConsumer(channel, message -> latch.countDown());
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		consumer.setTaskScheduler(taskScheduler);
+		consumer.setTrigger(new PeriodicTrigger(10));
+		consumer.setMaxMessagesPerPoll(-1);
+		consumer.setBeanFactory(mock(BeanFactory.class));
+		consumer.afterPropertiesSet();
+		consumer.start();
+		for (int i = 0; i < 100; i++) {
+			assertThat(channel.send(new GenericMessage<>(i), 10000)).isTrue();
+		}
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		consumer.stop();
+		taskScheduler.destroy();
+	}
+
+}
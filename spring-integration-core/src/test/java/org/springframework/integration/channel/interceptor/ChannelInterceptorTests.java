@@ -23,6 +23,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +45,7 @@ import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
@@ -184,6 +186,64 @@ public class ChannelInterceptorTests {
 		assertFalse(interceptor2.wasAfterCompletionInvoked());
 	}
 
+	@Test
+	public void afterCompletionInReverseOrderWhenPreSendReturnsNull() {
+		final List<String> calls = new ArrayList<>();
+		this.channel.addInterceptor(new ChannelInterceptor() {
+
+			@Override
+			public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent,
+					Exception ex) {
+				calls.add("first");
+			}
+
+		});
+		this.channel.addInterceptor(new ChannelInterceptor() {
+
+			@Override
+			public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent,
+					Exception ex) {
+				calls.add("second");
+			}
+
+		});
+		PreSendReturnsNullInterceptor nullInterceptor = new PreSendReturnsNullInterceptor();
+		this.channel.addInterceptor(nullInterceptor);
+		assertFalse(this.channel.send(new GenericMessage<>("test")));
+		assertEquals(1, nullInterceptor.getCount());
+		assertEquals("[second, first]", calls.toString());
+		assertNull(this.channel.receive(0));
+	}
+
+	@Test
+	public void testConfigurationChangesAfterFirstSendAreApplied() {
+		assertTrue(this.channel.send(new GenericMessage<>("test")));
+		assertNotNull(this.channel.receive(0));
+
+		PreSendReturnsMessageInterceptor interceptor = new PreSendReturnsMessageInterceptor();
+		this.channel.addInterceptor(interceptor);
+		this.channel.send(new GenericMessage<>("test"));
+		Message<?> result = this.channel.receive(0);
+		assertNotNull(result);
+		assertEquals(1, result.getHeaders().get(PreSendReturnsMessageInterceptor.class.getSimpleName()));
+
+		this.channel.setDatatypes(Integer.class);
+		try {
+			this.channel.send(new GenericMessage<>("test"));
+			fail("Expected MessageDeliveryException");
+		}
+		catch (MessageDeliveryException e) {
+			assertThat(e.getMessage(), Matchers.containsString("expected one of the following datataypes"));
+		}
+
+		this.channel.setDatatypes();
+		assertTrue(this.channel.removeInterceptor(interceptor));
+		assertTrue(this.channel.send(new GenericMessage<>("test")));
+		result = this.channel.receive(0);
+		assertNotNull(result);
+		assertNull(result.getHeaders().get(PreSendReturnsMessageInterceptor.class.getSimpleName()));
+	}
+
 	@Test
 	public void testPreReceiveInterceptorReturnsTrue() {
 		PreReceiveReturnsTrueInterceptor interceptor = new PreReceiveReturnsTrueInterceptor();
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.integration.codec.CompressingCodec.Algorithm;
+import org.springframework.integration.codec.kryo.MessageStoreCodec;
+import org.springframework.integration.codec.kryo.PojoCodec;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * @since 5.1
+ */
+public class CompressingCodecTests {
+
+	private static final String LARGE = largeString();
+
+	@Test
+	public void testBelowThreshold() throws Exception {
+		CompressingCodec codec = new CompressingCodec(new PojoCodec());
+		byte[] encoded = codec.encode("foo");
+		assertThat(encoded[0]).isEqualTo((byte) 0);
+		assertThat(codec.decode(encoded, String.class)).isEqualTo("foo");
+		assertThat(codec.getUncompressedCount()).isEqualTo(1);
+		assertThat(codec.getCompressedCount()).isEqualTo(0);
+		assertThat(codec.getCompressionRatio()).isEqualTo(1.0d);
+	}
+
+	@Test
+	public void testAlgorithms() throws Exception {
+		assertThat(CompressingCodec.isLz4Available()).isTrue();
+		byte header = 1;
+		for (Algorithm algorithm : Algorithm.values()) {
+			CompressingCodec codec = new CompressingCodec(new PojoCodec());
+			codec.setAlgorithm(algorithm);
+			byte[] encoded = codec.encode(LARGE);
+			assertThat(encoded[0]).isEqualTo(header++);
+			assertThat(encoded.length).isLessThan(LARGE.length() / 2);
+			assertThat(codec.decode(encoded, String.class)).isEqualTo(LARGE);
+			assertThat(codec.decode(new ByteArrayInputStream(encoded), String.class)).isEqualTo(LARGE);
+			assertThat(codec.getCompressedCount()).isEqualTo(1);
+			assertThat(codec.getDecompressedCount()).isEqualTo(2);
+			assertThat(codec.getCompressionRatio()).isLessThan(0.5d);
+			assertThat(codec.getMeanCompressionTime()).isGreaterThan(0.0d);
+			assertThat(codec.getMeanDecompressionTime()).isGreaterThan(0.0d);
+		}
+	}
+
+	@Test
+	public void testDecodeIndependentOfConfiguration() throws Exception {
+		CompressingCodec gzipCodec = new CompressingCodec(new PojoCodec());
+		gzipCodec.setAlgorithm(Algorithm.GZIP);
+		gzipCodec.setLevel(9);
+		byte[] compressed = gzipCodec.encode(LARGE);
+		gzipCodec.setThreshold(Integer.MAX_VALUE);
+		byte[] uncompressed = gzipCodec.encode(LARGE);
+		assertThat(uncompressed[0]).isEqualTo((byte) 0);
+
+		CompressingCodec lz4Codec = new CompressingCodec(new PojoCodec());
+		lz4Codec.setAlgorithm(Algorithm.LZ4);
+		assertThat(lz4Codec.decode(compressed, String.class)).isEqualTo(LARGE);
+		assertThat(lz4Codec.decode(uncompressed, String.class)).isEqualTo(LARGE);
+	}
+
+	@Test
+	public void testIncompressible() throws Exception {
+		byte[] random = new byte[4096];
+		new Random(42).nextBytes(random);
+		CompressingCodec codec = new CompressingCodec(new PojoCodec());
+		byte[] encoded = codec.encode(random);
+		assertThat(encoded[0]).isEqualTo((byte) 0);
+		assertThat(codec.decode(encoded, byte[].class)).isEqualTo(random);
+		assertThat(codec.getUncompressedCount()).isEqualTo(1);
+		codec.reset();
+		assertThat(codec.getUncompressedCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testMessage() throws Exception {
+		CompressingCodec codec = new CompressingCodec(new MessageStoreCodec());
+		Message<String> message = MessageBuilder.withPayload(LARGE).setHeader("foo", "bar").build();
+		CodecSerializer<Message<?>> serializer = new CodecSerializer<>(codec, Message.class);
+		byte[] encoded = codec.encode(message);
+		Message<?> decoded = serializer.deserialize(new ByteArrayInputStream(encoded));
+		assertThat(decoded.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		assertThat(decoded.getHeaders().get("foo")).isEqualTo("bar");
+		assertThat(decoded.getPayload()).isEqualTo(LARGE);
+	}
+
+	@Test
+	public void testJavaSerialization() throws Exception {
+		SerializingCodec serializingCodec = new SerializingCodec();
+		serializingCodec.setWhiteListPatterns("org.springframework.messaging.*", "java.util.*");
+		CompressingCodec codec = new CompressingCodec(serializingCodec);
+		Message<String> message = MessageBuilder.withPayload(LARGE).setHeader("foo", "bar").build();
+		byte[] encoded = codec.encode(message);
+		assertThat(encoded[0]).isEqualTo((byte) 2);
+		assertThat(encoded.length).isLessThan(LARGE.length() / 2);
+		Message<?> decoded = codec.decode(encoded, Message.class);
+		assertThat(decoded.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		assertThat(decoded.getHeaders().get("foo")).isEqualTo("bar");
+		assertThat(decoded.getPayload()).isEqualTo(LARGE);
+
+		byte[] untrusted = codec.encode(MessageBuilder.withPayload(new StringBuilder(LARGE)).build());
+		assertThatThrownBy(() -> codec.decode(untrusted, Message.class))
+				.isInstanceOf(SerializationFailedException.class)
+				.hasRootCauseInstanceOf(SecurityException.class);
+	}
+
+	private static String largeString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			builder.append("{\"id\":").append(i).append(",\"name\":\"item").append(i % 10).append("\"}");
+		}
+		return builder.toString();
+	}
+
+}
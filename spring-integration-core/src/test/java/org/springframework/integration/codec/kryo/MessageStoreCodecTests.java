@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec.kryo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.integration.codec.CodecSerializer;
+import org.springframework.integration.message.AdviceMessage;
+import org.springframework.integration.store.MessageGroupMetadata;
+import org.springframework.integration.store.MessageHolder;
+import org.springframework.integration.store.SimpleMessageGroup;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.MutableMessage;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+
+import com.esotericsoftware.kryo.Kryo;
+
+/**
+ * @since 5.1
+ */
+public class MessageStoreCodecTests {
+
+	private final MessageStoreCodec codec = new MessageStoreCodec();
+
+	@Test
+	public void testMessageRetainsIdAndTimestamp() throws Exception {
+		Message<String> message = MessageBuilder.withPayload("foo")
+				.setCorrelationId("bar")
+				.setSequenceNumber(3)
+				.build();
+		Message<?> decoded = this.codec.decode(this.codec.encode(message), Message.class);
+		assertThat(decoded).isInstanceOf(GenericMessage.class);
+		assertThat(decoded.getPayload()).isEqualTo("foo");
+		assertThat(decoded.getHeaders()).isEqualTo(message.getHeaders());
+		assertThat(decoded.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		assertThat(decoded.getHeaders().getTimestamp()).isEqualTo(message.getHeaders().getTimestamp());
+	}
+
+	@Test
+	public void testMessageTypes() throws Exception {
+		GenericMessage<String> inputMessage = new GenericMessage<>("in");
+		Message<?> decoded = roundTrip(new MutableMessage<>("foo"));
+		assertThat(decoded).isInstanceOf(MutableMessage.class);
+		decoded = roundTrip(new AdviceMessage<>("foo", inputMessage));
+		assertThat(decoded).isInstanceOf(AdviceMessage.class);
+		assertThat(((AdviceMessage<?>) decoded).getInputMessage().getHeaders().getId())
+				.isEqualTo(inputMessage.getHeaders().getId());
+		decoded = roundTrip(new ErrorMessage(new IllegalStateException("bad"), inputMessage));
+		assertThat(decoded).isInstanceOf(ErrorMessage.class);
+		assertThat(((ErrorMessage) decoded).getPayload()).hasMessage("bad");
+		assertThat(((ErrorMessage) decoded).getOriginalMessage().getPayload()).isEqualTo("in");
+	}
+
+	@Test
+	public void testStoreValues() throws Exception {
+		Message<String> message = new GenericMessage<>("foo");
+		MessageHolder holder = new MessageHolder(message);
+		holder.setTimestamp(1234L);
+		MessageHolder decodedHolder = this.codec.decode(this.codec.encode(holder), MessageHolder.class);
+		assertThat(decodedHolder.getMessage().getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		assertThat(decodedHolder.getMessageMetadata().getMessageId()).isEqualTo(message.getHeaders().getId());
+		assertThat(decodedHolder.getMessageMetadata().getTimestamp()).isEqualTo(1234L);
+
+		SimpleMessageGroup group = new SimpleMessageGroup("group");
+		group.add(message);
+		group.add(new GenericMessage<>("bar"));
+		group.setLastReleasedMessageSequenceNumber(5);
+		MessageGroupMetadata metadata = new MessageGroupMetadata(group);
+		MessageGroupMetadata decodedMetadata =
+				this.codec.decode(this.codec.encode(metadata), MessageGroupMetadata.class);
+		assertThat(decodedMetadata.getMessageIds()).isEqualTo(metadata.getMessageIds());
+		assertThat(decodedMetadata.getLastReleasedMessageSequenceNumber()).isEqualTo(5);
+		assertThat(decodedMetadata.getTimestamp()).isEqualTo(metadata.getTimestamp());
+
+		UUID uuid = UUID.randomUUID();
+		assertThat(this.codec.decode(this.codec.encode(uuid), Object.class)).isEqualTo(uuid);
+	}
+
+	@Test
+	public void testRegistrationIds() {
+		Kryo kryo = new Kryo();
+		new MessageStoreKryoRegistrar().registerTypes(kryo);
+		assertThat(kryo.getRegistration(MessageHeaders.class).getId())
+				.isEqualTo(RegistrationIds.DEFAULT_MESSAGEHEADERS_ID);
+		assertThat(kryo.getRegistration(UUID.class).getId()).isEqualTo(RegistrationIds.DEFAULT_UUID_ID);
+		assertThat(kryo.getRegistration(GenericMessage.class).getId())
+				.isEqualTo(RegistrationIds.DEFAULT_GENERIC_MESSAGE_ID);
+		assertThat(kryo.getRegistration(ErrorMessage.class).getId())
+				.isEqualTo(RegistrationIds.DEFAULT_ERROR_MESSAGE_ID);
+		assertThat(kryo.getRegistration(MutableMessage.class).getId())
+				.isEqualTo(RegistrationIds.DEFAULT_MUTABLE_MESSAGE_ID);
+		assertThat(kryo.getRegistration(AdviceMessage.class).getId())
+				.isEqualTo(RegistrationIds.DEFAULT_ADVICE_MESSAGE_ID);
+		assertThat(kryo.getRegistration(MessageHolder.class).getId())
+				.isEqualTo(RegistrationIds.DEFAULT_MESSAGE_HOLDER_ID);
+		assertThat(kryo.getRegistration(MessageGroupMetadata.class).getId())
+				.isEqualTo(RegistrationIds.DEFAULT_MESSAGE_GROUP_METADATA_ID);
+	}
+
+	@Test
+	public void testSmallerThanJavaSerialization() throws Exception {
+		Message<String> message = MessageBuilder.withPayload("foo")
+				.setCorrelationId("bar")
+				.build();
+		CodecSerializer<Message<?>> serializer = new CodecSerializer<>(this.codec, Message.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.serialize(message, out);
+		byte[] encoded = out.toByteArray();
+		assertThat(encoded.length).isLessThan(new SerializingConverter().convert(message).length);
+		assertThat(serializer.deserialize(new ByteArrayInputStream(encoded)).getHeaders().getId())
+				.isEqualTo(message.getHeaders().getId());
+	}
+
+	private Message<?> roundTrip(Message<?> message) throws Exception {
+		Message<?> decoded = this.codec.decode(this.codec.encode(message), Message.class);
+		assertThat(decoded.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		return decoded;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,16 @@
 
 package org.springframework.integration.config;
 
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -30,8 +34,11 @@ import org.junit.Test;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.context.IntegrationProperties;
 import org.springframework.integration.support.IdGenerators.JdkIdGenerator;
 import org.springframework.integration.support.IdGenerators.SimpleIncrementingIdGenerator;
+import org.springframework.integration.support.IdGenerators.ThreadLocalTimeOrderedIdGenerator;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.IdGenerator;
@@ -204,6 +211,52 @@ public class IdGeneratorConfigurerTests {
 		context.close();
 	}
 
+	@Test
+	public void testTimeOrderedFromProperties() {
+		GenericApplicationContext context = contextWithIdGeneratorProperty("time-ordered");
+		assertThat(TestUtils.getPropertyValue(new MessageHeaders(null), "idGenerator"),
+				instanceOf(ThreadLocalTimeOrderedIdGenerator.class));
+		UUID previous = new MessageHeaders(null).getId();
+		for (int i = 0; i < 10000; i++) {
+			UUID id = new MessageHeaders(null).getId();
+			assertEquals(7, id.version());
+			assertEquals(2, id.variant());
+			assertTrue(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+			assertEquals(previous.getLeastSignificantBits(), id.getLeastSignificantBits());
+			previous = id;
+		}
+		context.close();
+		assertNull(TestUtils.getPropertyValue(new MessageHeaders(null), "idGenerator"));
+	}
+
+	@Test
+	public void testMonotonicFromProperties() {
+		GenericApplicationContext context = contextWithIdGeneratorProperty("monotonic");
+		UUID first = new MessageHeaders(null).getId();
+		UUID second = new MessageHeaders(null).getId();
+		assertEquals(first.getMostSignificantBits(), second.getMostSignificantBits());
+		assertEquals(first.getLeastSignificantBits() + 1, second.getLeastSignificantBits());
+		context.close();
+	}
+
+	@Test
+	public void testClassNameFromProperties() {
+		GenericApplicationContext context = contextWithIdGeneratorProperty(MyIdGenerator.class.getName());
+		assertEquals(new UUID(1, 2), new MessageHeaders(null).getId());
+		context.close();
+	}
+
+	private static GenericApplicationContext contextWithIdGeneratorProperty(String idGenerator) {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBeanDefinition("bfpp", new RootBeanDefinition(DefaultConfiguringBeanFactoryPostProcessor.class));
+		Properties properties = new Properties();
+		properties.setProperty(IntegrationProperties.MESSAGE_ID_GENERATOR, idGenerator);
+		context.getBeanFactory()
+				.registerSingleton(IntegrationContextUtils.INTEGRATION_GLOBAL_PROPERTIES_BEAN_NAME, properties);
+		context.refresh();
+		return context;
+	}
+
 	public static class MyIdGenerator implements IdGenerator {
 
 		@Override
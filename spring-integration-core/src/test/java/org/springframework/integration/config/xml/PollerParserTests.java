@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.config.xml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -30,6 +31,7 @@ import org.junit.Test;
 import org.springframework.beans.factory.parsing.BeanDefinitionParsingException;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.integration.config.TestTrigger;
+import org.springframework.integration.endpoint.PollingConsumer;
 import org.springframework.integration.scheduling.PollerMetadata;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.scheduling.support.PeriodicTrigger;
@@ -115,6 +117,19 @@ public class PollerParserTests {
 		context.close();
 	}
 
+	@Test
+	public void pollerWithReceiveBatchSize() {
+		ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
+				"pollerWithReceiveBatchSize.xml", PollerParserTests.class);
+		PollerMetadata metadata = context.getBean("poller", PollerMetadata.class);
+		assertEquals(10, metadata.getReceiveBatchSize());
+		assertFalse(metadata.isHandleBatchAsList());
+		PollingConsumer endpoint = context.getBean("endpoint", PollingConsumer.class);
+		assertEquals(5, TestUtils.getPropertyValue(endpoint, "receiveBatchSize"));
+		assertTrue(TestUtils.getPropertyValue(endpoint, "handleBatchAsList", Boolean.class));
+		context.close();
+	}
+
 	@Test
 	public void pollerWithTriggerReference() {
 		ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.1
+ */
+public class LoadTrackingLoadBalancingStrategyTests {
+
+	@Test
+	public void leastOutstandingAvoidsBusyHandler() throws Exception {
+		assertBusyHandlerAvoided(new LeastOutstandingLoadBalancingStrategy());
+	}
+
+	@Test
+	public void powerOfTwoChoicesAvoidsBusyHandler() throws Exception {
+		assertBusyHandlerAvoided(new PowerOfTwoChoicesLoadBalancingStrategy());
+	}
+
+	private void assertBusyHandlerAvoided(LoadTrackingLoadBalancingStrategy strategy) throws Exception {
+		DirectChannel channel = new DirectChannel(strategy);
+		CountDownLatch busy = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger slowCount = new AtomicInteger();
+		AtomicInteger fastCount = new AtomicInteger();
+		channel.subscribe(new NamedHandler("slow", m -> {
+			slowCount.incrementAndGet();
+			busy.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		channel.subscribe(new NamedHandler("fast", m -> fastCount.incrementAndGet()));
+
+		ExecutorService exec = Executors.newSingleThreadExecutor();
+		try {
+			// keep sending from another thread until the slow handler is hit and blocks
+			exec.execute(() -> {
+				while (busy.getCount() > 0) {
+					channel.send(new GenericMessage<>("foo"));
+				}
+			});
+			assertThat(busy.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(channel.getHandlerInFlightCounts()).containsEntry("slow", 1);
+
+			int fastBefore = fastCount.get();
+			for (int i = 0; i < 20; i++) {
+				channel.send(new GenericMessage<>("bar"));
+			}
+			assertThat(fastCount.get() - fastBefore).isEqualTo(20);
+			assertThat(slowCount.get()).isEqualTo(1);
+		}
+		finally {
+			release.countDown();
+			exec.shutdown();
+			assertThat(exec.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+		assertThat(channel.getHandlerInFlightCounts()).containsEntry("slow", 0).containsEntry("fast", 0);
+		assertThat(strategy.getHandlerLoads().get("slow").getCompletedCount()).isEqualTo(1);
+		assertThat(channel.getHandlerMeanDurations().get("slow"))
+				.isGreaterThan(channel.getHandlerMeanDurations().get("fast"));
+	}
+
+	@Test
+	public void failoverAndFailureCounts() {
+		LeastOutstandingLoadBalancingStrategy strategy = new LeastOutstandingLoadBalancingStrategy();
+		DirectChannel channel = new DirectChannel(strategy);
+		AtomicInteger handled = new AtomicInteger();
+		MessageHandler failing = new NamedHandler("failing", m -> {
+			throw new IllegalStateException("failed");
+		});
+		channel.subscribe(failing);
+		channel.subscribe(new NamedHandler("working", m -> handled.incrementAndGet()));
+		for (int i = 0; i < 10; i++) {
+			assertThat(channel.send(new GenericMessage<>("foo"))).isTrue();
+		}
+		assertThat(handled.get()).isEqualTo(10);
+		HandlerLoad failingLoad = strategy.getHandlerLoads().get("failing");
+		assertThat(failingLoad.getFailedCount()).isGreaterThan(0);
+		assertThat(failingLoad.getCompletedCount()).isEqualTo(0);
+		assertThat(failingLoad.getInFlight()).isEqualTo(0);
+		assertThat(strategy.getHandlerLoads().get("working").getCompletedCount()).isEqualTo(10);
+
+		channel.unsubscribe(failing);
+		assertThat(channel.getHandlerInFlightCounts()).containsOnlyKeys("working");
+	}
+
+	@Test
+	public void removedHandlerNotTrackedOnCompletion() {
+		LeastOutstandingLoadBalancingStrategy strategy = new LeastOutstandingLoadBalancingStrategy();
+		MessageHandler handler = new NamedHandler("removed", m -> { });
+		HandlerLoad load = strategy.handlingStarted(handler);
+		assertThat(strategy.getHandlerLoads()).containsOnlyKeys("removed");
+		strategy.handlerRemoved(handler);
+		strategy.handlingCompleted(load, 1000, true);
+		assertThat(strategy.getHandlerLoads()).isEmpty();
+		assertThat(load.getInFlight()).isEqualTo(0);
+		assertThat(load.getCompletedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void singleSubscriberIsTracked() {
+		PowerOfTwoChoicesLoadBalancingStrategy strategy = new PowerOfTwoChoicesLoadBalancingStrategy();
+		DirectChannel channel = new DirectChannel(strategy);
+		channel.subscribe(new NamedHandler("only", m -> { }));
+		channel.send(new GenericMessage<>("foo"));
+		assertThat(strategy.getHandlerLoads().get("only").getCompletedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void noFiguresWithRoundRobin() {
+		DirectChannel channel = new DirectChannel();
+		channel.subscribe(new NamedHandler("handler", m -> { }));
+		channel.send(new GenericMessage<>("foo"));
+		assertThat(channel.getHandlerInFlightCounts()).isEmpty();
+		assertThat(channel.getHandlerMeanDurations()).isEmpty();
+	}
+
+	private static class NamedHandler extends AbstractMessageHandler {
+
+		private final MessageHandler delegate;
+
+		NamedHandler(String name, MessageHandler delegate) {
+			setBeanName(name);
+			this.delegate = delegate;
+		}
+
+		@Override
+		protected void handleMessageInternal(Message<?> message) {
+			this.delegate.handleMessage(message);
+		}
+
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dsl.fusion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.FixedSubscriberChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.config.EnableIntegration;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.graph.Graph;
+import org.springframework.integration.graph.IntegrationGraphServer;
+import org.springframework.integration.graph.IntegrationNode;
+import org.springframework.integration.graph.MessageChannelNode;
+import org.springframework.integration.handler.advice.RequestHandlerRetryAdvice;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.PollableChannel;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * @since 5.1
+ */
+@RunWith(SpringRunner.class)
+@DirtiesContext
+public class FusedFlowTests {
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	@Qualifier("fusedFlow.input")
+	private MessageChannel fusedFlowInput;
+
+	@Autowired
+	@Qualifier("partiallyFusedFlow.input")
+	private MessageChannel partiallyFusedFlowInput;
+
+	@Autowired
+	private PollableChannel results;
+
+	@Autowired
+	private IntegrationGraphServer graphServer;
+
+	@Test
+	public void fusedStepsAreCalledDirectly() {
+		this.fusedFlowInput.send(new GenericMessage<>("foo"));
+		this.fusedFlowInput.send(new GenericMessage<>("ab"));
+		assertThat(this.results.receive(10_000).getPayload()).isEqualTo("FOO!");
+		assertThat(this.results.receive(0)).isNull();
+
+		assertThat(this.applicationContext.getBeansOfType(FixedSubscriberChannel.class).keySet()
+				.stream()
+				.filter(name -> name.startsWith("fusedFlow.")))
+				.hasSize(3);
+		assertThat(this.applicationContext.getBeansOfType(DirectChannel.class).keySet()
+				.stream()
+				.filter(name -> name.startsWith("fusedFlow.")))
+				.containsExactly("fusedFlow.input");
+	}
+
+	@Test
+	public void statefulAndManagedEndpointsAreNotFused() {
+		this.partiallyFusedFlowInput.send(new GenericMessage<>("foo"));
+		assertThat(this.results.receive(10_000).getPayload()).isEqualTo("FOO");
+		assertThat(this.applicationContext.getBeansOfType(DirectChannel.class).keySet()
+				.stream()
+				.filter(name -> name.startsWith("partiallyFusedFlow.")))
+				.hasSize(3);
+		assertThat(this.applicationContext.getBeansOfType(FixedSubscriberChannel.class).keySet()
+				.stream()
+				.filter(name -> name.startsWith("partiallyFusedFlow.")))
+				.hasSize(1);
+	}
+
+	@Test
+	public void graphLinksFusedChannels() {
+		Graph graph = this.graphServer.getGraph();
+		this.applicationContext.getBeansOfType(FixedSubscriberChannel.class).keySet()
+				.stream()
+				.filter(name -> name.startsWith("fusedFlow."))
+				.forEach(name -> {
+					int nodeId = graph.getNodes()
+							.stream()
+							.filter(node -> node instanceof MessageChannelNode && name.equals(node.getName()))
+							.mapToInt(IntegrationNode::getNodeId)
+							.findFirst()
+							.getAsInt();
+					assertThat(graph.getLinks()
+							.stream()
+							.filter(link -> link.getFrom() == nodeId || link.getTo() == nodeId))
+							.hasSize(2);
+				});
+	}
+
+	@Configuration
+	@EnableIntegration
+	public static class ContextConfiguration {
+
+		@Bean
+		public PollableChannel results() {
+			return new QueueChannel();
+		}
+
+		@Bean
+		public IntegrationGraphServer graphServer() {
+			return new IntegrationGraphServer();
+		}
+
+		@Bean
+		public IntegrationFlow fusedFlow() {
+			return f -> f
+					.fused()
+					.<String, String>transform(String::toUpperCase)
+					.<String>filter(p -> p.length() > 2)
+					.<String, String>transform(p -> p + "!")
+					.bridge()
+					.channel("results");
+		}
+
+		@Bean
+		public IntegrationFlow partiallyFusedFlow() {
+			return f -> f
+					.fused()
+					.<String, String>transform(String::toUpperCase)
+					.bridge(e -> e.role("bridges"))
+					.<String>filter(p -> true, e -> e.advice(new RequestHandlerRetryAdvice()))
+					.<String, String>transform(p -> p)
+					.channel("results");
+		}
+
+	}
+
+}
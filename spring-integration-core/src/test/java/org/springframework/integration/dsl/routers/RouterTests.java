@@ -28,6 +28,8 @@ import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
@@ -38,6 +40,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.integration.annotation.Router;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.config.EnableIntegration;
@@ -46,6 +49,7 @@ import org.springframework.integration.dsl.IntegrationFlow;
 import org.springframework.integration.dsl.IntegrationFlows;
 import org.springframework.integration.dsl.MessageChannels;
 import org.springframework.integration.expression.FunctionExpression;
+import org.springframework.integration.handler.ReplyRequiredException;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -498,6 +502,47 @@ public class RouterTests {
 		assertThat(((List<?>) payload).size(), greaterThanOrEqualTo(1));
 	}
 
+	@Autowired
+	@Qualifier("asyncScatterGatherFlow.input")
+	private MessageChannel asyncScatterGatherFlowInput;
+
+	@Autowired
+	private CountDownLatch scatterGatherLatch;
+
+	@Test
+	public void testAsyncScatterGather() {
+		QueueChannel replyChannel = new QueueChannel();
+		Message<String> request = MessageBuilder.withPayload("foo")
+				.setReplyChannel(replyChannel)
+				.build();
+		// the recipients wait for the latch, so send() returns only if the gathering is not awaited
+		this.asyncScatterGatherFlowInput.send(request);
+		assertNull(replyChannel.receive(0));
+		this.scatterGatherLatch.countDown();
+		Message<?> gatherResult = replyChannel.receive(10000);
+		assertNotNull(gatherResult);
+		assertEquals(Arrays.asList("foo", "foo"), gatherResult.getPayload());
+	}
+
+	@Autowired
+	@Qualifier("asyncScatterGatherTimeoutFlow.input")
+	private MessageChannel asyncScatterGatherTimeoutFlowInput;
+
+	@Test
+	public void testAsyncScatterGatherTimeout() {
+		QueueChannel replyChannel = new QueueChannel();
+		QueueChannel errorChannel = new QueueChannel();
+		Message<String> request = MessageBuilder.withPayload("foo")
+				.setReplyChannel(replyChannel)
+				.setErrorChannel(errorChannel)
+				.build();
+		this.asyncScatterGatherTimeoutFlowInput.send(request);
+		Message<?> error = errorChannel.receive(10000);
+		assertNotNull(error);
+		assertThat(error.getPayload(), instanceOf(ReplyRequiredException.class));
+		assertNull(replyChannel.receive(0));
+	}
+
 
 	@Autowired
 	@Qualifier("exceptionTypeRouteFlow.input")
@@ -773,6 +818,51 @@ public class RouterTests {
 									.gatherTimeout(10_000));
 		}
 
+		@Bean
+		public CountDownLatch scatterGatherLatch() {
+			return new CountDownLatch(1);
+		}
+
+		@Bean
+		public IntegrationFlow asyncScatterGatherFlow() {
+			return f -> f
+					.scatterGather(scatterer -> scatterer
+									.applySequence(true)
+									.recipientFlow(sf -> sf
+											.channel(c -> c.executor(new SimpleAsyncTaskExecutor()))
+											.handle((p, h) -> awaitScatterGatherLatch(p)))
+									.recipientFlow(sf -> sf
+											.channel(c -> c.executor(new SimpleAsyncTaskExecutor()))
+											.handle((p, h) -> awaitScatterGatherLatch(p))),
+							null,
+							scatterGather -> scatterGather
+									.async(true)
+									.gatherTimeout(10_000));
+		}
+
+		@Bean
+		public IntegrationFlow asyncScatterGatherTimeoutFlow() {
+			return f -> f
+					.scatterGather(scatterer -> scatterer
+									.applySequence(true)
+									.recipientFlow(sf -> sf.<String>filter(p -> false)),
+							null,
+							scatterGather -> scatterGather
+									.async(true)
+									.requiresReply(true)
+									.gatherTimeout(100));
+		}
+
+		private Object awaitScatterGatherLatch(Object payload) {
+			try {
+				scatterGatherLatch().await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return payload;
+		}
+
 	}
 
 	private static class RoutingTestBean {
@@ -19,6 +19,8 @@ package org.springframework.integration.endpoint;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
@@ -28,6 +30,7 @@ import org.mockito.Mockito;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.integration.MessageRejectedException;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.support.MessagingExceptionWrapper;
 import org.springframework.integration.test.util.OnlyOnceTrigger;
 import org.springframework.messaging.Message;
@@ -170,6 +173,52 @@ public class PollingConsumerEndpointTests {
 	}
 
 
+	@Test
+	public void testReceiveBatchDispatchesEachMessage() {
+		QueueChannel channel = new QueueChannel();
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		PollingConsumer batchEndpoint = new PollingConsumer(channel, this.consumer);
+		batchEndpoint.setTaskScheduler(this.taskScheduler);
+		batchEndpoint.setTrigger(this.trigger);
+		batchEndpoint.setBeanFactory(mock(BeanFactory.class));
+		batchEndpoint.setReceiveTimeout(0);
+		batchEndpoint.setMaxMessagesPerPoll(1);
+		batchEndpoint.setReceiveBatchSize(3);
+		batchEndpoint.afterPropertiesSet();
+		batchEndpoint.start();
+		this.trigger.await();
+		batchEndpoint.stop();
+		assertEquals(3, this.consumer.counter.get());
+		assertEquals(2, channel.getQueueSize());
+	}
+
+	@Test
+	public void testReceiveBatchAsList() {
+		QueueChannel channel = new QueueChannel();
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		List<Message<?>> received = new ArrayList<>();
+		PollingConsumer batchEndpoint =
+				new PollingConsumer(channel, m -> received.addAll((List<Message<?>>) m.getPayload()));
+		batchEndpoint.setTaskScheduler(this.taskScheduler);
+		batchEndpoint.setTrigger(this.trigger);
+		batchEndpoint.setBeanFactory(mock(BeanFactory.class));
+		batchEndpoint.setReceiveTimeout(0);
+		batchEndpoint.setMaxMessagesPerPoll(1);
+		batchEndpoint.setReceiveBatchSize(10);
+		batchEndpoint.setHandleBatchAsList(true);
+		batchEndpoint.afterPropertiesSet();
+		batchEndpoint.start();
+		this.trigger.await();
+		batchEndpoint.stop();
+		assertEquals(5, received.size());
+		assertEquals(4, received.get(4).getPayload());
+	}
+
+
 	private static class TestConsumer implements MessageHandler {
 
 		private volatile AtomicInteger counter = new AtomicInteger();
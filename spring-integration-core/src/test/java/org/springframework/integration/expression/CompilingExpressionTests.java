@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.expression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.context.IntegrationProperties;
+import org.springframework.integration.handler.ExpressionEvaluatingMessageProcessor;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.management.micrometer.MicrometerMetricsCaptor;
+import org.springframework.integration.transformer.ExpressionEvaluatingTransformer;
+import org.springframework.integration.transformer.MessageTransformingHandler;
+import org.springframework.messaging.support.GenericMessage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @since 5.1
+ */
+public class CompilingExpressionTests {
+
+	private final SpelExpressionParser parser = new SpelExpressionParser();
+
+	@Test
+	public void immediateCompilesAfterFirstEvaluation() {
+		CompilingExpression expression = compiling("toUpperCase()", SpelCompilerMode.IMMEDIATE);
+		assertThat(expression.isCompiled()).isFalse();
+		assertThat(expression.getValue("foo")).isEqualTo("FOO");
+		assertThat(expression.isCompiled()).isTrue();
+		assertThat(expression.getValue("bar")).isEqualTo("BAR");
+		assertThat(expression.getEvaluationCount()).isEqualTo(2);
+		assertThat(expression.getTotalEvaluationTime()).isGreaterThan(0);
+	}
+
+	@Test
+	public void mixedCompilesAfterThreshold() {
+		CompilingExpression expression = compiling("toUpperCase()", SpelCompilerMode.MIXED);
+		for (int i = 0; i < CompilingExpression.MIXED_INTERPRETED_THRESHOLD; i++) {
+			expression.getValue("foo");
+		}
+		assertThat(expression.isCompiled()).isFalse();
+		expression.getValue("foo");
+		assertThat(expression.isCompiled()).isTrue();
+	}
+
+	@Test
+	public void offIsOnlyMeasured() {
+		CompilingExpression expression = compiling("toUpperCase()", SpelCompilerMode.OFF);
+		for (int i = 0; i < 200; i++) {
+			expression.getValue("foo");
+		}
+		assertThat(expression.isCompiled()).isFalse();
+		assertThat(expression.isInterpretedOnly()).isTrue();
+		assertThat(expression.getEvaluationCount()).isEqualTo(200);
+		assertThat(expression.getMeanEvaluationTime()).isGreaterThan(0);
+	}
+
+	@Test
+	public void revertsToInterpretedWhenCompiledFormFails() {
+		CompilingExpression expression = compiling("toString()", SpelCompilerMode.IMMEDIATE);
+		expression.getValue("foo");
+		assertThat(expression.isCompiled()).isTrue();
+		assertThat(expression.getValue(42)).isEqualTo("42");
+		assertThat(expression.isCompiled()).isFalse();
+		assertThat(expression.isInterpretedOnly()).isTrue();
+		assertThat(expression.getValue("bar")).isEqualTo("bar");
+		assertThat(expression.isCompiled()).isFalse();
+	}
+
+	@Test
+	public void compilerModeFromIntegrationProperties() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		Properties properties = new Properties();
+		properties.setProperty(IntegrationProperties.SPEL_COMPILER_MODE, "immediate");
+		beanFactory.registerSingleton(IntegrationContextUtils.INTEGRATION_GLOBAL_PROPERTIES_BEAN_NAME, properties);
+		ExpressionEvaluatingMessageProcessor<Object> processor =
+				new ExpressionEvaluatingMessageProcessor<>("payload.toUpperCase()");
+		processor.setBeanFactory(beanFactory);
+		Expression expression = processor.getExpression();
+		assertThat(expression).isInstanceOf(CompilingExpression.class);
+		assertThat(((CompilingExpression) expression).getCompilerMode()).isEqualTo(SpelCompilerMode.IMMEDIATE);
+		assertThat(processor.processMessage(new GenericMessage<>("foo"))).isEqualTo("FOO");
+		assertThat(processor.processMessage(new GenericMessage<>("bar"))).isEqualTo("BAR");
+		assertThat(((CompilingExpression) expression).getEvaluationCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void statisticsRegisteredAsGauges() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		Properties properties = new Properties();
+		properties.setProperty(IntegrationProperties.SPEL_COMPILER_MODE, "immediate");
+		beanFactory.registerSingleton(IntegrationContextUtils.INTEGRATION_GLOBAL_PROPERTIES_BEAN_NAME, properties);
+		MessageTransformingHandler handler =
+				new MessageTransformingHandler(new ExpressionEvaluatingTransformer(
+						this.parser.parseExpression("payload.toUpperCase()")));
+		handler.setBeanFactory(beanFactory);
+		handler.setBeanName("upperCase");
+		handler.afterPropertiesSet();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		handler.registerMetricsCaptor(new MicrometerMetricsCaptor(registry));
+
+		QueueChannel replies = new QueueChannel();
+		handler.handleMessage(MessageBuilder.withPayload("foo").setReplyChannel(replies).build());
+		handler.handleMessage(MessageBuilder.withPayload("bar").setReplyChannel(replies).build());
+		assertThat(replies.receive(0).getPayload()).isEqualTo("FOO");
+		assertThat(replies.receive(0).getPayload()).isEqualTo("BAR");
+		assertThat(registry.get("spring.integration.expression.evaluations")
+				.tag("name", "upperCase")
+				.tag("expression", "payload.toUpperCase()")
+				.gauge().value()).isEqualTo(2);
+		assertThat(registry.get("spring.integration.expression.evaluation.mean")
+				.tag("name", "upperCase")
+				.gauge().value()).isGreaterThan(0);
+		assertThat(registry.get("spring.integration.expression.compiled")
+				.tag("name", "upperCase")
+				.gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	public void noCompilingExpressionByDefault() {
+		Expression expression = this.parser.parseExpression("payload");
+		assertThat(ExpressionUtils.compilingExpression(expression, new DefaultListableBeanFactory()))
+				.isSameAs(expression);
+	}
+
+	@Test
+	public void invalidCompilerMode() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		Properties properties = new Properties();
+		properties.setProperty(IntegrationProperties.SPEL_COMPILER_MODE, "always");
+		beanFactory.registerSingleton(IntegrationContextUtils.INTEGRATION_GLOBAL_PROPERTIES_BEAN_NAME, properties);
+		assertThatThrownBy(() -> ExpressionUtils.compilingExpression(this.parser.parseExpression("payload"),
+				beanFactory))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("always");
+	}
+
+	private CompilingExpression compiling(String expression, SpelCompilerMode compilerMode) {
+		return new CompilingExpression((SpelExpression) this.parser.parseExpression(expression), compilerMode);
+	}
+
+}
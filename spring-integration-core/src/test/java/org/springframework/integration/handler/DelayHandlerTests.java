@@ -528,6 +528,64 @@ public class DelayHandlerTests {
 		assertEquals(1, works.size());
 	}
 
+	@Test
+	public void timingWheelReleasesDelayedMessagesInBulk() {
+		QueueChannel results = new QueueChannel();
+		this.delayHandler.setOutputChannel(results);
+		this.delayHandler.setDefaultDelay(50);
+		this.delayHandler.setTimingWheel(true);
+		this.delayHandler.setTickDuration(10);
+		this.delayHandler.setTicksPerWheel(8);
+		startDelayerHandler();
+
+		for (int i = 0; i < 100; i++) {
+			this.input.send(new GenericMessage<>(i));
+		}
+		assertEquals(8, this.delayHandler.getTimingWheelSlotCount());
+		assertTrue(this.delayHandler.getTimingWheelOccupiedSlotCount() > 0);
+		assertTrue(this.delayHandler.getTimingWheelMaxSlotSize() > 0);
+
+		for (int i = 0; i < 100; i++) {
+			assertNotNull(results.receive(10000));
+		}
+		assertEquals(0, this.delayHandler.getTimingWheelSize());
+		assertEquals(0, this.delayHandler.getTimingWheelOccupiedSlotCount());
+		assertEquals(0, this.delayHandler.getDelayedMessageCount());
+	}
+
+	@Test
+	public void timingWheelReloadsPersistedMessagesIncrementally() throws Exception {
+		MessageGroupStore messageGroupStore = new SimpleMessageStore();
+		this.delayHandler.setDefaultDelay(3_600_000);
+		this.delayHandler.setMessageStore(messageGroupStore);
+		startDelayerHandler();
+		for (int i = 0; i < 10; i++) {
+			this.input.send(new GenericMessage<>(i));
+		}
+		assertEquals(10, messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
+
+		// emulate restart with a shorter delay
+		this.taskScheduler.destroy();
+		this.taskScheduler.afterPropertiesSet();
+		QueueChannel results = new QueueChannel();
+		this.delayHandler = new DelayHandler(DELAYER_MESSAGE_GROUP_ID, this.taskScheduler);
+		this.delayHandler.setOutputChannel(results);
+		this.delayHandler.setDefaultDelay(0);
+		this.delayHandler.setMessageStore(messageGroupStore);
+		this.delayHandler.setBeanFactory(mock(BeanFactory.class));
+		this.delayHandler.setTimingWheel(true);
+		this.delayHandler.setTickDuration(20);
+		this.delayHandler.setReloadBatchSize(3);
+		startDelayerHandler();
+
+		for (int i = 0; i < 10; i++) {
+			assertNotNull(results.receive(10000));
+		}
+		assertNull(results.receive(50));
+		assertEquals(0, messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
+		this.delayHandler.destroy();
+	}
+
 
 	private void waitForLatch(long timeout) {
 		try {
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.1
+ */
+public class DirectMethodInvokerTests {
+
+	@Test
+	public void payloadAndHeadersAreExtractedDirectly() throws Exception {
+		MethodInvokingMessageProcessor<Object> processor =
+				new MethodInvokingMessageProcessor<>(new Service(), "handle");
+		processor.setUseDirectInvoker(true);
+		Message<String> message = MessageBuilder.withPayload("foo").setHeader("bar", "baz").build();
+		assertThat(processor.processMessage(message)).isEqualTo("foo:baz:" + message.getHeaders().getId());
+		assertThat(TestUtils.getPropertyValue(processor, "delegate.handlerMethod.directInvoker")).isNotNull();
+	}
+
+	@Test
+	public void fallBackWhenConversionIsRequired() throws Exception {
+		MethodInvokingMessageProcessor<Object> processor =
+				new MethodInvokingMessageProcessor<>(new Service(), "increment");
+		processor.setUseDirectInvoker(true);
+		assertThat(processor.processMessage(new GenericMessage<>(41))).isEqualTo(42);
+		assertThat(processor.processMessage(new GenericMessage<>("41"))).isEqualTo(42);
+		assertThat(TestUtils.getPropertyValue(processor, "delegate.handlerMethod.directInvoker")).isNotNull();
+	}
+
+	@Test
+	public void optionalHeaderIsNull() throws Exception {
+		MethodInvokingMessageProcessor<Object> processor =
+				new MethodInvokingMessageProcessor<>(new Service(), "optionalHeader");
+		processor.setUseDirectInvoker(true);
+		assertThat(processor.processMessage(new GenericMessage<>("foo"))).isEqualTo("foo:none");
+		assertThat(processor.processMessage(MessageBuilder.withPayload("foo").setHeader("qux", "bar").build()))
+				.isEqualTo("foo:bar");
+	}
+
+	@Test
+	public void noDirectInvokerForHeaderExpressions() throws Exception {
+		MethodInvokingMessageProcessor<Object> processor =
+				new MethodInvokingMessageProcessor<>(new Service(), "headerProperty");
+		processor.setUseDirectInvoker(true);
+		Message<String> message = MessageBuilder.withPayload("foo").setHeader("bar", "baz").build();
+		assertThat(processor.processMessage(message)).isEqualTo("foo:3");
+		assertThat(TestUtils.getPropertyValue(processor, "delegate.handlerMethod.directInvoker")).isNull();
+	}
+
+	@Test
+	public void disabledByDefault() throws Exception {
+		MethodInvokingMessageProcessor<Object> processor =
+				new MethodInvokingMessageProcessor<>(new Service(), "increment");
+		assertThat(processor.processMessage(new GenericMessage<>(1))).isEqualTo(2);
+		assertThat(TestUtils.getPropertyValue(processor, "delegate.handlerMethod.directInvoker")).isNull();
+	}
+
+	@Test
+	public void methodSelectionIsCachedPerPayloadType() throws Exception {
+		MethodInvokingMessageProcessor<Object> processor = new MethodInvokingMessageProcessor<>(new Overloaded(),
+				ServiceActivator.class);
+		processor.setUseDirectInvoker(true);
+		assertThat(processor.processMessage(new GenericMessage<>("foo"))).isEqualTo("string:foo");
+		assertThat(processor.processMessage(new GenericMessage<>(1))).isEqualTo("integer:1");
+		assertThat(processor.processMessage(new GenericMessage<>("bar"))).isEqualTo("string:bar");
+		assertThat(TestUtils.getPropertyValue(processor, "delegate.handlerMethodsByPayloadType", Map.class))
+				.hasSize(2);
+	}
+
+	public static class Service {
+
+		public String handle(String payload, @Header("bar") String bar, @Headers Map<String, Object> headers) {
+			return payload + ":" + bar + ":" + headers.get("id");
+		}
+
+		public int increment(int value) {
+			return value + 1;
+		}
+
+		public String optionalHeader(String payload, @Header(name = "qux", required = false) String qux) {
+			return payload + ":" + (qux == null ? "none" : qux);
+		}
+
+		public String headerProperty(String payload, @Header("bar.length()") int length) {
+			return payload + ":" + length;
+		}
+
+	}
+
+	public static class Overloaded {
+
+		@ServiceActivator
+		public String handle(String payload) {
+			return "string:" + payload;
+		}
+
+		@ServiceActivator
+		public String handle(Integer payload) {
+			return "integer:" + payload;
+		}
+
+	}
+
+}
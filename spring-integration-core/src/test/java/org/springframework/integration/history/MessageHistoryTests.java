@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.messaging.Message;
+
+/**
+ * @since 5.1
+ */
+public class MessageHistoryTests {
+
+	@Test
+	public void testWriteDoesNotAffectPreviousHistory() {
+		Message<String> message = MessageBuilder.withPayload("foo").build();
+		message = MessageHistory.write(message, new TestComponent("first"));
+		MessageHistory first = MessageHistory.read(message);
+		message = MessageHistory.write(message, new TestComponent("second"));
+		message = MessageHistory.write(message, new TestComponent("org.springframework.integration.internal"));
+		MessageHistory second = MessageHistory.read(message);
+		message = MessageHistory.write(message, new TestComponent("third"));
+		MessageHistory third = MessageHistory.read(message);
+
+		assertThat(first).hasSize(1);
+		assertThat(second).hasSize(2);
+		assertThat(third).hasSize(3);
+		assertThat(third.toString()).isEqualTo("first,second,third");
+		assertThat(second.toString()).isEqualTo("first,second");
+		assertThat(third.get(0)).isSameAs(first.get(0));
+		Properties entry = third.get(2);
+		assertThat(entry).isInstanceOf(MessageHistory.Entry.class);
+		assertThat(entry.getProperty(MessageHistory.NAME_PROPERTY)).isEqualTo("third");
+		assertThat(entry.getProperty(MessageHistory.TYPE_PROPERTY)).isEqualTo("test");
+		assertThat(entry.getProperty(MessageHistory.TIMESTAMP_PROPERTY)).isNotNull();
+	}
+
+	@Test
+	public void testSingleConstructorForDataMappers() {
+		// Spring Data can only instantiate the history when the constructor is unambiguous
+		assertThat(MessageHistory.class.getDeclaredConstructors()).hasSize(1);
+		assertThat(MessageHistory.class.getDeclaredConstructors()[0].getParameterTypes())
+				.containsExactly(List.class);
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		Message<String> message = MessageBuilder.withPayload("foo").build();
+		for (int i = 0; i < 5; i++) {
+			message = MessageHistory.write(message, new TestComponent("component" + i));
+		}
+		MessageHistory history = MessageHistory.read(message);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+			stream.writeObject(message);
+		}
+		Message<?> deserialized;
+		try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			deserialized = (Message<?>) stream.readObject();
+		}
+		MessageHistory deserializedHistory = MessageHistory.read(deserialized);
+		assertThat(deserializedHistory).containsExactlyElementsOf(history);
+
+		Message<?> next = MessageHistory.write(deserialized, new TestComponent("next"));
+		assertThat(MessageHistory.read(next).toString())
+				.isEqualTo("component0,component1,component2,component3,component4,next");
+	}
+
+	private static final class TestComponent implements NamedComponent {
+
+		private final String name;
+
+		TestComponent(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String getComponentName() {
+			return this.name;
+		}
+
+		@Override
+		public String getComponentType() {
+			return "test";
+		}
+
+	}
+
+}
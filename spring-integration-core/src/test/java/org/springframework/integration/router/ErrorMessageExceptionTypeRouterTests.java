@@ -18,6 +18,7 @@ package org.springframework.integration.router;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -263,6 +264,35 @@ public class ErrorMessageExceptionTypeRouterTests {
 		}
 	}
 
+	@Test
+	public void typeResolutionCachedUntilMappingsChange() {
+		Message<?> failedMessage = new GenericMessage<String>("foo");
+		IllegalArgumentException rootCause = new IllegalArgumentException("bad argument");
+		MessageHandlingException error = new MessageHandlingException(failedMessage, "failed", rootCause);
+		ErrorMessage message = new ErrorMessage(error);
+		ErrorMessageExceptionTypeRouter router = new ErrorMessageExceptionTypeRouter();
+		router.setBeanFactory(beanFactory);
+		router.setApplicationContext(TestUtils.createTestApplicationContext());
+		router.setChannelMapping(RuntimeException.class.getName(), "runtimeExceptionChannel");
+		router.setDefaultOutputChannel(defaultChannel);
+		router.afterPropertiesSet();
+
+		router.handleMessage(message);
+		router.handleMessage(message);
+		assertNotNull(runtimeExceptionChannel.receive(0));
+		assertNotNull(runtimeExceptionChannel.receive(0));
+		assertEquals(2, router.getTypeCacheMisses());
+		assertEquals(2, router.getTypeCacheHits());
+		assertEquals(2, router.getTypeCacheSize());
+
+		router.setChannelMapping(IllegalArgumentException.class.getName(), "illegalArgumentChannel");
+		assertEquals(0, router.getTypeCacheSize());
+		router.handleMessage(message);
+		assertNotNull(illegalArgumentChannel.receive(0));
+		assertNull(runtimeExceptionChannel.receive(0));
+		assertEquals(4, router.getTypeCacheMisses());
+	}
+
 	@Test
 	public void testLateClassBinding() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(Config.class);
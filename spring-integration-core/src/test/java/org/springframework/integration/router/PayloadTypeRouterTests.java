@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -566,6 +566,40 @@ public class PayloadTypeRouterTests {
 		router.handleMessage(message);
 	}
 
+	@Test
+	public void typeResolutionCachedUntilMappingsChange() {
+		QueueChannel stringChannel = new QueueChannel();
+		QueueChannel charSequenceChannel = new QueueChannel();
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("stringChannel", stringChannel);
+		beanFactory.registerSingleton("charSequenceChannel", charSequenceChannel);
+
+		PayloadTypeRouter router = new PayloadTypeRouter();
+		router.setChannelMapping(CharSequence.class.getName(), "charSequenceChannel");
+		router.setBeanFactory(beanFactory);
+
+		Message<String> message = new GenericMessage<String>("test");
+		router.handleMessage(message);
+		router.handleMessage(message);
+		assertNotNull(charSequenceChannel.receive(0));
+		assertNotNull(charSequenceChannel.receive(0));
+		assertEquals(1, router.getTypeCacheMisses());
+		assertEquals(1, router.getTypeCacheHits());
+		assertEquals(1, router.getTypeCacheSize());
+
+		router.setChannelMapping(String.class.getName(), "stringChannel");
+		assertEquals(0, router.getTypeCacheSize());
+		router.handleMessage(message);
+		assertEquals(message, stringChannel.receive(0));
+		assertNull(charSequenceChannel.receive(0));
+		assertEquals(2, router.getTypeCacheMisses());
+
+		router.removeChannelMapping(String.class.getName());
+		router.handleMessage(message);
+		assertEquals(message, charSequenceChannel.receive(0));
+		assertEquals(3, router.getTypeCacheMisses());
+	}
+
 	@SuppressWarnings("serial")
 	public static class C1 extends C2 implements I1A, I1B { }
 
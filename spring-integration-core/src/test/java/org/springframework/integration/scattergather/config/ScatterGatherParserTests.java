@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,6 +82,7 @@ public class ScatterGatherParserTests {
 		assertThat(TestUtils.getPropertyValue(scatterGather, "gatherEndpoint"), instanceOf(EventDrivenConsumer.class));
 		assertTrue(TestUtils.getPropertyValue(scatterGather, "gatherEndpoint.running", Boolean.class));
 		assertEquals(100L, TestUtils.getPropertyValue(scatterGather, "gatherTimeout"));
+		assertFalse(TestUtils.getPropertyValue(scatterGather, "async", Boolean.class));
 
 		assertTrue(this.beanFactory.containsBean("myGatherer"));
 		Object gatherer = this.beanFactory.getBean("myGatherer");
@@ -109,4 +110,14 @@ public class ScatterGatherParserTests {
 
 	}
 
+	@Test
+	public void testAsync() {
+		MessageHandler scatterGather = this.beanFactory.getBean("scatterGather3.handler", MessageHandler.class);
+		assertThat(scatterGather, instanceOf(ScatterGatherHandler.class));
+		assertTrue(TestUtils.getPropertyValue(scatterGather, "async", Boolean.class));
+		assertEquals(100L, TestUtils.getPropertyValue(scatterGather, "gatherTimeout"));
+		assertSame(this.beanFactory.getBean("scatterChannel"),
+				TestUtils.getPropertyValue(scatterGather, "scatterChannel"));
+	}
+
 }
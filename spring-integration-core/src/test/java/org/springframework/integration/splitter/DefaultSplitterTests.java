@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 import org.junit.Test;
@@ -227,4 +228,72 @@ public class DefaultSplitterTests {
 				.verifyComplete();
 	}
 
+	@Test
+	public void splitListPayloadInChunks() {
+		Message<?> message = new GenericMessage<>(Arrays.asList("a", "b", "c", "d", "e"));
+		QueueChannel replyChannel = new QueueChannel();
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setChunkSize(2);
+		splitter.setOutputChannel(replyChannel);
+		splitter.handleMessage(message);
+		List<Message<?>> replies = replyChannel.clear();
+		assertEquals(3, replies.size());
+		assertEquals(Arrays.asList("a", "b"), replies.get(0).getPayload());
+		assertEquals(Arrays.asList("c", "d"), replies.get(1).getPayload());
+		assertEquals(Collections.singletonList("e"), replies.get(2).getPayload());
+		for (int i = 0; i < replies.size(); i++) {
+			assertEquals(i + 1, new IntegrationMessageHeaderAccessor(replies.get(i)).getSequenceNumber());
+			assertEquals(3, new IntegrationMessageHeaderAccessor(replies.get(i)).getSequenceSize());
+		}
+	}
+
+	@Test
+	public void splitIteratorInChunksKeepsMessagesApart() {
+		Message<?> item = new GenericMessage<>("m");
+		Message<?> message = new GenericMessage<>(Arrays.<Object>asList("a", "b", "c", item, "d").iterator());
+		QueueChannel replyChannel = new QueueChannel();
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setChunkSize(2);
+		splitter.setOutputChannel(replyChannel);
+		splitter.handleMessage(message);
+		List<Message<?>> replies = replyChannel.clear();
+		assertEquals(4, replies.size());
+		assertEquals(Arrays.asList("a", "b"), replies.get(0).getPayload());
+		assertEquals(Collections.singletonList("c"), replies.get(1).getPayload());
+		assertEquals("m", replies.get(2).getPayload());
+		assertEquals(Collections.singletonList("d"), replies.get(3).getPayload());
+		assertEquals(4, new IntegrationMessageHeaderAccessor(replies.get(3)).getSequenceNumber());
+	}
+
+	@Test
+	public void splitFluxReactiveInChunksWithMaxInFlight() {
+		List<Long> requests = new CopyOnWriteArrayList<>();
+		Flux<String> items =
+				Flux.range(1, 5)
+						.map(String::valueOf)
+						.hide()
+						.doOnRequest(requests::add);
+		Message<?> message = new GenericMessage<>(items);
+		FluxMessageChannel replyChannel = new FluxMessageChannel();
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setChunkSize(2);
+		splitter.setMaxInFlight(2);
+		splitter.setOutputChannel(replyChannel);
+
+		splitter.handleMessage(message);
+
+		Flux<Object> testFlux =
+				Flux.from(replyChannel)
+						.map(Message::getPayload);
+
+		StepVerifier.create(testFlux)
+				.expectNext(Arrays.asList("1", "2"), Arrays.asList("3", "4"), Collections.singletonList("5"))
+				.then(() ->
+						((Subscriber<?>) TestUtils.getPropertyValue(replyChannel, "subscribers", List.class).get(0))
+								.onComplete())
+				.verifyComplete();
+
+		assertTrue(requests.stream().allMatch(n -> n <= 2));
+	}
+
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.integration.support.locks.DefaultLockRegistry;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.1
+ */
+public class CachingMessageGroupStoreTests {
+
+	private SimpleMessageStore targetStore;
+
+	private CachingMessageGroupStore store;
+
+	@Before
+	public void setup() {
+		this.targetStore = spy(new SimpleMessageStore());
+		this.store = new CachingMessageGroupStore(this.targetStore);
+		this.store.setWriteDelay(60000);
+		this.store.afterPropertiesSet();
+	}
+
+	@After
+	public void tearDown() {
+		this.store.destroy();
+	}
+
+	@Test
+	public void testReadThrough() {
+		this.targetStore.addMessagesToGroup("foo", new GenericMessage<>("foo"));
+		assertThat(this.store.getMessageGroup("foo").size()).isEqualTo(1);
+		assertThat(this.store.messageGroupSize("foo")).isEqualTo(1);
+		assertThat(this.store.getOneMessageFromGroup("foo").getPayload()).isEqualTo("foo");
+		verify(this.targetStore, times(1)).getMessageGroup("foo");
+		assertThat(this.store.getCacheMisses()).isEqualTo(1);
+		assertThat(this.store.getCacheHits()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	public void testWriteBehindCoalescesWrites() {
+		Message<?> message1 = new GenericMessage<>("1");
+		Message<?> message2 = new GenericMessage<>("2");
+		Message<?> message3 = new GenericMessage<>("3");
+		this.store.addMessagesToGroup("foo", message1);
+		this.store.addMessagesToGroup("foo", message2, message3);
+		this.store.setLastReleasedSequenceNumberForGroup("foo", 1);
+		this.store.setLastReleasedSequenceNumberForGroup("foo", 2);
+		assertThat(this.store.messageGroupSize("foo")).isEqualTo(3);
+		assertThat(this.targetStore.messageGroupSize("foo")).isEqualTo(0);
+		assertThat(this.store.getPendingWriteCount()).isEqualTo(4);
+
+		this.store.flush();
+
+		verify(this.targetStore).addMessagesToGroup("foo", message1, message2, message3);
+		verify(this.targetStore).setLastReleasedSequenceNumberForGroup("foo", 2);
+		verify(this.targetStore, never()).setLastReleasedSequenceNumberForGroup("foo", 1);
+		assertThat(this.targetStore.getMessageGroup("foo").getLastReleasedMessageSequenceNumber()).isEqualTo(2);
+		assertThat(this.store.getPendingWriteCount()).isEqualTo(0);
+		assertThat(this.store.getFlushedWriteCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testMaxPendingWritesCountsMergedMessages() {
+		this.store.destroy();
+		this.store = new CachingMessageGroupStore(this.targetStore);
+		this.store.setWriteDelay(60000);
+		this.store.setMaxPendingWrites(3);
+		this.store.afterPropertiesSet();
+
+		this.store.addMessagesToGroup("foo", new GenericMessage<>("1"));
+		this.store.addMessagesToGroup("foo", new GenericMessage<>("2"));
+		assertThat(this.store.getPendingWriteCount()).isEqualTo(2);
+		assertThat(this.targetStore.messageGroupSize("foo")).isEqualTo(0);
+
+		this.store.addMessagesToGroup("foo", new GenericMessage<>("3"));
+		assertThat(this.targetStore.messageGroupSize("foo")).isEqualTo(3);
+		assertThat(this.store.getPendingWriteCount()).isEqualTo(0);
+		assertThat(this.store.getFlushedWriteCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testAddAndRemoveWithinWriteDelayNotWritten() {
+		Message<?> message1 = new GenericMessage<>("1");
+		Message<?> message2 = new GenericMessage<>("2");
+		this.store.addMessagesToGroup("foo", message1, message2);
+		assertThat(this.store.pollMessageFromGroup("foo")).isSameAs(message1);
+		this.store.completeGroup("foo");
+
+		this.store.flush();
+
+		verify(this.targetStore).addMessagesToGroup("foo", message2);
+		verify(this.targetStore, never()).removeMessagesFromGroup(any(), anyCollection());
+		MessageGroup group = this.targetStore.getMessageGroup("foo");
+		assertThat(group.isComplete()).isTrue();
+		assertThat(group.getMessages()).containsExactly(message2);
+
+		this.store.removeMessagesFromGroup("foo", message2);
+		this.store.removeMessageGroup("foo");
+		this.store.flush();
+		verify(this.targetStore, never()).removeMessagesFromGroup(any(), anyCollection());
+		verify(this.targetStore).removeMessageGroup("foo");
+		assertThat(this.targetStore.getMessageGroupCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testWriteThroughWithValidation() throws InterruptedException {
+		this.store.destroy();
+		this.store = new CachingMessageGroupStore(this.targetStore);
+		this.store.setWriteDelay(0);
+		this.store.setValidateOnAccess(true);
+		this.store.afterPropertiesSet();
+
+		this.store.addMessagesToGroup("foo", new GenericMessage<>("1"));
+		assertThat(this.targetStore.messageGroupSize("foo")).isEqualTo(1);
+		assertThat(this.store.messageGroupSize("foo")).isEqualTo(1);
+		assertThat(this.store.getCacheMisses()).isEqualTo(1);
+
+		// another node modifies the group
+		Thread.sleep(10);
+		this.targetStore.addMessagesToGroup("foo", new GenericMessage<>("2"));
+
+		assertThat(this.store.getMessagesForGroup("foo").stream().map(Message::getPayload)
+				.collect(Collectors.toList())).containsExactly("1", "2");
+		assertThat(this.store.getCacheMisses()).isEqualTo(2);
+	}
+
+	@Test
+	public void testWriteBehindSharedBetweenNodes() throws Exception {
+		LockRegistry lockRegistry = new DefaultLockRegistry();
+		CachingMessageGroupStore node1 = new CachingMessageGroupStore(this.targetStore);
+		node1.setLockRegistry(lockRegistry);
+		node1.setWriteDelay(60000);
+		node1.afterPropertiesSet();
+		CachingMessageGroupStore node2 = new CachingMessageGroupStore(this.targetStore);
+		node2.setLockRegistry(lockRegistry);
+		node2.setWriteDelay(60000);
+		node2.afterPropertiesSet();
+		ExecutorService exec = Executors.newSingleThreadExecutor();
+		try {
+			node1.addMessagesToGroup("foo", new GenericMessage<>("1"));
+			assertThat(node1.messageGroupSize("foo")).isEqualTo(1);
+			assertThat(this.targetStore.messageGroupSize("foo")).isEqualTo(0);
+
+			Future<Integer> size = exec.submit(() -> node2.messageGroupSize("foo"));
+			assertThatThrownBy(() -> size.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+			node1.flush();
+			assertThat(size.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+
+			node2.addMessagesToGroup("foo", new GenericMessage<>("2"));
+			Future<Collection<Message<?>>> messages = exec.submit(() -> node1.getMessagesForGroup("foo"));
+			assertThatThrownBy(() -> messages.get(500, TimeUnit.MILLISECONDS))
+					.isInstanceOf(TimeoutException.class);
+			assertThat(this.targetStore.messageGroupSize("foo")).isEqualTo(1);
+			node2.flush();
+			assertThat(messages.get(10, TimeUnit.SECONDS).stream().map(Message::getPayload)
+					.collect(Collectors.toList())).containsExactly("1", "2");
+			assertThat(node1.getCacheMisses()).isEqualTo(2);
+		}
+		finally {
+			exec.shutdownNow();
+			node1.destroy();
+			node2.destroy();
+		}
+		assertThat(this.targetStore.messageGroupSize("foo")).isEqualTo(2);
+	}
+
+	@Test
+	public void testEviction() {
+		this.store.setMaxGroups(2);
+		for (int i = 0; i < 5; i++) {
+			this.store.addMessagesToGroup(i, new GenericMessage<>(i));
+		}
+		assertThat(this.store.getCachedGroupCount()).isEqualTo(5);
+		this.store.flush();
+		assertThat(this.store.getCachedGroupCount()).isEqualTo(2);
+		assertThat(this.store.getEvictionCount()).isEqualTo(3);
+		assertThat(this.store.getMessageGroupCount()).isEqualTo(5);
+		assertThat(this.store.getMessageGroup(0).getOne().getPayload()).isEqualTo(0);
+		verify(this.targetStore, times(2)).getMessageGroup(eq(0));
+	}
+
+	@Test
+	public void testExpiry() {
+		this.store.addMessagesToGroup("foo", new GenericMessage<>("foo"));
+		this.store.registerMessageGroupExpiryCallback((messageGroupStore, group) ->
+				messageGroupStore.removeMessageGroup(group.getGroupId()));
+		assertThat(this.store.expireMessageGroups(-10000)).isEqualTo(1);
+		assertThat(this.store.messageGroupSize("foo")).isEqualTo(0);
+		this.store.flush();
+		assertThat(this.targetStore.getMessageGroupCount()).isEqualTo(0);
+	}
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.kryo.MessageStoreCodec;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.1
+ */
+public class MappedFileMessageStoreTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File directory;
+
+	private MappedFileMessageStore store;
+
+	@Before
+	public void setup() throws IOException {
+		this.directory = this.temporaryFolder.newFolder();
+		this.store = newStore(false);
+	}
+
+	@After
+	public void tearDown() {
+		this.store.destroy();
+	}
+
+	@Test
+	public void testGroupRecoveredOnRestart() {
+		Message<String> foo = MessageBuilder.withPayload("foo").setSequenceNumber(1).build();
+		Message<String> bar = MessageBuilder.withPayload("bar").setSequenceNumber(2).build();
+		this.store.addMessagesToGroup("group", foo, bar);
+		this.store.addMessagesToGroup("other", new GenericMessage<>("baz"));
+		this.store.removeMessagesFromGroup("group", foo);
+		this.store.setLastReleasedSequenceNumberForGroup("group", 1);
+		this.store.completeGroup("group");
+		this.store.removeMessageGroup("other");
+		long timestamp = this.store.getMessageGroup("group").getTimestamp();
+
+		restart(false);
+
+		assertThat(this.store.getMessageGroupCount()).isEqualTo(1);
+		MessageGroup group = this.store.getMessageGroup("group");
+		assertThat(group.size()).isEqualTo(1);
+		assertThat(group.isComplete()).isTrue();
+		assertThat(group.getLastReleasedMessageSequenceNumber()).isEqualTo(1);
+		assertThat(group.getTimestamp()).isEqualTo(timestamp);
+		assertThat(group.getOne().getHeaders().getId()).isEqualTo(bar.getHeaders().getId());
+		assertThat(this.store.getMessageGroup("other").size()).isEqualTo(0);
+	}
+
+	@Test
+	public void testGroupsRecoveredOnRestartWithCodec() {
+		restart(false, new MessageStoreCodec());
+		UUID uuidGroupId = UUID.randomUUID();
+		Message<String> foo = MessageBuilder.withPayload("foo").setHeader("bar", "baz").build();
+		this.store.addMessagesToGroup("group", foo, new GenericMessage<>("qux"));
+		this.store.addMessagesToGroup(uuidGroupId, new GenericMessage<>(42));
+		this.store.completeGroup("group");
+
+		restart(false, new MessageStoreCodec());
+
+		assertThat(this.store.getMessageGroupCount()).isEqualTo(2);
+		MessageGroup group = this.store.getMessageGroup("group");
+		assertThat(group.size()).isEqualTo(2);
+		assertThat(group.isComplete()).isTrue();
+		Message<?> recovered = group.getOne();
+		assertThat(recovered.getHeaders().getId()).isEqualTo(foo.getHeaders().getId());
+		assertThat(recovered.getHeaders().get("bar")).isEqualTo("baz");
+		assertThat(this.store.getMessageGroup(uuidGroupId).getOne().getPayload()).isEqualTo(42);
+	}
+
+	@Test
+	public void testPollInFifoOrder() {
+		for (int i = 0; i < 10; i++) {
+			this.store.addMessagesToGroup("queue", new GenericMessage<>(i));
+		}
+		assertThat(this.store.pollMessageFromGroup("queue").getPayload()).isEqualTo(0);
+		assertThat(this.store.pollMessageFromGroup("queue").getPayload()).isEqualTo(1);
+
+		restart(false);
+
+		assertThat(this.store.messageGroupSize("queue")).isEqualTo(8);
+		assertThat(this.store.getMessagesForGroup("queue").stream().map(Message::getPayload)
+				.collect(Collectors.toList())).containsExactly(2, 3, 4, 5, 6, 7, 8, 9);
+		for (int i = 2; i < 10; i++) {
+			assertThat(this.store.pollMessageFromGroup("queue").getPayload()).isEqualTo(i);
+		}
+		assertThat(this.store.pollMessageFromGroup("queue")).isNull();
+	}
+
+	@Test
+	public void testPollInPriorityOrder() {
+		restart(true);
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(this.store, "priority"));
+		channel.send(new GenericMessage<>("none"));
+		channel.send(MessageBuilder.withPayload("low").setPriority(1).build());
+		channel.send(MessageBuilder.withPayload("high").setPriority(9).build());
+		channel.send(MessageBuilder.withPayload("high2").setPriority(9).build());
+
+		restart(true);
+
+		channel = new QueueChannel(new MessageGroupQueue(this.store, "priority"));
+		assertThat(Arrays.asList(channel.receive(0).getPayload(), channel.receive(0).getPayload(),
+				channel.receive(0).getPayload(), channel.receive(0).getPayload()))
+				.containsExactly("high", "high2", "low", "none");
+		assertThat(channel.receive(0)).isNull();
+	}
+
+	@Test
+	public void testCompaction() {
+		this.store.destroy();
+		this.store = new MappedFileMessageStore(this.directory);
+		this.store.setSegmentSize(1024);
+		this.store.setCompactionInterval(0);
+		this.store.afterPropertiesSet();
+		for (int i = 0; i < 100; i++) {
+			this.store.addMessagesToGroup("group", new GenericMessage<>(i));
+		}
+		int segments = this.store.getSegmentCount();
+		assertThat(segments).isGreaterThan(2);
+		for (int i = 0; i < 95; i++) {
+			this.store.pollMessageFromGroup("group");
+		}
+		assertThat(this.store.compact()).isGreaterThan(0);
+		assertThat(this.store.getSegmentCount()).isLessThan(segments);
+		assertThat(this.directory.list()).hasSize(this.store.getSegmentCount());
+
+		restart(false);
+
+		assertThat(this.store.getMessagesForGroup("group").stream().map(Message::getPayload)
+				.collect(Collectors.toList())).containsExactly(95, 96, 97, 98, 99);
+	}
+
+	@Test
+	public void testTornRecordIgnoredOnRecovery() throws IOException {
+		this.store.addMessagesToGroup("group", new GenericMessage<>("foo"));
+		int position = TestUtils.getPropertyValue(this.store, "activeSegment.position", Integer.class);
+		this.store.destroy();
+		File segment = this.directory.listFiles()[0];
+		try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+			// a torn record after the last one: a length without the matching content
+			file.seek(position);
+			file.writeInt(100);
+			file.writeInt(42);
+		}
+		this.store = newStore(false);
+		this.store.addMessagesToGroup("group", new GenericMessage<>("bar"));
+
+		restart(false);
+
+		assertThat(this.store.getMessagesForGroup("group").stream().map(Message::getPayload)
+				.collect(Collectors.toList())).containsExactly("foo", "bar");
+	}
+
+	@Test
+	public void testExpiry() {
+		this.store.addMessagesToGroup("group", new GenericMessage<>("foo"));
+
+		restart(false);
+
+		this.store.registerMessageGroupExpiryCallback((messageGroupStore, group) ->
+				messageGroupStore.removeMessageGroup(group.getGroupId()));
+		assertThat(this.store.expireMessageGroups(-10000)).isEqualTo(1);
+		assertThat(this.store.getMessageGroupCount()).isEqualTo(0);
+	}
+
+	private void restart(boolean priorityEnabled) {
+		restart(priorityEnabled, null);
+	}
+
+	private void restart(boolean priorityEnabled, Codec codec) {
+		this.store.destroy();
+		this.store = newStore(priorityEnabled, codec);
+	}
+
+	private MappedFileMessageStore newStore(boolean priorityEnabled) {
+		return newStore(priorityEnabled, null);
+	}
+
+	private MappedFileMessageStore newStore(boolean priorityEnabled, Codec codec) {
+		MappedFileMessageStore messageStore = new MappedFileMessageStore(this.directory);
+		if (codec != null) {
+			messageStore.setCodec(codec);
+		}
+		messageStore.setPriorityEnabled(priorityEnabled);
+		messageStore.setCompactionInterval(0);
+		messageStore.setSegmentSize(64 * 1024);
+		messageStore.afterPropertiesSet();
+		return messageStore;
+	}
+
+}
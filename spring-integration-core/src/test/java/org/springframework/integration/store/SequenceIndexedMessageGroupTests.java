@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import org.springframework.integration.aggregator.SequenceSizeReleaseStrategy;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.messaging.Message;
+
+/**
+ * @since 5.1
+ */
+public class SequenceIndexedMessageGroupTests {
+
+	@Test
+	public void testMessagesOrderedBySequence() {
+		MessageGroup group = new SimpleMessageGroupFactory(SimpleMessageGroupFactory.GroupType.SEQUENCE_INDEXED)
+				.create("foo");
+		assertThat(group).isInstanceOf(SequenceIndexedMessageGroup.class);
+		group.add(message(3, 5));
+		group.add(message(1, 5));
+		group.add(message(5, 5));
+		assertThat(group.size()).isEqualTo(3);
+		assertThat(group.getSequenceSize()).isEqualTo(5);
+		assertThat(group.getOne().getPayload()).isEqualTo(1);
+		assertThat(group.getMessages().stream().map(Message::getPayload).collect(Collectors.toList()))
+				.containsExactly(1, 3, 5);
+	}
+
+	@Test
+	public void testSequenceTracking() {
+		SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("foo");
+		for (int i = 100; i > 0; i--) {
+			if (i != 50) {
+				group.add(message(i, 100));
+			}
+		}
+		assertThat(group.size()).isEqualTo(99);
+		assertThat(group.containsSequence(49)).isTrue();
+		assertThat(group.containsSequence(50)).isFalse();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(1);
+		assertThat(group.getContiguousSequenceCount(1)).isEqualTo(49);
+		assertThat(group.getContiguousSequenceCount(51)).isEqualTo(50);
+		assertThat(group.getContiguousSequenceCount(50)).isEqualTo(0);
+
+		group.add(message(50, 100));
+		assertThat(group.getContiguousSequenceCount(1)).isEqualTo(100);
+	}
+
+	@Test
+	public void testDuplicatesAndUnsequencedMessages() {
+		SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("foo");
+		Message<?> first = message(2, 2);
+		Message<?> duplicate = message(2, 2);
+		Message<?> unsequenced = MessageBuilder.withPayload(0).build();
+		group.add(first);
+		group.add(duplicate);
+		group.add(unsequenced);
+		assertThat(group.size()).isEqualTo(3);
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(0);
+		assertThat(group.getMessages()).containsExactly(first, duplicate, unsequenced);
+
+		assertThat(group.remove(first)).isTrue();
+		assertThat(group.containsSequence(2)).isTrue();
+		assertThat(group.getMessages()).containsExactly(duplicate, unsequenced);
+		assertThat(group.remove(unsequenced)).isTrue();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(2);
+		assertThat(group.remove(first)).isFalse();
+		assertThat(group.remove(duplicate)).isTrue();
+		assertThat(group.size()).isEqualTo(0);
+		assertThat(group.getOne()).isNull();
+	}
+
+	@Test
+	public void testPartialReleaseFromIndex() {
+		SequenceSizeReleaseStrategy releaseStrategy = new SequenceSizeReleaseStrategy(true);
+		SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("foo");
+		group.add(message(2, 3));
+		assertThat(releaseStrategy.canRelease(group)).isFalse();
+		group.add(message(1, 3));
+		assertThat(releaseStrategy.canRelease(group)).isTrue();
+	}
+
+	@Test
+	public void testIndexWindowFollowsReleases() {
+		SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("foo");
+		List<Message<?>> messages = new ArrayList<>();
+		for (int i = 1; i <= 100; i++) {
+			Message<?> message = message(i, 0);
+			messages.add(message);
+			group.add(message);
+		}
+		for (int i = 0; i < 90; i++) {
+			assertThat(group.remove(messages.get(i))).isTrue();
+		}
+		assertThat(group.size()).isEqualTo(10);
+		assertThat(group.isFullyIndexed()).isTrue();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(91);
+		assertThat(group.getContiguousSequenceCount(91)).isEqualTo(10);
+		assertThat(group.getMessages(91, 10)).containsExactlyElementsOf(messages.subList(90, 100));
+		assertThat(group.containsSequence(95)).isTrue();
+		assertThat(group.containsSequence(5)).isFalse();
+		assertThat(((Message<?>[]) TestUtils.getPropertyValue(group, "indexed")).length).isLessThan(100);
+
+		Message<?> late = message(5, 0);
+		group.add(late);
+		assertThat(group.isFullyIndexed()).isTrue();
+		assertThat(group.containsSequence(5)).isTrue();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(5);
+		assertThat(group.remove(late)).isTrue();
+
+		group.clear();
+		group.add(message(101, 0));
+		assertThat(group.isFullyIndexed()).isTrue();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(101);
+	}
+
+	@Test
+	public void testIndexStartsAtFirstMessage() {
+		SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("foo");
+		Message<?> last = message(Integer.MAX_VALUE, 0);
+		group.add(last);
+		assertThat(group.isFullyIndexed()).isTrue();
+		assertThat(group.containsSequence(Integer.MAX_VALUE)).isTrue();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(Integer.MAX_VALUE);
+		assertThat(group.getContiguousSequenceCount(Integer.MAX_VALUE)).isEqualTo(1);
+		assertThat(((Message<?>[]) TestUtils.getPropertyValue(group, "indexed")).length).isEqualTo(16);
+
+		Message<?> previous = message(Integer.MAX_VALUE - 1, 0);
+		group.add(previous);
+		assertThat(group.isFullyIndexed()).isTrue();
+		assertThat(group.getMessages()).containsExactly(previous, last);
+		assertThat(group.remove(previous)).isTrue();
+		assertThat(group.remove(last)).isTrue();
+
+		group.add(message(1_000, 0));
+		assertThat(group.isFullyIndexed()).isTrue();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(1_000);
+	}
+
+	@Test
+	public void testOutOfWindowMessagesOverflow() {
+		SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("foo");
+		Message<?> first = message(1, 0);
+		Message<?> far = message(10_000_000, 0);
+		Message<?> last = message(Integer.MAX_VALUE, 0);
+		group.add(first);
+		group.add(far);
+		group.add(last);
+		assertThat(group.size()).isEqualTo(3);
+		assertThat(group.isFullyIndexed()).isFalse();
+		assertThat(((Message<?>[]) TestUtils.getPropertyValue(group, "indexed")).length).isEqualTo(16);
+		assertThat(group.containsSequence(10_000_000)).isTrue();
+		assertThat(group.getFirstSequenceNumber()).isEqualTo(1);
+		assertThat(group.getMessages()).containsExactly(first, far, last);
+
+		Message<?> belowWindow = message(5, 0);
+		SequenceIndexedMessageGroup high = new SequenceIndexedMessageGroup("bar");
+		high.add(far);
+		high.add(belowWindow);
+		assertThat(high.isFullyIndexed()).isFalse();
+		assertThat(high.getFirstSequenceNumber()).isEqualTo(5);
+		assertThat(high.getOne()).isSameAs(belowWindow);
+		assertThat(high.remove(belowWindow)).isTrue();
+		assertThat(high.isFullyIndexed()).isTrue();
+	}
+
+	@Test
+	public void testCopyThroughStore() {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.setMessageGroupFactory(
+				new SimpleMessageGroupFactory(SimpleMessageGroupFactory.GroupType.SEQUENCE_INDEXED));
+		store.setCopyOnGet(true);
+		store.addMessagesToGroup("foo", message(2, 2), message(1, 2));
+		MessageGroup group = store.getMessageGroup("foo");
+		assertThat(group).isInstanceOf(SequenceIndexedMessageGroup.class);
+		assertThat(group.size()).isEqualTo(2);
+		store.removeMessagesFromGroup("foo", group.getOne());
+		assertThat(store.getMessageGroup("foo").getOne().getPayload()).isEqualTo(2);
+	}
+
+	private static Message<?> message(int sequence, int sequenceSize) {
+		return MessageBuilder.withPayload(sequence)
+				.setCorrelationId("foo")
+				.setSequenceNumber(sequence)
+				.setSequenceSize(sequenceSize)
+				.build();
+	}
+
+}
@@ -283,6 +283,49 @@ public class SimpleMessageStoreTests {
 
 	}
 
+	@Test
+	public void shouldExpireOnlyDueGroupsFromIndex() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore();
+		List<Object> expired = new ArrayList<>();
+		store.registerMessageGroupExpiryCallback((messageGroupStore, group) -> {
+			expired.add(group.getGroupId());
+			messageGroupStore.removeMessageGroup(group.getGroupId());
+		});
+
+		store.addMessageToGroup("old", new GenericMessage<>("foo"));
+		Thread.sleep(100);
+		store.addMessageToGroup("new", new GenericMessage<>("bar"));
+
+		assertEquals(1, ((Collection<?>) store.getMessageGroupsToExpire(System.currentTimeMillis() - 50)).size());
+		assertEquals(1, store.expireMessageGroups(50));
+		assertEquals("[old]", expired.toString());
+		assertEquals(0, store.getMessageGroup("old").size());
+		assertEquals(1, store.getMessageGroup("new").size());
+
+		assertEquals(1, store.expireMessageGroups(-10000));
+		assertEquals("[old, new]", expired.toString());
+		assertEquals(0, ((Collection<?>) store.getMessageGroupsToExpire(Long.MAX_VALUE)).size());
+	}
+
+	@Test
+	public void shouldReindexGroupsOnIdle() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.setTimeoutOnIdle(true);
+		List<Object> expired = new ArrayList<>();
+		store.registerMessageGroupExpiryCallback((messageGroupStore, group) -> expired.add(group.getGroupId()));
+
+		store.addMessageToGroup("foo", new GenericMessage<>("foo"));
+		store.addMessageToGroup("bar", new GenericMessage<>("bar"));
+		Thread.sleep(100);
+		store.addMessageToGroup("bar", new GenericMessage<>("baz"));
+
+		assertEquals(1, store.expireMessageGroups(50));
+		assertEquals("[foo]", expired.toString());
+
+		store.setTimeoutOnIdle(false);
+		assertEquals(2, store.expireMessageGroups(50));
+	}
+
 	@Test
 	public void testAddAndRemoveMessagesFromMessageGroup() throws Exception {
 		SimpleMessageStore messageStore = new SimpleMessageStore();
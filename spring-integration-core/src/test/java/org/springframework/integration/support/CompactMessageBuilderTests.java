@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.splitter.DefaultMessageSplitter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.1
+ */
+public class CompactMessageBuilderTests {
+
+	private final CompactMessageBuilderFactory factory = new CompactMessageBuilderFactory();
+
+	@Test
+	public void testOverlayDoesNotCopyParentHeaders() {
+		Message<String> message = this.factory.withPayload("foo")
+				.setHeader("a", 1)
+				.setHeader("b", 2)
+				.build();
+		CompactMessageHeaders parent = (CompactMessageHeaders) message.getHeaders();
+		Message<String> child = this.factory.fromMessage(message)
+				.setHeader("c", 3)
+				.removeHeader("a")
+				.build();
+		CompactMessageHeaders headers = (CompactMessageHeaders) child.getHeaders();
+		assertThat(headers.getDepth()).isEqualTo(1);
+		assertThat(headers.get("a")).isNull();
+		assertThat(headers.containsKey("a")).isFalse();
+		assertThat(headers.get("b")).isEqualTo(2);
+		assertThat(headers.get("c", Integer.class)).isEqualTo(3);
+		assertThat(headers.keySet()).containsOnly("b", "c", MessageHeaders.ID, MessageHeaders.TIMESTAMP);
+		assertThat(headers.getId()).isNotEqualTo(parent.getId());
+		assertThat(parent.get("a")).isEqualTo(1);
+		assertThat(parent.containsKey("c")).isFalse();
+	}
+
+	@Test
+	public void testUnmodifiedReturnsOriginal() {
+		Message<String> message = this.factory.withPayload("foo").setHeader("a", 1).build();
+		assertThat(this.factory.fromMessage(message).setHeader("a", 1).build()).isSameAs(message);
+		GenericMessage<String> generic = new GenericMessage<>("foo", Collections.singletonMap("a", 1));
+		assertThat(this.factory.fromMessage(generic).build()).isSameAs(generic);
+		Message<String> converted = this.factory.fromMessage(generic).setHeader("b", 2).build();
+		assertThat(converted.getHeaders()).isInstanceOf(CompactMessageHeaders.class);
+		assertThat(converted.getHeaders()).containsEntry("a", 1).containsEntry("b", 2);
+	}
+
+	@Test
+	public void testReadOnlyHeaders() {
+		assertThatThrownBy(() -> this.factory.withPayload("foo").setHeader(MessageHeaders.ID, UUID.randomUUID()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("read-only");
+		assertThatThrownBy(() -> this.factory.withPayload("foo")
+				.setHeader(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, "one"))
+				.isInstanceOf(IllegalArgumentException.class);
+		CompactMessageBuilderFactory readOnlyFactory = new CompactMessageBuilderFactory();
+		readOnlyFactory.setReadOnlyHeaders("foo");
+		Message<String> message = this.factory.withPayload("bar").setHeader("foo", "baz").build();
+		Message<String> result = readOnlyFactory.fromMessage(message).build();
+		assertThat(result).isNotSameAs(message);
+		assertThat(result.getHeaders().containsKey("foo")).isFalse();
+	}
+
+	@Test
+	public void testDeepChainIsFlattened() {
+		Message<Integer> message = this.factory.withPayload(0).build();
+		for (int i = 1; i <= 3 * CompactMessageHeaders.MAX_DEPTH; i++) {
+			message = this.factory.fromMessage(message).setHeader("h" + (i % 5), i).build();
+		}
+		CompactMessageHeaders headers = (CompactMessageHeaders) message.getHeaders();
+		assertThat(headers.getDepth()).isLessThanOrEqualTo(CompactMessageHeaders.MAX_DEPTH);
+		assertThat(headers.get("h4")).isEqualTo(24);
+		assertThat(headers.get("h0")).isEqualTo(20);
+		assertThat(headers.size()).isEqualTo(7);
+	}
+
+	@Test
+	public void testLazyId() {
+		CompactMessageBuilderFactory lazyFactory = new CompactMessageBuilderFactory();
+		lazyFactory.setLazyId(true);
+		Message<String> message = lazyFactory.withPayload("foo").build();
+		UUID id = message.getHeaders().getId();
+		assertThat(id).isNotNull();
+		assertThat(message.getHeaders().get(MessageHeaders.ID)).isSameAs(id);
+		assertThat(message.getHeaders().getTimestamp()).isNotNull();
+	}
+
+	@Test
+	public void testSerializedAsMutableMessageHeaders() throws Exception {
+		Message<String> message = this.factory.fromMessage(this.factory.withPayload("foo").setHeader("a", 1).build())
+				.setHeader("b", 2)
+				.build();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+			stream.writeObject(message);
+		}
+		Message<?> deserialized;
+		try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			deserialized = (Message<?>) stream.readObject();
+		}
+		assertThat(deserialized.getHeaders()).isInstanceOf(MutableMessageHeaders.class);
+		assertThat(deserialized.getHeaders().getId()).isEqualTo(message.getHeaders().getId());
+		assertThat(deserialized.getHeaders().getTimestamp()).isEqualTo(message.getHeaders().getTimestamp());
+		assertThat(message.getHeaders()).isEqualTo(deserialized.getHeaders());
+	}
+
+	@Test
+	public void testSplitterSharesInputHeaders() {
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setMessageBuilderFactory(this.factory);
+		QueueChannel output = new QueueChannel();
+		splitter.setOutputChannel(output);
+		Message<?> input = this.factory.withPayload(Arrays.asList("a", "b")).setHeader("foo", "bar").build();
+		splitter.handleMessage(input);
+		Message<?> first = output.receive(0);
+		Message<?> second = output.receive(0);
+		assertThat(first.getHeaders()).containsEntry("foo", "bar");
+		assertThat(((CompactMessageHeaders) first.getHeaders()).getDepth()).isEqualTo(1);
+		assertThat(new IntegrationMessageHeaderAccessor(second).getSequenceNumber()).isEqualTo(2);
+		assertThat(new IntegrationMessageHeaderAccessor(second).getCorrelationId())
+				.isEqualTo(input.getHeaders().getId());
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import org.springframework.integration.util.HashedTimingWheel.Timeout;
+
+/**
+ * @since 5.1
+ */
+public class HashedTimingWheelTests {
+
+	@Test
+	public void testTasksExpireOnTheirTick() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+		wheel.schedule("a", 15);
+		wheel.schedule("b", 20);
+		wheel.schedule("c", 25);
+		assertThat(wheel.size()).isEqualTo(3);
+		assertThat(wheel.getOccupiedSlotCount()).isEqualTo(2);
+		assertThat(wheel.getMaxSlotSize()).isEqualTo(2);
+
+		assertThat(wheel.expire(9)).isEmpty();
+		assertThat(wheel.expire(19)).isEmpty();
+		assertThat(wheel.expire(20)).containsExactlyInAnyOrder("a", "b");
+		assertThat(wheel.expire(29)).isEmpty();
+		assertThat(wheel.expire(30)).containsExactly("c");
+		assertThat(wheel.size()).isEqualTo(0);
+		assertThat(wheel.getOccupiedSlotCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testDeadlinesBeyondOneRevolution() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+		assertThat(wheel.getSlotCount()).isEqualTo(4);
+		wheel.schedule("near", 10);
+		wheel.schedule("far", 50);
+		assertThat(wheel.getMaxSlotSize()).isEqualTo(2);
+		assertThat(wheel.expire(10)).containsExactly("near");
+		assertThat(wheel.expire(40)).isEmpty();
+		assertThat(wheel.expire(50)).containsExactly("far");
+	}
+
+	@Test
+	public void testLateExpireVisitsSkippedSlots() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+		wheel.schedule("a", 10);
+		wheel.schedule("b", 30);
+		wheel.schedule("c", 70);
+		wheel.schedule("d", 200);
+		assertThat(wheel.expire(1000)).containsExactlyInAnyOrder("a", "b", "c", "d");
+	}
+
+	@Test
+	public void testPastDeadlineExpiresOnNextCall() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+		assertThat(wheel.expire(100)).isEmpty();
+		wheel.schedule("late", 50);
+		assertThat(wheel.expire(100)).isEmpty();
+		assertThat(wheel.expire(110)).containsExactly("late");
+	}
+
+	@Test
+	public void testCancel() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+		Timeout<String> a = wheel.schedule("a", 10);
+		Timeout<String> b = wheel.schedule("b", 10);
+		assertThat(a.cancel()).isTrue();
+		assertThat(a.cancel()).isFalse();
+		assertThat(a.isPending()).isFalse();
+		assertThat(b.isPending()).isTrue();
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.expire(10)).containsExactly("b");
+		assertThat(b.isPending()).isFalse();
+		assertThat(b.cancel()).isFalse();
+	}
+
+	@Test
+	public void testClear() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+		wheel.schedule("a", 10);
+		wheel.schedule("b", 500);
+		assertThat(wheel.clear()).containsExactlyInAnyOrder("a", "b");
+		assertThat(wheel.size()).isEqualTo(0);
+		assertThat(wheel.expire(1000)).isEmpty();
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @since 5.1
+ */
+public class RingBufferQueueTests {
+
+	@Test
+	public void testCapacityIsRoundedToPowerOfTwo() {
+		assertThat(new RingBufferQueue<>(1).getCapacity()).isEqualTo(1);
+		assertThat(new RingBufferQueue<>(8).getCapacity()).isEqualTo(8);
+		assertThat(new RingBufferQueue<>(10).getCapacity()).isEqualTo(16);
+		assertThatThrownBy(() -> new RingBufferQueue<>(0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testOfferPollFifoAndBounds() {
+		RingBufferQueue<Integer> queue = new RingBufferQueue<>(4);
+		assertThat(queue.poll()).isNull();
+		for (int i = 0; i < 4; i++) {
+			assertThat(queue.offer(i)).isTrue();
+		}
+		assertThat(queue.offer(4)).isFalse();
+		assertThat(queue.size()).isEqualTo(4);
+		assertThat(queue.remainingCapacity()).isEqualTo(0);
+		assertThat(queue.peek()).isEqualTo(0);
+		assertThat(queue).containsExactly(0, 1, 2, 3);
+		assertThat(queue.poll()).isEqualTo(0);
+		assertThat(queue.offer(4)).isTrue();
+		List<Integer> drained = new ArrayList<>();
+		assertThat(queue.drainTo(drained)).isEqualTo(4);
+		assertThat(drained).containsExactly(1, 2, 3, 4);
+		assertThat(queue.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void testTimedOperations() throws InterruptedException {
+		RingBufferQueue<String> queue = new RingBufferQueue<>(1, true, RingBufferQueue.WaitStrategy.yielding());
+		assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(queue.offer("foo", 10, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(queue.offer("bar", 10, TimeUnit.MILLISECONDS)).isFalse();
+		assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isEqualTo("foo");
+	}
+
+	@Test
+	public void testTakeIsInterruptible() throws InterruptedException {
+		RingBufferQueue<String> queue = new RingBufferQueue<>(2);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		Thread consumer = new Thread(() -> {
+			try {
+				queue.take();
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+		});
+		consumer.start();
+		consumer.interrupt();
+		assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void testMultiProducerMultiConsumer() throws Exception {
+		exchange(new RingBufferQueue<>(64, false, RingBufferQueue.WaitStrategy.parking()), 4, 4);
+	}
+
+	@Test
+	public void testMultiProducerSingleConsumer() throws Exception {
+		exchange(new RingBufferQueue<>(64, true, RingBufferQueue.WaitStrategy.spinning()), 4, 1);
+	}
+
+	private void exchange(RingBufferQueue<Integer> queue, int producers, int consumers) throws Exception {
+		int perProducer = 10000;
+		int total = producers * perProducer;
+		ExecutorService executor = Executors.newCachedThreadPool();
+		Set<Integer> received = ConcurrentHashMap.newKeySet();
+		AtomicInteger remaining = new AtomicInteger(total);
+		CountDownLatch done = new CountDownLatch(consumers);
+		for (int p = 0; p < producers; p++) {
+			int base = p * perProducer;
+			executor.execute(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					try {
+						queue.put(base + i);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			});
+		}
+		for (int c = 0; c < consumers; c++) {
+			executor.execute(() -> {
+				while (remaining.get() > 0) {
+					try {
+						Integer element = queue.poll(10, TimeUnit.MILLISECONDS);
+						if (element != null) {
+							assertThat(received.add(element)).isTrue();
+							remaining.decrementAndGet();
+						}
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+				done.countDown();
+			});
+		}
+		assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(received).hasSize(total);
+		assertThat(queue.isEmpty()).isTrue();
+		executor.shutdownNow();
+	}
+
+}
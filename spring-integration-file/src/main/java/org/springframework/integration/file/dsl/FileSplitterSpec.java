@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2017 the original author or authors.
+ * Copyright 2016-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,8 @@ public class FileSplitterSpec extends MessageHandlerSpec<FileSplitterSpec, FileS
 
 	private String firstLineHeaderName;
 
+	private int chunkSize;
+
 	FileSplitterSpec() {
 		this(true);
 	}
@@ -127,11 +129,24 @@ public class FileSplitterSpec extends MessageHandlerSpec<FileSplitterSpec, FileS
 		return this;
 	}
 
+	/**
+	 * Specify the number of lines to emit in each {@link java.util.List} payload.
+	 * @param chunkSize the maximum number of lines in a chunk.
+	 * @return the FileSplitterSpec
+	 * @since 5.1
+	 * @see org.springframework.integration.splitter.AbstractMessageSplitter#setChunkSize(int)
+	 */
+	public FileSplitterSpec chunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
 	@Override
 	protected FileSplitter doGet() {
 		FileSplitter fileSplitter = new FileSplitter(this.iterator, this.markers, this.markersJson);
 		fileSplitter.setApplySequence(this.applySequence);
 		fileSplitter.setCharset(this.charset);
+		fileSplitter.setChunkSize(this.chunkSize);
 		if (StringUtils.hasText(this.firstLineHeaderName)) {
 			fileSplitter.setFirstLineAsHeader(this.firstLineHeaderName);
 		}
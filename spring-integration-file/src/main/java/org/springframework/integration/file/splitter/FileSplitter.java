@@ -66,6 +66,11 @@ import org.springframework.util.StringUtils;
  * in the END marker does not include the header line and, if
  * {@link #setApplySequence(boolean) applySequence} is true, the header is not included in
  * the sequence.
+ * <p>
+ * When a {@link #setChunkSize(int) chunkSize} is provided, the lines are emitted as
+ * {@link List} payloads of up to that many lines, read lazily one chunk at a time; the
+ * START/END markers are still emitted on their own. Lines are not chunked when
+ * {@link #setFirstLineAsHeader(String)} is specified, since each of them carries that header.
  *
  * @author Artem Bilan
  * @author Gary Russell
@@ -313,6 +318,11 @@ public class FileSplitter extends AbstractMessageSplitter {
 					this.line = null;
 					this.lineCount++;
 
+					if (firstLineAsHeader == null) {
+						// a plain line can be grouped into a chunk
+						return line;
+					}
+
 					AbstractIntegrationMessageBuilder<String> messageBuilder =
 							getMessageBuilderFactory()
 									.withPayload(line);
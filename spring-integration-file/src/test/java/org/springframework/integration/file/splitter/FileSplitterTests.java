@@ -220,6 +220,29 @@ public class FileSplitterTests {
 		assertEquals(2, fileMarker.getLineCount());
 	}
 
+	@Test
+	public void testMarkersWithChunks() {
+		QueueChannel outputChannel = new QueueChannel();
+		FileSplitter splitter = new FileSplitter(true, true);
+		splitter.setChunkSize(5);
+		splitter.setOutputChannel(outputChannel);
+		splitter.handleMessage(new GenericMessage<File>(file));
+		Message<?> received = outputChannel.receive(0);
+		assertNotNull(received);
+		assertEquals("START", received.getHeaders().get(FileHeaders.MARKER));
+		received = outputChannel.receive(0);
+		assertNotNull(received);
+		assertThat(received.getPayload(), instanceOf(List.class));
+		List<?> lines = (List<?>) received.getPayload();
+		assertEquals(2, lines.size());
+		assertEquals("HelloWorld", lines.get(0));
+		received = outputChannel.receive(0);
+		assertNotNull(received);
+		assertEquals("END", received.getHeaders().get(FileHeaders.MARKER));
+		assertEquals(2, ((FileSplitter.FileMarker) received.getPayload()).getLineCount());
+		assertNull(outputChannel.receive(0));
+	}
+
 	@Test
 	public void testMarkersEmptyFile() throws IOException {
 		QueueChannel outputChannel = new QueueChannel();
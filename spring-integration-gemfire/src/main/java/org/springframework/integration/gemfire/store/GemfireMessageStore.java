@@ -16,9 +16,16 @@
 
 package org.springframework.integration.gemfire.store;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import org.apache.geode.cache.Region;
 
@@ -30,7 +37,11 @@ import org.springframework.util.PatternMatchUtils;
 
 /**
  * Gemfire implementation of the key/value style {@link MessageStore} and
- * {@link MessageGroupStore}
+ * {@link MessageGroupStore}.
+ * <p>
+ * When the {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled,
+ * each message id of a group is stored in its own entry, at a slot of the group sequence,
+ * and a small entry per group holds the bounds of the sequence and the message count.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -41,8 +52,15 @@ import org.springframework.util.PatternMatchUtils;
  */
 public class GemfireMessageStore extends AbstractKeyValueMessageStore {
 
+	/**
+	 * The prefix (after the store prefix) of the keys for the group membership entries.
+	 */
+	public static final String GROUP_MEMBERS_KEY_PREFIX = "GROUP_MEMBERS_";
+
 	private final Region<Object, Object> messageStoreRegion;
 
+	private final String groupMembersKeyPrefix;
+
 	/**
 	 * Provides the region to be used for the message store. This is useful when
 	 * using a configured region. This is also required if using a client region
@@ -64,6 +82,7 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore {
 		super(prefix);
 		Assert.notNull(messageStoreRegion, "'messageStoreRegion' must not be null");
 		this.messageStoreRegion = messageStoreRegion;
+		this.groupMembersKeyPrefix = prefix + GROUP_MEMBERS_KEY_PREFIX;
 	}
 
 	@Override
@@ -115,4 +134,151 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore {
 		return keyList;
 	}
 
+	@Override
+	protected boolean isAppendOnlyMembershipSupported() {
+		return true;
+	}
+
+	@Override
+	protected void doAddToGroup(Object groupId, List<UUID> messageIds) {
+		GroupMembers members = obtainGroupMembers(groupId);
+		List<Object> indexKeys = new ArrayList<>(messageIds.size());
+		for (UUID messageId : messageIds) {
+			indexKeys.add(indexKey(groupId, messageId));
+		}
+		Map<Object, Object> existing = this.messageStoreRegion.getAll(indexKeys);
+		Map<Object, Object> entries = new HashMap<>();
+		for (UUID messageId : messageIds) {
+			Object indexKey = indexKey(groupId, messageId);
+			if (existing.get(indexKey) == null && !entries.containsKey(indexKey)) {
+				long slot = members.tail++;
+				entries.put(slotKey(groupId, slot), messageId);
+				entries.put(indexKey, slot);
+				members.count++;
+			}
+		}
+		this.messageStoreRegion.putAll(entries);
+		this.messageStoreRegion.put(this.groupMembersKeyPrefix + groupId, members);
+	}
+
+	@Override
+	protected void doRemoveFromGroup(Object groupId, Collection<UUID> messageIds) {
+		GroupMembers members = getGroupMembers(groupId);
+		if (members == null) {
+			return;
+		}
+		List<Object> indexKeys = new ArrayList<>(messageIds.size());
+		for (UUID messageId : messageIds) {
+			indexKeys.add(indexKey(groupId, messageId));
+		}
+		Map<Object, Object> slots = this.messageStoreRegion.getAll(indexKeys);
+		Set<Object> keysToRemove = new HashSet<>();
+		for (Object indexKey : indexKeys) {
+			Object slot = slots.get(indexKey);
+			if (slot != null && keysToRemove.add(indexKey)) {
+				keysToRemove.add(slotKey(groupId, (Long) slot));
+				members.count--;
+			}
+		}
+		this.messageStoreRegion.removeAll(keysToRemove);
+		// keep the head on the first message id
+		while (members.head < members.tail && this.messageStoreRegion.get(slotKey(groupId, members.head)) == null) {
+			members.head++;
+		}
+		this.messageStoreRegion.put(this.groupMembersKeyPrefix + groupId, members);
+	}
+
+	@Override
+	protected List<UUID> doListGroupMessageIds(Object groupId) {
+		GroupMembers members = getGroupMembers(groupId);
+		if (members == null) {
+			return Collections.emptyList();
+		}
+		List<Object> slotKeys = new ArrayList<>();
+		for (long slot = members.head; slot < members.tail; slot++) {
+			slotKeys.add(slotKey(groupId, slot));
+		}
+		Map<Object, Object> slots = this.messageStoreRegion.getAll(slotKeys);
+		List<UUID> messageIds = new ArrayList<>(members.count);
+		for (Object slotKey : slotKeys) {
+			Object messageId = slots.get(slotKey);
+			if (messageId != null) {
+				messageIds.add((UUID) messageId);
+			}
+		}
+		return messageIds;
+	}
+
+	@Override
+	protected UUID doGetFirstGroupMessageId(Object groupId) {
+		GroupMembers members = getGroupMembers(groupId);
+		if (members == null || members.head == members.tail) {
+			return null;
+		}
+		return (UUID) this.messageStoreRegion.get(slotKey(groupId, members.head));
+	}
+
+	@Override
+	protected UUID doPollGroupMessageId(Object groupId) {
+		UUID messageId = doGetFirstGroupMessageId(groupId);
+		if (messageId != null) {
+			doRemoveFromGroup(groupId, Collections.singletonList(messageId));
+		}
+		return messageId;
+	}
+
+	@Override
+	protected int doGetGroupMessageCount(Object groupId) {
+		GroupMembers members = getGroupMembers(groupId);
+		return members != null ? members.count : 0;
+	}
+
+	@Override
+	protected void doRemoveGroupMessageIds(Object groupId) {
+		GroupMembers members = getGroupMembers(groupId);
+		if (members != null) {
+			List<Object> keys = new ArrayList<>();
+			for (UUID messageId : doListGroupMessageIds(groupId)) {
+				keys.add(indexKey(groupId, messageId));
+			}
+			for (long slot = members.head; slot < members.tail; slot++) {
+				keys.add(slotKey(groupId, slot));
+			}
+			keys.add(this.groupMembersKeyPrefix + groupId);
+			this.messageStoreRegion.removeAll(keys);
+		}
+	}
+
+	private GroupMembers getGroupMembers(Object groupId) {
+		return (GroupMembers) this.messageStoreRegion.get(this.groupMembersKeyPrefix + groupId);
+	}
+
+	private GroupMembers obtainGroupMembers(Object groupId) {
+		GroupMembers members = getGroupMembers(groupId);
+		return members != null ? members : new GroupMembers();
+	}
+
+	private String slotKey(Object groupId, long slot) {
+		return this.groupMembersKeyPrefix + groupId + "#" + slot;
+	}
+
+	private String indexKey(Object groupId, UUID messageId) {
+		return this.groupMembersKeyPrefix + groupId + "@" + messageId;
+	}
+
+	/**
+	 * The bounds of the group sequence, and the number of messages in between.
+	 */
+	private static final class GroupMembers implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private long head;
+
+		private long tail;
+
+		private int count;
+
+	}
+
 }
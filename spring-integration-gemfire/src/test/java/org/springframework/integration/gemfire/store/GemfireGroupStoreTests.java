@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2017 the original author or authors.
+ * Copyright 2007-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,7 @@ import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.MessageGroupMetadata;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
@@ -344,6 +345,39 @@ public class GemfireGroupStoreTests {
 		context.close();
 	}
 
+	@Test
+	public void testAppendOnlyMembership() throws Exception {
+		GemfireMessageStore store = new GemfireMessageStore(region);
+		store.setAppendOnlyMembership(true);
+		Message<?> message1 = new GenericMessage<String>("1");
+		Message<?> message2 = new GenericMessage<String>("2");
+		Message<?> message3 = new GenericMessage<String>("3");
+		store.addMessagesToGroup(1, message1, message2);
+		store.addMessagesToGroup(1, message3, message1);
+		assertEquals(3, store.messageGroupSize(1));
+		assertEquals(0, ((MessageGroupMetadata) region.get("MESSAGE_GROUP_1")).size());
+		assertEquals(3, store.getGroupMetadata(1).size());
+
+		store.removeMessagesFromGroup(1, message2);
+		assertEquals(2, store.messageGroupSize(1));
+		assertEquals("1", store.getOneMessageFromGroup(1).getPayload());
+
+		// make sure the store is properly rebuild from Gemfire
+		store = new GemfireMessageStore(region);
+		store.setAppendOnlyMembership(true);
+
+		MessageGroup messageGroup = store.getMessageGroup(1);
+		assertEquals(2, messageGroup.size());
+		assertEquals("1", store.pollMessageFromGroup(1).getPayload());
+		assertEquals("3", store.pollMessageFromGroup(1).getPayload());
+		assertNull(store.pollMessageFromGroup(1));
+
+		store.addMessagesToGroup(1, new GenericMessage<String>("4"));
+		store.removeMessageGroup(1);
+		assertEquals(0, store.messageGroupSize(1));
+		assertEquals(0, region.size());
+	}
+
 	@Before
 	public void prepare() {
 		if (region != null) {
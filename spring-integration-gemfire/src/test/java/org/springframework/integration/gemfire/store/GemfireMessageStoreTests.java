@@ -66,6 +66,11 @@ public class GemfireMessageStoreTests {
 		assertEquals(message, retrieved);
 	}
 
+	@Test(expected = IllegalStateException.class)
+	public void testExpiryIndexNotSupported() {
+		new GemfireMessageStore(region).setExpiryIndex(true);
+	}
+
 	@Test
 	public void testRegionConstructor() throws Exception {
 		GenericRegionFactoryBean<Object, Object> region = new GenericRegionFactoryBean<>();
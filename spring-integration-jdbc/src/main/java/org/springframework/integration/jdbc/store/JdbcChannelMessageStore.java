@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,8 @@ import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.CodecSerializer;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStorePreparedStatementSetter;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.MessageRowMapper;
@@ -290,6 +292,20 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		this.serializer = new SerializingConverter((Serializer<Object>) serializer);
 	}
 
+	/**
+	 * Use a {@link Codec} - typically a
+	 * {@link org.springframework.integration.codec.kryo.MessageStoreCodec} - to serialize and
+	 * deserialize messages instead of Java serialization. Replaces any configured
+	 * serializer and deserializer; white list patterns do not apply to codecs.
+	 * @param codec the codec.
+	 * @since 5.1
+	 */
+	public void setCodec(Codec codec) {
+		CodecSerializer<Message<?>> codecSerializer = new CodecSerializer<>(codec, Message.class);
+		setSerializer(codecSerializer);
+		setDeserializer(codecSerializer);
+	}
+
 	/**
 	 * Public setter for the table prefix property. This will be prefixed to all the table names before queries are
 	 * executed. Defaults to {@link #DEFAULT_TABLE_PREFIX}.
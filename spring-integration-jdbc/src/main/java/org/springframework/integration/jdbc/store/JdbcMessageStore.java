@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,12 +38,15 @@ import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.CodecSerializer;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageMetadata;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.support.converter.WhiteListDeserializingConverter;
+import org.springframework.integration.util.FunctionIterator;
 import org.springframework.integration.util.UUIDConverter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -151,7 +154,11 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 		UPDATE_GROUP("UPDATE %PREFIX%MESSAGE_GROUP set UPDATED_DATE=? where GROUP_KEY=? and REGION=?"),
 
-		LIST_GROUP_KEYS("SELECT distinct GROUP_KEY as CREATED from %PREFIX%MESSAGE_GROUP where REGION=?");
+		LIST_GROUP_KEYS("SELECT distinct GROUP_KEY as CREATED from %PREFIX%MESSAGE_GROUP where REGION=?"),
+
+		LIST_GROUP_KEYS_CREATED_BEFORE("SELECT GROUP_KEY from %PREFIX%MESSAGE_GROUP where REGION=? and CREATED_DATE<=?"),
+
+		LIST_GROUP_KEYS_UPDATED_BEFORE("SELECT GROUP_KEY from %PREFIX%MESSAGE_GROUP where REGION=? and UPDATED_DATE<=?");
 
 		private String sql;
 
@@ -277,6 +284,24 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		this.deserializer.addWhiteListPatterns(patterns);
 	}
 
+	/**
+	 * Use a {@link Codec} - typically a
+	 * {@link org.springframework.integration.codec.kryo.MessageStoreCodec} - to serialize and
+	 * deserialize messages instead of Java serialization. Replaces any configured
+	 * serializer and deserializer; the white list patterns of this store do not apply to
+	 * codecs. To keep Java serialization, for example to compress it with a
+	 * {@link org.springframework.integration.codec.CompressingCodec}, use a
+	 * {@link org.springframework.integration.codec.SerializingCodec} and configure the
+	 * white list patterns on it.
+	 * @param codec the codec.
+	 * @since 5.1
+	 */
+	public void setCodec(Codec codec) {
+		CodecSerializer<Message<?>> codecSerializer = new CodecSerializer<>(codec, Message.class);
+		setSerializer(codecSerializer);
+		setDeserializer(codecSerializer);
+	}
+
 	@Override
 	public Message<?> removeMessage(UUID id) {
 		Message<?> message = getMessage(id);
@@ -557,6 +582,19 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 				this.region, this.region);
 	}
 
+	/**
+	 * Select the due groups with a range query on the {@code CREATED_DATE} (or the
+	 * {@code UPDATED_DATE} when {@code timeoutOnIdle}) column, which are indexed by the
+	 * provided schema scripts.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		Query query = isTimeoutOnIdle() ? Query.LIST_GROUP_KEYS_UPDATED_BEFORE : Query.LIST_GROUP_KEYS_CREATED_BEFORE;
+		List<String> groupKeys = this.jdbcTemplate.query(getQuery(query), new SingleColumnRowMapper<String>(),
+				this.region, new Timestamp(threshold));
+		return () -> new FunctionIterator<>(groupKeys, this::getMessageGroup);
+	}
+
 	@Override
 	public Iterator<MessageGroup> iterator() {
 
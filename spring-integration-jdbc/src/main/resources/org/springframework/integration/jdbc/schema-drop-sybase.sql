@@ -1,6 +1,8 @@
 -- Autogenerated: do not edit this file
 
 DROP INDEX  INT_MESSAGE_IX1 ;
+DROP INDEX  INT_MESSAGE_GROUP_IX1 ;
+DROP INDEX  INT_MESSAGE_GROUP_IX2 ;
 DROP INDEX  INT_CHANNEL_MSG_DATE_IDX ;
 DROP INDEX  INT_CHANNEL_MSG_PRIORITY_IDX ;
 DROP TABLE  INT_MESSAGE ;
@@ -28,6 +28,9 @@ CREATE TABLE INT_MESSAGE_GROUP  (
 	constraint MESSAGE_GROUP_PK primary key (GROUP_KEY, REGION)
 ) LOCK DATAROWS;
 
+CREATE INDEX INT_MESSAGE_GROUP_IX1 ON INT_MESSAGE_GROUP (REGION, CREATED_DATE);
+CREATE INDEX INT_MESSAGE_GROUP_IX2 ON INT_MESSAGE_GROUP (REGION, UPDATED_DATE);
+
 CREATE TABLE INT_LOCK  (
 	LOCK_KEY CHAR(36),
 	REGION VARCHAR(100),
@@ -16,12 +16,14 @@
 
 package org.springframework.integration.jdbc.store;
 
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.springframework.integration.test.matcher.PayloadAndHeaderMatcher.sameExceptIgnorableHeaders;
 
 import java.io.BufferedReader;
@@ -43,6 +45,9 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.codec.CompressingCodec;
+import org.springframework.integration.codec.SerializingCodec;
+import org.springframework.integration.codec.kryo.MessageStoreCodec;
 import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.support.MessageBuilder;
@@ -143,6 +148,74 @@ public class JdbcMessageStoreTests {
 		assertEquals("foo", result.getPayload());
 	}
 
+	@Test
+	public void testCodec() throws Exception {
+		messageStore.setCodec(new MessageStoreCodec());
+		Message<String> message = MessageBuilder.withPayload("foo").setCorrelationId("X").build();
+		Message<String> saved = messageStore.addMessage(message);
+		Message<?> result = messageStore.getMessage(saved.getHeaders().getId());
+		assertNotNull(result);
+		assertThat(saved, sameExceptIgnorableHeaders(result));
+		assertEquals(message.getHeaders().getId(), result.getHeaders().getId());
+		messageStore.addMessageToGroup("group", message);
+		MessageGroup group = messageStore.getMessageGroup("group");
+		assertEquals(1, group.size());
+		assertEquals("foo", group.getOne().getPayload());
+		messageStore.removeMessagesFromGroup("group", result);
+		assertEquals(0, messageStore.getMessageGroup("group").size());
+	}
+
+	@Test
+	public void testCompressingCodec() throws Exception {
+		CompressingCodec codec = new CompressingCodec(new MessageStoreCodec());
+		codec.setThreshold(100);
+		messageStore.setCodec(codec);
+		StringBuilder payload = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			payload.append("<item>foo</item>");
+		}
+		Message<String> message = MessageBuilder.withPayload(payload.toString()).build();
+		messageStore.addMessage(message);
+		Message<?> result = messageStore.getMessage(message.getHeaders().getId());
+		assertEquals(payload.toString(), result.getPayload());
+		assertEquals(1, codec.getCompressedCount());
+		assertEquals(1, codec.getDecompressedCount());
+		assertTrue(codec.getCompressionRatio() < 0.5);
+	}
+
+	@Test
+	public void testCompressingJavaSerialization() throws Exception {
+		SerializingCodec serializingCodec = new SerializingCodec();
+		serializingCodec.addWhiteListPatterns("org.springframework.messaging.*", "java.util.*");
+		CompressingCodec codec = new CompressingCodec(serializingCodec);
+		codec.setThreshold(100);
+		messageStore.setCodec(codec);
+		StringBuilder payload = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			payload.append("<item>foo</item>");
+		}
+		Message<String> message = MessageBuilder.withPayload(payload.toString()).build();
+		messageStore.addMessage(message);
+		Message<?> result = messageStore.getMessage(message.getHeaders().getId());
+		assertEquals(payload.toString(), result.getPayload());
+		assertEquals(1, codec.getCompressedCount());
+		assertTrue(codec.getCompressionRatio() < 0.5);
+
+		Message<StringBuilder> untrusted = MessageBuilder.withPayload(payload).build();
+		messageStore.addMessage(untrusted);
+		try {
+			messageStore.getMessage(untrusted.getHeaders().getId());
+			fail("Expected a SecurityException");
+		}
+		catch (Exception e) {
+			Throwable cause = e;
+			while (cause.getCause() != null) {
+				cause = cause.getCause();
+			}
+			assertThat(cause, instanceOf(SecurityException.class));
+		}
+	}
+
 	@Test
 	public void testAddAndGetWithDifferentRegion() throws Exception {
 		Message<String> message = MessageBuilder.withPayload("foo").build();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2017 the original author or authors.
+ * Copyright 2014-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,7 @@ import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.integration.codec.Codec;
 import org.springframework.integration.mongodb.support.BinaryToMessageConverter;
 import org.springframework.integration.mongodb.support.MessageToBinaryConverter;
 import org.springframework.integration.store.AbstractMessageGroupStore;
@@ -98,6 +99,8 @@ public abstract class AbstractConfigurableMongoDbMessageStore extends AbstractMe
 
 	protected MessageBuilderFactory messageBuilderFactory = new DefaultMessageBuilderFactory();
 
+	private Codec codec;
+
 	public AbstractConfigurableMongoDbMessageStore(MongoTemplate mongoTemplate, String collectionName) {
 		Assert.notNull(mongoTemplate, "'mongoTemplate' must not be null");
 		Assert.hasText(collectionName, "'collectionName' must not be empty");
@@ -119,6 +122,20 @@ public abstract class AbstractConfigurableMongoDbMessageStore extends AbstractMe
 		this.mappingMongoConverter = mappingMongoConverter;
 	}
 
+	/**
+	 * Use a {@link Codec} - typically a
+	 * {@link org.springframework.integration.codec.kryo.MessageStoreCodec} - to convert messages
+	 * to and from the stored binary form instead of Java serialization. Only applies when
+	 * this store creates its own {@link MappingMongoConverter}; otherwise register a
+	 * {@link MessageToBinaryConverter} and a {@link BinaryToMessageConverter} constructed
+	 * with the codec on the provided converter.
+	 * @param codec the codec.
+	 * @since 5.1
+	 */
+	public void setCodec(Codec codec) {
+		this.codec = codec;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -132,8 +149,14 @@ public abstract class AbstractConfigurableMongoDbMessageStore extends AbstractMe
 						new MongoMappingContext());
 				this.mappingMongoConverter.setApplicationContext(this.applicationContext);
 				List<Object> customConverters = new ArrayList<Object>();
-				customConverters.add(new MessageToBinaryConverter());
-				customConverters.add(new BinaryToMessageConverter());
+				if (this.codec != null) {
+					customConverters.add(new MessageToBinaryConverter(this.codec));
+					customConverters.add(new BinaryToMessageConverter(this.codec));
+				}
+				else {
+					customConverters.add(new MessageToBinaryConverter());
+					customConverters.add(new BinaryToMessageConverter());
+				}
 				this.mappingMongoConverter.setCustomConversions(new MongoCustomConversions(customConverters));
 				this.mappingMongoConverter.afterPropertiesSet();
 			}
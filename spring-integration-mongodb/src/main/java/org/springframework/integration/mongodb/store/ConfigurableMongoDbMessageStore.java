@@ -28,6 +28,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
@@ -115,6 +117,14 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 		this.timeoutOnIdle = timeoutOnIdle;
 	}
 
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		super.afterPropertiesSet();
+		IndexOperations indexOperations = this.mongoTemplate.indexOps(this.collectionName);
+		indexOperations.ensureIndex(new Index(MessageDocumentFields.GROUP_CREATED_TIME, Sort.Direction.ASC));
+		indexOperations.ensureIndex(new Index(MessageDocumentFields.LAST_MODIFIED_TIME, Sort.Direction.ASC));
+	}
+
 	@Override
 	public <T> Message<T> addMessage(Message<T> message) {
 		Assert.notNull(message, "'message' must not be null");
@@ -270,6 +280,25 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 		return messageGroups.iterator();
 	}
 
+	/**
+	 * Select the candidate groups with an indexed range query on the group creation
+	 * time (or the last modified time when {@code timeoutOnIdle}) of the documents.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		String field = isTimeoutOnIdle()
+				? MessageDocumentFields.LAST_MODIFIED_TIME
+				: MessageDocumentFields.GROUP_CREATED_TIME;
+		Query query = Query.query(Criteria.where(MessageDocumentFields.GROUP_ID).exists(true)
+				.and(field).lte(threshold));
+		List<MessageGroup> messageGroups = new ArrayList<>();
+		for (Object groupId : this.mongoTemplate.getCollection(this.collectionName)
+				.distinct(MessageDocumentFields.GROUP_ID, query.getQueryObject(), Object.class)) {
+			messageGroups.add(getMessageGroup(groupId));
+		}
+		return messageGroups;
+	}
+
 	@Override
 	public void registerMessageGroupExpiryCallback(MessageGroupCallback callback) {
 		this.expiryCallbacks.add(callback);
@@ -280,14 +309,8 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 	public int expireMessageGroups(long timeout) {
 		int count = 0;
 		long threshold = System.currentTimeMillis() - timeout;
-		for (MessageGroup group : this) {
-
-			long timestamp = group.getTimestamp();
-			if (this.isTimeoutOnIdle() && group.getLastModified() > 0) {
-				timestamp = group.getLastModified();
-			}
-
-			if (timestamp <= threshold) {
+		for (MessageGroup group : getMessageGroupsToExpire(threshold)) {
+			if (getExpiryTimestamp(group) <= threshold) {
 				count++;
 				expire(group);
 			}
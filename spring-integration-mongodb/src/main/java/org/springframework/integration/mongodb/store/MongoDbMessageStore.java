@@ -201,6 +201,10 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 		indexOperations.ensureIndex(new Index(GROUP_ID_KEY, Sort.Direction.ASC)
 				.on(GROUP_UPDATE_TIMESTAMP_KEY, Sort.Direction.DESC)
 				.on(SEQUENCE, Sort.Direction.DESC));
+
+		indexOperations.ensureIndex(new Index(GROUP_TIMESTAMP_KEY, Sort.Direction.ASC));
+
+		indexOperations.ensureIndex(new Index(GROUP_UPDATE_TIMESTAMP_KEY, Sort.Direction.ASC));
 	}
 
 	@Override
@@ -363,6 +367,22 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 		return messageGroups.iterator();
 	}
 
+	/**
+	 * Select the candidate groups with an indexed range query on the group timestamp
+	 * (or the group update timestamp when {@code timeoutOnIdle}) of the documents.
+	 */
+	@Override
+	protected Iterable<MessageGroup> getMessageGroupsToExpire(long threshold) {
+		String field = isTimeoutOnIdle() ? GROUP_UPDATE_TIMESTAMP_KEY : GROUP_TIMESTAMP_KEY;
+		Query query = Query.query(Criteria.where(GROUP_ID_KEY).exists(true).and(field).lte(threshold));
+		List<MessageGroup> messageGroups = new ArrayList<>();
+		for (Object groupId : this.template.getCollection(this.collectionName)
+				.distinct(GROUP_ID_KEY, query.getQueryObject(), Object.class)) {
+			messageGroups.add(getMessageGroup(groupId));
+		}
+		return messageGroups;
+	}
+
 	@Override
 	public Message<?> pollMessageFromGroup(final Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
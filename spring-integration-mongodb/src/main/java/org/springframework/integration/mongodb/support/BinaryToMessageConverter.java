@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2017 the original author or authors.
+ * Copyright 2016-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import org.bson.types.Binary;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.convert.ReadingConverter;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.CodecSerializer;
 import org.springframework.integration.support.converter.WhiteListDeserializingConverter;
 import org.springframework.messaging.Message;
 
@@ -31,7 +33,25 @@ import org.springframework.messaging.Message;
 @ReadingConverter
 public class BinaryToMessageConverter implements Converter<Binary, Message<?>> {
 
-	private final WhiteListDeserializingConverter deserializingConverter = new WhiteListDeserializingConverter();
+	private final WhiteListDeserializingConverter deserializingConverter;
+
+	/**
+	 * Construct an instance using Java serialization.
+	 */
+	public BinaryToMessageConverter() {
+		this.deserializingConverter = new WhiteListDeserializingConverter();
+	}
+
+	/**
+	 * Construct an instance using the provided {@link Codec} -
+	 * typically a {@link org.springframework.integration.codec.kryo.MessageStoreCodec}.
+	 * White list patterns do not apply to codecs.
+	 * @param codec the codec.
+	 * @since 5.1
+	 */
+	public BinaryToMessageConverter(Codec codec) {
+		this.deserializingConverter = new WhiteListDeserializingConverter(new CodecSerializer<>(codec, Message.class));
+	}
 
 	@Override
 	public Message<?> convert(Binary source) {
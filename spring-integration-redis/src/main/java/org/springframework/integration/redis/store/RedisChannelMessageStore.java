@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2018 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,8 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.redis.support.CodecRedisSerializer;
 import org.springframework.integration.store.ChannelMessageStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupFactory;
@@ -76,6 +78,18 @@ public class RedisChannelMessageStore implements ChannelMessageStore, BeanNameAw
 		this.redisTemplate.setValueSerializer(valueSerializer);
 	}
 
+	/**
+	 * Use a {@link Codec} - typically a
+	 * {@link org.springframework.integration.codec.kryo.MessageStoreCodec} - for the
+	 * {@link Message} instead of Java serialization.
+	 * @param codec the codec.
+	 * @since 5.1
+	 * @see CodecRedisSerializer
+	 */
+	public void setCodec(Codec codec) {
+		setValueSerializer(new CodecRedisSerializer(codec));
+	}
+
 	/**
 	 * Specify the {@link MessageGroupFactory} to create {@link MessageGroup} object where
 	 * it is necessary.
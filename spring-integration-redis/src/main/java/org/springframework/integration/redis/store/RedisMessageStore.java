@@ -16,16 +16,26 @@
 
 package org.springframework.integration.redis.store;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundValueOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.redis.support.CodecRedisSerializer;
 import org.springframework.integration.redis.util.RedisUtils;
 import org.springframework.integration.store.AbstractKeyValueMessageStore;
 import org.springframework.integration.store.MessageGroupStore;
@@ -33,7 +43,17 @@ import org.springframework.integration.store.MessageStore;
 import org.springframework.util.Assert;
 
 /**
- * Redis implementation of the key/value style {@link MessageStore} and {@link MessageGroupStore}
+ * Redis implementation of the key/value style {@link MessageStore} and {@link MessageGroupStore}.
+ * <p>
+ * When the {@link #setExpiryIndex(boolean) expiry index} is enabled, the group ids are
+ * also kept in a sorted set scored by the timestamp the group timeout is counted from,
+ * so that the due groups are found with a single {@code ZRANGEBYSCORE}.
+ * <p>
+ * When the {@link #setAppendOnlyMembership(boolean) append-only membership} is enabled,
+ * the message ids of each group are kept in a sorted set scored by a store-wide
+ * sequence, so adding to and removing from a group are single {@code ZADD} (in a script
+ * that skips the ids already in the group, keeping their position) and {@code ZREM}
+ * commands.
  *
  * @author Oleg Zhurakousky
  * @author Gary Russell
@@ -43,8 +63,44 @@ import org.springframework.util.Assert;
  */
 public class RedisMessageStore extends AbstractKeyValueMessageStore implements BeanClassLoaderAware {
 
+	/**
+	 * The suffix (after the prefix) of the sorted set key for the group expiry index.
+	 */
+	public static final String EXPIRY_INDEX_KEY = "GROUP_EXPIRY_INDEX";
+
+	/**
+	 * The prefix (after the store prefix) of the sorted set keys for the group membership.
+	 */
+	public static final String GROUP_MEMBERS_KEY_PREFIX = "GROUP_MEMBERS_";
+
+	/**
+	 * The suffix (after the prefix) of the key for the group membership sequence.
+	 */
+	public static final String GROUP_MEMBERS_SEQUENCE_KEY = "GROUP_MEMBERS_SEQUENCE";
+
+	private static final String ADD_TO_GROUP_SCRIPT =
+			"local sequence = tonumber(ARGV[1])\n" +
+					"local added = 0\n" +
+					"for i = 2, #ARGV do\n" +
+					"  if not redis.call('ZSCORE', KEYS[1], ARGV[i]) then\n" +
+					"    redis.call('ZADD', KEYS[1], sequence + i - 1, ARGV[i])\n" +
+					"    added = added + 1\n" +
+					"  end\n" +
+					"end\n" +
+					"return added";
+
+	private final RedisScript<Long> addToGroupScript = new DefaultRedisScript<>(ADD_TO_GROUP_SCRIPT, Long.class);
+
 	private final RedisTemplate<Object, Object> redisTemplate;
 
+	private final StringRedisTemplate indexTemplate;
+
+	private final String expiryIndexKey;
+
+	private final String groupMembersKeyPrefix;
+
+	private final String groupMembersSequenceKey;
+
 	private boolean valueSerializerSet;
 
 	/**
@@ -72,6 +128,10 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore implements B
 		this.redisTemplate.setKeySerializer(new StringRedisSerializer());
 		this.redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
 		this.redisTemplate.afterPropertiesSet();
+		this.indexTemplate = new StringRedisTemplate(connectionFactory);
+		this.expiryIndexKey = prefix + EXPIRY_INDEX_KEY;
+		this.groupMembersKeyPrefix = prefix + GROUP_MEMBERS_KEY_PREFIX;
+		this.groupMembersSequenceKey = prefix + GROUP_MEMBERS_SEQUENCE_KEY;
 	}
 
 	@Override
@@ -87,6 +147,18 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore implements B
 		this.valueSerializerSet = true;
 	}
 
+	/**
+	 * Use a {@link Codec} - typically a
+	 * {@link org.springframework.integration.codec.kryo.MessageStoreCodec} - for the stored values
+	 * instead of Java serialization.
+	 * @param codec the codec.
+	 * @since 5.1
+	 * @see CodecRedisSerializer
+	 */
+	public void setCodec(Codec codec) {
+		setValueSerializer(new CodecRedisSerializer(codec));
+	}
+
 	@Override
 	protected Object doRetrieve(Object id) {
 		Assert.notNull(id, "'id' must not be null");
@@ -157,6 +229,106 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore implements B
 		return this.redisTemplate.keys(keyPattern);
 	}
 
+	@Override
+	protected boolean isExpiryIndexSupported() {
+		return true;
+	}
+
+	@Override
+	protected void doAddToExpiryIndex(Object groupId, long timestamp) {
+		this.indexTemplate.opsForZSet().add(this.expiryIndexKey, groupId.toString(), timestamp);
+	}
+
+	@Override
+	protected void doRemoveFromExpiryIndex(Object groupId) {
+		this.indexTemplate.opsForZSet().remove(this.expiryIndexKey, groupId.toString());
+	}
+
+	@Override
+	protected Collection<?> doListGroupIdsToExpire(long threshold) {
+		return this.indexTemplate.opsForZSet().rangeByScore(this.expiryIndexKey, Double.NEGATIVE_INFINITY, threshold);
+	}
+
+	@Override
+	protected boolean isAppendOnlyMembershipSupported() {
+		return true;
+	}
+
+	@Override
+	protected void doAddToGroup(Object groupId, List<UUID> messageIds) {
+		if (messageIds.isEmpty()) {
+			return;
+		}
+		Long last = this.indexTemplate.opsForValue().increment(this.groupMembersSequenceKey, messageIds.size());
+		Object[] args = new Object[messageIds.size() + 1];
+		args[0] = String.valueOf(last - messageIds.size());
+		for (int i = 0; i < messageIds.size(); i++) {
+			args[i + 1] = messageIds.get(i).toString();
+		}
+		// a plain ZADD would move the ids already in the group to the end
+		this.indexTemplate.execute(this.addToGroupScript,
+				Collections.singletonList(this.groupMembersKeyPrefix + groupId), args);
+	}
+
+	@Override
+	protected void doRemoveFromGroup(Object groupId, Collection<UUID> messageIds) {
+		if (!messageIds.isEmpty()) {
+			this.indexTemplate.opsForZSet().remove(this.groupMembersKeyPrefix + groupId,
+					messageIds.stream().map(UUID::toString).toArray());
+		}
+	}
+
+	@Override
+	protected List<UUID> doListGroupMessageIds(Object groupId) {
+		return toMessageIds(this.indexTemplate.opsForZSet().range(this.groupMembersKeyPrefix + groupId, 0, -1));
+	}
+
+	@Override
+	protected UUID doGetFirstGroupMessageId(Object groupId) {
+		List<UUID> first =
+				toMessageIds(this.indexTemplate.opsForZSet().range(this.groupMembersKeyPrefix + groupId, 0, 0));
+		return first.isEmpty() ? null : first.get(0);
+	}
+
+	@Override
+	protected UUID doPollGroupMessageId(Object groupId) {
+		String key = this.groupMembersKeyPrefix + groupId;
+		while (true) {
+			Set<String> first = this.indexTemplate.opsForZSet().range(key, 0, 0);
+			if (first == null || first.isEmpty()) {
+				return null;
+			}
+			String messageId = first.iterator().next();
+			Long removed = this.indexTemplate.opsForZSet().remove(key, messageId);
+			// another consumer may have polled it meanwhile
+			if (removed != null && removed > 0) {
+				return UUID.fromString(messageId);
+			}
+		}
+	}
+
+	@Override
+	protected int doGetGroupMessageCount(Object groupId) {
+		Long count = this.indexTemplate.opsForZSet().zCard(this.groupMembersKeyPrefix + groupId);
+		return count != null ? count.intValue() : 0;
+	}
+
+	@Override
+	protected void doRemoveGroupMessageIds(Object groupId) {
+		this.indexTemplate.delete(this.groupMembersKeyPrefix + groupId);
+	}
+
+	private List<UUID> toMessageIds(Set<String> members) {
+		if (members == null || members.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<UUID> messageIds = new ArrayList<>(members.size());
+		for (String member : members) {
+			messageIds.add(UUID.fromString(member));
+		}
+		return messageIds;
+	}
+
 	private void rethrowAsIllegalArgumentException(SerializationException e) {
 		throw new IllegalArgumentException("If relying on the default RedisSerializer " +
 				"(JdkSerializationRedisSerializer) the Object must be Serializable. " +
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.redis.support;
+
+import java.io.IOException;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.integration.codec.Codec;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link RedisSerializer} that delegates to a {@link Codec}; the codec must write
+ * the concrete type with the value since values are decoded as {@link Object}, as the
+ * {@link org.springframework.integration.codec.kryo.MessageStoreCodec} does.
+ *
+ * @since 5.1
+ */
+public class CodecRedisSerializer implements RedisSerializer<Object> {
+
+	private static final byte[] EMPTY_ARRAY = new byte[0];
+
+	private final Codec codec;
+
+	public CodecRedisSerializer(Codec codec) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		this.codec = codec;
+	}
+
+	@Override
+	public byte[] serialize(Object object) throws SerializationException {
+		if (object == null) {
+			return EMPTY_ARRAY;
+		}
+		try {
+			return this.codec.encode(object);
+		}
+		catch (IOException e) {
+			throw new SerializationException("Cannot serialize", e);
+		}
+	}
+
+	@Override
+	public Object deserialize(byte[] bytes) throws SerializationException {
+		if (bytes == null || bytes.length == 0) {
+			return null;
+		}
+		try {
+			return this.codec.decode(bytes, Object.class);
+		}
+		catch (IOException e) {
+			throw new SerializationException("Cannot deserialize", e);
+		}
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.integration.redis.store;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
@@ -48,6 +49,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.codec.kryo.MessageStoreCodec;
 import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.message.AdviceMessage;
 import org.springframework.integration.redis.rules.RedisAvailable;
@@ -502,6 +504,86 @@ public class RedisMessageGroupStoreTests extends RedisAvailableTests {
 		assertEquals(fooMessage, messageGroup.getMessages().iterator().next());
 	}
 
+	@Test
+	@RedisAvailable
+	public void testAppendOnlyMembership() {
+		RedisConnectionFactory jcf = getConnectionFactoryForTest();
+		RedisMessageStore store = new RedisMessageStore(jcf);
+		store.setAppendOnlyMembership(true);
+
+		Message<?> message1 = new GenericMessage<>("1");
+		Message<?> message2 = new GenericMessage<>("2");
+		Message<?> message3 = new GenericMessage<>("3");
+		store.addMessagesToGroup(this.groupId, message1, message2);
+		store.addMessagesToGroup(this.groupId, message3);
+		assertEquals(3, store.messageGroupSize(this.groupId));
+		assertEquals(3, store.getGroupMetadata(this.groupId).size());
+
+		store.removeMessagesFromGroup(this.groupId, message2);
+		assertEquals(2, store.messageGroupSize(this.groupId));
+		assertEquals("1", store.getOneMessageFromGroup(this.groupId).getPayload());
+
+		// make sure the store is properly rebuild from Redis
+		store = new RedisMessageStore(jcf);
+		store.setAppendOnlyMembership(true);
+
+		MessageGroup messageGroup = store.getMessageGroup(this.groupId);
+		assertEquals(2, messageGroup.size());
+		assertEquals("1", store.pollMessageFromGroup(this.groupId).getPayload());
+		assertEquals("3", store.pollMessageFromGroup(this.groupId).getPayload());
+		assertNull(store.pollMessageFromGroup(this.groupId));
+
+		store.addMessagesToGroup(this.groupId, new GenericMessage<>("4"));
+		store.removeMessageGroup(this.groupId);
+		assertEquals(0, store.messageGroupSize(this.groupId));
+		StringRedisTemplate template = createStringRedisTemplate(jcf);
+		assertFalse(template.hasKey(RedisMessageStore.GROUP_MEMBERS_KEY_PREFIX + this.groupId));
+	}
+
+	@Test
+	@RedisAvailable
+	public void testAppendOnlyMembershipKeepsOrderOnReAdd() {
+		RedisConnectionFactory jcf = getConnectionFactoryForTest();
+		RedisMessageStore store = new RedisMessageStore(jcf);
+		store.setAppendOnlyMembership(true);
+
+		Message<?> message1 = new GenericMessage<>("1");
+		Message<?> message2 = new GenericMessage<>("2");
+		store.addMessagesToGroup(this.groupId, message1, message2);
+		store.addMessagesToGroup(this.groupId, message1);
+		assertEquals(2, store.messageGroupSize(this.groupId));
+		Iterator<Message<?>> messages = store.getMessageGroup(this.groupId).getMessages().iterator();
+		assertEquals("1", messages.next().getPayload());
+		assertEquals("2", messages.next().getPayload());
+		assertEquals("1", store.pollMessageFromGroup(this.groupId).getPayload());
+		assertEquals("2", store.pollMessageFromGroup(this.groupId).getPayload());
+		assertNull(store.pollMessageFromGroup(this.groupId));
+	}
+
+	@Test
+	@RedisAvailable
+	public void testCodec() {
+		RedisConnectionFactory jcf = getConnectionFactoryForTest();
+		RedisMessageStore store = new RedisMessageStore(jcf);
+		store.setCodec(new MessageStoreCodec());
+
+		// Foo is not Serializable
+		Message<?> message = MessageBuilder.withPayload(new Foo("foo")).setHeader("bar", "baz").build();
+		store.addMessagesToGroup(this.groupId, message);
+
+		store = new RedisMessageStore(jcf);
+		store.setCodec(new MessageStoreCodec());
+		MessageGroup messageGroup = store.getMessageGroup(this.groupId);
+		assertEquals(1, messageGroup.size());
+		Message<?> result = messageGroup.getOne();
+		assertEquals(message.getHeaders().getId(), result.getHeaders().getId());
+		assertEquals("foo", ((Foo) result.getPayload()).getFoo());
+		assertEquals("baz", result.getHeaders().get("bar"));
+
+		store.removeMessagesFromGroup(this.groupId, result);
+		assertEquals(0, store.messageGroupSize(this.groupId));
+	}
+
 	private static class Foo {
 
 		private String foo;